@@ -0,0 +1,368 @@
+package io.mosip.image.compressor.sdk.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of compressed outputs keyed by the SHA-256 digest of the
+ * input and of the compression profile, so that an input compressed before
+ * with the same settings costs a lookup instead of a decode, resize and encode.
+ * <p>
+ * The cache is a memory mapped segment file to which entries are only
+ * appended: the 32 byte key, the length of the output and the output. The
+ * offsets of the entries are kept in memory in least recently used order, and
+ * are rebuilt by reading the file when it is opened. When an entry would grow
+ * the file past its maximum size, the cache is compacted: the most recently
+ * used entries filling half of the maximum size are copied, least recently
+ * used first, to a temporary file, and then back to the start of the mapped
+ * file, which is never replaced while it is mapped. The other entries are
+ * evicted. The cache is emptied before the entries are copied back, so that an
+ * interrupted compaction leaves an empty cache rather than a corrupted one.
+ * </p>
+ * <p>
+ * The cache is used by one process at a time: the file is locked while it is
+ * open, and opening a file locked by another cache fails. Appended entries are
+ * written to the file by the operating system, {@link #force()} writes them
+ * synchronously. A mapping is limited to 2 GB.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * String key = OutputCache.key(record.getRecord(), profile);
+ * byte[] output = cache.get(key);
+ * if (output == null) {
+ *     output = compress(record);
+ *     cache.put(key, output);
+ * }
+ * }</pre>
+ * </p>
+ */
+public final class OutputCache implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(OutputCache.class);
+
+	private static final int MAGIC = 0x4d49434f; // "MICO"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	private static final int END_OFFSET = 8;
+	private static final int COUNT_OFFSET = 16;
+	private static final int KEY_SIZE = 32;
+	private static final int ENTRY_HEADER_SIZE = KEY_SIZE + 4;
+	private static final int MINIMUM_CAPACITY = 1 << 20;
+	private static final long MAXIMUM_SIZE = Integer.MAX_VALUE;
+	private static final HexFormat HEX = HexFormat.of();
+
+	private static final Map<Path, OutputCache> CACHES = new ConcurrentHashMap<>();
+
+	private final Path path;
+	private final int maxBytes;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int capacity;
+	private int end;
+	/** Offset of the entry of every key, least recently used first. */
+	private final LinkedHashMap<String, Integer> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/** Maximum sizes requested by {@link #forPath(String, long)} and ignored. */
+	private final Set<Long> ignoredSizes = ConcurrentHashMap.newKeySet();
+
+	private OutputCache(Path path, long maxBytes) throws IOException {
+		if (maxBytes <= HEADER_SIZE + ENTRY_HEADER_SIZE)
+			throw new IllegalArgumentException("Output cache size too small: " + maxBytes);
+		this.path = path;
+		this.maxBytes = (int) Math.min(MAXIMUM_SIZE, maxBytes);
+		map();
+		if (end > this.maxBytes)
+			compact(this.maxBytes / 2);
+	}
+
+	/**
+	 * Opens a cache, creating it if the file does not exist.
+	 *
+	 * @param path     The cache file.
+	 * @param maxBytes The maximum size of the file, at most 2 GB.
+	 * @return The cache, to be closed by the caller.
+	 * @throws IOException If the file cannot be opened, is not a cache or is
+	 *                     locked by another cache.
+	 */
+	public static OutputCache open(Path path, long maxBytes) throws IOException {
+		return new OutputCache(path, maxBytes);
+	}
+
+	/**
+	 * Returns the cache shared by the SDK for a path, opened once and kept open.
+	 * The maximum size given when the cache is first opened is kept, a different
+	 * size given later is logged once and ignored.
+	 *
+	 * @param path     The cache file.
+	 * @param maxBytes The maximum size of the file.
+	 * @return The cache.
+	 * @throws UncheckedIOException If the cache cannot be opened.
+	 */
+	public static OutputCache forPath(String path, long maxBytes) {
+		OutputCache cache = CACHES.computeIfAbsent(Paths.get(path.trim()).toAbsolutePath().normalize(), key -> {
+			try {
+				return open(key, maxBytes);
+			} catch (IOException ex) {
+				throw new UncheckedIOException("Output cache cannot be opened " + key, ex);
+			}
+		});
+		long requested = Math.min(MAXIMUM_SIZE, maxBytes);
+		if (requested != cache.maxBytes && cache.ignoredSizes.add(requested))
+			LOGGER.warn("Output Cache Details :: Maximum size {} ignored, {} opened with {}", requested, cache.path,
+					cache.maxBytes);
+		return cache;
+	}
+
+	/**
+	 * Returns the key of an input compressed with a profile.
+	 *
+	 * @param input   The input, from its position to its limit. The position is
+	 *                left unchanged.
+	 * @param profile The settings the output depends on.
+	 * @return The hexadecimal SHA-256 digest of the input and the profile.
+	 */
+	public static String key(ByteBuffer input, String profile) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(input.duplicate());
+			digest.update(profile.getBytes(StandardCharsets.UTF_8));
+			return HEX.formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+
+	private void map() throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		FileLock lock;
+		try {
+			lock = channel.tryLock();
+		} catch (OverlappingFileLockException ex) {
+			lock = null;
+		}
+		if (lock == null) {
+			channel.close();
+			throw new IOException("Output cache used by another process: " + path);
+		}
+		long size = channel.size();
+		int count = 0;
+		if (size == 0) {
+			end = HEADER_SIZE;
+		} else {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			channel.read(header, 0);
+			if (size < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+				channel.close();
+				throw new IOException("Not an output cache: " + path);
+			}
+			long used = header.getLong(END_OFFSET);
+			count = (int) header.getLong(COUNT_OFFSET);
+			if (used < HEADER_SIZE || used > Math.min(size, MAXIMUM_SIZE) || count < 0) {
+				channel.close();
+				throw new IOException("Corrupted output cache: " + path);
+			}
+			end = (int) used;
+		}
+		remap(Math.max(end, Math.min(maxBytes, MINIMUM_CAPACITY)));
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		scan(count);
+	}
+
+	/**
+	 * Rebuilds the offsets of the entries written before the end of the file.
+	 *
+	 * @param count The number of entries in the header.
+	 */
+	private void scan(int count) throws IOException {
+		entries.clear();
+		int offset = HEADER_SIZE;
+		while (offset < end) {
+			int length = offset + ENTRY_HEADER_SIZE <= end ? buffer.getInt(offset + KEY_SIZE) : -1;
+			if (length < 0 || (long) offset + ENTRY_HEADER_SIZE + length > end) {
+				channel.close();
+				throw new IOException("Corrupted output cache: " + path);
+			}
+			entries.put(keyAt(offset), offset);
+			offset += ENTRY_HEADER_SIZE + length;
+		}
+		writeHeader();
+		if (entries.size() != count)
+			LOGGER.warn("Output Cache Details :: {} entries found, {} expected in {}", entries.size(), count, path);
+	}
+
+	private void remap(int bytes) throws IOException {
+		capacity = bytes;
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+	}
+
+	/**
+	 * Looks up an output and marks it as recently used.
+	 *
+	 * @param key The key, see {@link #key(ByteBuffer, String)}.
+	 * @return A copy of the output, or null.
+	 */
+	public synchronized byte[] get(String key) {
+		Integer offset = entries.get(key);
+		if (offset == null)
+			return null;
+		byte[] data = new byte[buffer.getInt(offset + KEY_SIZE)];
+		buffer.get(offset + ENTRY_HEADER_SIZE, data);
+		return data;
+	}
+
+	/**
+	 * Appends an output, evicting the least recently used entries when the file
+	 * would grow past its maximum size. An output already cached, or larger than
+	 * half of the maximum size, is not appended.
+	 *
+	 * @param key  The key, see {@link #key(ByteBuffer, String)}.
+	 * @param data The output.
+	 * @return true if the output was appended.
+	 * @throws IOException              If the cache cannot be grown or compacted.
+	 * @throws IllegalArgumentException If the key is not a SHA-256 digest.
+	 */
+	public synchronized boolean put(String key, byte[] data) throws IOException {
+		if (key.length() != KEY_SIZE * 2)
+			throw new IllegalArgumentException("Not an output cache key: " + key);
+		long entrySize = (long) ENTRY_HEADER_SIZE + data.length;
+		if (entries.containsKey(key) || entrySize > (maxBytes - HEADER_SIZE) / 2)
+			return false;
+		if (end + entrySize > maxBytes)
+			compact((int) (maxBytes / 2 - entrySize));
+		if (end + entrySize > capacity)
+			remap((int) Math.min(maxBytes, Math.max(end + entrySize, capacity * 2L)));
+
+		int offset = end;
+		buffer.put(offset, HEX.parseHex(key));
+		buffer.putInt(offset + KEY_SIZE, data.length);
+		buffer.put(offset + ENTRY_HEADER_SIZE, data);
+		end += (int) entrySize;
+		entries.put(key, offset);
+		writeHeader();
+		return true;
+	}
+
+	/**
+	 * Rewrites the cache with the most recently used entries that fit in a size,
+	 * and evicts the others.
+	 *
+	 * @param bytes The size of the entries to keep.
+	 * @throws IOException If the cache cannot be rewritten.
+	 */
+	public synchronized void compact(int bytes) throws IOException {
+		List<Integer> offsets = new ArrayList<>(entries.values());
+		int first = offsets.size();
+		long kept = 0;
+		while (first > 0) {
+			long entrySize = ENTRY_HEADER_SIZE + (long) buffer.getInt(offsets.get(first - 1) + KEY_SIZE);
+			if (kept + entrySize > bytes)
+				break;
+			kept += entrySize;
+			first--;
+		}
+
+		Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+		try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			for (int index = first; index < offsets.size(); index++) {
+				int offset = offsets.get(index);
+				writeFully(out, buffer.slice(offset, ENTRY_HEADER_SIZE + buffer.getInt(offset + KEY_SIZE)));
+			}
+
+			int before = entries.size();
+			entries.clear();
+			end = HEADER_SIZE;
+			writeHeader();
+			buffer.force();
+
+			ByteBuffer region = buffer.slice(HEADER_SIZE, (int) kept);
+			while (region.hasRemaining())
+				if (out.read(region, region.position()) < 0)
+					throw new IOException("Output cache compaction truncated: " + compacted);
+			end = HEADER_SIZE + (int) kept;
+			scan(offsets.size() - first);
+			buffer.force();
+			LOGGER.info("Output Cache Details :: Evicted {} of {} entries", before - entries.size(), before);
+		} finally {
+			Files.deleteIfExists(compacted);
+		}
+	}
+
+	private static void writeFully(FileChannel out, ByteBuffer data) throws IOException {
+		while (data.hasRemaining())
+			out.write(data);
+	}
+
+	/**
+	 * Returns the number of cached outputs.
+	 *
+	 * @return The number of entries.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the size of the file in use, header included.
+	 *
+	 * @return The size in bytes.
+	 */
+	public synchronized long getUsedBytes() {
+		return end;
+	}
+
+	public int getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Writes the appended entries to the file.
+	 */
+	public synchronized void force() {
+		buffer.force();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel.isOpen()) {
+			buffer.force();
+			channel.close();
+		}
+		CACHES.remove(path.toAbsolutePath().normalize(), this);
+	}
+
+	private void writeHeader() {
+		buffer.putLong(END_OFFSET, end);
+		buffer.putLong(COUNT_OFFSET, entries.size());
+	}
+
+	private String keyAt(int offset) {
+		byte[] key = new byte[KEY_SIZE];
+		buffer.get(offset, key);
+		return HEX.formatHex(key);
+	}
+}
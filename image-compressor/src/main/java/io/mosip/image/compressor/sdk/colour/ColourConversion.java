@@ -0,0 +1,105 @@
+package io.mosip.image.compressor.sdk.colour;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Colour and bit depth conversions applied to the face image before it is
+ * encoded.
+ * <p>
+ * The OpenCV JPEG2000 encoder has a single rate for the whole image and no
+ * option to subsample the colour components. {@link #subsampleChroma(Mat)}
+ * gives the equivalent: the chroma of the image is reduced to half resolution
+ * and scaled back, so that the colour transform of the encoder leaves little
+ * detail in the chroma components and most of the bits go to the luma.
+ * </p>
+ */
+public final class ColourConversion {
+	private ColourConversion() {
+		throw new IllegalStateException("ColourConversion class");
+	}
+
+	/**
+	 * Converts the image to the channels of the colour mode. An alpha channel,
+	 * which the ISO record cannot describe, is dropped in every mode.
+	 *
+	 * @param image The image, 8 or 16 bit with 1, 3 or 4 channels.
+	 * @param mode  The colour mode.
+	 * @return The converted image, or the image itself when it already has the
+	 *         channels of the mode.
+	 */
+	public static Mat convert(Mat image, ColourMode mode) {
+		int channels = image.channels();
+		if (mode == ColourMode.GREY && channels != 1)
+			return convertColour(image, channels == 4 ? Imgproc.COLOR_BGRA2GRAY : Imgproc.COLOR_BGR2GRAY);
+		if (channels == 4)
+			return convertColour(image, Imgproc.COLOR_BGRA2BGR);
+		return image;
+	}
+
+	/**
+	 * Reduces a 16 bit image to 8 bits, stretching the range of sample values
+	 * used by the capture to the full 8 bit range. Captures with 10 or 12
+	 * significant bits keep all 256 output levels.
+	 *
+	 * @param image The image, with any number of channels.
+	 * @return The 8 bit image, or the image itself when it is not 16 bit.
+	 */
+	public static Mat toEightBit(Mat image) {
+		if (image.depth() != CvType.CV_16U)
+			return image;
+
+		Mat samples = image.reshape(1);
+		Core.MinMaxLocResult range = Core.minMaxLoc(samples);
+		double scale = 1.0 / 257;
+		double offset = 0;
+		if (range.maxVal > range.minVal) {
+			scale = 255 / (range.maxVal - range.minVal);
+			offset = -range.minVal * scale;
+		}
+		Mat eightBit = new Mat();
+		image.convertTo(eightBit, CvType.CV_8U, scale, offset);
+		return eightBit;
+	}
+
+	/**
+	 * Reduces the chroma of a colour image to half resolution in both directions,
+	 * as 4:2:0 subsampling, in place. The luma is unchanged. Images without three
+	 * colour channels are left unchanged.
+	 *
+	 * @param image The image, 8 or 16 bit with 3 channels.
+	 */
+	public static void subsampleChroma(Mat image) {
+		if (image.channels() != 3 || image.width() < 2 || image.height() < 2)
+			return;
+
+		Mat yCrCb = new Mat();
+		Imgproc.cvtColor(image, yCrCb, Imgproc.COLOR_BGR2YCrCb);
+		List<Mat> planes = new ArrayList<>(3);
+		Core.split(yCrCb, planes);
+		Mat half = new Mat();
+		for (int plane = 1; plane < 3; plane++) {
+			Imgproc.resize(planes.get(plane), half, new Size(0, 0), 0.5, 0.5, Imgproc.INTER_AREA);
+			Imgproc.resize(half, planes.get(plane), image.size(), 0, 0, Imgproc.INTER_LINEAR);
+		}
+		Core.merge(planes, yCrCb);
+		Imgproc.cvtColor(yCrCb, image, Imgproc.COLOR_YCrCb2BGR);
+
+		half.release();
+		for (Mat plane : planes)
+			plane.release();
+		yCrCb.release();
+	}
+
+	private static Mat convertColour(Mat image, int code) {
+		Mat converted = new Mat();
+		Imgproc.cvtColor(image, converted, code);
+		return converted;
+	}
+}
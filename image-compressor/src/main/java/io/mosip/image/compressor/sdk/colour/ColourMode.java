@@ -0,0 +1,40 @@
+package io.mosip.image.compressor.sdk.colour;
+
+/**
+ * The colour components of the encoded face image.
+ */
+public enum ColourMode {
+	/**
+	 * The channels of the source image are kept, except an alpha channel, which
+	 * the ISO record cannot describe. The default.
+	 */
+	UNCHANGED,
+	/**
+	 * Colour images are encoded with three channels, dropping any alpha channel,
+	 * and grey images are kept grey: the same channels as {@link #UNCHANGED}.
+	 */
+	RGB,
+	/**
+	 * Images are encoded with a single grey channel. At the same compression
+	 * ratio the encoded image is a third of the size of an RGB one, and the
+	 * resize and encode work on a third of the samples.
+	 */
+	GREY;
+
+	/**
+	 * Returns the mode with the given name, ignoring case.
+	 *
+	 * @param name The mode name, may be null.
+	 * @return The mode, {@link #UNCHANGED} when the name is null, blank or
+	 *         unknown.
+	 */
+	public static ColourMode of(String name) {
+		if (name != null) {
+			for (ColourMode mode : values()) {
+				if (mode.name().equalsIgnoreCase(name.trim()))
+					return mode;
+			}
+		}
+		return UNCHANGED;
+	}
+}
@@ -0,0 +1,39 @@
+package io.mosip.image.compressor.sdk.config;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Adapts a Spring {@link Environment} to {@link SdkSettings}, for the SDK
+ * created as a Spring component.
+ */
+public final class EnvironmentSdkSettings implements SdkSettings {
+	private final Environment env;
+
+	/**
+	 * Wraps the environment.
+	 *
+	 * @param env The Spring environment.
+	 */
+	public EnvironmentSdkSettings(Environment env) {
+		this.env = env;
+	}
+
+	/**
+	 * Wraps the environment, if there is one.
+	 *
+	 * @param env The Spring environment, may be null.
+	 * @return The settings, or null when the environment is null.
+	 */
+	public static SdkSettings of(Environment env) {
+		return env == null ? null : new EnvironmentSdkSettings(env);
+	}
+
+	@Override
+	public <T> T getProperty(String key, Class<T> type, T defaultValue) {
+		return env.getProperty(key, type, defaultValue);
+	}
+
+	public Environment getEnvironment() {
+		return env;
+	}
+}
@@ -0,0 +1,69 @@
+package io.mosip.image.compressor.sdk.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link SdkSettings} backed by a map of string values, converted on lookup.
+ */
+public final class MapSdkSettings implements SdkSettings {
+	private final Map<String, String> properties;
+
+	/**
+	 * Creates settings from a copy of the map.
+	 *
+	 * @param properties The configuration values by key, may be null.
+	 */
+	public MapSdkSettings(Map<String, String> properties) {
+		this.properties = properties == null ? Collections.emptyMap()
+				: Collections.unmodifiableMap(new HashMap<>(properties));
+	}
+
+	@Override
+	public <T> T getProperty(String key, Class<T> type, T defaultValue) {
+		String value = properties.get(key);
+		if (value == null)
+			return defaultValue;
+		return convert(value, type);
+	}
+
+	/**
+	 * Returns the configuration values.
+	 *
+	 * @return The unmodifiable map of values by key.
+	 */
+	public Map<String, String> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Converts a configuration value to the given type.
+	 *
+	 * @param <T>   The type of the value.
+	 * @param value The string value, leading and trailing white space is ignored.
+	 * @param type  The type to convert to (String, Boolean, Integer, Long, Float or
+	 *              Double).
+	 * @return The converted value.
+	 * @throws IllegalArgumentException If the value cannot be converted.
+	 */
+	public static <T> T convert(String value, Class<T> type) {
+		String trimmed = value.trim();
+		Object converted;
+		if (type == Boolean.class)
+			converted = Boolean.valueOf(trimmed);
+		else if (type == Integer.class)
+			converted = Integer.valueOf(trimmed);
+		else if (type == Long.class)
+			converted = Long.valueOf(trimmed);
+		else if (type == Float.class)
+			converted = Float.valueOf(trimmed);
+		else if (type == Double.class)
+			converted = Double.valueOf(trimmed);
+		else if (type == String.class)
+			converted = trimmed;
+		else
+			throw new IllegalArgumentException("Unsupported configuration type " + type.getName());
+		return type.cast(converted);
+	}
+}
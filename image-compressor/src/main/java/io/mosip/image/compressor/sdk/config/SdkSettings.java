@@ -0,0 +1,62 @@
+package io.mosip.image.compressor.sdk.config;
+
+import java.util.Map;
+
+/**
+ * Configuration of the SDK, the {@code mosip.bio.image.compressor.*} values
+ * listed in {@link io.mosip.image.compressor.sdk.constant.SdkConstant}.
+ * <p>
+ * The SDK services only depend on this interface, so that the SDK can be
+ * created without a Spring context. {@link #of(Map)} reads the values from a
+ * plain map, {@link EnvironmentSdkSettings} adapts a Spring
+ * {@code Environment}.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * SdkSettings settings = SdkSettings.of(Map.of(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, "40"));
+ * int ratio = settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, Integer.class, 50);
+ * }</pre>
+ * </p>
+ */
+public interface SdkSettings {
+	/**
+	 * Returns the value of a configuration key converted to the given type.
+	 *
+	 * @param <T>          The type of the value (String, Boolean, Integer, Long,
+	 *                     Float or Double).
+	 * @param key          The configuration key.
+	 * @param type         The expected type of the value.
+	 * @param defaultValue The value to return when the key is not configured.
+	 * @return The configured value, or the default value.
+	 * @throws IllegalArgumentException If the value cannot be converted.
+	 */
+	<T> T getProperty(String key, Class<T> type, T defaultValue);
+
+	/**
+	 * Returns settings that take the values of the overrides where they are
+	 * configured, and the values of these settings otherwise.
+	 *
+	 * @param overrides The settings overriding these settings.
+	 * @return The combined settings.
+	 */
+	default SdkSettings overriddenBy(SdkSettings overrides) {
+		SdkSettings base = this;
+		return new SdkSettings() {
+			@Override
+			public <T> T getProperty(String key, Class<T> type, T defaultValue) {
+				return overrides.getProperty(key, type, base.getProperty(key, type, defaultValue));
+			}
+		};
+	}
+
+	/**
+	 * Creates settings backed by a map of string values.
+	 *
+	 * @param properties The configuration values by key, may be null.
+	 * @return The settings.
+	 */
+	static SdkSettings of(Map<String, String> properties) {
+		return new MapSdkSettings(properties);
+	}
+}
@@ -72,6 +72,15 @@ public enum ResponseStatus {
 	 */
 	POOR_DATA_QUALITY(406, "Data provided is of poor quality"),
 
+	/**
+	 * Indicates that the request was abandoned before it completed.
+	 *
+	 * This status code (408) and message ("Request deadline exceeded") are used
+	 * when the deadline of the request passes, or the thread processing it is
+	 * interrupted, before every segment is processed.
+	 */
+	REQUEST_TIMEOUT(408, "Request deadline exceeded"),
+
 	/**
 	 * Indicates an unexpected error occurred on the server.
 	 *
@@ -98,12 +107,27 @@ public enum ResponseStatus {
 		return statusMessage;
 	}
 
+	/**
+	 * Returns the status with the given status code.
+	 *
+	 * @param code The status code.
+	 * @return The status, or {@link #UNKNOWN_ERROR} when no status has the code.
+	 */
 	public static ResponseStatus fromStatusCode(int code) {
-		for (ResponseStatus paramCode : ResponseStatus.values()) {
-			if (paramCode.getStatusCode() == code) {
-				return paramCode;
-			}
+		if (code < 0 || code >= StatusCodes.BY_CODE.length || StatusCodes.BY_CODE[code] == null)
+			return UNKNOWN_ERROR;
+		return StatusCodes.BY_CODE[code];
+	}
+
+	/**
+	 * Statuses indexed by status code, built once the constants exist.
+	 */
+	private static final class StatusCodes {
+		private static final ResponseStatus[] BY_CODE = new ResponseStatus[UNKNOWN_ERROR.statusCode + 1];
+
+		static {
+			for (ResponseStatus status : values())
+				BY_CODE[status.statusCode] = status;
 		}
-		return UNKNOWN_ERROR;
 	}
 }
\ No newline at end of file
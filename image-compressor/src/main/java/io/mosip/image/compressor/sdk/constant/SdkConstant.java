@@ -52,4 +52,307 @@ public class SdkConstant {
      * </p>
      */
 	public static final String IMAGE_COMPRESSOR_COMPRESSION_RATIO = "mosip.bio.image.compressor.compression.ratio";
-}
\ No newline at end of file
+	/**
+     * Configuration key for how the compression ratio is chosen.
+     * <p>
+     * The value is {@code fixed} (default), which uses {@code IMAGE_COMPRESSOR_COMPRESSION_RATIO} for every image,
+     * or {@code adaptive}, which predicts the ratio giving {@code IMAGE_COMPRESSOR_COMPRESSION_TARGET_PSNR} from
+     * the complexity of the resized image. Only applied by the {@code opencv} engine.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_COMPRESSION_MODE = "mosip.bio.image.compressor.compression.mode";
+	/**
+     * Configuration key for the quality targeted by the adaptive compression mode, as the PSNR in dB of the
+     * encoded image against the resized image.
+     * <p>
+     * The default value is 32.0.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_COMPRESSION_TARGET_PSNR = "mosip.bio.image.compressor.compression.target.psnr";
+	/**
+     * Configuration key for the path of the compression model used by the adaptive compression mode, as written
+     * by {@code CompressionCalibration}.
+     * <p>
+     * The default is empty, which uses the bundled model.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_COMPRESSION_MODEL = "mosip.bio.image.compressor.compression.model";
+	/**
+     * Configuration key for the engine resizing the face image.
+     * <p>
+     * The value is {@code opencv} (default, {@code Imgproc.resize} with {@code INTER_AREA}) or {@code java}, the
+     * pure Java area downscaler, vectorized when the JVM runs with {@code --add-modules jdk.incubator.vector}.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_RESIZE_ENGINE = "mosip.bio.image.compressor.resize.engine";
+	/**
+     * Configuration key for the engine decoding, resizing and encoding the face image.
+     * <p>
+     * The value is {@code opencv} (default) or {@code jai}, the pure Java engine using the JAI JPEG2000 codec. The
+     * {@code jai} engine is also used when the OpenCV native library cannot be loaded.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_ENGINE = "mosip.bio.image.compressor.engine";
+	/**
+     * Configuration key to crop the image to the token face region before it is resized.
+     * <p>
+     * The value is {@code true} or {@code false} (default).
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_FACE_CROP_ENABLED = "mosip.bio.image.compressor.face.crop.enabled";
+	/**
+     * Configuration key to run the bundled face detector when the ISO record has no eye landmarks.
+     * <p>
+     * The value is {@code true} (default) or {@code false}. Used only when the face crop is enabled.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_FACE_CROP_DETECTOR_ENABLED = "mosip.bio.image.compressor.face.crop.detector.enabled";
+	/**
+     * Configuration key for the colour components of the encoded face image. The ISO record header gets the
+     * matching image colour space.
+     * <p>
+     * The value is {@code unchanged} (default), {@code rgb} or {@code grey}. An alpha channel is dropped in every
+     * mode.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_COLOUR_MODE = "mosip.bio.image.compressor.colour.mode";
+	/**
+     * Configuration key to reduce 16 bit captures to 8 bits per sample, stretching the range of sample values
+     * used to the full 8 bit range.
+     * <p>
+     * The value is {@code true} or {@code false} (default). Only applied by the {@code opencv} engine, the
+     * {@code jai} engine always encodes 8 bits per sample.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_COLOUR_EIGHT_BIT_ENABLED = "mosip.bio.image.compressor.colour.eight.bit.enabled";
+	/**
+     * Configuration key to reduce the chroma of colour images to half resolution before encoding, the equivalent
+     * of 4:2:0 chroma subsampling for the JPEG2000 encoder.
+     * <p>
+     * The value is {@code true} or {@code false} (default). Only applied by the {@code opencv} engine.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_COLOUR_CHROMA_SUBSAMPLING_ENABLED = "mosip.bio.image.compressor.colour.chroma.subsampling.enabled";
+	/**
+     * Configuration key to enable the region of interest encoding, which blurs the background outside the face
+     * before the image is encoded so that the JPEG2000 encoder spends its bits on the face.
+     * <p>
+     * The value is {@code true} or {@code false} (default). Only applied by the {@code opencv} engine.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_ROI_ENABLED = "mosip.bio.image.compressor.roi.enabled";
+	/**
+     * Configuration key to locate the region of interest with the bundled face detector when the source ISO record
+     * has no eye landmarks.
+     * <p>
+     * The value is {@code true} (default) or {@code false}.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_ROI_DETECTOR_ENABLED = "mosip.bio.image.compressor.roi.detector.enabled";
+	/**
+     * Configuration key for the standard deviation of the Gaussian blur applied to the background, in pixels of
+     * the resized image.
+     * <p>
+     * The default value is 4.0. Zero or less disables the blur.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_ROI_BACKGROUND_SIGMA = "mosip.bio.image.compressor.roi.background.sigma";
+	/**
+     * Configuration key for the largest Hamming distance, out of 127 bits, between the face descriptors of two
+     * images that {@code match} reports as matched.
+     * <p>
+     * The default value is 24. A face compressed with the default settings is typically within 10 bits of its
+     * original, unrelated faces differ by about 64 bits.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_MATCH_THRESHOLD = "mosip.bio.image.compressor.match.threshold";
+	/**
+     * Configuration key for the number of face descriptors kept in memory by {@code match}, so that records seen
+     * before are not decoded again.
+     * <p>
+     * The default value is 10000. Zero disables the cache.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_MATCH_CACHE_SIZE = "mosip.bio.image.compressor.match.cache.size";
+	/**
+     * Configuration key for the file of the persistent face descriptor index used by {@code match}.
+     * <p>
+     * Descriptors are stored by segment ID, the BDB info index or else the BIR info index of the segment, and a
+     * gallery segment found in the index is matched without reading its image. The file is created if it does not
+     * exist. The default value is empty, no index.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_MATCH_INDEX_PATH = "mosip.bio.image.compressor.match.index.path";
+	/**
+     * Configuration key for the time in milliseconds after which a request is abandoned, typically given in the
+     * flags of a request.
+     * <p>
+     * The deadline bounds the wait for a turn under the latency scheduling profile, is checked before every segment
+     * and between the decode, resize and encode stages of a face, and the request is answered with the status
+     * {@code REQUEST_TIMEOUT}. The value 0 (default) sets no deadline.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_REQUEST_TIMEOUT_MS = "mosip.bio.image.compressor.request.timeout.ms";
+	/**
+     * Configuration key for the file of the persistent cache of compressed face ISO records used by
+     * {@code extractTemplate}.
+     * <p>
+     * Records are stored by the SHA-256 digest of the input record and of the settings the output depends on, and
+     * an input compressed before with the same settings is answered from the file. The file is created if it does
+     * not exist. The default value is empty, no cache.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_OUTPUT_CACHE_PATH = "mosip.bio.image.compressor.output.cache.path";
+	/**
+     * Configuration key for the maximum size in megabytes of the compressed output cache file.
+     * <p>
+     * The default value is 1024, the largest value is 2047. The least recently used records are evicted when it is
+     * reached.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_OUTPUT_CACHE_MAX_SIZE_MB = "mosip.bio.image.compressor.output.cache.max.size.mb";
+	/**
+     * Configuration key to encode large images as tiled JPEG2000, with the tiles encoded in parallel.
+     * <p>
+     * The value is {@code true} or {@code false} (default).
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_JP2_TILE_ENABLED = "mosip.bio.image.compressor.jp2.tile.enabled";
+	/**
+     * Configuration key for the JPEG2000 tile size in pixels.
+     * <p>
+     * The value is rounded up to a power of two of at least 128, the default is 512.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_JP2_TILE_SIZE = "mosip.bio.image.compressor.jp2.tile.size";
+	/**
+     * Configuration key for the number of threads encoding the JPEG2000 tiles.
+     * <p>
+     * The value 0 (default) uses the native threads per request of the scheduling profile.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_JP2_TILE_THREADS = "mosip.bio.image.compressor.jp2.tile.threads";
+	/**
+     * Configuration key for the scheduling profile of the native work, read at {@code init}.
+     * <p>
+     * The value is {@code default} (OpenCV sizes its own thread pool), {@code throughput} (many requests, each on
+     * one native thread) or {@code latency} (fewer requests, each with native parallelism).
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SCHEDULING_PROFILE = "mosip.bio.image.compressor.scheduling.profile";
+	/**
+     * Configuration key for the number of native threads per request of the latency profile, or the OpenCV
+     * thread count of the default profile.
+     * <p>
+     * The value 0 (default) uses the number of available processors, respectively the OpenCV default.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_NATIVE_THREADS = "mosip.bio.image.compressor.native.threads";
+	/**
+     * Configuration key for the number of requests running native work at the same time with the latency profile.
+     * <p>
+     * The value 0 (default) divides the available processors by the native threads per request.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_MAX_CONCURRENT_REQUESTS = "mosip.bio.image.compressor.scheduling.max.concurrent.requests";
+	/**
+     * System property for the directory caching the extracted OpenCV native library.
+     * <p>
+     * Read when the library is loaded, before the SDK configuration is available, so it must be given as a JVM
+     * system property or as the {@code MOSIP_BIO_IMAGE_COMPRESSOR_NATIVE_CACHE_DIR} environment variable. Defaults to
+     * {@code .cache/mosip-image-compressor} in the home directory of the user. The directory must not be writable by
+     * other users.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_NATIVE_CACHE_DIR = "mosip.bio.image.compressor.native.cache.dir";
+	/**
+     * Configuration key to compress a built-in synthetic face at {@code init}, so that class loading, JIT and codec
+     * initialization are done before the first request.
+     * <p>
+     * The value is {@code true} or {@code false} (default).
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_WARMUP_ENABLED = "mosip.bio.image.compressor.warmup.enabled";
+	/**
+     * Configuration key for the number of times the synthetic face is compressed by the warm-up.
+     * <p>
+     * The default is 3.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_WARMUP_ITERATIONS = "mosip.bio.image.compressor.warmup.iterations";
+	/**
+     * Configuration key for the port of the embedded HTTP server started by
+     * {@link io.mosip.image.compressor.sdk.server.CompressionServer}.
+     * <p>
+     * The default is 8090; 0 picks a free port.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SERVER_PORT = "mosip.bio.image.compressor.server.port";
+	/**
+     * Configuration key for the maximum number of concurrent HTTP requests compressed together as one batch.
+     * <p>
+     * The value 0 (default) uses the number of available processors.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SERVER_BATCH_SIZE = "mosip.bio.image.compressor.server.batch.size";
+	/**
+     * Configuration key for the time in milliseconds a batch waits for more requests after its first one.
+     * <p>
+     * The default is 2; 0 only batches the requests already waiting.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SERVER_BATCH_WINDOW_MS = "mosip.bio.image.compressor.server.batch.window.ms";
+	/**
+     * Configuration key for the number of HTTP requests waiting for a batch, beyond which requests are answered with
+     * {@code 503 Service Unavailable}.
+     * <p>
+     * The default is 1024.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SERVER_QUEUE_CAPACITY = "mosip.bio.image.compressor.server.queue.capacity";
+	/**
+     * Configuration key for the root directory of the work spool processed by
+     * {@link io.mosip.image.compressor.sdk.server.SpoolWorker}.
+     * <p>
+     * The directory is shared by all the workers, typically on a shared file system. It has no default.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SPOOL_DIR = "mosip.bio.image.compressor.spool.dir";
+	/**
+     * Configuration key for the number of work items a spool worker processes at the same time.
+     * <p>
+     * The value 0 (default) uses the number of available processors.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SPOOL_THREADS = "mosip.bio.image.compressor.spool.threads";
+	/**
+     * Configuration key for the time in milliseconds after which a claimed work item without heartbeat is
+     * returned to the inbox, the worker that claimed it being presumed dead.
+     * <p>
+     * The default is 60000. Heartbeats are sent every third of it.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SPOOL_LEASE_TIMEOUT_MS = "mosip.bio.image.compressor.spool.lease.timeout.ms";
+	/**
+     * Configuration key for the number of times a work item is attempted before it is moved to the dead letter
+     * directory.
+     * <p>
+     * The default is 3.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SPOOL_MAX_ATTEMPTS = "mosip.bio.image.compressor.spool.max.attempts";
+	/**
+     * Configuration key for the time in milliseconds a failed work item waits before it is attempted again.
+     * <p>
+     * The default is 5000.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SPOOL_RETRY_DELAY_MS = "mosip.bio.image.compressor.spool.retry.delay.ms";
+	/**
+     * Configuration key for the time in milliseconds an idle spool worker waits before it looks for work again.
+     * <p>
+     * The default is 500.
+     * </p>
+     */
+	public static final String IMAGE_COMPRESSOR_SPOOL_POLL_INTERVAL_MS = "mosip.bio.image.compressor.spool.poll.interval.ms";
+}
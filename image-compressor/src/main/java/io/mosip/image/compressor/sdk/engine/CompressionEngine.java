@@ -0,0 +1,44 @@
+package io.mosip.image.compressor.sdk.engine;
+
+import java.nio.ByteBuffer;
+
+import io.mosip.biometrics.util.face.LandmarkPoints;
+import io.mosip.image.compressor.sdk.service.EncodedFaceImage;
+
+/**
+ * Decodes, resizes and encodes a JPEG2000 face image.
+ * <p>
+ * Engines are configured when they are created, from the SDK settings, and
+ * are given the per-image values on each call. See
+ * {@link CompressionEngineType} for the available engines.
+ * </p>
+ */
+public interface CompressionEngine {
+	/**
+	 * Returns the engine type.
+	 *
+	 * @return The type.
+	 */
+	CompressionEngineType getType();
+
+	/**
+	 * Resizes and compresses a JPEG2000 image.
+	 *
+	 * @param jp2000Image The input JPEG2000 image data, from the position to the
+	 *                    limit of the buffer. The position is left unchanged.
+	 * @param landmarks   The landmark points of the source ISO record, used to
+	 *                    crop the image when the face crop is enabled, may be
+	 *                    null.
+	 * @param fx          The scale factor of the X-axis.
+	 * @param fy          The scale factor of the Y-axis.
+	 * @param compression The compression ratio, from 1 to 1000 as
+	 *                    {@code IMWRITE_JPEG2000_COMPRESSION_X1000}.
+	 * @return The encoded image, to be closed by the caller.
+	 * @throws io.mosip.image.compressor.sdk.exceptions.SDKException If the image
+	 *                                                               cannot be
+	 *                                                               decoded or
+	 *                                                               encoded.
+	 */
+	EncodedFaceImage compress(ByteBuffer jp2000Image, LandmarkPoints[] landmarks, float fx, float fy,
+			int compression);
+}
@@ -0,0 +1,60 @@
+package io.mosip.image.compressor.sdk.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+
+/**
+ * The engines that decode, resize and encode the face image.
+ */
+public enum CompressionEngineType {
+	/**
+	 * OpenCV with its native JPEG2000 codec. Supports every option of the SDK and
+	 * is the default.
+	 */
+	OPENCV,
+	/**
+	 * Pure Java engine using the JAI Image I/O JPEG2000 reader and writer and
+	 * {@link io.mosip.image.compressor.sdk.resize.AreaDownscaler}. It needs no
+	 * native library. The face crop uses the eye landmarks only, images are
+	 * encoded with 8 bits per sample and without tiling.
+	 */
+	JAI;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CompressionEngineType.class);
+
+	/**
+	 * Returns the engine with the given name, ignoring case.
+	 *
+	 * @param name The engine name, may be null.
+	 * @return The engine, {@link #OPENCV} when the name is null, blank or
+	 *         unknown.
+	 */
+	public static CompressionEngineType of(String name) {
+		if (name != null) {
+			for (CompressionEngineType type : values()) {
+				if (type.name().equalsIgnoreCase(name.trim()))
+					return type;
+			}
+		}
+		return OPENCV;
+	}
+
+	/**
+	 * Returns the engine to use for the configured name: {@link #JAI} when it is
+	 * configured or when the OpenCV native library cannot be loaded, which is
+	 * attempted only for {@link #OPENCV}.
+	 *
+	 * @param name The configured engine name, may be null.
+	 * @return The engine to use.
+	 */
+	public static CompressionEngineType resolve(String name) {
+		CompressionEngineType type = of(name);
+		if (type == OPENCV && !OpenCvNativeLoader.isAvailable()) {
+			LOGGER.debug("OpenCV is not available, falling back to the {} engine", JAI);
+			return JAI;
+		}
+		return type;
+	}
+}
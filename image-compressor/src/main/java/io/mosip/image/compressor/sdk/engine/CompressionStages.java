@@ -0,0 +1,38 @@
+package io.mosip.image.compressor.sdk.engine;
+
+/**
+ * Hooks of the service compressing a face into the stages of a
+ * {@link CompressionEngine}, so that every engine abandons a request at the
+ * same points and reports its stages in the same JFR events.
+ */
+public interface CompressionStages {
+	/** Stages of an image compressed outside a request: never abandoned. */
+	CompressionStages NONE = new CompressionStages() {
+		@Override
+		public void beforeStage(String stage) {
+			// nothing to abandon
+		}
+
+		@Override
+		public int getSegmentIndex() {
+			return -1;
+		}
+	};
+
+	/**
+	 * Called by the engine before it resizes and before it encodes an image.
+	 *
+	 * @param stage The stage about to start, {@code resize} or {@code encode}.
+	 * @throws io.mosip.image.compressor.sdk.exceptions.SDKException To abandon
+	 *                                                               the request.
+	 */
+	void beforeStage(String stage);
+
+	/**
+	 * Returns the index of the segment being compressed, reported by the JFR
+	 * events of the stages.
+	 *
+	 * @return The segment index, -1 when unknown.
+	 */
+	int getSegmentIndex();
+}
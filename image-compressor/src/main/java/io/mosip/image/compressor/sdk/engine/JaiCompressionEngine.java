@@ -0,0 +1,293 @@
+package io.mosip.image.compressor.sdk.engine;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jaiimageio.jpeg2000.J2KImageWriteParam;
+import com.github.jaiimageio.jpeg2000.impl.J2KImageReaderSpi;
+import com.github.jaiimageio.jpeg2000.impl.J2KImageWriterSpi;
+
+import io.mosip.biometrics.util.face.LandmarkPoints;
+import io.mosip.image.compressor.sdk.colour.ColourMode;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.exceptions.SDKException;
+import io.mosip.image.compressor.sdk.face.FaceRegionLocator;
+import io.mosip.image.compressor.sdk.jfr.EncodeEvent;
+import io.mosip.image.compressor.sdk.jfr.ImageDecodeEvent;
+import io.mosip.image.compressor.sdk.jfr.ResizeEvent;
+import io.mosip.image.compressor.sdk.resize.AreaDownscaler;
+import io.mosip.image.compressor.sdk.service.EncodedFaceImage;
+
+/**
+ * Pure Java {@link CompressionEngine}, for hosts where the OpenCV native
+ * library cannot be loaded.
+ * <p>
+ * The image is decoded and encoded with the JAI Image I/O JPEG2000 reader and
+ * writer, created directly rather than looked up through {@code ImageIO}, so
+ * that they are found in shaded jars as well. Downscaling uses
+ * {@link AreaDownscaler}, upscaling bilinear interpolation. The compression
+ * ratio is mapped to the JAI encoding rate in bits per pixel, so that the
+ * output has the size the OpenCV encoder gives for the same ratio.
+ * </p>
+ * <p>
+ * The face crop uses the eye landmarks of the source record; the face
+ * detector needs OpenCV and is not used. Images are encoded with 8 bits per
+ * sample, grey images and the {@link ColourMode#GREY} mode as one channel,
+ * other images as RGB.
+ * </p>
+ * <p>
+ * As with the OpenCV engine, the {@link CompressionStages} of the request are
+ * called before the resize and the encoding, and the decode, resize and encode
+ * stages emit the {@link ImageDecodeEvent}, {@link ResizeEvent} and
+ * {@link EncodeEvent} JFR events.
+ * </p>
+ */
+public final class JaiCompressionEngine implements CompressionEngine {
+	private static final Logger LOGGER = LoggerFactory.getLogger(JaiCompressionEngine.class);
+
+	private static final J2KImageReaderSpi READER_SPI = new J2KImageReaderSpi();
+	private static final J2KImageWriterSpi WRITER_SPI = new J2KImageWriterSpi();
+
+	private final boolean faceCrop;
+	private final ColourMode colourMode;
+	private final CompressionStages stages;
+
+	/**
+	 * Creates the engine, keeping the colour components of the images.
+	 *
+	 * @param faceCrop {@code true} to crop the image to the token face region
+	 *                 located from the eye landmarks.
+	 */
+	public JaiCompressionEngine(boolean faceCrop) {
+		this(faceCrop, ColourMode.UNCHANGED);
+	}
+
+	/**
+	 * Creates the engine.
+	 *
+	 * @param faceCrop   {@code true} to crop the image to the token face region
+	 *                   located from the eye landmarks.
+	 * @param colourMode The colour components of the encoded images. Alpha is
+	 *                   always dropped, as every image is encoded as grey or
+	 *                   RGB.
+	 */
+	public JaiCompressionEngine(boolean faceCrop, ColourMode colourMode) {
+		this(faceCrop, colourMode, CompressionStages.NONE);
+	}
+
+	/**
+	 * Creates the engine for a request.
+	 *
+	 * @param faceCrop   {@code true} to crop the image to the token face region
+	 *                   located from the eye landmarks.
+	 * @param colourMode The colour components of the encoded images.
+	 * @param stages     The hooks of the request into the stages.
+	 */
+	public JaiCompressionEngine(boolean faceCrop, ColourMode colourMode, CompressionStages stages) {
+		this.faceCrop = faceCrop;
+		this.colourMode = colourMode;
+		this.stages = stages;
+	}
+
+	@Override
+	public CompressionEngineType getType() {
+		return CompressionEngineType.JAI;
+	}
+
+	@Override
+	public EncodedFaceImage compress(ByteBuffer jp2000Image, LandmarkPoints[] landmarks, float fx, float fy,
+			int compression) {
+		try {
+			ImageDecodeEvent decodeEvent = new ImageDecodeEvent();
+			decodeEvent.begin();
+			BufferedImage decoded = decode(jp2000Image);
+			LOGGER.info("Orginal Image Details :: Width {} Height {} Total Size {}", decoded.getWidth(),
+					decoded.getHeight(), (decoded.getWidth() * decoded.getHeight()));
+			if (decodeEvent.shouldCommit()) {
+				decodeEvent.segmentIndex = stages.getSegmentIndex();
+				decodeEvent.inputBytes = jp2000Image.remaining();
+				decodeEvent.outputBytes = getPixelBytes(decoded);
+				decodeEvent.width = decoded.getWidth();
+				decodeEvent.height = decoded.getHeight();
+				decodeEvent.channels = decoded.getColorModel().getNumComponents();
+				decodeEvent.bitsPerSample = decoded.getColorModel().getComponentSize(0);
+				decodeEvent.colourMode = String.valueOf(colourMode);
+				decodeEvent.commit();
+			}
+
+			stages.beforeStage("resize");
+			ResizeEvent resizeEvent = new ResizeEvent();
+			resizeEvent.begin();
+			BufferedImage src = faceCrop ? cropToFaceRegion(decoded, landmarks) : decoded;
+			BufferedImage dst = resize(src, fx, fy);
+			if (colourMode == ColourMode.GREY)
+				dst = toGrey(dst);
+			LOGGER.info("Resized Image Details :: Width {} Height {} Total Size {}", dst.getWidth(), dst.getHeight(),
+					(dst.getWidth() * dst.getHeight()));
+			if (resizeEvent.shouldCommit()) {
+				resizeEvent.segmentIndex = stages.getSegmentIndex();
+				resizeEvent.inputBytes = getPixelBytes(src);
+				resizeEvent.outputBytes = getPixelBytes(dst);
+				resizeEvent.inputWidth = src.getWidth();
+				resizeEvent.inputHeight = src.getHeight();
+				resizeEvent.width = dst.getWidth();
+				resizeEvent.height = dst.getHeight();
+				resizeEvent.fx = fx;
+				resizeEvent.fy = fy;
+				resizeEvent.resizeEngine = "java";
+				resizeEvent.commit();
+			}
+
+			stages.beforeStage("encode");
+			EncodeEvent encodeEvent = new EncodeEvent();
+			encodeEvent.begin();
+			int channels = dst.getColorModel().getNumComponents();
+			byte[] encoded = encode(dst, compression);
+			if (encodeEvent.shouldCommit()) {
+				encodeEvent.segmentIndex = stages.getSegmentIndex();
+				encodeEvent.inputBytes = getPixelBytes(dst);
+				encodeEvent.outputBytes = encoded.length;
+				encodeEvent.width = dst.getWidth();
+				encodeEvent.height = dst.getHeight();
+				encodeEvent.channels = channels;
+				encodeEvent.compression = compression;
+				encodeEvent.compressionMode = "fixed";
+				encodeEvent.commit();
+			}
+			return new EncodedFaceImage(encoded, dst.getWidth(), dst.getHeight(), channels, CvType.CV_8U);
+		} catch (IOException ex) {
+			LOGGER.error("compress::error", ex);
+			ResponseStatus responseStatus = ResponseStatus.UNKNOWN_ERROR;
+			throw new SDKException(responseStatus, responseStatus.getStatusMessage(), ex);
+		}
+	}
+
+	/**
+	 * Decodes a JPEG2000 image.
+	 *
+	 * @param jp2000Image The image data, from the position to the limit of the
+	 *                    buffer. The position is left unchanged.
+	 * @return The decoded image.
+	 * @throws IOException If the image cannot be decoded.
+	 */
+	public static BufferedImage decode(ByteBuffer jp2000Image) throws IOException {
+		ByteBuffer view = jp2000Image.slice();
+		ByteArrayInputStream bytes;
+		if (view.hasArray()) {
+			bytes = new ByteArrayInputStream(view.array(), view.arrayOffset(), view.remaining());
+		} else {
+			byte[] copy = new byte[view.remaining()];
+			view.get(copy);
+			bytes = new ByteArrayInputStream(copy);
+		}
+
+		ImageReader reader = READER_SPI.createReaderInstance(null);
+		try (ImageInputStream in = new MemoryCacheImageInputStream(bytes)) {
+			reader.setInput(in, true, true);
+			BufferedImage image = reader.read(0);
+			if (image == null)
+				throw new IOException("JPEG2000 image could not be decoded");
+			return image;
+		} finally {
+			reader.dispose();
+		}
+	}
+
+	/**
+	 * Encodes an image as a lossy JPEG2000 file.
+	 *
+	 * @param image       The image to encode.
+	 * @param compression The compression ratio, from 1 to 1000 as
+	 *                    {@code IMWRITE_JPEG2000_COMPRESSION_X1000}.
+	 * @return The JP2 file.
+	 * @throws IOException If the image cannot be encoded.
+	 */
+	public static byte[] encode(BufferedImage image, int compression) throws IOException {
+		ImageWriter writer = WRITER_SPI.createWriterInstance(null);
+		J2KImageWriteParam param = (J2KImageWriteParam) writer.getDefaultWriteParam();
+		param.setLossless(false);
+		param.setFilter(J2KImageWriteParam.FILTER_97);
+		param.setEncodingRate(getEncodingRate(image.getColorModel().getNumComponents() * 8, compression));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ImageOutputStream ios = new MemoryCacheImageOutputStream(out)) {
+			writer.setOutput(ios);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Returns the encoding rate giving the compression of OpenCV, which encodes
+	 * {@code IMWRITE_JPEG2000_COMPRESSION_X1000} as a compression ratio of
+	 * {@code 1000 / compression}.
+	 *
+	 * @param bitsPerPixel The bits per pixel of the uncompressed image.
+	 * @param compression  The compression ratio, clamped to 1 to 1000.
+	 * @return The encoding rate in bits per pixel.
+	 */
+	public static double getEncodingRate(int bitsPerPixel, int compression) {
+		return bitsPerPixel * Math.min(Math.max(compression, 1), 1000) / 1000.0;
+	}
+
+	private static long getPixelBytes(BufferedImage image) {
+		return (long) image.getWidth() * image.getHeight() * image.getColorModel().getPixelSize() / 8;
+	}
+
+	private BufferedImage cropToFaceRegion(BufferedImage image, LandmarkPoints[] landmarks) {
+		Rect region = FaceRegionLocator.fromLandmarks(landmarks, new Size(image.getWidth(), image.getHeight()));
+		if (region == null) {
+			LOGGER.info("Face region not found, image is not cropped");
+			return image;
+		}
+		LOGGER.info("Cropped Image Details :: X {} Y {} Width {} Height {}", region.x, region.y, region.width,
+				region.height);
+		return image.getSubimage(region.x, region.y, region.width, region.height);
+	}
+
+	private static BufferedImage toGrey(BufferedImage image) {
+		if (image.getColorModel().getNumComponents() == 1)
+			return image;
+		BufferedImage grey = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+		Graphics2D graphics = grey.createGraphics();
+		graphics.drawImage(image, 0, 0, null);
+		graphics.dispose();
+		return grey;
+	}
+
+	private static BufferedImage resize(BufferedImage image, float fx, float fy) {
+		if (fx > 0 && fx <= 1 && fy > 0 && fy <= 1)
+			return AreaDownscaler.getInstance().resize(image, fx, fy);
+
+		int type = image.getColorModel().getNumComponents() == 1 ? BufferedImage.TYPE_BYTE_GRAY
+				: BufferedImage.TYPE_3BYTE_BGR;
+		BufferedImage resized = new BufferedImage(AreaDownscaler.scaledSize(image.getWidth(), fx),
+				AreaDownscaler.scaledSize(image.getHeight(), fy), type);
+		Graphics2D graphics = resized.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		graphics.drawImage(image, 0, 0, resized.getWidth(), resized.getHeight(), null);
+		graphics.dispose();
+		return resized;
+	}
+}
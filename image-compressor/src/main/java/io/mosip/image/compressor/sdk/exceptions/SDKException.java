@@ -1,10 +1,21 @@
 package io.mosip.image.compressor.sdk.exceptions;
 
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
 import io.mosip.kernel.core.exception.BaseUncheckedException;
 
 /**
  * Custom Exception Class in case of error occurred in services for Test Case.
- * 
+ * <p>
+ * The exception carries its {@link ResponseStatus}, so the status of the
+ * response does not have to be parsed back from the error code. Expected
+ * failures, such as invalid input, use the stackless exceptions returned by
+ * {@link #of(ResponseStatus)} and {@link #of(ResponseStatus, String)}, which do
+ * not capture a stack trace. They are created for every failure rather than
+ * shared, because a thrown exception is modified on its way up: exceptions
+ * closing the resources of a try-with-resources block are added to it as
+ * suppressed exceptions.
+ * </p>
+ *
  * @see io.mosip.kernel.core.exception.BaseUncheckedException
  * @author Janardhan B S
  * @since 1.0.0
@@ -15,25 +26,121 @@ public class SDKException extends BaseUncheckedException {
 	 */
 	private static final long serialVersionUID = 687991492884005033L;
 
+	/**
+	 * The status of the response
+	 */
+	private final ResponseStatus status;
+
 	/**
 	 * Constructor the initialize Handler exception
-	 * 
+	 *
 	 * @param errorCode    The error code for this exception
 	 * @param errorMessage The error message for this exception
 	 */
 	public SDKException(String errorCode, String errorMessage) {
 		super(errorMessage);
 		addInfo(errorCode, errorMessage);
+		this.status = toStatus(errorCode);
 	}
 
 	/**
 	 * Constructor the initialize Handler exception
-	 * 
+	 *
 	 * @param errorCode    The error code for this exception
 	 * @param errorMessage The error message for this exception
 	 * @param rootCause    the specified cause
 	 */
 	public SDKException(String errorCode, String errorMessage, Throwable rootCause) {
 		super(errorCode, errorMessage, rootCause);
+		this.status = toStatus(errorCode);
+	}
+
+	/**
+	 * Constructor the initialize Handler exception with the status of the
+	 * response, its status code being the error code
+	 *
+	 * @param status       The status of the response
+	 * @param errorMessage The error message for this exception
+	 */
+	public SDKException(ResponseStatus status, String errorMessage) {
+		super(errorMessage);
+		addInfo(String.valueOf(status.getStatusCode()), errorMessage);
+		this.status = status;
+	}
+
+	/**
+	 * Constructor the initialize Handler exception with the status of the
+	 * response, its status code being the error code
+	 *
+	 * @param status       The status of the response
+	 * @param errorMessage The error message for this exception
+	 * @param rootCause    the specified cause
+	 */
+	public SDKException(ResponseStatus status, String errorMessage, Throwable rootCause) {
+		super(String.valueOf(status.getStatusCode()), errorMessage, rootCause);
+		this.status = status;
+	}
+
+	/**
+	 * Returns a stackless exception of a status, with the status message.
+	 *
+	 * @param status The status of the response
+	 * @return The exception
+	 */
+	public static SDKException of(ResponseStatus status) {
+		return new StacklessSDKException(status, status.getStatusMessage());
+	}
+
+	/**
+	 * Returns a stackless exception of a status. It does not capture a stack
+	 * trace, which makes it cheap to throw for expected failures.
+	 *
+	 * @param status       The status of the response
+	 * @param errorMessage The error message for this exception
+	 * @return The exception
+	 */
+	public static SDKException of(ResponseStatus status, String errorMessage) {
+		return new StacklessSDKException(status, errorMessage);
+	}
+
+	/**
+	 * Returns the status of the response
+	 *
+	 * @return The status, {@link ResponseStatus#UNKNOWN_ERROR} when the error
+	 *         code is not a status code
+	 */
+	public ResponseStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Resolves the status of an error code, a status code or a status name.
+	 */
+	private static ResponseStatus toStatus(String errorCode) {
+		if (errorCode == null || errorCode.isEmpty())
+			return ResponseStatus.UNKNOWN_ERROR;
+		if (errorCode.length() <= 3 && errorCode.chars().allMatch(Character::isDigit))
+			return ResponseStatus.fromStatusCode(Integer.parseInt(errorCode));
+		for (ResponseStatus value : ResponseStatus.values()) {
+			if (value.name().equals(errorCode))
+				return value;
+		}
+		return ResponseStatus.UNKNOWN_ERROR;
+	}
+
+	/**
+	 * Exception without a stack trace
+	 */
+	private static final class StacklessSDKException extends SDKException {
+		private static final long serialVersionUID = -4102315724716935262L;
+
+		private StacklessSDKException(ResponseStatus status, String errorMessage) {
+			super(status, errorMessage);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
 	}
-}
\ No newline at end of file
+}
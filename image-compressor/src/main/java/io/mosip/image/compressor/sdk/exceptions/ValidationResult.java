@@ -0,0 +1,133 @@
+package io.mosip.image.compressor.sdk.exceptions;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+
+/**
+ * Result of a validation: the validated value, or the {@link ResponseStatus}
+ * of the failure with an optional detail.
+ * <p>
+ * Validations return a result instead of throwing, so that a request with
+ * invalid input is answered without creating an exception. The failures
+ * without detail are preallocated. {@link #orElseThrow()} turns a failure into
+ * a stackless {@link SDKException} where an exception is still needed.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * ValidationResult<FaceIsoRecord> faceRecord = readFaceIsoRecord(segment);
+ * if (!faceRecord.isValid()) {
+ *     setErrorResponse(faceRecord.getStatus(), response);
+ *     return response;
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @param <T> The type of the validated value.
+ */
+public final class ValidationResult<T> {
+	private static final ValidationResult<?>[] FAILURES = createFailures();
+
+	private final T value;
+	private final ResponseStatus status;
+	private final String detail;
+
+	private ValidationResult(T value, ResponseStatus status, String detail) {
+		this.value = value;
+		this.status = status;
+		this.detail = detail;
+	}
+
+	/**
+	 * Returns a successful result.
+	 *
+	 * @param <T>   The type of the value.
+	 * @param value The validated value.
+	 * @return The result.
+	 */
+	public static <T> ValidationResult<T> valid(T value) {
+		return new ValidationResult<>(value, ResponseStatus.SUCCESS, null);
+	}
+
+	/**
+	 * Returns the preallocated failure of a status.
+	 *
+	 * @param <T>    The type of the value.
+	 * @param status The status of the failure.
+	 * @return The result.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ValidationResult<T> invalid(ResponseStatus status) {
+		return (ValidationResult<T>) FAILURES[status.ordinal()];
+	}
+
+	/**
+	 * Returns a failure with a detail, for example the field found invalid.
+	 *
+	 * @param <T>    The type of the value.
+	 * @param status The status of the failure.
+	 * @param detail The detail of the failure.
+	 * @return The result.
+	 */
+	public static <T> ValidationResult<T> invalid(ResponseStatus status, String detail) {
+		return new ValidationResult<>(null, status, detail);
+	}
+
+	public boolean isValid() {
+		return status == ResponseStatus.SUCCESS;
+	}
+
+	/**
+	 * Returns the validated value.
+	 *
+	 * @return The value, null for a failure.
+	 */
+	public T getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns the status of the result.
+	 *
+	 * @return {@link ResponseStatus#SUCCESS}, or the status of the failure.
+	 */
+	public ResponseStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the detail of a failure.
+	 *
+	 * @return The detail, or null.
+	 */
+	public String getDetail() {
+		return detail;
+	}
+
+	/**
+	 * Returns the validated value, or throws the failure as a stackless
+	 * {@link SDKException}.
+	 *
+	 * @return The value.
+	 * @throws SDKException If the result is a failure.
+	 */
+	public T orElseThrow() {
+		if (isValid())
+			return value;
+		if (detail == null)
+			throw SDKException.of(status);
+		throw SDKException.of(status, status.getStatusMessage() + " " + detail);
+	}
+
+	@Override
+	public String toString() {
+		return isValid() ? "Valid " + value : "Invalid " + status + (detail != null ? " " + detail : "");
+	}
+
+	private static ValidationResult<?>[] createFailures() {
+		ResponseStatus[] values = ResponseStatus.values();
+		ValidationResult<?>[] failures = new ValidationResult<?>[values.length];
+		for (ResponseStatus value : values)
+			failures[value.ordinal()] = new ValidationResult<>(null, value, null);
+		return failures;
+	}
+}
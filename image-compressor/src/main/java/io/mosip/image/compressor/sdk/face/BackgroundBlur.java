@@ -0,0 +1,94 @@
+package io.mosip.image.compressor.sdk.face;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Region of interest encoding by pre-blurring the background.
+ * <p>
+ * The OpenCV JPEG2000 encoder has no region of interest option and spends the
+ * bits of the target rate evenly over the image. Blurring everything outside
+ * the face removes the background detail, so that the encoder spends most of
+ * the bits on the face: at the same compression ratio the face is encoded with
+ * a higher quality, or the ratio can be raised for the same face quality.
+ * </p>
+ * <p>
+ * The face is the ellipse inscribed in the central part of the token face
+ * region (see {@link FaceRegionLocator}), covering the head without the
+ * shoulders and the corners of the region. The edge of the ellipse is
+ * feathered with the blur itself so that it does not add a hard contour.
+ * </p>
+ */
+public final class BackgroundBlur {
+	/** Axes of the face ellipse, relative to the half size of the region. */
+	private static final double ELLIPSE_AXES_IN_REGION = 0.85;
+
+	private BackgroundBlur() {
+		throw new IllegalStateException("BackgroundBlur class");
+	}
+
+	/**
+	 * Blurs the image outside the face, in place.
+	 * <p>
+	 * 8 bit images are blended with a feathered mask, other depths are blurred
+	 * outside the ellipse with a hard edge.
+	 * </p>
+	 *
+	 * @param image      The image, 8 or 16 bit with any number of channels.
+	 * @param faceRegion The token face region, in the coordinates of the image.
+	 * @param sigma      The standard deviation of the Gaussian blur, in pixels.
+	 */
+	public static void apply(Mat image, Rect faceRegion, double sigma) {
+		if (sigma <= 0 || faceRegion.width <= 0 || faceRegion.height <= 0)
+			return;
+
+		Mat blurred = new Mat();
+		Imgproc.GaussianBlur(image, blurred, new Size(0, 0), sigma);
+
+		Mat weights = Mat.zeros(image.size(), CvType.CV_32FC1);
+		Point center = new Point(faceRegion.x + faceRegion.width / 2.0, faceRegion.y + faceRegion.height / 2.0);
+		Size axes = new Size(faceRegion.width / 2.0 * ELLIPSE_AXES_IN_REGION,
+				faceRegion.height / 2.0 * ELLIPSE_AXES_IN_REGION);
+		Imgproc.ellipse(weights, center, axes, 0, 0, 360, new Scalar(1), -1);
+
+		if (image.depth() == CvType.CV_8U) {
+			Imgproc.GaussianBlur(weights, weights, new Size(0, 0), sigma);
+			Mat inverse = new Mat();
+			Core.subtract(Mat.ones(image.size(), CvType.CV_32FC1), weights, inverse);
+			Mat blended = new Mat();
+			Imgproc.blendLinear(image, blurred, weights, inverse, blended);
+			blended.copyTo(image);
+			blended.release();
+			inverse.release();
+		} else {
+			Mat background = new Mat();
+			Core.compare(weights, new Scalar(0.5), background, Core.CMP_LT);
+			blurred.copyTo(image, background);
+			background.release();
+		}
+		weights.release();
+		blurred.release();
+	}
+
+	/**
+	 * Maps a region of the source image onto the resized image.
+	 *
+	 * @param region The region in the source image.
+	 * @param fx     The scale factor of the X-axis.
+	 * @param fy     The scale factor of the Y-axis.
+	 * @return The region in the resized image.
+	 */
+	public static Rect scale(Rect region, double fx, double fy) {
+		int x0 = (int) Math.floor(region.x * fx);
+		int y0 = (int) Math.floor(region.y * fy);
+		int x1 = (int) Math.ceil((region.x + region.width) * fx);
+		int y1 = (int) Math.ceil((region.y + region.height) * fy);
+		return new Rect(x0, y0, x1 - x0, y1 - y0);
+	}
+}
@@ -0,0 +1,275 @@
+package io.mosip.image.compressor.sdk.face;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfRect;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.objdetect.CascadeClassifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.mosip.biometrics.util.face.LandmarkPointType;
+import io.mosip.biometrics.util.face.LandmarkPoints;
+
+/**
+ * Locates the token face region of a face image.
+ * <p>
+ * The region follows the ISO/IEC 19794-5 token face geometry: the image is four
+ * eye distances wide, its height is the width divided by 0.75 and the eye line
+ * lies 0.6 widths below the top edge. The eye centres are taken from the MPEG4
+ * feature points (12.1 and 12.2) of the source ISO record. When the record
+ * carries no usable landmarks the bundled LBP frontal face cascade is run on a
+ * downscaled grey copy of the image and the eye positions are estimated from
+ * the detected face box.
+ * </p>
+ * <p>
+ * The returned rectangles are always clamped to the image bounds.
+ * </p>
+ */
+public final class FaceRegionLocator {
+	private static final Logger LOGGER = LoggerFactory.getLogger(FaceRegionLocator.class);
+
+	/** Classpath location of the bundled face detector. */
+	public static final String FACE_CASCADE_RESOURCE = "/cascades/lbpcascade_frontalface_improved.xml";
+
+	/** MPEG4 feature point 12.1, centre of the left eye. */
+	private static final int MPEG4_LEFT_EYE_CENTER = 0xC1;
+	/** MPEG4 feature point 12.2, centre of the right eye. */
+	private static final int MPEG4_RIGHT_EYE_CENTER = 0xC2;
+
+	/** Token face width expressed in eye distances. */
+	private static final double TOKEN_WIDTH_IN_EYE_DISTANCES = 4.0;
+	/** Token face width to height ratio. */
+	private static final double TOKEN_ASPECT_RATIO = 0.75;
+	/** Distance of the eye line from the top edge, expressed in token widths. */
+	private static final double TOKEN_EYE_LINE_IN_WIDTHS = 0.6;
+
+	/** Eye distance of a detected face, expressed in face box widths. */
+	private static final double DETECTOR_EYE_DISTANCE_IN_WIDTHS = 0.4;
+	/** Eye line of a detected face, expressed in face box heights. */
+	private static final double DETECTOR_EYE_LINE_IN_HEIGHTS = 0.4;
+	/** Longest side of the downscaled copy used for detection. */
+	private static final int DETECTOR_MAX_SIDE = 320;
+
+	private static final ThreadLocal<CascadeClassifier> DETECTOR = ThreadLocal
+			.withInitial(FaceRegionLocator::loadDetector);
+
+	private FaceRegionLocator() {
+		throw new IllegalStateException("FaceRegionLocator class");
+	}
+
+	/**
+	 * Locates the token face region of the image.
+	 *
+	 * @param image       The decoded face image.
+	 * @param landmarks   The landmark points of the source ISO record, may be
+	 *                    null.
+	 * @param useDetector Whether the face detector is run when the landmarks do
+	 *                    not give the eye positions.
+	 * @return The token face region, or null when the face could not be located.
+	 */
+	public static Rect locate(Mat image, LandmarkPoints[] landmarks, boolean useDetector) {
+		Rect region = fromLandmarks(landmarks, image.size());
+		if (region == null && useDetector)
+			region = detect(image);
+		return region;
+	}
+
+	/**
+	 * Computes the token face region from the eye centre feature points.
+	 *
+	 * @param landmarks The landmark points of the source ISO record, may be null.
+	 * @param imageSize The size of the image the landmarks refer to.
+	 * @return The token face region, or null when both eye centres are not
+	 *         present.
+	 */
+	public static Rect fromLandmarks(LandmarkPoints[] landmarks, Size imageSize) {
+		if (landmarks == null)
+			return null;
+
+		LandmarkPoints leftEye = null;
+		LandmarkPoints rightEye = null;
+		for (LandmarkPoints point : landmarks) {
+			if (point == null || point.getLandmarkPointType() != LandmarkPointType.MPEG4_FEATURE)
+				continue;
+			if (point.getLandmarkPointCode() == MPEG4_LEFT_EYE_CENTER)
+				leftEye = point;
+			else if (point.getLandmarkPointCode() == MPEG4_RIGHT_EYE_CENTER)
+				rightEye = point;
+		}
+		if (leftEye == null || rightEye == null)
+			return null;
+
+		double eyeDistance = Math.hypot((double) leftEye.getXCoordinate() - rightEye.getXCoordinate(),
+				(double) leftEye.getYCoordinate() - rightEye.getYCoordinate());
+		double eyeMidX = (leftEye.getXCoordinate() + rightEye.getXCoordinate()) / 2.0;
+		double eyeMidY = (leftEye.getYCoordinate() + rightEye.getYCoordinate()) / 2.0;
+		return tokenRegion(eyeMidX, eyeMidY, eyeDistance, imageSize);
+	}
+
+	/**
+	 * Detects the largest frontal face with the bundled cascade and derives the
+	 * token face region from it.
+	 *
+	 * @param image The decoded face image (8 or 16 bit, 1, 3 or 4 channels).
+	 * @return The token face region, or null when no face was detected.
+	 */
+	public static Rect detect(Mat image) {
+		Rect face = detectLargestFace(image);
+		if (face == null)
+			return null;
+		return fromFaceBox(face, image.size());
+	}
+
+	/**
+	 * Derives the token face region from a face box found by the detector, the
+	 * eye positions being estimated from the box.
+	 *
+	 * @param face      The face box, see {@link #detectFaces(Mat)}.
+	 * @param imageSize The size of the image the box refers to.
+	 * @return The token face region, or null when it is empty.
+	 */
+	public static Rect fromFaceBox(Rect face, Size imageSize) {
+		double eyeDistance = face.width * DETECTOR_EYE_DISTANCE_IN_WIDTHS;
+		double eyeMidX = face.x + face.width / 2.0;
+		double eyeMidY = face.y + face.height * DETECTOR_EYE_LINE_IN_HEIGHTS;
+		return tokenRegion(eyeMidX, eyeMidY, eyeDistance, imageSize);
+	}
+
+	/**
+	 * Detects the largest frontal face of the image with the bundled cascade.
+	 *
+	 * @param image The decoded face image (8 or 16 bit, 1, 3 or 4 channels).
+	 * @return The face box in image coordinates, or null when no face was
+	 *         detected.
+	 */
+	public static Rect detectLargestFace(Mat image) {
+		Rect[] faces = detectFaces(image);
+		Rect largest = null;
+		for (Rect face : faces) {
+			if (largest == null || face.area() > largest.area())
+				largest = face;
+		}
+		return largest;
+	}
+
+	/**
+	 * Detects the frontal faces of the image with the bundled cascade. The
+	 * detection runs on a downscaled grey copy of the image.
+	 *
+	 * @param image The decoded face image (8 or 16 bit, 1, 3 or 4 channels).
+	 * @return The face boxes in image coordinates, empty when no face was
+	 *         detected.
+	 */
+	public static Rect[] detectFaces(Mat image) {
+		double scale = Math.min(1.0, (double) DETECTOR_MAX_SIDE / Math.max(image.width(), image.height()));
+		Mat grey = toGrey(image);
+		Mat small = new Mat();
+		try {
+			if (scale < 1.0)
+				Imgproc.resize(grey, small, new Size(0, 0), scale, scale, Imgproc.INTER_AREA);
+			else
+				grey.copyTo(small);
+			Imgproc.equalizeHist(small, small);
+
+			MatOfRect detections = new MatOfRect();
+			int minSide = Math.max(24, Math.min(small.width(), small.height()) / 8);
+			DETECTOR.get().detectMultiScale(small, detections, 1.1, 3, 0, new Size(minSide, minSide), new Size());
+			Rect[] faces = detections.toArray();
+			detections.release();
+
+			for (int index = 0; index < faces.length; index++) {
+				Rect face = faces[index];
+				faces[index] = new Rect((int) Math.round(face.x / scale), (int) Math.round(face.y / scale),
+						(int) Math.round(face.width / scale), (int) Math.round(face.height / scale));
+			}
+			LOGGER.debug("detectFaces :: {} face(s) found at scale {}", faces.length, scale);
+			return faces;
+		} finally {
+			grey.release();
+			small.release();
+		}
+	}
+
+	/**
+	 * Builds the token face region for the given eye positions, clamped to the
+	 * image bounds.
+	 *
+	 * @param eyeMidX     The x coordinate of the midpoint between the eyes.
+	 * @param eyeMidY     The y coordinate of the midpoint between the eyes.
+	 * @param eyeDistance The distance between the eye centres.
+	 * @param imageSize   The size of the image.
+	 * @return The clamped token face region, or null when it is empty.
+	 */
+	public static Rect tokenRegion(double eyeMidX, double eyeMidY, double eyeDistance, Size imageSize) {
+		if (eyeDistance <= 0)
+			return null;
+
+		double width = eyeDistance * TOKEN_WIDTH_IN_EYE_DISTANCES;
+		double height = width / TOKEN_ASPECT_RATIO;
+		double left = eyeMidX - width / 2.0;
+		double top = eyeMidY - width * TOKEN_EYE_LINE_IN_WIDTHS;
+
+		int x0 = (int) Math.max(0, Math.floor(left));
+		int y0 = (int) Math.max(0, Math.floor(top));
+		int x1 = (int) Math.min(imageSize.width, Math.ceil(left + width));
+		int y1 = (int) Math.min(imageSize.height, Math.ceil(top + height));
+		if (x1 <= x0 || y1 <= y0)
+			return null;
+		return new Rect(x0, y0, x1 - x0, y1 - y0);
+	}
+
+	private static Mat toGrey(Mat image) {
+		Mat grey = new Mat();
+		switch (image.channels()) {
+		case 3:
+			Imgproc.cvtColor(image, grey, Imgproc.COLOR_BGR2GRAY);
+			break;
+		case 4:
+			Imgproc.cvtColor(image, grey, Imgproc.COLOR_BGRA2GRAY);
+			break;
+		default:
+			image.copyTo(grey);
+			break;
+		}
+		if (grey.depth() != CvType.CV_8U)
+			grey.convertTo(grey, CvType.CV_8U, grey.depth() == CvType.CV_16U ? 1.0 / 257.0 : 1.0);
+		return grey;
+	}
+
+	private static CascadeClassifier loadDetector() {
+		CascadeClassifier classifier = new CascadeClassifier(CascadeFileHolder.PATH.toString());
+		if (classifier.empty())
+			throw new IllegalStateException("Face detector could not be loaded " + FACE_CASCADE_RESOURCE);
+		return classifier;
+	}
+
+	/**
+	 * OpenCV reads the cascade from the file system only, the bundled resource is
+	 * extracted once per JVM and shared by the per thread classifiers.
+	 */
+	private static final class CascadeFileHolder {
+		private static final Path PATH = extract();
+
+		private static Path extract() {
+			try (InputStream in = FaceRegionLocator.class.getResourceAsStream(FACE_CASCADE_RESOURCE)) {
+				if (in == null)
+					throw new IllegalStateException("Face detector not found " + FACE_CASCADE_RESOURCE);
+				Path file = Files.createTempFile("face-cascade", ".xml");
+				file.toFile().deleteOnExit();
+				Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+				return file;
+			} catch (IOException ex) {
+				throw new IllegalStateException("Face detector could not be extracted " + FACE_CASCADE_RESOURCE, ex);
+			}
+		}
+	}
+}
@@ -8,9 +8,12 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import io.mosip.image.compressor.sdk.config.EnvironmentSdkSettings;
 import io.mosip.image.compressor.sdk.constant.ResponseStatus;
 import io.mosip.image.compressor.sdk.service.ImageCompressionService;
 import io.mosip.image.compressor.sdk.service.SDKInfoService;
+import io.mosip.image.compressor.sdk.service.SchedulingService;
+import io.mosip.image.compressor.sdk.service.SegmentationService;
 import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.entities.BiometricRecord;
 import io.mosip.kernel.biometrics.model.MatchDecision;
@@ -69,14 +72,16 @@ public class ImageCompressorSDK implements IBioApi
 	private static final String ERROR_NOT_IMPLEMENTED = "Sorry! Method functionality not implemented...";
 
 	 /**
-     * Initializes the SDK with the provided initialization parameters.
+     * Initializes the SDK with the provided initialization parameters and applies
+     * the configured native scheduling profile.
      *
      * @param initParams The initialization parameters for the SDK.
      * @return Information about the initialized SDK.
      */
 	@Override
 	public SDKInfo init(Map<String, String> initParams) {
-		SDKInfoService service = new SDKInfoService(env, API_VERSION, "sample1", "sample2", "sample3");	
+		new SchedulingService(EnvironmentSdkSettings.of(env), initParams).configure();
+		SDKInfoService service = new SDKInfoService(EnvironmentSdkSettings.of(env), API_VERSION, "sample1", "sample2", "sample3");	
 		return service.getSDKInfo();
 	}
 
@@ -130,8 +135,8 @@ public class ImageCompressorSDK implements IBioApi
 	@Override
 	public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
 			Map<String, String> flags) {
-		ImageCompressionService service = new ImageCompressionService(env, sample, modalitiesToExtract, flags);
-		return service.getExtractTemplateInfo();
+		ImageCompressionService service = new ImageCompressionService(EnvironmentSdkSettings.of(env), sample, modalitiesToExtract, flags);
+		return service.runScheduled(service::getExtractTemplateInfo);
 	}
 
 	 /**
@@ -145,12 +150,8 @@ public class ImageCompressorSDK implements IBioApi
 	@Override
 	public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
 			Map<String, String> flags) {
-		Response<BiometricRecord> response = new Response<>();
-		response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
-		response.setStatusMessage(String.format(ResponseStatus.UNKNOWN_ERROR.getStatusMessage(),
-				ERROR_NOT_IMPLEMENTED));
-		response.setResponse(null);
-		return response;
+		SegmentationService service = new SegmentationService(EnvironmentSdkSettings.of(env), sample, modalitiesToSegment, flags);
+		return service.runScheduled(service::getSegmentInfo);
 	}
 
 	/**
@@ -1,5 +1,6 @@
 package io.mosip.image.compressor.sdk.impl;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -8,9 +9,16 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import io.mosip.image.compressor.sdk.config.EnvironmentSdkSettings;
+import io.mosip.image.compressor.sdk.config.SdkSettings;
 import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
 import io.mosip.image.compressor.sdk.service.ImageCompressionService;
+import io.mosip.image.compressor.sdk.service.MatchService;
 import io.mosip.image.compressor.sdk.service.SDKInfoService;
+import io.mosip.image.compressor.sdk.service.SchedulingService;
+import io.mosip.image.compressor.sdk.service.SegmentationService;
+import io.mosip.image.compressor.sdk.service.WarmupService;
 import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.entities.BiometricRecord;
 import io.mosip.kernel.biometrics.model.MatchDecision;
@@ -50,9 +58,13 @@ import io.mosip.kernel.biometrics.spi.IBioApiV2;
  * configuration and initialization within the SDK.
  * </p>
  * <p>
+ * Without Spring, the SDK is created by the {@link Builder} from a map or from
+ * {@link SdkSettings}, and no Spring context is started.
+ * </p>
+ * <p>
  * Example usage:
  * <pre>{@code
- * ImageCompressorSDKV2 sdk = new ImageCompressorSDKV2();
+ * ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withCompressionRatio(40).build();
  * SDKInfo sdkInfo = sdk.init(initParams);
  * Response<BiometricRecord> response = sdk.extractTemplate(sample, modalitiesToExtract, flags);
  * }</pre>
@@ -72,18 +84,50 @@ public class ImageCompressorSDKV2 implements IBioApiV2 {
 	@Autowired
 	private Environment env;
 
+	/** The settings given to the builder, taking precedence over the environment. */
+	private SdkSettings settings;
+
 	private static final String API_VERSION = "0.9";
 	private static final String ERROR_NOT_IMPLEMENTED = "Sorry! Method functionality not implemented...";
 
+	/**
+	 * Creates the SDK reading its configuration from the Spring environment.
+	 */
+	public ImageCompressorSDKV2() {
+		super();
+	}
+
+	/**
+	 * Creates the SDK with the given configuration, without Spring.
+	 *
+	 * @param settings The configuration of the SDK.
+	 */
+	public ImageCompressorSDKV2(SdkSettings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * Returns a builder creating the SDK without Spring.
+	 *
+	 * @return The builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
 	 /**
-     * Initializes the SDK with the provided initialization parameters.
+     * Initializes the SDK with the provided initialization parameters, applies
+     * the configured native scheduling profile and, when enabled, warms up the
+     * compression path so that the first request is served at full speed.
      *
      * @param initParams The initialization parameters for the SDK.
      * @return Information about the initialized SDK.
      */
 	@Override
 	public SDKInfo init(Map<String, String> initParams) {
-		SDKInfoService service = new SDKInfoService(env, API_VERSION, "sample", "sample1", "sample2");
+		new SchedulingService(getSettings(), initParams).configure();
+		new WarmupService(getSettings(), initParams).warmUp();
+		SDKInfoService service = new SDKInfoService(getSettings(), API_VERSION, "sample", "sample1", "sample2");
 		return service.getSDKInfo();
 	}
 
@@ -107,7 +151,8 @@ public class ImageCompressorSDKV2 implements IBioApiV2 {
 	}
 
 	 /**
-     * Matches the provided biometric sample against a gallery of biometric records.
+     * Matches the provided biometric sample against a gallery of biometric records. Faces are compared as near
+     * duplicates of the same image, see {@link MatchService}.
      *
      * @param sample            The biometric record sample to match.
      * @param gallery           The array of biometric records in the gallery.
@@ -118,12 +163,8 @@ public class ImageCompressorSDKV2 implements IBioApiV2 {
 	@Override
 	public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
 			List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
-		Response<MatchDecision[]> response = new Response<>();
-		response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
-		response.setStatusMessage(
-				String.format(ResponseStatus.UNKNOWN_ERROR.getStatusMessage(), ERROR_NOT_IMPLEMENTED));
-		response.setResponse(null);
-		return response;
+		MatchService service = new MatchService(getSettings(), sample, gallery, modalitiesToMatch, flags);
+		return service.runScheduled(service::getMatchDecisionInfo);
 	}
 
 	 /**
@@ -137,8 +178,8 @@ public class ImageCompressorSDKV2 implements IBioApiV2 {
 	@Override
 	public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
 			Map<String, String> flags) {
-		ImageCompressionService service = new ImageCompressionService(env, sample, modalitiesToExtract, flags);
-		return service.getExtractTemplateInfo();
+		ImageCompressionService service = new ImageCompressionService(getSettings(), sample, modalitiesToExtract, flags);
+		return service.runScheduled(service::getExtractTemplateInfo);
 	}
 
 	 /**
@@ -152,12 +193,8 @@ public class ImageCompressorSDKV2 implements IBioApiV2 {
 	@Override
 	public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
 			Map<String, String> flags) {
-		Response<BiometricRecord> response = new Response<>();
-		response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
-		response.setStatusMessage(
-				String.format(ResponseStatus.UNKNOWN_ERROR.getStatusMessage(), ERROR_NOT_IMPLEMENTED));
-		response.setResponse(null);
-		return response;
+		SegmentationService service = new SegmentationService(getSettings(), sample, modalitiesToSegment, flags);
+		return service.runScheduled(service::getSegmentInfo);
 	}
 
 	 /**
@@ -202,4 +239,109 @@ public class ImageCompressorSDKV2 implements IBioApiV2 {
 	public void setEnv(Environment env) {
 		this.env = env;
 	}
+
+	/**
+	 * Returns the configuration of the SDK: the settings given to the builder or
+	 * the constructor, otherwise the Spring environment.
+	 *
+	 * @return The configuration, or null if there is none.
+	 */
+	public SdkSettings getSettings() {
+		if (settings != null)
+			return settings;
+		return EnvironmentSdkSettings.of(env);
+	}
+
+	/**
+	 * Builds an {@link ImageCompressorSDKV2} configured from a map or from
+	 * {@link SdkSettings}, without a Spring context. Properties set on the builder
+	 * override the settings.
+	 * <p>
+	 * Example usage:
+	 * <pre>{@code
+	 * ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder()
+	 *         .withProperties(workerConfig)
+	 *         .withResizeFactor(0.5f, 0.5f)
+	 *         .build();
+	 * }</pre>
+	 * </p>
+	 */
+	public static final class Builder {
+		private final Map<String, String> properties = new HashMap<>();
+		private SdkSettings settings;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the base configuration.
+		 *
+		 * @param settings The configuration, overridden by the builder properties.
+		 * @return This builder.
+		 */
+		public Builder withSettings(SdkSettings settings) {
+			this.settings = settings;
+			return this;
+		}
+
+		/**
+		 * Adds configuration values, keyed by the {@link SdkConstant} keys.
+		 *
+		 * @param properties The configuration values.
+		 * @return This builder.
+		 */
+		public Builder withProperties(Map<String, String> properties) {
+			this.properties.putAll(properties);
+			return this;
+		}
+
+		/**
+		 * Sets a configuration value.
+		 *
+		 * @param key   The {@link SdkConstant} key.
+		 * @param value The value.
+		 * @return This builder.
+		 */
+		public Builder withProperty(String key, String value) {
+			properties.put(key, value);
+			return this;
+		}
+
+		/**
+		 * Sets the resize factors applied before compression.
+		 *
+		 * @param fx The resize factor for the X-axis.
+		 * @param fy The resize factor for the Y-axis.
+		 * @return This builder.
+		 */
+		public Builder withResizeFactor(float fx, float fy) {
+			properties.put(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, String.valueOf(fx));
+			properties.put(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FY, String.valueOf(fy));
+			return this;
+		}
+
+		/**
+		 * Sets the JPEG2000 compression ratio.
+		 *
+		 * @param compressionRatio The {@code IMWRITE_JPEG2000_COMPRESSION_X1000}
+		 *                         value.
+		 * @return This builder.
+		 */
+		public Builder withCompressionRatio(int compressionRatio) {
+			properties.put(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, String.valueOf(compressionRatio));
+			return this;
+		}
+
+		/**
+		 * Creates the SDK. {@code init} still has to be called before use.
+		 *
+		 * @return The SDK.
+		 */
+		public ImageCompressorSDKV2 build() {
+			SdkSettings configured = SdkSettings.of(properties);
+			if (settings != null)
+				configured = settings.overriddenBy(configured);
+			return new ImageCompressorSDKV2(configured);
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,425 @@
+package io.mosip.image.compressor.sdk.iso;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+import io.mosip.biometrics.util.face.LandmarkPoints;
+
+/**
+ * Read only view of a Face ISO/IEC 19794-5:2011 record.
+ * <p>
+ * Parsing only walks the record far enough to locate the image data block of
+ * the first representation: the quality block and landmark point counts are
+ * the only fields read up front. Every other header field is read from the
+ * underlying bytes when its getter is called, and {@link #getImage()} returns a
+ * slice of the original record, so the embedded JPEG2000 image is never copied.
+ * </p>
+ * <p>
+ * The record shares the bytes it was parsed from, they must not be modified
+ * while the record is in use.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * FaceIsoRecord record = FaceIsoRecord.parse(bir.getBdb());
+ * ByteBuffer jp2000 = record.getImage();
+ * }</pre>
+ * </p>
+ */
+public final class FaceIsoRecord {
+	private static final int RECORD_LENGTH_OFFSET = 8;
+	private static final int NO_OF_REPRESENTATIONS_OFFSET = 12;
+	private static final int CERTIFICATION_FLAG_OFFSET = 14;
+	private static final int TEMPORAL_SEMANTICS_OFFSET = 15;
+
+	/* Offsets relative to the representation header */
+	private static final int CAPTURE_DATE_OFFSET = 4;
+	private static final int DEVICE_TECHNOLOGY_OFFSET = 13;
+	private static final int DEVICE_VENDOR_OFFSET = 14;
+	private static final int DEVICE_TYPE_OFFSET = 16;
+	private static final int NO_OF_QUALITY_BLOCKS_OFFSET = 18;
+	private static final int QUALITY_BLOCKS_OFFSET = 19;
+	private static final int QUALITY_BLOCK_LENGTH = 5;
+
+	/* Offsets relative to the facial information */
+	private static final int GENDER_OFFSET = 2;
+	private static final int EYE_COLOUR_OFFSET = 3;
+	private static final int HAIR_COLOUR_OFFSET = 4;
+	private static final int SUBJECT_HEIGHT_OFFSET = 5;
+	private static final int FEATURES_MASK_OFFSET = 6;
+	private static final int EXPRESSION_MASK_OFFSET = 9;
+	private static final int POSE_ANGLE_OFFSET = 11;
+	private static final int POSE_ANGLE_UNCERTAINTY_OFFSET = 14;
+	private static final int FACIAL_INFORMATION_LENGTH = 17;
+	private static final int LANDMARK_POINT_LENGTH = 8;
+
+	/* Offsets relative to the image information */
+	private static final int IMAGE_DATA_TYPE_OFFSET = 1;
+	private static final int WIDTH_OFFSET = 2;
+	private static final int HEIGHT_OFFSET = 4;
+	private static final int SPATIAL_SAMPLING_RATE_OFFSET = 6;
+	private static final int POST_ACQUISITION_PROCESSING_OFFSET = 7;
+	private static final int CROSS_REFERENCE_OFFSET = 9;
+	private static final int COLOUR_SPACE_OFFSET = 10;
+	private static final int IMAGE_INFORMATION_LENGTH = 11;
+	private static final int IMAGE_LENGTH_FIELD_LENGTH = 4;
+
+	private static final int REPRESENTATION_OFFSET = FaceIsoWriter.GENERAL_HEADER_LENGTH;
+	private static final int UNSPECIFIED_YEAR = 0xFFFF;
+
+	private final ByteBuffer data;
+	private final int facialInformationOffset;
+	private final int imageInformationOffset;
+	private final int imageOffset;
+	private final int imageLength;
+
+	private FaceIsoRecord(ByteBuffer data, int[] layout) {
+		this.data = data;
+		this.facialInformationOffset = layout[0];
+		this.imageInformationOffset = layout[1];
+		this.imageOffset = layout[2];
+		this.imageLength = layout[3];
+	}
+
+	/**
+	 * Parses the record held by the array.
+	 *
+	 * @param data The face ISO record.
+	 * @return The parsed record, sharing the array.
+	 * @throws IllegalArgumentException If the data is not a well formed face ISO
+	 *                                  record.
+	 */
+	public static FaceIsoRecord parse(byte[] data) {
+		return parse(ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Parses the record held by the buffer, from its position to its limit. The
+	 * position of the buffer is left unchanged.
+	 *
+	 * @param data The face ISO record, heap or direct.
+	 * @return The parsed record, sharing the content of the buffer.
+	 * @throws IllegalArgumentException If the data is not a well formed face ISO
+	 *                                  record.
+	 */
+	public static FaceIsoRecord parse(ByteBuffer data) {
+		ByteBuffer view = data.slice();
+		int[] layout = new int[4];
+		String problem = locateImage(view, layout);
+		if (problem != null)
+			throw new IllegalArgumentException(problem);
+		return new FaceIsoRecord(view, layout);
+	}
+
+	/**
+	 * Checks that the data is a well formed face ISO record, with the same checks
+	 * as {@link #parse(byte[])} but without throwing an exception.
+	 *
+	 * @param data The face ISO record.
+	 * @return The reason why the data is not a well formed record, or null when it
+	 *         is.
+	 */
+	public static String validate(byte[] data) {
+		return locateImage(ByteBuffer.wrap(data), new int[4]);
+	}
+
+	/**
+	 * Walks the record up to the image data of the first representation.
+	 *
+	 * @param data   The face ISO record.
+	 * @param layout Receives the offsets of the facial information, the image
+	 *               information and the image data, and the image length.
+	 * @return The reason why the data is not a well formed record, or null.
+	 */
+	private static String locateImage(ByteBuffer data, int[] layout) {
+		int minimum = REPRESENTATION_OFFSET + QUALITY_BLOCKS_OFFSET;
+		if (data.limit() < minimum)
+			return "Face ISO record too short " + data.limit();
+		if (readUnsignedInt(data, 0) != FaceIsoWriter.FORMAT_IDENTIFIER)
+			return "Not a Face ISO record";
+		if (readUnsignedInt(data, 4) != FaceIsoWriter.VERSION_NUMBER)
+			return "Unsupported Face ISO version " + Long.toHexString(readUnsignedInt(data, 4));
+		long recordLength = readUnsignedInt(data, RECORD_LENGTH_OFFSET);
+		if (recordLength > data.limit())
+			return "Face ISO record truncated, expected " + recordLength + " bytes but got " + data.limit();
+		if (readUnsignedShort(data, NO_OF_REPRESENTATIONS_OFFSET) < 1)
+			return "Face ISO record holds no representation";
+
+		int facialInformationOffset = REPRESENTATION_OFFSET + QUALITY_BLOCKS_OFFSET
+				+ QUALITY_BLOCK_LENGTH * readUnsignedByte(data, REPRESENTATION_OFFSET + NO_OF_QUALITY_BLOCKS_OFFSET);
+		if (facialInformationOffset + FACIAL_INFORMATION_LENGTH > data.limit())
+			return truncatedHeader(facialInformationOffset + FACIAL_INFORMATION_LENGTH);
+		int imageInformationOffset = facialInformationOffset + FACIAL_INFORMATION_LENGTH
+				+ LANDMARK_POINT_LENGTH * readUnsignedShort(data, facialInformationOffset);
+		int imageOffset = imageInformationOffset + IMAGE_INFORMATION_LENGTH + IMAGE_LENGTH_FIELD_LENGTH;
+		if (imageOffset > data.limit())
+			return truncatedHeader(imageOffset);
+		long length = readUnsignedInt(data, imageInformationOffset + IMAGE_INFORMATION_LENGTH);
+		if (imageOffset + length > data.limit())
+			return "Face ISO image data truncated, expected " + length + " bytes";
+
+		layout[0] = facialInformationOffset;
+		layout[1] = imageInformationOffset;
+		layout[2] = imageOffset;
+		layout[3] = (int) length;
+		return null;
+	}
+
+	private static String truncatedHeader(int length) {
+		return "Face ISO record truncated, header needs " + length + " bytes";
+	}
+
+	public long getFormatIdentifier() {
+		return readUnsignedInt(0);
+	}
+
+	public long getVersionNumber() {
+		return readUnsignedInt(4);
+	}
+
+	public long getRecordLength() {
+		return readUnsignedInt(RECORD_LENGTH_OFFSET);
+	}
+
+	public int getNoOfRepresentations() {
+		return readUnsignedShort(NO_OF_REPRESENTATIONS_OFFSET);
+	}
+
+	public int getCertificationFlag() {
+		return readUnsignedByte(CERTIFICATION_FLAG_OFFSET);
+	}
+
+	public int getTemporalSemantics() {
+		return readUnsignedShort(TEMPORAL_SEMANTICS_OFFSET);
+	}
+
+	public long getRepresentationLength() {
+		return readUnsignedInt(REPRESENTATION_OFFSET);
+	}
+
+	/**
+	 * Returns the capture date and time of the first representation.
+	 *
+	 * @return The capture date and time, or null when it is unspecified or not a
+	 *         valid date.
+	 */
+	public LocalDateTime getCaptureDateTime() {
+		int offset = REPRESENTATION_OFFSET + CAPTURE_DATE_OFFSET;
+		int year = readUnsignedShort(offset);
+		if (year == UNSPECIFIED_YEAR)
+			return null;
+		try {
+			return LocalDateTime.of(year, readUnsignedByte(offset + 2), readUnsignedByte(offset + 3),
+					readUnsignedByte(offset + 4), readUnsignedByte(offset + 5), readUnsignedByte(offset + 6),
+					readUnsignedShort(offset + 7) * 1_000_000);
+		} catch (DateTimeException ex) {
+			return null;
+		}
+	}
+
+	public int getCaptureDeviceTechnology() {
+		return readUnsignedByte(REPRESENTATION_OFFSET + DEVICE_TECHNOLOGY_OFFSET);
+	}
+
+	public int getCaptureDeviceVendor() {
+		return readUnsignedShort(REPRESENTATION_OFFSET + DEVICE_VENDOR_OFFSET);
+	}
+
+	public int getCaptureDeviceType() {
+		return readUnsignedShort(REPRESENTATION_OFFSET + DEVICE_TYPE_OFFSET);
+	}
+
+	public int getNoOfQualityBlocks() {
+		return readUnsignedByte(REPRESENTATION_OFFSET + NO_OF_QUALITY_BLOCKS_OFFSET);
+	}
+
+	/**
+	 * Returns the score of a quality block.
+	 *
+	 * @param index The index of the quality block.
+	 * @return The quality score (0 to 100, or 255 when it failed to be computed).
+	 */
+	public int getQualityScore(int index) {
+		return readUnsignedByte(qualityBlockOffset(index));
+	}
+
+	public int getQualityAlgorithmVendorIdentifier(int index) {
+		return readUnsignedShort(qualityBlockOffset(index) + 1);
+	}
+
+	public int getQualityAlgorithmIdentifier(int index) {
+		return readUnsignedShort(qualityBlockOffset(index) + 3);
+	}
+
+	public int getNoOfLandmarkPoints() {
+		return readUnsignedShort(facialInformationOffset);
+	}
+
+	public int getGender() {
+		return readUnsignedByte(facialInformationOffset + GENDER_OFFSET);
+	}
+
+	public int getEyeColour() {
+		return readUnsignedByte(facialInformationOffset + EYE_COLOUR_OFFSET);
+	}
+
+	public int getHairColour() {
+		return readUnsignedByte(facialInformationOffset + HAIR_COLOUR_OFFSET);
+	}
+
+	public int getSubjectHeight() {
+		return readUnsignedByte(facialInformationOffset + SUBJECT_HEIGHT_OFFSET);
+	}
+
+	public int getFeaturesMask() {
+		return readUnsignedTriple(facialInformationOffset + FEATURES_MASK_OFFSET);
+	}
+
+	public int getExpressionMask() {
+		return readUnsignedShort(facialInformationOffset + EXPRESSION_MASK_OFFSET);
+	}
+
+	/**
+	 * Returns the yaw, pitch and roll angles of the face.
+	 *
+	 * @return The encoded pose angles.
+	 */
+	public int[] getPoseAngle() {
+		return readBytes(facialInformationOffset + POSE_ANGLE_OFFSET, 3);
+	}
+
+	public int[] getPoseAngleUncertainty() {
+		return readBytes(facialInformationOffset + POSE_ANGLE_UNCERTAINTY_OFFSET, 3);
+	}
+
+	/**
+	 * Reads the landmark points of the first representation.
+	 *
+	 * @return A new array of landmark points, empty when the record has none.
+	 */
+	public LandmarkPoints[] getLandmarkPoints() {
+		LandmarkPoints[] points = new LandmarkPoints[getNoOfLandmarkPoints()];
+		int offset = facialInformationOffset + FACIAL_INFORMATION_LENGTH;
+		for (int index = 0; index < points.length; index++, offset += LANDMARK_POINT_LENGTH) {
+			points[index] = new LandmarkPoints(readUnsignedByte(offset), readUnsignedByte(offset + 1),
+					readUnsignedShort(offset + 2), readUnsignedShort(offset + 4), readUnsignedShort(offset + 6));
+		}
+		return points;
+	}
+
+	public int getFaceImageType() {
+		return readUnsignedByte(imageInformationOffset);
+	}
+
+	public int getImageDataType() {
+		return readUnsignedByte(imageInformationOffset + IMAGE_DATA_TYPE_OFFSET);
+	}
+
+	public int getWidth() {
+		return readUnsignedShort(imageInformationOffset + WIDTH_OFFSET);
+	}
+
+	public int getHeight() {
+		return readUnsignedShort(imageInformationOffset + HEIGHT_OFFSET);
+	}
+
+	public int getSpatialSamplingRateLevel() {
+		return readUnsignedByte(imageInformationOffset + SPATIAL_SAMPLING_RATE_OFFSET);
+	}
+
+	public int getPostAcquisitionProcessing() {
+		return readUnsignedShort(imageInformationOffset + POST_ACQUISITION_PROCESSING_OFFSET);
+	}
+
+	public int getCrossReference() {
+		return readUnsignedByte(imageInformationOffset + CROSS_REFERENCE_OFFSET);
+	}
+
+	public int getImageColourSpace() {
+		return readUnsignedByte(imageInformationOffset + COLOUR_SPACE_OFFSET);
+	}
+
+	/**
+	 * Returns the offset of the image data from the start of the record.
+	 *
+	 * @return The image data offset in bytes.
+	 */
+	public int getImageOffset() {
+		return imageOffset;
+	}
+
+	public int getImageLength() {
+		return imageLength;
+	}
+
+	/**
+	 * Returns the image data of the first representation without copying it.
+	 *
+	 * @return A buffer positioned at zero, sharing the content of the record.
+	 */
+	public ByteBuffer getImage() {
+		return data.slice(imageOffset, imageLength);
+	}
+
+	/**
+	 * Copies the image data of the first representation.
+	 *
+	 * @return The image bytes.
+	 */
+	public byte[] getImageBytes() {
+		byte[] image = new byte[imageLength];
+		data.get(imageOffset, image);
+		return image;
+	}
+
+	/**
+	 * Returns the whole record without copying it.
+	 *
+	 * @return A buffer positioned at zero, sharing the content of the record.
+	 */
+	public ByteBuffer getRecord() {
+		return data.slice(0, data.limit());
+	}
+
+	private int qualityBlockOffset(int index) {
+		if (index < 0 || index >= getNoOfQualityBlocks())
+			throw new IndexOutOfBoundsException("Quality block " + index);
+		return REPRESENTATION_OFFSET + QUALITY_BLOCKS_OFFSET + QUALITY_BLOCK_LENGTH * index;
+	}
+
+	private int readUnsignedByte(int offset) {
+		return readUnsignedByte(data, offset);
+	}
+
+	private int readUnsignedShort(int offset) {
+		return readUnsignedShort(data, offset);
+	}
+
+	private int readUnsignedTriple(int offset) {
+		return (readUnsignedByte(offset) << 16) | readUnsignedShort(offset + 1);
+	}
+
+	private long readUnsignedInt(int offset) {
+		return readUnsignedInt(data, offset);
+	}
+
+	private static int readUnsignedByte(ByteBuffer data, int offset) {
+		return data.get(offset) & 0xFF;
+	}
+
+	private static int readUnsignedShort(ByteBuffer data, int offset) {
+		return data.getShort(offset) & 0xFFFF;
+	}
+
+	private static long readUnsignedInt(ByteBuffer data, int offset) {
+		return data.getInt(offset) & 0xFFFFFFFFL;
+	}
+
+	private int[] readBytes(int offset, int length) {
+		int[] values = new int[length];
+		for (int index = 0; index < length; index++)
+			values[index] = readUnsignedByte(offset + index);
+		return values;
+	}
+}
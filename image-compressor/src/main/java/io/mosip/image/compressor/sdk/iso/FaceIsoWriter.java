@@ -0,0 +1,254 @@
+package io.mosip.image.compressor.sdk.iso;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import io.mosip.biometrics.util.face.FaceCaptureDeviceTechnology;
+import io.mosip.biometrics.util.face.FaceImageType;
+import io.mosip.biometrics.util.face.ImageColourSpace;
+import io.mosip.biometrics.util.face.ImageDataType;
+
+/**
+ * Writes Face ISO/IEC 19794-5:2011 records around an already encoded image.
+ * <p>
+ * The record holds a single representation with one quality block and no
+ * landmark points. The header values are the ones used by
+ * {@code FaceEncoder.convertFaceImageToISO}, but the image dimensions and
+ * colour space are supplied by the caller instead of being read back by
+ * decoding the image, and the header is written ahead of the image so that the
+ * image bytes can be streamed straight into the output.
+ * </p>
+ * <p>
+ * When the record is built from a source record, the capture date and device
+ * as well as the subject description (gender, eye and hair colour, height,
+ * features, expression and pose) are carried over from the source header. The
+ * landmark points are not, as they refer to the source image geometry.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * FaceIsoWriter writer = new FaceIsoWriter("REGISTRATION");
+ * int colourSpace = FaceIsoWriter.getImageColourSpace(channels, bitsPerSample);
+ * writer.writeHeader(out, width, height, colourSpace, imageLength);
+ * out.write(jp2000Bytes);
+ * }</pre>
+ * </p>
+ */
+public class FaceIsoWriter {
+	/** Format identifier "FAC\0". */
+	public static final long FORMAT_IDENTIFIER = 0x46414300L;
+	/** Version number "030\0". */
+	public static final long VERSION_NUMBER = 0x30333000L;
+
+	/** Length of the general header. */
+	public static final int GENERAL_HEADER_LENGTH = 17;
+	/** Length of the fixed part of the representation header. */
+	private static final int REPRESENTATION_HEADER_FIXED_LENGTH = 19;
+	private static final int QUALITY_BLOCK_LENGTH = 5;
+	private static final int FACIAL_INFORMATION_LENGTH = 17;
+	private static final int IMAGE_INFORMATION_LENGTH = 11;
+	private static final int IMAGE_LENGTH_FIELD_LENGTH = 4;
+
+	private static final int QUALITY_SCORE = 40;
+	private static final int QUALITY_ALGORITHM_VENDOR_IDENTIFIER = 1;
+	private static final int QUALITY_ALGORITHM_IDENTIFIER = 1;
+	private static final int GENDER_UNKNOWN = 0xFF;
+
+	private final String purpose;
+	private final FaceIsoRecord source;
+
+	/**
+	 * Creates a writer for the given purpose.
+	 *
+	 * @param purpose The purpose of the record, "AUTH" marks the image as lossy
+	 *                JPEG2000 and any other value as lossless JPEG2000, as done
+	 *                by {@code FaceEncoder}.
+	 */
+	public FaceIsoWriter(String purpose) {
+		this(purpose, null);
+	}
+
+	/**
+	 * Creates a writer for the given purpose that carries over the header of the
+	 * source record.
+	 *
+	 * @param purpose The purpose of the record, see
+	 *                {@link #FaceIsoWriter(String)}.
+	 * @param source  The record the image was taken from, may be null.
+	 */
+	public FaceIsoWriter(String purpose, FaceIsoRecord source) {
+		this.purpose = purpose;
+		this.source = source;
+	}
+
+	/**
+	 * Returns the ISO colour space of an image.
+	 *
+	 * @param channels      The number of channels (1 for grey scale, 3 for
+	 *                      colour).
+	 * @param bitsPerSample The number of bits per channel.
+	 * @return The {@link ImageColourSpace} value.
+	 * @throws IllegalArgumentException If the image has an alpha channel, which
+	 *                                  the ISO record cannot describe.
+	 */
+	public static int getImageColourSpace(int channels, int bitsPerSample) {
+		boolean wide = bitsPerSample > 8;
+		if (channels == 1)
+			return wide ? ImageColourSpace.BIT_16_GREYSCALE : ImageColourSpace.BIT_8_GREYSCALE;
+		if (channels == 3)
+			return wide ? ImageColourSpace.BIT_48_RGB : ImageColourSpace.BIT_24_RGB;
+		if (channels == 4)
+			throw new IllegalArgumentException("Image with an alpha channel");
+		return ImageColourSpace.UNSPECIFIED;
+	}
+
+	/**
+	 * Returns the length of the record header, i.e. the number of bytes written
+	 * ahead of the image data.
+	 *
+	 * @return The header length in bytes.
+	 */
+	public int getHeaderLength() {
+		return GENERAL_HEADER_LENGTH + getRepresentationHeaderLength() + IMAGE_LENGTH_FIELD_LENGTH;
+	}
+
+	/**
+	 * Returns the length of the complete record for an image of the given length.
+	 *
+	 * @param imageLength The length of the encoded image.
+	 * @return The record length in bytes.
+	 */
+	public long getRecordLength(long imageLength) {
+		return getHeaderLength() + imageLength;
+	}
+
+	/**
+	 * Writes the record header. The caller must write exactly
+	 * {@code imageLength} image bytes right after it.
+	 *
+	 * @param out         The output to write to, it is neither flushed nor
+	 *                    closed.
+	 * @param width       The width of the encoded image.
+	 * @param height      The height of the encoded image.
+	 * @param colourSpace The {@link ImageColourSpace} of the encoded image.
+	 * @param imageLength The length of the encoded image.
+	 * @return The number of bytes written.
+	 * @throws IOException If the header cannot be written.
+	 */
+	public int writeHeader(OutputStream out, int width, int height, int colourSpace, long imageLength)
+			throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		long representationLength = getRepresentationHeaderLength() + IMAGE_LENGTH_FIELD_LENGTH + imageLength;
+
+		// General header
+		data.writeInt((int) FORMAT_IDENTIFIER);
+		data.writeInt((int) VERSION_NUMBER);
+		data.writeInt((int) (GENERAL_HEADER_LENGTH + representationLength));
+		data.writeShort(1); // number of representations
+		data.writeByte(0); // certification flag
+		data.writeShort(0); // temporal semantics
+
+		// Representation header
+		data.writeInt((int) representationLength);
+		LocalDateTime captureDateTime = source != null ? source.getCaptureDateTime() : null;
+		writeCaptureDateTime(data, captureDateTime != null ? captureDateTime : LocalDateTime.now());
+		if (source != null) {
+			data.writeByte(source.getCaptureDeviceTechnology());
+			data.writeShort(source.getCaptureDeviceVendor());
+			data.writeShort(source.getCaptureDeviceType());
+		} else {
+			data.writeByte(FaceCaptureDeviceTechnology.VIDEO_FRAME_ANALOG_CAMERA);
+			data.writeShort(0); // capture device vendor
+			data.writeShort(0); // capture device type
+		}
+
+		data.writeByte(1); // number of quality blocks
+		data.writeByte(QUALITY_SCORE);
+		data.writeShort(QUALITY_ALGORITHM_VENDOR_IDENTIFIER);
+		data.writeShort(QUALITY_ALGORITHM_IDENTIFIER);
+
+		// Facial information
+		data.writeShort(0); // number of landmark points
+		if (source != null) {
+			data.writeByte(source.getGender());
+			data.writeByte(source.getEyeColour());
+			data.writeByte(source.getHairColour());
+			data.writeByte(source.getSubjectHeight());
+			writeUnsignedTriple(data, source.getFeaturesMask());
+			data.writeShort(source.getExpressionMask());
+			writeBytes(data, source.getPoseAngle());
+			writeBytes(data, source.getPoseAngleUncertainty());
+		} else {
+			data.writeByte(GENDER_UNKNOWN);
+			data.writeByte(0); // eye colour
+			data.writeByte(0); // hair colour
+			data.writeByte(0); // subject height
+			data.write(new byte[3]); // features mask
+			data.writeShort(0); // expression mask
+			data.write(new byte[3]); // pose angle
+			data.write(new byte[3]); // pose angle uncertainty
+		}
+
+		// Image information
+		data.writeByte(FaceImageType.FULL_FRONTAL);
+		data.writeByte("AUTH".equalsIgnoreCase(purpose) ? ImageDataType.JPEG2000_LOSSY
+				: ImageDataType.JPEG2000_LOSS_LESS);
+		data.writeShort(width);
+		data.writeShort(height);
+		data.writeByte(0); // spatial sampling rate level
+		data.writeShort(0); // post acquisition processing
+		data.writeByte(0); // cross reference
+		data.writeByte(colourSpace);
+
+		// Image data length, the image itself is written by the caller
+		data.writeInt((int) imageLength);
+		data.flush();
+		return data.size();
+	}
+
+	/**
+	 * Writes the complete record for an image held in memory.
+	 *
+	 * @param out         The output to write to, it is neither flushed nor
+	 *                    closed.
+	 * @param width       The width of the encoded image.
+	 * @param height      The height of the encoded image.
+	 * @param colourSpace The {@link ImageColourSpace} of the encoded image.
+	 * @param imageData   The encoded image.
+	 * @return The number of bytes written.
+	 * @throws IOException If the record cannot be written.
+	 */
+	public long write(OutputStream out, int width, int height, int colourSpace, byte[] imageData)
+			throws IOException {
+		int headerLength = writeHeader(out, width, height, colourSpace, imageData.length);
+		out.write(imageData);
+		return (long) headerLength + imageData.length;
+	}
+
+	private int getRepresentationHeaderLength() {
+		return REPRESENTATION_HEADER_FIXED_LENGTH + QUALITY_BLOCK_LENGTH + FACIAL_INFORMATION_LENGTH
+				+ IMAGE_INFORMATION_LENGTH;
+	}
+
+	private static void writeUnsignedTriple(DataOutputStream data, int value) throws IOException {
+		data.writeByte(value >>> 16);
+		data.writeShort(value);
+	}
+
+	private static void writeBytes(DataOutputStream data, int[] values) throws IOException {
+		for (int value : values)
+			data.writeByte(value);
+	}
+
+	private static void writeCaptureDateTime(DataOutputStream data, LocalDateTime dateTime) throws IOException {
+		data.writeShort(dateTime.getYear());
+		data.writeByte(dateTime.getMonthValue());
+		data.writeByte(dateTime.getDayOfMonth());
+		data.writeByte(dateTime.getHour());
+		data.writeByte(dateTime.getMinute());
+		data.writeByte(dateTime.getSecond());
+		data.writeShort(dateTime.getNano() / 1_000_000);
+	}
+}
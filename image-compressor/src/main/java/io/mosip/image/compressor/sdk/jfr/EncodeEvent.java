@@ -0,0 +1,25 @@
+package io.mosip.image.compressor.sdk.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Encoding of a resized face image as JPEG2000, the prediction of the
+ * compression ratio included: the input is the pixels, the output the
+ * JPEG2000 image.
+ */
+@Name("io.mosip.image.compressor.Encode")
+@Label("Face Image Encode")
+@Description("Resized face image encoded as JPEG2000")
+public final class EncodeEvent extends FaceStageEvent {
+	@Label("Channels")
+	public int channels;
+
+	@Label("Compression")
+	@Description("IMWRITE_JPEG2000_COMPRESSION_X1000 value the image was encoded with")
+	public int compression;
+
+	@Label("Compression Mode")
+	public String compressionMode;
+}
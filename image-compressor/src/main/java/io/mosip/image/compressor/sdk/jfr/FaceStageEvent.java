@@ -0,0 +1,59 @@
+package io.mosip.image.compressor.sdk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of a stage of the compression of a face.
+ * <p>
+ * The events are disabled by default. A disabled event is not committed and
+ * its fields are not computed, so it costs a few instructions per stage; it is
+ * enabled in the settings of a recording, for example
+ * {@code -XX:StartFlightRecording:+io.mosip.image.compressor.Encode#enabled=true}.
+ * Every event carries the index of the segment being compressed, so that the
+ * CPU samples of a recording can be related to the faces that drive the
+ * latency.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * EncodeEvent event = new EncodeEvent();
+ * event.begin();
+ * MatOfByte encoded = encodeJp2(image, compression);
+ * if (event.shouldCommit()) {
+ *     event.segmentIndex = segmentIndex;
+ *     event.outputBytes = encoded.total();
+ *     event.commit();
+ * }
+ * }</pre>
+ * </p>
+ */
+@Category({ "MOSIP", "Image Compressor" })
+@Enabled(false)
+@StackTrace(false)
+public abstract class FaceStageEvent extends Event {
+	@Label("Segment Index")
+	@Description("Index of the segment in the biometric record, -1 outside of a record")
+	public int segmentIndex = -1;
+
+	@Label("Input Size")
+	@DataAmount
+	public long inputBytes;
+
+	@Label("Output Size")
+	@DataAmount
+	public long outputBytes;
+
+	@Label("Width")
+	@Description("Width in pixels of the output of the stage")
+	public int width;
+
+	@Label("Height")
+	@Description("Height in pixels of the output of the stage")
+	public int height;
+}
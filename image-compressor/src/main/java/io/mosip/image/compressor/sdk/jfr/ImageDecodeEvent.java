@@ -0,0 +1,23 @@
+package io.mosip.image.compressor.sdk.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Decoding of a JPEG2000 face image and its conversion to the configured
+ * colour mode: the input is the JPEG2000 image, the output the pixels.
+ */
+@Name("io.mosip.image.compressor.ImageDecode")
+@Label("Face Image Decode")
+@Description("JPEG2000 face image decoded and converted to the configured colour mode")
+public final class ImageDecodeEvent extends FaceStageEvent {
+	@Label("Channels")
+	public int channels;
+
+	@Label("Bits per Sample")
+	public int bitsPerSample;
+
+	@Label("Colour Mode")
+	public String colourMode;
+}
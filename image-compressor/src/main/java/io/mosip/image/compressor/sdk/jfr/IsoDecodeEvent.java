@@ -0,0 +1,17 @@
+package io.mosip.image.compressor.sdk.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Parsing of the face ISO record of a segment: the input is the record, the
+ * output the JPEG2000 image it holds.
+ */
+@Name("io.mosip.image.compressor.IsoDecode")
+@Label("Face ISO Decode")
+@Description("Face ISO record of a segment validated and parsed")
+public final class IsoDecodeEvent extends FaceStageEvent {
+	@Label("Valid")
+	public boolean valid;
+}
@@ -0,0 +1,21 @@
+package io.mosip.image.compressor.sdk.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing of the face ISO record of a compressed image: the input is the
+ * JPEG2000 image, the output the record.
+ */
+@Name("io.mosip.image.compressor.IsoWrap")
+@Label("Face ISO Wrap")
+@Description("Compressed face image written as a face ISO record")
+public final class IsoWrapEvent extends FaceStageEvent {
+	@Label("Purpose")
+	public String purpose;
+
+	@Label("From Output Cache")
+	@Description("The record was read from the output cache, not compressed")
+	public boolean cached;
+}
@@ -0,0 +1,28 @@
+package io.mosip.image.compressor.sdk.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Downscaling of a decoded face image: the input and output are the pixels.
+ */
+@Name("io.mosip.image.compressor.Resize")
+@Label("Face Image Resize")
+@Description("Decoded face image downscaled by the resize factors")
+public final class ResizeEvent extends FaceStageEvent {
+	@Label("Input Width")
+	public int inputWidth;
+
+	@Label("Input Height")
+	public int inputHeight;
+
+	@Label("Resize Factor X")
+	public float fx;
+
+	@Label("Resize Factor Y")
+	public float fy;
+
+	@Label("Resize Engine")
+	public String resizeEngine;
+}
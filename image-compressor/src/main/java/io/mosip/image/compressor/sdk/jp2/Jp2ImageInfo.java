@@ -0,0 +1,119 @@
+package io.mosip.image.compressor.sdk.jp2;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Image properties read from the header of a JPEG2000 image, without decoding
+ * it.
+ * <p>
+ * Both the JP2 file format, where the values come from the image header box
+ * ("ihdr"), and raw J2K codestreams, where they come from the SIZ marker
+ * segment, are supported.
+ * </p>
+ */
+public final class Jp2ImageInfo {
+	/** Type of the JP2 header super box. */
+	private static final int BOX_JP2_HEADER = 0x6A703268;
+	/** Type of the image header box. */
+	private static final int BOX_IMAGE_HEADER = 0x69686472;
+	/** Start of codestream marker. */
+	private static final int MARKER_SOC = 0xFF4F;
+	/** Image and tile size marker. */
+	private static final int MARKER_SIZ = 0xFF51;
+
+	private final int width;
+	private final int height;
+	private final int components;
+	private final int bitsPerComponent;
+
+	private Jp2ImageInfo(int width, int height, int components, int bitsPerComponent) {
+		this.width = width;
+		this.height = height;
+		this.components = components;
+		this.bitsPerComponent = bitsPerComponent;
+	}
+
+	/**
+	 * Reads the image properties of a JP2 file or J2K codestream.
+	 *
+	 * @param data The encoded image.
+	 * @return The image properties.
+	 * @throws IllegalArgumentException If the data is not a JPEG2000 image.
+	 */
+	public static Jp2ImageInfo read(byte[] data) {
+		return read(ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Reads the image properties of a JP2 file or J2K codestream held by the
+	 * buffer, from its position to its limit. The position is left unchanged.
+	 *
+	 * @param data The encoded image.
+	 * @return The image properties.
+	 * @throws IllegalArgumentException If the data is not a JPEG2000 image.
+	 */
+	public static Jp2ImageInfo read(ByteBuffer data) {
+		ByteBuffer view = data.slice();
+		try {
+			if (view.limit() >= 2 && (view.getShort(0) & 0xFFFF) == MARKER_SOC)
+				return readCodestream(view, 0);
+			return readBoxes(view, 0, view.limit());
+		} catch (IndexOutOfBoundsException ex) {
+			throw new IllegalArgumentException("Truncated JPEG2000 header", ex);
+		}
+	}
+
+	private static Jp2ImageInfo readBoxes(ByteBuffer data, int start, int end) {
+		int offset = start;
+		while (offset + 8 <= end) {
+			long length = data.getInt(offset) & 0xFFFFFFFFL;
+			int type = data.getInt(offset + 4);
+			int header = 8;
+			if (length == 1) {
+				length = data.getLong(offset + 8);
+				header = 16;
+			} else if (length == 0) {
+				length = (long) end - offset;
+			}
+			if (length < header || offset + length > end)
+				break;
+
+			if (type == BOX_JP2_HEADER)
+				return readBoxes(data, offset + header, (int) (offset + length));
+			if (type == BOX_IMAGE_HEADER) {
+				int box = offset + header;
+				return new Jp2ImageInfo(data.getInt(box + 4), data.getInt(box), data.getShort(box + 8) & 0xFFFF,
+						(data.get(box + 10) & 0x7F) + 1);
+			}
+			offset += (int) length;
+		}
+		throw new IllegalArgumentException("JPEG2000 image header not found");
+	}
+
+	private static Jp2ImageInfo readCodestream(ByteBuffer data, int offset) {
+		int siz = offset + 2;
+		if ((data.getShort(siz) & 0xFFFF) != MARKER_SIZ)
+			throw new IllegalArgumentException("JPEG2000 SIZ marker not found");
+		int width = data.getInt(siz + 6) - data.getInt(siz + 14);
+		int height = data.getInt(siz + 10) - data.getInt(siz + 18);
+		int components = data.getShort(siz + 38) & 0xFFFF;
+		int bitsPerComponent = (data.get(siz + 40) & 0x7F) + 1;
+		return new Jp2ImageInfo(width, height, components, bitsPerComponent);
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getComponents() {
+		return components;
+	}
+
+	public int getBitsPerComponent() {
+		return bitsPerComponent;
+	}
+}
@@ -0,0 +1,300 @@
+package io.mosip.image.compressor.sdk.jp2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Rect;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encodes an image as a tiled JPEG2000 (JP2) file, encoding the tiles in
+ * parallel.
+ * <p>
+ * Every tile is encoded on its own by OpenCV, then the tile-parts of the
+ * resulting codestreams are stitched together behind the main header of the
+ * first one, with the image and tile sizes of the SIZ marker and the image
+ * header box rewritten. JPEG2000 codes tiles independently, so the result is a
+ * single standard codestream that any decoder reads as one image.
+ * </p>
+ * <p>
+ * Stitching is only exact when every tile is coded the same way as it would be
+ * in place: the tile size is therefore a power of two of at least
+ * {@value #MIN_TILE_SIZE} pixels, which keeps the tile origins aligned with the
+ * wavelet decomposition and the code-block grid at every resolution level, and
+ * no tile may be smaller than {@value #MIN_TILE_EXTENT} pixels, the smallest
+ * size OpenJPEG encodes with its default number of resolutions. Use
+ * {@link #fitTileSize(int, int, int)} to pick a usable tile size.
+ * </p>
+ */
+public final class TiledJp2Encoder {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TiledJp2Encoder.class);
+
+	/** Smallest tile size. */
+	public static final int MIN_TILE_SIZE = 128;
+	/** Smallest tile width or height, along the right and bottom edges. */
+	public static final int MIN_TILE_EXTENT = 32;
+
+	private static final int BOX_CODESTREAM = 0x6A703263;
+	private static final int BOX_IMAGE_HEADER = 0x69686472;
+	private static final int MARKER_SIZ = 0xFF51;
+	private static final int MARKER_SOT = 0xFF90;
+	private static final int MARKER_EOC = 0xFFD9;
+	/** Offsets of the SIZ fields, relative to the marker. */
+	private static final int SIZ_WIDTH_OFFSET = 6;
+	private static final int SIZ_HEIGHT_OFFSET = 10;
+	private static final int SIZ_TILE_WIDTH_OFFSET = 22;
+	private static final int SIZ_TILE_HEIGHT_OFFSET = 26;
+
+	private static final ConcurrentMap<Integer, ExecutorService> EXECUTORS = new ConcurrentHashMap<>();
+
+	private final int tileSize;
+	private final ExecutorService executor;
+
+	/**
+	 * Creates an encoder.
+	 *
+	 * @param tileSize The tile size, a power of two of at least
+	 *                 {@value #MIN_TILE_SIZE}.
+	 * @param executor The executor running the tile encodes.
+	 */
+	public TiledJp2Encoder(int tileSize, ExecutorService executor) {
+		if (tileSize < MIN_TILE_SIZE || Integer.bitCount(tileSize) != 1)
+			throw new IllegalArgumentException("Tile size must be a power of two >= " + MIN_TILE_SIZE);
+		this.tileSize = tileSize;
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns a shared executor for tile encoding with the given number of
+	 * threads. The executor threads are daemon threads, created once per thread
+	 * count.
+	 *
+	 * @param threads The number of threads, zero or less for one per available
+	 *                processor.
+	 * @return The shared executor.
+	 */
+	public static ExecutorService sharedExecutor(int threads) {
+		int count = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		return EXECUTORS.computeIfAbsent(count, TiledJp2Encoder::newExecutor);
+	}
+
+	/**
+	 * Picks the tile size to use for an image, starting from the requested size
+	 * rounded up to a power of two and doubling it while an edge tile would be
+	 * too small to be encoded.
+	 *
+	 * @param width     The image width.
+	 * @param height    The image height.
+	 * @param requested The requested tile size.
+	 * @return The tile size, or zero when the image fits in a single tile and
+	 *         should be encoded in one call.
+	 */
+	public static int fitTileSize(int width, int height, int requested) {
+		int size = Math.max(MIN_TILE_SIZE, Integer.highestOneBit(Math.max(1, requested - 1)) << 1);
+		for (; size < width || size < height; size <<= 1) {
+			if (fitsEdge(width, size) && fitsEdge(height, size))
+				return size;
+		}
+		return 0;
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * Encodes the image.
+	 *
+	 * @param image       The image to encode, 8 or 16 bit with 1 or 3 channels.
+	 * @param compression The {@code IMWRITE_JPEG2000_COMPRESSION_X1000} value,
+	 *                    applied to every tile.
+	 * @return The JP2 file.
+	 * @throws IllegalStateException If a tile cannot be encoded.
+	 */
+	public byte[] encode(Mat image, int compression) {
+		int width = image.width();
+		int height = image.height();
+		int columns = (width + tileSize - 1) / tileSize;
+		int rows = (height + tileSize - 1) / tileSize;
+
+		List<Future<byte[]>> tiles = new ArrayList<>(columns * rows);
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columns; column++) {
+				int x = column * tileSize;
+				int y = row * tileSize;
+				Rect region = new Rect(x, y, Math.min(tileSize, width - x), Math.min(tileSize, height - y));
+				tiles.add(executor.submit(encodeTile(image, region, compression)));
+			}
+		}
+
+		try {
+			byte[] first = tiles.get(0).get();
+			int codestream = findBox(first, BOX_CODESTREAM);
+			int firstTilePart = findFirstTilePart(first, codestream + 8);
+
+			ByteArrayOutputStream stitched = new ByteArrayOutputStream(first.length * tiles.size());
+			stitched.write(first, codestream + 8, firstTilePart - codestream - 8);
+			for (int index = 0; index < tiles.size(); index++) {
+				byte[] tile = index == 0 ? first : tiles.get(index).get();
+				writeTilePart(stitched, tile, index);
+			}
+			stitched.write(MARKER_EOC >>> 8);
+			stitched.write(MARKER_EOC & 0xFF);
+
+			byte[] data = stitched.toByteArray();
+			ByteBuffer mainHeader = ByteBuffer.wrap(data);
+			int siz = 2;
+			if ((mainHeader.getShort(siz) & 0xFFFF) != MARKER_SIZ)
+				throw new IllegalStateException("JPEG2000 SIZ marker not found");
+			mainHeader.putInt(siz + SIZ_WIDTH_OFFSET, width);
+			mainHeader.putInt(siz + SIZ_HEIGHT_OFFSET, height);
+			mainHeader.putInt(siz + SIZ_TILE_WIDTH_OFFSET, tileSize);
+			mainHeader.putInt(siz + SIZ_TILE_HEIGHT_OFFSET, tileSize);
+
+			LOGGER.debug("encode :: {}x{} tiles of {} pixels", columns, rows, tileSize);
+			return wrap(first, codestream, data, width, height);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			tiles.forEach(tile -> tile.cancel(true));
+			throw new IllegalStateException("Tiled JPEG2000 encoding interrupted", ex);
+		} catch (ExecutionException ex) {
+			tiles.forEach(tile -> tile.cancel(true));
+			throw new IllegalStateException("Tiled JPEG2000 encoding failed", ex.getCause());
+		} catch (IOException ex) {
+			throw new IllegalStateException("Tiled JPEG2000 encoding failed", ex);
+		}
+	}
+
+	private static Callable<byte[]> encodeTile(Mat image, Rect region, int compression) {
+		return () -> {
+			Mat tile = image.submat(region);
+			MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, compression);
+			MatOfByte encoded = new MatOfByte();
+			try {
+				if (!Imgcodecs.imencode(".jp2", tile, encoded, params))
+					throw new IllegalStateException("Tile " + region + " could not be encoded");
+				return encoded.toArray();
+			} finally {
+				tile.release();
+				params.release();
+				encoded.release();
+			}
+		};
+	}
+
+	/**
+	 * Copies the tile-part of a single tile JP2 file, renumbered as the given
+	 * tile.
+	 */
+	private static void writeTilePart(ByteArrayOutputStream out, byte[] tile, int index) {
+		int codestream = findBox(tile, BOX_CODESTREAM);
+		int start = findFirstTilePart(tile, codestream + 8);
+		ByteBuffer data = ByteBuffer.wrap(tile);
+		long length = data.getInt(start + 6) & 0xFFFFFFFFL;
+		if (length == 0)
+			length = (long) boxEnd(tile, codestream) - 2 - start; // runs up to EOC
+		if (data.get(start + 11) != 1)
+			throw new IllegalStateException("JPEG2000 tile encoded in several tile-parts");
+
+		byte[] tilePart = new byte[(int) length];
+		System.arraycopy(tile, start, tilePart, 0, tilePart.length);
+		ByteBuffer.wrap(tilePart).putShort(4, (short) index).putInt(6, tilePart.length);
+		out.writeBytes(tilePart);
+	}
+
+	/**
+	 * Builds the JP2 file from the boxes of the first tile, with the image size
+	 * rewritten and the stitched codestream.
+	 */
+	private static byte[] wrap(byte[] first, int codestream, byte[] data, int width, int height) throws IOException {
+		byte[] boxes = new byte[codestream];
+		System.arraycopy(first, 0, boxes, 0, codestream);
+		int imageHeader = findBox(boxes, BOX_IMAGE_HEADER);
+		ByteBuffer.wrap(boxes).putInt(imageHeader + 8, height).putInt(imageHeader + 12, width);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(boxes.length + 8 + data.length);
+		DataOutputStream box = new DataOutputStream(out);
+		box.write(boxes);
+		box.writeInt(8 + data.length);
+		box.writeInt(BOX_CODESTREAM);
+		box.write(data);
+		box.flush();
+		return out.toByteArray();
+	}
+
+	/**
+	 * Finds a box, looking into the JP2 header super box, and returns its offset.
+	 */
+	private static int findBox(byte[] file, int type) {
+		ByteBuffer data = ByteBuffer.wrap(file);
+		int offset = 0;
+		while (offset + 8 <= file.length) {
+			int boxType = data.getInt(offset + 4);
+			if (boxType == type)
+				return offset;
+			if (boxType == 0x6A703268) { // JP2 header super box
+				offset += 8;
+				continue;
+			}
+			long length = data.getInt(offset) & 0xFFFFFFFFL;
+			if (length == 0)
+				break;
+			if (length < 8)
+				throw new IllegalStateException("Unsupported JP2 box length " + length);
+			offset += (int) length;
+		}
+		throw new IllegalStateException("JP2 box " + Integer.toHexString(type) + " not found");
+	}
+
+	private static int boxEnd(byte[] file, int offset) {
+		long length = ByteBuffer.wrap(file).getInt(offset) & 0xFFFFFFFFL;
+		return length == 0 ? file.length : (int) (offset + length);
+	}
+
+	/**
+	 * Walks the main header marker segments of a codestream up to the first SOT
+	 * marker.
+	 */
+	private static int findFirstTilePart(byte[] file, int codestream) {
+		ByteBuffer data = ByteBuffer.wrap(file);
+		int offset = codestream + 2; // SOC
+		while (offset + 4 <= file.length) {
+			int marker = data.getShort(offset) & 0xFFFF;
+			if (marker == MARKER_SOT)
+				return offset;
+			offset += 2 + (data.getShort(offset + 2) & 0xFFFF);
+		}
+		throw new IllegalStateException("JPEG2000 tile-part not found");
+	}
+
+	private static boolean fitsEdge(int extent, int size) {
+		int remainder = extent % size;
+		return remainder == 0 || remainder >= MIN_TILE_EXTENT;
+	}
+
+	private static ExecutorService newExecutor(int threads) {
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "jp2-tile-encoder-" + threads + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+}
@@ -0,0 +1,122 @@
+package io.mosip.image.compressor.sdk.match;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Least recently used cache of {@link FaceDescriptor}s, keyed by the SHA-256
+ * digest of the face ISO record they were computed from.
+ * <p>
+ * Hashing a record is much cheaper than decoding its image, so a record sent
+ * again, in the same gallery or in a later request, is decoded only once. The
+ * descriptor is computed outside of the lock; two threads computing the same
+ * record at once both compute it.
+ * </p>
+ */
+public final class DescriptorCache {
+	/** Default maximum number of descriptors. */
+	public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+	private static final DescriptorCache INSTANCE = new DescriptorCache(DEFAULT_MAXIMUM_SIZE);
+
+	private final Map<String, FaceDescriptor> descriptors = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, FaceDescriptor> eldest) {
+			return size() > maximumSize;
+		}
+	};
+	private int maximumSize;
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param maximumSize The maximum number of descriptors, 0 disables caching.
+	 */
+	public DescriptorCache(int maximumSize) {
+		setMaximumSize(maximumSize);
+	}
+
+	/**
+	 * Returns the cache shared by the SDK.
+	 *
+	 * @return The cache.
+	 */
+	public static DescriptorCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Sets the maximum number of descriptors, evicting the least recently used
+	 * ones when the cache shrinks.
+	 *
+	 * @param maximumSize The maximum number of descriptors, 0 disables caching.
+	 */
+	public synchronized void setMaximumSize(int maximumSize) {
+		this.maximumSize = Math.max(0, maximumSize);
+		var iterator = descriptors.entrySet().iterator();
+		while (descriptors.size() > this.maximumSize && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Returns the descriptor of a record, computing and caching it if needed.
+	 *
+	 * @param record  The face ISO record.
+	 * @param compute Computes the descriptor of the record.
+	 * @return The descriptor.
+	 */
+	public FaceDescriptor get(byte[] record, Supplier<FaceDescriptor> compute) {
+		return get(key(record), compute);
+	}
+
+	/**
+	 * Returns the descriptor of a record already hashed, computing and caching it
+	 * if needed.
+	 *
+	 * @param key     The {@link #key(byte[]) key} of the face ISO record.
+	 * @param compute Computes the descriptor of the record.
+	 * @return The descriptor.
+	 */
+	public FaceDescriptor get(String key, Supplier<FaceDescriptor> compute) {
+		synchronized (this) {
+			FaceDescriptor descriptor = descriptors.get(key);
+			if (descriptor != null)
+				return descriptor;
+		}
+		FaceDescriptor descriptor = compute.get();
+		synchronized (this) {
+			descriptors.put(key, descriptor);
+		}
+		return descriptor;
+	}
+
+	public synchronized int size() {
+		return descriptors.size();
+	}
+
+	public synchronized void clear() {
+		descriptors.clear();
+	}
+
+	/**
+	 * Returns the cache key of a record, the hexadecimal SHA-256 digest.
+	 *
+	 * @param record The record.
+	 * @return The key.
+	 */
+	public static String key(byte[] record) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(record));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package io.mosip.image.compressor.sdk.match;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A gallery of {@link FaceDescriptor}s, scanned for the distances to a probe.
+ * <p>
+ * The hashes are stored in two primitive arrays, so that a scan reads them
+ * sequentially. The Hamming distances are computed with the incubating Vector
+ * API when the {@code jdk.incubator.vector} module is added to the JVM
+ * ({@code --add-modules jdk.incubator.vector}), and with plain Java otherwise.
+ * Galleries larger than a chunk are scanned in parallel chunks on the common
+ * fork join pool. Descriptors are added by a single thread, before scanning.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * DescriptorGallery gallery = new DescriptorGallery(records.length);
+ * for (byte[] image : images)
+ *     gallery.add(FaceDescriptor.compute(image));
+ * int[] distances = gallery.distances(probe);
+ * }</pre>
+ * </p>
+ */
+public final class DescriptorGallery {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DescriptorGallery.class);
+
+	private static final HammingKernels SCALAR = new ScalarHammingKernels();
+	private static final HammingKernels DEFAULT = createDefault();
+
+	/** Number of descriptors scanned by one task. */
+	static final int CHUNK_SIZE = 4096;
+
+	private final HammingKernels kernels;
+	private long[] perceptual;
+	private long[] difference;
+	private int size;
+
+	/**
+	 * Creates an empty gallery, vectorized when the Vector API is available.
+	 *
+	 * @param capacity The expected number of descriptors.
+	 */
+	public DescriptorGallery(int capacity) {
+		this(DEFAULT, capacity);
+	}
+
+	private DescriptorGallery(HammingKernels kernels, int capacity) {
+		this.kernels = kernels;
+		this.perceptual = new long[Math.max(capacity, 16)];
+		this.difference = new long[perceptual.length];
+	}
+
+	/**
+	 * Creates an empty gallery computing the distances with plain Java.
+	 *
+	 * @param capacity The expected number of descriptors.
+	 * @return The gallery.
+	 */
+	public static DescriptorGallery scalar(int capacity) {
+		return new DescriptorGallery(SCALAR, capacity);
+	}
+
+	public boolean isVectorized() {
+		return kernels != SCALAR;
+	}
+
+	/**
+	 * Adds a descriptor.
+	 *
+	 * @param descriptor The descriptor.
+	 * @return The index of the descriptor in the gallery.
+	 */
+	public int add(FaceDescriptor descriptor) {
+		if (size == perceptual.length) {
+			perceptual = Arrays.copyOf(perceptual, size * 2);
+			difference = Arrays.copyOf(difference, size * 2);
+		}
+		perceptual[size] = descriptor.getPerceptualHash();
+		difference[size] = descriptor.getDifferenceHash();
+		return size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the descriptor at an index.
+	 *
+	 * @param index The index, from 0 to {@link #size()}.
+	 * @return The descriptor.
+	 */
+	public FaceDescriptor get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(index);
+		return new FaceDescriptor(perceptual[index], difference[index]);
+	}
+
+	/**
+	 * Returns the distances of every descriptor of the gallery to the probe.
+	 *
+	 * @param probe The probe descriptor.
+	 * @return The distances, indexed as the gallery.
+	 */
+	public int[] distances(FaceDescriptor probe) {
+		int[] distances = new int[size];
+		long probePerceptual = probe.getPerceptualHash();
+		long probeDifference = probe.getDifferenceHash();
+		int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		if (chunks <= 1) {
+			kernels.distances(perceptual, difference, probePerceptual, probeDifference, distances, 0, size);
+		} else {
+			IntStream.range(0, chunks).parallel()
+					.forEach(chunk -> kernels.distances(perceptual, difference, probePerceptual, probeDifference,
+							distances, chunk * CHUNK_SIZE, Math.min(size, (chunk + 1) * CHUNK_SIZE)));
+		}
+		return distances;
+	}
+
+	private static HammingKernels createDefault() {
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			try {
+				return new VectorHammingKernels();
+			} catch (LinkageError ex) {
+				LOGGER.warn("Vector API not usable, Hamming distances in plain Java", ex);
+			}
+		}
+		return SCALAR;
+	}
+}
@@ -0,0 +1,388 @@
+package io.mosip.image.compressor.sdk.match;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent index of {@link FaceDescriptor}s keyed by segment ID, so that a
+ * gallery record seen before is matched without reading its image.
+ * <p>
+ * The index is a memory mapped file of fixed size entries: the 64 bit hash of
+ * the segment ID, the first 64 bits of the SHA-256 digest of the face record
+ * the descriptor was computed from, and the two hashes of the descriptor. The entries at the start of the
+ * file are sorted by ID hash and are binary searched in the mapping, without
+ * copying them to the heap. New entries are appended after them, and the last
+ * entry of an ID wins. When the appended entries grow past a quarter of the
+ * sorted ones, the index is compacted: the latest entry of every ID is sorted
+ * into a temporary file, and copied back to the start of the mapped file,
+ * which is never replaced while it is mapped. The index is emptied before the
+ * entries are copied back, so that an interrupted compaction leaves an empty
+ * index rather than a corrupted one.
+ * </p>
+ * <p>
+ * An entry is only used when the digest of the face record is unchanged, so a
+ * segment ID reused for another capture, even of the same length, is
+ * described again. The digest is the {@link DescriptorCache#key(byte[]) key}
+ * the record is cached by. The index is used by one process at a time: the
+ * file is locked while it is open, and opening a file locked by another index
+ * fails. Appended entries are written to the file by the operating system,
+ * {@link #force()} writes them synchronously. A mapping is limited to 2 GB,
+ * about 64 million entries.
+ * </p>
+ */
+public final class DescriptorIndex implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DescriptorIndex.class);
+
+	private static final int MAGIC = 0x4d464449; // "MFDI"
+	private static final int VERSION = 2;
+	/** Version of the entries keyed by record length, read as an empty index. */
+	private static final int LENGTH_VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	private static final int SORTED_COUNT_OFFSET = 8;
+	private static final int COUNT_OFFSET = 16;
+	private static final int ENTRY_SIZE = 32;
+	private static final int MINIMUM_CAPACITY = 1024;
+	private static final int MAXIMUM_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / ENTRY_SIZE;
+	/** Appended entries always allowed before a compaction. */
+	private static final int MINIMUM_UNSORTED = 4096;
+
+	private static final Map<Path, DescriptorIndex> INDEXES = new ConcurrentHashMap<>();
+
+	private final Path path;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int capacity;
+	private int sortedCount;
+	private int count;
+	/** Latest appended entry of every ID hash. */
+	private final Map<Long, Integer> unsorted = new HashMap<>();
+
+	private DescriptorIndex(Path path) throws IOException {
+		this.path = path;
+		map();
+	}
+
+	/**
+	 * Opens an index, creating it if the file does not exist.
+	 *
+	 * @param path The index file.
+	 * @return The index, to be closed by the caller.
+	 * @throws IOException If the file cannot be opened, is not an index or is
+	 *                     locked by another index.
+	 */
+	public static DescriptorIndex open(Path path) throws IOException {
+		return new DescriptorIndex(path);
+	}
+
+	/**
+	 * Returns the index shared by the SDK for a path, opened once and kept open.
+	 *
+	 * @param path The index file.
+	 * @return The index.
+	 * @throws UncheckedIOException If the index cannot be opened.
+	 */
+	public static DescriptorIndex forPath(String path) {
+		return INDEXES.computeIfAbsent(Paths.get(path.trim()).toAbsolutePath().normalize(), key -> {
+			try {
+				return open(key);
+			} catch (IOException ex) {
+				throw new UncheckedIOException("Descriptor index cannot be opened " + key, ex);
+			}
+		});
+	}
+
+	private void map() throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		FileLock lock;
+		try {
+			lock = channel.tryLock();
+		} catch (OverlappingFileLockException ex) {
+			lock = null;
+		}
+		if (lock == null) {
+			channel.close();
+			throw new IOException("Descriptor index used by another process: " + path);
+		}
+		long size = channel.size();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		channel.read(header, 0);
+		if (size == 0 || size >= HEADER_SIZE && header.getInt(0) == MAGIC && header.getInt(4) == LENGTH_VERSION) {
+			if (size > 0)
+				LOGGER.info("Descriptor Index Details :: Entries keyed by record length dropped from {}", path);
+			sortedCount = 0;
+			count = 0;
+		} else {
+			if (size < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+				channel.close();
+				throw new IOException("Not a descriptor index: " + path);
+			}
+			sortedCount = (int) header.getLong(SORTED_COUNT_OFFSET);
+			count = (int) header.getLong(COUNT_OFFSET);
+			if (sortedCount < 0 || count < sortedCount || HEADER_SIZE + (long) count * ENTRY_SIZE > size) {
+				channel.close();
+				throw new IOException("Corrupted descriptor index: " + path);
+			}
+		}
+		remap(Math.max(count, MINIMUM_CAPACITY));
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		writeCounts();
+
+		unsorted.clear();
+		for (int slot = sortedCount; slot < count; slot++)
+			unsorted.put(keyAt(slot), slot);
+	}
+
+	private void remap(int entries) throws IOException {
+		capacity = entries;
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * ENTRY_SIZE);
+	}
+
+	/**
+	 * Looks up the descriptors of several segments at once.
+	 *
+	 * @param ids        The segment IDs, null entries are skipped.
+	 * @param recordKeys The {@link DescriptorCache#key(byte[]) keys} of the face
+	 *                   records of the segments.
+	 * @return The descriptors, null where a segment is not indexed or was
+	 *         indexed with another record.
+	 */
+	public synchronized FaceDescriptor[] lookup(String[] ids, String[] recordKeys) {
+		FaceDescriptor[] descriptors = new FaceDescriptor[ids.length];
+		for (int index = 0; index < ids.length; index++) {
+			if (ids[index] == null)
+				continue;
+			int slot = find(hash(ids[index]));
+			if (slot >= 0 && recordHashAt(slot) == recordHash(recordKeys[index]))
+				descriptors[index] = descriptorAt(slot);
+		}
+		return descriptors;
+	}
+
+	/**
+	 * Looks up the descriptor of a segment.
+	 *
+	 * @param id        The segment ID.
+	 * @param recordKey The {@link DescriptorCache#key(byte[]) key} of the face
+	 *                  record of the segment.
+	 * @return The descriptor, or null.
+	 */
+	public FaceDescriptor get(String id, String recordKey) {
+		return lookup(new String[] { id }, new String[] { recordKey })[0];
+	}
+
+	/**
+	 * Appends the descriptors of several segments, replacing any previous entry
+	 * of their IDs, and compacts the index when enough entries were appended.
+	 *
+	 * @param ids         The segment IDs, null entries are skipped.
+	 * @param recordKeys  The {@link DescriptorCache#key(byte[]) keys} of the face
+	 *                    records of the segments.
+	 * @param descriptors The descriptors, null entries are skipped.
+	 * @throws IOException If the index cannot be grown or compacted.
+	 */
+	public synchronized void appendAll(String[] ids, String[] recordKeys, FaceDescriptor[] descriptors)
+			throws IOException {
+		for (int index = 0; index < ids.length; index++) {
+			if (ids[index] == null || descriptors[index] == null)
+				continue;
+			if (count == capacity) {
+				if (capacity == MAXIMUM_CAPACITY)
+					throw new IOException("Descriptor index is full: " + path);
+				remap((int) Math.min(MAXIMUM_CAPACITY, capacity * 2L));
+			}
+			long key = hash(ids[index]);
+			int offset = HEADER_SIZE + count * ENTRY_SIZE;
+			buffer.putLong(offset, key);
+			buffer.putLong(offset + 8, recordHash(recordKeys[index]));
+			buffer.putLong(offset + 16, descriptors[index].getPerceptualHash());
+			buffer.putLong(offset + 24, descriptors[index].getDifferenceHash());
+			unsorted.put(key, count++);
+		}
+		writeCounts();
+		if (count - sortedCount > Math.max(MINIMUM_UNSORTED, sortedCount / 4))
+			compact();
+	}
+
+	/**
+	 * Appends the descriptor of a segment.
+	 *
+	 * @param id         The segment ID.
+	 * @param recordKey  The {@link DescriptorCache#key(byte[]) key} of the face
+	 *                   record of the segment.
+	 * @param descriptor The descriptor.
+	 * @throws IOException If the index cannot be grown or compacted.
+	 */
+	public void append(String id, String recordKey, FaceDescriptor descriptor) throws IOException {
+		appendAll(new String[] { id }, new String[] { recordKey }, new FaceDescriptor[] { descriptor });
+	}
+
+	/**
+	 * Rewrites the index with the latest entry of every ID, sorted by ID hash.
+	 *
+	 * @throws IOException If the index cannot be rewritten.
+	 */
+	public synchronized void compact() throws IOException {
+		long[] appended = new long[unsorted.size()];
+		int next = 0;
+		for (long key : unsorted.keySet())
+			appended[next++] = key;
+		Arrays.sort(appended);
+
+		Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+		int entries = 0;
+		try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer block = ByteBuffer.allocate(ENTRY_SIZE * 1024);
+			int sorted = 0;
+			int added = 0;
+			while (sorted < sortedCount || added < appended.length) {
+				long sortedKey = sorted < sortedCount ? keyAt(sorted) : Long.MAX_VALUE;
+				int slot;
+				if (added < appended.length && (sorted == sortedCount || appended[added] <= sortedKey)) {
+					if (sorted < sortedCount && appended[added] == sortedKey)
+						sorted++;
+					slot = unsorted.get(appended[added++]);
+				} else {
+					slot = sorted++;
+				}
+				block.put(buffer.slice(HEADER_SIZE + slot * ENTRY_SIZE, ENTRY_SIZE));
+				entries++;
+				if (!block.hasRemaining()) {
+					writeFully(out, block.flip());
+					block.clear();
+				}
+			}
+			writeFully(out, block.flip());
+
+			int before = count;
+			sortedCount = 0;
+			count = 0;
+			unsorted.clear();
+			writeCounts();
+			buffer.force();
+
+			ByteBuffer region = buffer.slice(HEADER_SIZE, entries * ENTRY_SIZE);
+			while (region.hasRemaining())
+				if (out.read(region, region.position()) < 0)
+					throw new IOException("Descriptor index compaction truncated: " + compacted);
+			sortedCount = entries;
+			count = entries;
+			writeCounts();
+			buffer.force();
+			LOGGER.info("Descriptor Index Details :: Compacted {} entries to {}", before, entries);
+		} finally {
+			Files.deleteIfExists(compacted);
+		}
+	}
+
+	private static void writeFully(FileChannel out, ByteBuffer data) throws IOException {
+		while (data.hasRemaining())
+			out.write(data);
+	}
+
+	/**
+	 * Returns the number of entries, including the entries replaced by a later
+	 * one until the index is compacted.
+	 *
+	 * @return The number of entries.
+	 */
+	public synchronized int size() {
+		return count;
+	}
+
+	/**
+	 * Writes the appended entries to the file.
+	 */
+	public synchronized void force() {
+		buffer.force();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel.isOpen()) {
+			buffer.force();
+			channel.close();
+		}
+		INDEXES.remove(path.toAbsolutePath().normalize(), this);
+	}
+
+	private int find(long key) {
+		Integer slot = unsorted.get(key);
+		if (slot != null)
+			return slot;
+		int low = 0;
+		int high = sortedCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long middleKey = keyAt(middle);
+			if (middleKey < key)
+				low = middle + 1;
+			else if (middleKey > key)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
+	private void writeCounts() {
+		buffer.putLong(SORTED_COUNT_OFFSET, sortedCount);
+		buffer.putLong(COUNT_OFFSET, count);
+	}
+
+	private long keyAt(int slot) {
+		return buffer.getLong(HEADER_SIZE + slot * ENTRY_SIZE);
+	}
+
+	private long recordHashAt(int slot) {
+		return buffer.getLong(HEADER_SIZE + slot * ENTRY_SIZE + 8);
+	}
+
+	private FaceDescriptor descriptorAt(int slot) {
+		int offset = HEADER_SIZE + slot * ENTRY_SIZE;
+		return new FaceDescriptor(buffer.getLong(offset + 16), buffer.getLong(offset + 24));
+	}
+
+	/**
+	 * Returns the first 64 bits of the hexadecimal SHA-256 digest of a record.
+	 */
+	private static long recordHash(String recordKey) {
+		return HexFormat.fromHexDigitsToLong(recordKey, 0, 16);
+	}
+
+	/**
+	 * Returns the 64 bit hash of a segment ID, the first bytes of its SHA-256
+	 * digest.
+	 */
+	static long hash(String id) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(id.getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(digest).getLong();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+}
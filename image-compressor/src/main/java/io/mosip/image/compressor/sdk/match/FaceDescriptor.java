@@ -0,0 +1,174 @@
+package io.mosip.image.compressor.sdk.match;
+
+import java.util.Arrays;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.image.compressor.sdk.colour.ColourConversion;
+import io.mosip.image.compressor.sdk.colour.ColourMode;
+
+/**
+ * Compact perceptual descriptor of a face image, for near duplicate
+ * detection.
+ * <p>
+ * The descriptor has 127 bits: a 63 bit perceptual hash, the signs of the 8 x 8
+ * low frequency DCT coefficients but the DC one of the grey image reduced to
+ * 32 x 32 pixels relative to their median, and a 64 bit difference hash, the signs of the
+ * horizontal gradients of the grey image reduced to 9 x 8 pixels. Both are
+ * computed on the reduced image, so they do not depend on the size, bit depth,
+ * colour or compression of the image: a compressed face stays within a few
+ * bits of its original, while different faces differ in about half of the
+ * bits. Descriptors are compared with the Hamming distance.
+ * </p>
+ */
+public final class FaceDescriptor {
+	/** Number of bits of a descriptor, the largest possible distance. */
+	public static final int BITS = 127;
+
+	private static final int DCT_SIZE = 32;
+	private static final int LOW_FREQUENCIES = 8;
+	private static final int GRADIENT_WIDTH = 9;
+	private static final int GRADIENT_HEIGHT = 8;
+
+	private final long perceptualHash;
+	private final long differenceHash;
+
+	/**
+	 * Creates a descriptor from its hashes.
+	 *
+	 * @param perceptualHash The perceptual hash.
+	 * @param differenceHash The difference hash.
+	 */
+	public FaceDescriptor(long perceptualHash, long differenceHash) {
+		this.perceptualHash = perceptualHash;
+		this.differenceHash = differenceHash;
+	}
+
+	/**
+	 * Computes the descriptor of an encoded image.
+	 *
+	 * @param encodedImage The image, in any format OpenCV decodes.
+	 * @return The descriptor.
+	 * @throws IllegalArgumentException If the image cannot be decoded.
+	 */
+	public static FaceDescriptor compute(byte[] encodedImage) {
+		Mat decoded = Imgcodecs.imdecode(new MatOfByte(encodedImage), Imgcodecs.IMREAD_UNCHANGED);
+		try {
+			if (decoded.empty())
+				throw new IllegalArgumentException("Image could not be decoded");
+			return compute(decoded);
+		} finally {
+			decoded.release();
+		}
+	}
+
+	/**
+	 * Computes the descriptor of an image.
+	 *
+	 * @param image The image, 8 or 16 bit with 1, 3 or 4 channels. It is not
+	 *              modified.
+	 * @return The descriptor.
+	 */
+	public static FaceDescriptor compute(Mat image) {
+		Mat grey = ColourConversion.convert(image, ColourMode.GREY);
+		Mat eightBit = ColourConversion.toEightBit(grey);
+		try {
+			return new FaceDescriptor(perceptualHash(eightBit), differenceHash(eightBit));
+		} finally {
+			if (eightBit != image)
+				eightBit.release();
+			if (grey != image && grey != eightBit)
+				grey.release();
+		}
+	}
+
+	private static long perceptualHash(Mat grey) {
+		Mat reduced = new Mat();
+		Imgproc.resize(grey, reduced, new Size(DCT_SIZE, DCT_SIZE), 0, 0, Imgproc.INTER_AREA);
+		Mat samples = new Mat();
+		reduced.convertTo(samples, CvType.CV_32F);
+		Mat frequencies = new Mat();
+		Core.dct(samples, frequencies);
+
+		float[] row = new float[DCT_SIZE];
+		float[] coefficients = new float[LOW_FREQUENCIES * LOW_FREQUENCIES];
+		for (int y = 0; y < LOW_FREQUENCIES; y++) {
+			frequencies.get(y, 0, row);
+			System.arraycopy(row, 0, coefficients, y * LOW_FREQUENCIES, LOW_FREQUENCIES);
+		}
+		reduced.release();
+		samples.release();
+		frequencies.release();
+
+		// The DC coefficient only reflects the brightness, bit 0 is always clear
+		float[] sorted = Arrays.copyOfRange(coefficients, 1, coefficients.length);
+		Arrays.sort(sorted);
+		float median = (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+		long hash = 0;
+		for (int index = 1; index < coefficients.length; index++) {
+			if (coefficients[index] > median)
+				hash |= 1L << index;
+		}
+		return hash;
+	}
+
+	private static long differenceHash(Mat grey) {
+		Mat reduced = new Mat();
+		Imgproc.resize(grey, reduced, new Size(GRADIENT_WIDTH, GRADIENT_HEIGHT), 0, 0, Imgproc.INTER_AREA);
+		byte[] samples = new byte[GRADIENT_WIDTH * GRADIENT_HEIGHT];
+		reduced.get(0, 0, samples);
+		reduced.release();
+
+		long hash = 0;
+		int bit = 0;
+		for (int y = 0; y < GRADIENT_HEIGHT; y++) {
+			for (int x = 0; x < GRADIENT_WIDTH - 1; x++, bit++) {
+				int offset = y * GRADIENT_WIDTH + x;
+				if ((samples[offset] & 0xFF) < (samples[offset + 1] & 0xFF))
+					hash |= 1L << bit;
+			}
+		}
+		return hash;
+	}
+
+	public long getPerceptualHash() {
+		return perceptualHash;
+	}
+
+	public long getDifferenceHash() {
+		return differenceHash;
+	}
+
+	/**
+	 * Returns the Hamming distance to another descriptor.
+	 *
+	 * @param other The other descriptor.
+	 * @return The number of differing bits, from 0 to {@link #BITS}.
+	 */
+	public int distance(FaceDescriptor other) {
+		return Long.bitCount(perceptualHash ^ other.perceptualHash)
+				+ Long.bitCount(differenceHash ^ other.differenceHash);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof FaceDescriptor other && perceptualHash == other.perceptualHash
+				&& differenceHash == other.differenceHash;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(perceptualHash) * 31 + Long.hashCode(differenceHash);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%016x%016x", perceptualHash, differenceHash);
+	}
+}
@@ -0,0 +1,21 @@
+package io.mosip.image.compressor.sdk.match;
+
+/**
+ * Hamming distance loop of {@link DescriptorGallery}, where the time of a
+ * gallery scan is spent.
+ */
+interface HammingKernels {
+	/**
+	 * Computes the distances of a range of gallery descriptors to the probe.
+	 *
+	 * @param perceptual      The perceptual hashes of the gallery.
+	 * @param difference      The difference hashes of the gallery.
+	 * @param probePerceptual The perceptual hash of the probe.
+	 * @param probeDifference The difference hash of the probe.
+	 * @param distances       The distances, written at the gallery indexes.
+	 * @param from            The first gallery index, inclusive.
+	 * @param to              The last gallery index, exclusive.
+	 */
+	void distances(long[] perceptual, long[] difference, long probePerceptual, long probeDifference,
+			int[] distances, int from, int to);
+}
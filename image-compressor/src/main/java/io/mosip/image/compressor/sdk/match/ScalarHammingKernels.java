@@ -0,0 +1,15 @@
+package io.mosip.image.compressor.sdk.match;
+
+/**
+ * Plain Java {@link HammingKernels}. {@link Long#bitCount(long)} is compiled to
+ * the population count instruction of the processor.
+ */
+final class ScalarHammingKernels implements HammingKernels {
+	@Override
+	public void distances(long[] perceptual, long[] difference, long probePerceptual, long probeDifference,
+			int[] distances, int from, int to) {
+		for (int i = from; i < to; i++)
+			distances[i] = Long.bitCount(perceptual[i] ^ probePerceptual)
+					+ Long.bitCount(difference[i] ^ probeDifference);
+	}
+}
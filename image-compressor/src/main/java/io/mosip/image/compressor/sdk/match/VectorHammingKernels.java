@@ -0,0 +1,40 @@
+package io.mosip.image.compressor.sdk.match;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link HammingKernels} vectorized with the incubating Vector API.
+ * <p>
+ * A vector of gallery hashes is compared with the probe hash broadcast to
+ * every lane, and the bit counts of both hashes are added and narrowed to int
+ * lanes. Only loaded when the {@code jdk.incubator.vector} module is present.
+ * </p>
+ */
+final class VectorHammingKernels implements HammingKernels {
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	/** Int species with as many lanes as {@link #LONGS}. */
+	private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class,
+			VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+	@Override
+	public void distances(long[] perceptual, long[] difference, long probePerceptual, long probeDifference,
+			int[] distances, int from, int to) {
+		LongVector probeP = LongVector.broadcast(LONGS, probePerceptual);
+		LongVector probeD = LongVector.broadcast(LONGS, probeDifference);
+		int i = from;
+		for (int bound = from + LONGS.loopBound(to - from); i < bound; i += LONGS.length()) {
+			LongVector bits = LongVector.fromArray(LONGS, perceptual, i).lanewise(VectorOperators.XOR, probeP)
+					.lanewise(VectorOperators.BIT_COUNT)
+					.add(LongVector.fromArray(LONGS, difference, i).lanewise(VectorOperators.XOR, probeD)
+							.lanewise(VectorOperators.BIT_COUNT));
+			((IntVector) bits.convertShape(VectorOperators.L2I, INTS, 0)).intoArray(distances, i);
+		}
+		for (; i < to; i++)
+			distances[i] = Long.bitCount(perceptual[i] ^ probePerceptual)
+					+ Long.bitCount(difference[i] ^ probeDifference);
+	}
+}
@@ -0,0 +1,364 @@
+package io.mosip.image.compressor.sdk.natives;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+import org.opencv.core.Core;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+
+/**
+ * Loads the OpenCV native library bundled with the openpnp OpenCV jar.
+ * <p>
+ * {@code nu.pattern.OpenCV.loadLocally()} extracts the library, about 60 MB on
+ * Linux, into a new temporary directory on every JVM start. This loader copies
+ * it once into a cache directory and loads the cached copy on later starts.
+ * The cached file name carries the CRC-32 recorded for the library in the jar,
+ * so that a copy from another OpenCV version is never used, and the SHA-256 of
+ * the library, computed while it is extracted, is stored next to it. The copy
+ * is written to a temporary file and moved into place atomically, so several
+ * JVMs of the same user can share the directory.
+ * </p>
+ * <p>
+ * A library loaded from a directory other users can write to could be
+ * replaced between its verification and {@code System.load}. The cache
+ * directory and the cached files must therefore be owned by the user running
+ * the JVM, or by root, and not be writable by group or others; a directory
+ * created by the loader is only accessible by its owner. The SHA-256 of the
+ * cached copy is then checked before it is loaded, so that a partial or
+ * corrupted copy is never used. On file systems without POSIX permissions, the
+ * access control of the directory is left to the operating system.
+ * </p>
+ * <p>
+ * The library is loaded when the first class using OpenCV is initialized,
+ * before the Spring environment is available. The cache directory is therefore
+ * read from the {@value SdkConstant#IMAGE_COMPRESSOR_NATIVE_CACHE_DIR} system
+ * property or the {@value #CACHE_DIR_VARIABLE} environment variable, and
+ * defaults to {@code .cache/mosip-image-compressor} in the home directory of
+ * the user. When the cache cannot be used, the library is loaded with {@code loadLocally()}.
+ * When that fails as well, for example on hosts that forbid loading native
+ * code from writable directories, {@link #isAvailable()} returns {@code false}
+ * and the SDK compresses with the pure Java engine.
+ * </p>
+ */
+public final class OpenCvNativeLoader {
+	private static final Logger LOGGER = LoggerFactory.getLogger(OpenCvNativeLoader.class);
+
+	/** Environment variable holding the cache directory. */
+	public static final String CACHE_DIR_VARIABLE = "MOSIP_BIO_IMAGE_COMPRESSOR_NATIVE_CACHE_DIR";
+
+	private static final String RESOURCE_ROOT = "/nu/pattern/opencv/";
+	private static final String DIGEST_SUFFIX = ".sha256";
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+	private static volatile boolean loaded;
+	private static volatile boolean available;
+	private static volatile Path libraryPath;
+
+	private OpenCvNativeLoader() {
+		throw new IllegalStateException("OpenCvNativeLoader class");
+	}
+
+	/**
+	 * Loads the OpenCV native library, once per class loader. A failure is logged
+	 * and not thrown, see {@link #isAvailable()}.
+	 */
+	public static void load() {
+		if (loaded)
+			return;
+		synchronized (OpenCvNativeLoader.class) {
+			if (loaded)
+				return;
+			try {
+				Path library = extractTo(getCacheDirectory());
+				System.load(library.toString());
+				libraryPath = library;
+				available = true;
+				LOGGER.info("Loaded OpenCV native library from {}", library);
+			} catch (IOException | RuntimeException | UnsatisfiedLinkError ex) {
+				LOGGER.warn("OpenCV native cache not usable, extracting the library to a temporary directory", ex);
+				available = loadLocally();
+			}
+			loaded = true;
+		}
+	}
+
+	/**
+	 * Loads the OpenCV native library if needed and tells whether it is usable.
+	 *
+	 * @return {@code true} if the library is loaded.
+	 */
+	public static boolean isAvailable() {
+		load();
+		return available;
+	}
+
+	/**
+	 * Tells whether the library has already been loaded, without loading it.
+	 *
+	 * @return {@code true} if the library is loaded.
+	 */
+	public static boolean isLoaded() {
+		return loaded && available;
+	}
+
+	private static boolean loadLocally() {
+		try {
+			nu.pattern.OpenCV.loadLocally();
+			return true;
+		} catch (RuntimeException | LinkageError ex) {
+			LOGGER.error("OpenCV native library could not be loaded", ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the cached library that was loaded.
+	 *
+	 * @return The path of the loaded library, or null if it was not loaded from
+	 *         the cache.
+	 */
+	public static Path getLibraryPath() {
+		return libraryPath;
+	}
+
+	/**
+	 * Returns the configured cache directory, by default
+	 * {@code .cache/mosip-image-compressor} in the home directory of the user.
+	 *
+	 * @return The cache directory.
+	 */
+	public static Path getCacheDirectory() {
+		String directory = System.getProperty(SdkConstant.IMAGE_COMPRESSOR_NATIVE_CACHE_DIR);
+		if (directory == null || directory.isBlank())
+			directory = System.getenv(CACHE_DIR_VARIABLE);
+		if (directory == null || directory.isBlank())
+			return Paths.get(System.getProperty("user.home"), ".cache", "mosip-image-compressor");
+		return Paths.get(directory.trim());
+	}
+
+	/**
+	 * Copies the native library of this platform into the directory, unless a
+	 * verified copy is already there. This can also be used to fill the cache when
+	 * a container image is built; the directory must then be readable, but not
+	 * writable, by the user running the SDK.
+	 *
+	 * @param directory The cache directory, created only accessible by its owner
+	 *                  if needed.
+	 * @return The path of the verified copy.
+	 * @throws IOException If the platform has no bundled library, the directory
+	 *                     can be written by other users, or the copy cannot be
+	 *                     written or verified.
+	 */
+	public static Path extractTo(Path directory) throws IOException {
+		String resourcePath = getResourcePath();
+		URL resource = Core.class.getResource(resourcePath);
+		if (resource == null)
+			throw new IOException("No bundled OpenCV native library at " + resourcePath);
+
+		long checksum = getBundledChecksum(resource);
+		String fileName = resourcePath.substring(resourcePath.lastIndexOf('/') + 1);
+		int extension = fileName.lastIndexOf('.');
+		String cachedName = String.format("%s-%08x%s", fileName.substring(0, extension), checksum,
+				fileName.substring(extension));
+		Path target = directory.resolve(cachedName);
+		Path digestFile = directory.resolve(cachedName + DIGEST_SUFFIX);
+		if (Files.notExists(directory, LinkOption.NOFOLLOW_LINKS))
+			createPrivateDirectory(directory);
+		checkPrivate(directory);
+		if (isVerified(target, digestFile))
+			return target;
+
+		Path temp = Files.createTempFile(directory, cachedName, ".tmp");
+		Path tempDigest = Files.createTempFile(directory, cachedName, DIGEST_SUFFIX + ".tmp");
+		try {
+			MessageDigest sha256 = newSha256();
+			CRC32 crc = new CRC32();
+			try (InputStream in = resource.openStream();
+					OutputStream out = Files.newOutputStream(temp, StandardOpenOption.TRUNCATE_EXISTING)) {
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int count;
+				while ((count = in.read(buffer)) != -1) {
+					sha256.update(buffer, 0, count);
+					crc.update(buffer, 0, count);
+					out.write(buffer, 0, count);
+				}
+			}
+			if (crc.getValue() != checksum)
+				throw new IOException("Checksum mismatch extracting " + resourcePath);
+			Files.writeString(tempDigest, HexFormat.of().formatHex(sha256.digest()), StandardCharsets.US_ASCII);
+			move(tempDigest, digestFile);
+			move(temp, target);
+		} catch (IOException ex) {
+			// another process may have put a verified copy in place meanwhile
+			if (isVerified(target, digestFile))
+				return target;
+			throw ex;
+		} finally {
+			Files.deleteIfExists(temp);
+			Files.deleteIfExists(tempDigest);
+		}
+		if (!isVerified(target, digestFile))
+			throw new IOException("OpenCV native library replaced while extracting to " + target);
+		LOGGER.info("Extracted OpenCV native library to {}", target);
+		return target;
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Tells whether the cached library is a regular file that only its owner can
+	 * write, with the SHA-256 recorded when it was extracted.
+	 */
+	private static boolean isVerified(Path library, Path digestFile) throws IOException {
+		if (!Files.isRegularFile(library, LinkOption.NOFOLLOW_LINKS)
+				|| !Files.isRegularFile(digestFile, LinkOption.NOFOLLOW_LINKS))
+			return false;
+		checkPrivate(library);
+		checkPrivate(digestFile);
+		String expected = Files.readString(digestFile, StandardCharsets.US_ASCII).trim();
+		return expected.equalsIgnoreCase(sha256(library));
+	}
+
+	private static void createPrivateDirectory(Path directory) throws IOException {
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix"))
+			Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+		else
+			Files.createDirectories(directory);
+	}
+
+	/**
+	 * Checks that a cached file or directory is not a symbolic link, is owned by
+	 * the user running the JVM or by root, and cannot be written by group or
+	 * others.
+	 *
+	 * @throws IOException If other users could replace the file.
+	 */
+	private static void checkPrivate(Path path) throws IOException {
+		PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class,
+				LinkOption.NOFOLLOW_LINKS);
+		if (view == null)
+			return;
+		PosixFileAttributes attributes = view.readAttributes();
+		if (attributes.isSymbolicLink())
+			throw new IOException("OpenCV native cache is a symbolic link: " + path);
+		String owner = attributes.owner().getName();
+		if (!owner.equals(System.getProperty("user.name")) && !owner.equals("root"))
+			throw new IOException("OpenCV native cache owned by another user " + owner + ": " + path);
+		Set<PosixFilePermission> permissions = attributes.permissions();
+		if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+				|| permissions.contains(PosixFilePermission.OTHERS_WRITE))
+			throw new IOException("OpenCV native cache writable by other users: " + path);
+	}
+
+	/**
+	 * Returns the CRC-32 of the bundled library. For a jar resource it is read
+	 * from the jar entry, without inflating the library.
+	 */
+	private static long getBundledChecksum(URL resource) throws IOException {
+		URLConnection connection = resource.openConnection();
+		if (connection instanceof JarURLConnection jarConnection) {
+			JarEntry entry = jarConnection.getJarEntry();
+			if (entry != null && entry.getCrc() != -1)
+				return entry.getCrc();
+		}
+		CRC32 crc = new CRC32();
+		try (InputStream in = resource.openStream()) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int count;
+			while ((count = in.read(buffer)) != -1)
+				crc.update(buffer, 0, count);
+		}
+		return crc.getValue();
+	}
+
+	private static String sha256(Path file) throws IOException {
+		MessageDigest sha256 = newSha256();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (channel.read(buffer) != -1) {
+				buffer.flip();
+				sha256.update(buffer);
+				buffer.clear();
+			}
+		}
+		return HexFormat.of().formatHex(sha256.digest());
+	}
+
+	private static MessageDigest newSha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+
+	/**
+	 * Returns the resource path of the library in the openpnp jar for the running
+	 * platform, for example {@code /nu/pattern/opencv/linux/x86_64/libopencv_java453.so}.
+	 */
+	private static String getResourcePath() throws IOException {
+		String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+		String arch = System.getProperty("os.arch", "").toLowerCase(Locale.ROOT);
+
+		String osDirectory;
+		if (os.startsWith("linux"))
+			osDirectory = "linux";
+		else if (os.startsWith("mac") || os.startsWith("darwin"))
+			osDirectory = "osx";
+		else if (os.startsWith("windows"))
+			osDirectory = "windows";
+		else
+			throw new IOException("Unsupported operating system " + os);
+
+		String archDirectory;
+		if (arch.equals("amd64") || arch.equals("x86_64"))
+			archDirectory = "x86_64";
+		else if (arch.equals("x86") || arch.matches("i[3-6]86"))
+			archDirectory = "x86_32";
+		else if (arch.equals("aarch64") || arch.equals("arm64"))
+			archDirectory = "ARMv8";
+		else if (arch.startsWith("arm"))
+			archDirectory = "ARMv7";
+		else
+			throw new IOException("Unsupported architecture " + arch);
+
+		return RESOURCE_ROOT + osDirectory + "/" + archDirectory + "/"
+				+ System.mapLibraryName(Core.NATIVE_LIBRARY_NAME);
+	}
+}
@@ -0,0 +1,282 @@
+package io.mosip.image.compressor.sdk.ratio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Predicts the JPEG2000 compression ratio that gives a target quality, from
+ * the complexity of the image, in a single encode.
+ * <p>
+ * The OpenCV encoder is rate controlled: the compression ratio fixes the size
+ * of the output, whatever the image. The quality obtained for that size
+ * depends on the image, busy images lose more than flat ones. The model
+ * estimates the PSNR of the encoded image as
+ * </p>
+ * <pre>
+ * PSNR = intercept + logBpp * ln(bpp) + logGradient * ln(1 + gradient energy) + entropy * entropy
+ * </pre>
+ * <p>
+ * where {@code bpp} is the encoded bits per pixel,
+ * {@code bits per pixel * compression / 1000}, and solves it for the
+ * compression ratio giving the target PSNR. The coefficients are fitted by
+ * least squares by {@code io.mosip.image.compressor.sdk.tools.CompressionCalibration}
+ * and stored as properties; a model calibrated on face images is bundled.
+ * </p>
+ */
+public final class CompressionModel {
+	/** Class path resource of the bundled model. */
+	public static final String DEFAULT_RESOURCE = "/models/compression-model.properties";
+
+	private static final String INTERCEPT = "intercept";
+	private static final String LOG_BPP = "log.bpp";
+	private static final String LOG_GRADIENT = "log.gradient";
+	private static final String ENTROPY = "entropy";
+
+	private static final Map<String, CompressionModel> MODELS = new ConcurrentHashMap<>();
+
+	private final double intercept;
+	private final double logBpp;
+	private final double logGradient;
+	private final double entropy;
+
+	/**
+	 * Creates a model from its coefficients.
+	 *
+	 * @param intercept   The constant term.
+	 * @param logBpp      The coefficient of {@code ln(bpp)}, must be positive.
+	 * @param logGradient The coefficient of {@code ln(1 + gradient energy)}.
+	 * @param entropy     The coefficient of the entropy.
+	 * @throws IllegalArgumentException If the PSNR does not increase with the
+	 *                                  bits per pixel.
+	 */
+	public CompressionModel(double intercept, double logBpp, double logGradient, double entropy) {
+		if (!(logBpp > 0))
+			throw new IllegalArgumentException("The PSNR must increase with the bits per pixel: " + logBpp);
+		this.intercept = intercept;
+		this.logBpp = logBpp;
+		this.logGradient = logGradient;
+		this.entropy = entropy;
+	}
+
+	/**
+	 * Returns the model stored at the path, or the bundled model when the path is
+	 * null or blank. Models are loaded once and cached.
+	 *
+	 * @param path The path of the model properties, may be null.
+	 * @return The model.
+	 * @throws IllegalArgumentException If the model cannot be read.
+	 */
+	public static CompressionModel forPath(String path) {
+		String key = path == null || path.isBlank() ? DEFAULT_RESOURCE : path.trim();
+		return MODELS.computeIfAbsent(key, CompressionModel::read);
+	}
+
+	private static CompressionModel read(String key) {
+		try (InputStream in = DEFAULT_RESOURCE.equals(key) ? CompressionModel.class.getResourceAsStream(key)
+				: Files.newInputStream(Paths.get(key))) {
+			if (in == null)
+				throw new IOException("Missing resource " + key);
+			return load(in);
+		} catch (IOException | RuntimeException ex) {
+			throw new IllegalArgumentException("Compression model cannot be read from " + key, ex);
+		}
+	}
+
+	/**
+	 * Reads a model from properties.
+	 *
+	 * @param in The properties stream, not closed.
+	 * @return The model.
+	 * @throws IOException If the stream cannot be read.
+	 */
+	public static CompressionModel load(InputStream in) throws IOException {
+		Properties properties = new Properties();
+		properties.load(in);
+		return new CompressionModel(get(properties, INTERCEPT), get(properties, LOG_BPP),
+				get(properties, LOG_GRADIENT), get(properties, ENTROPY));
+	}
+
+	private static double get(Properties properties, String key) throws IOException {
+		String value = properties.getProperty(key);
+		if (value == null)
+			throw new IOException("Missing model coefficient " + key);
+		return Double.parseDouble(value.trim());
+	}
+
+	/**
+	 * Writes the model as properties.
+	 *
+	 * @param out     The output, not closed.
+	 * @param comment The comment written at the top, may be null.
+	 * @throws IOException If the model cannot be written.
+	 */
+	public void store(OutputStream out, String comment) throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty(INTERCEPT, Double.toString(intercept));
+		properties.setProperty(LOG_BPP, Double.toString(logBpp));
+		properties.setProperty(LOG_GRADIENT, Double.toString(logGradient));
+		properties.setProperty(ENTROPY, Double.toString(entropy));
+		properties.store(out, comment);
+	}
+
+	/**
+	 * Estimates the PSNR of the encoded image.
+	 *
+	 * @param complexity   The complexity of the image.
+	 * @param bitsPerPixel The bits per pixel of the uncompressed image.
+	 * @param compression  The compression ratio, from 1 to 1000.
+	 * @return The estimated PSNR, in dB.
+	 */
+	public double predictPsnr(ImageComplexity complexity, int bitsPerPixel, int compression) {
+		double bpp = bitsPerPixel * compression / 1000.0;
+		return intercept + logBpp * Math.log(bpp) + logGradient * Math.log1p(complexity.getGradientEnergy())
+				+ entropy * complexity.getEntropy();
+	}
+
+	/**
+	 * Predicts the compression ratio giving the target PSNR.
+	 *
+	 * @param complexity   The complexity of the image.
+	 * @param bitsPerPixel The bits per pixel of the uncompressed image.
+	 * @param targetPsnr   The target PSNR, in dB.
+	 * @return The compression ratio, from 1 to 1000.
+	 */
+	public int predictCompression(ImageComplexity complexity, int bitsPerPixel, double targetPsnr) {
+		double logBppNeeded = (targetPsnr - intercept - logGradient * Math.log1p(complexity.getGradientEnergy())
+				- entropy * complexity.getEntropy()) / logBpp;
+		double compression = Math.exp(logBppNeeded) * 1000 / bitsPerPixel;
+		return (int) Math.min(1000, Math.max(1, Math.ceil(compression)));
+	}
+
+	/**
+	 * Fits a model to encoded samples by least squares.
+	 *
+	 * @param observations The measured samples, at least four with different
+	 *                     ratios and images.
+	 * @return The model.
+	 * @throws IllegalArgumentException If the samples do not determine the
+	 *                                  model.
+	 */
+	public static CompressionModel fit(List<Observation> observations) {
+		double[][] normal = new double[4][5];
+		for (Observation observation : observations) {
+			double[] x = { 1, Math.log(observation.bitsPerPixel * observation.compression / 1000.0),
+					Math.log1p(observation.complexity.getGradientEnergy()), observation.complexity.getEntropy() };
+			for (int row = 0; row < 4; row++) {
+				for (int column = 0; column < 4; column++)
+					normal[row][column] += x[row] * x[column];
+				normal[row][4] += x[row] * observation.psnr;
+			}
+		}
+		double[] coefficients = solve(normal);
+		return new CompressionModel(coefficients[0], coefficients[1], coefficients[2], coefficients[3]);
+	}
+
+	/**
+	 * Solves the augmented linear system by Gaussian elimination with partial
+	 * pivoting.
+	 */
+	private static double[] solve(double[][] system) {
+		int size = system.length;
+		for (int pivot = 0; pivot < size; pivot++) {
+			int best = pivot;
+			for (int row = pivot + 1; row < size; row++) {
+				if (Math.abs(system[row][pivot]) > Math.abs(system[best][pivot]))
+					best = row;
+			}
+			if (Math.abs(system[best][pivot]) < 1e-12)
+				throw new IllegalArgumentException("The observations do not determine the model");
+			double[] swap = system[pivot];
+			system[pivot] = system[best];
+			system[best] = swap;
+
+			for (int row = pivot + 1; row < size; row++) {
+				double factor = system[row][pivot] / system[pivot][pivot];
+				for (int column = pivot; column <= size; column++)
+					system[row][column] -= factor * system[pivot][column];
+			}
+		}
+		double[] solution = new double[size];
+		for (int row = size - 1; row >= 0; row--) {
+			double sum = system[row][size];
+			for (int column = row + 1; column < size; column++)
+				sum -= system[row][column] * solution[column];
+			solution[row] = sum / system[row][row];
+		}
+		return solution;
+	}
+
+	/**
+	 * Returns the digest of the coefficients, which identifies the predictions of
+	 * the model whatever the file it was read from.
+	 *
+	 * @return The hexadecimal SHA-256 digest of the coefficients.
+	 */
+	public String getDigest() {
+		ByteBuffer coefficients = ByteBuffer.allocate(4 * Double.BYTES).putDouble(intercept).putDouble(logBpp)
+				.putDouble(logGradient).putDouble(entropy).flip();
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(coefficients.array()));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("PSNR = %.3f + %.3f ln(bpp) + %.3f ln(1 + gradient) + %.3f entropy", intercept, logBpp,
+				logGradient, entropy);
+	}
+
+	/**
+	 * An image encoded at a given ratio and the PSNR obtained.
+	 */
+	public static final class Observation {
+		private final ImageComplexity complexity;
+		private final int bitsPerPixel;
+		private final int compression;
+		private final double psnr;
+
+		/**
+		 * Creates an observation.
+		 *
+		 * @param complexity   The complexity of the image.
+		 * @param bitsPerPixel The bits per pixel of the uncompressed image.
+		 * @param compression  The compression ratio used.
+		 * @param psnr         The PSNR of the encoded image, in dB.
+		 */
+		public Observation(ImageComplexity complexity, int bitsPerPixel, int compression, double psnr) {
+			this.complexity = complexity;
+			this.bitsPerPixel = bitsPerPixel;
+			this.compression = compression;
+			this.psnr = psnr;
+		}
+
+		public ImageComplexity getComplexity() {
+			return complexity;
+		}
+
+		public int getBitsPerPixel() {
+			return bitsPerPixel;
+		}
+
+		public int getCompression() {
+			return compression;
+		}
+
+		public double getPsnr() {
+			return psnr;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package io.mosip.image.compressor.sdk.ratio;
+
+import java.util.List;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfFloat;
+import org.opencv.core.MatOfInt;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Cheap complexity features of an image, used by {@link CompressionModel} to
+ * predict how well the image compresses.
+ * <p>
+ * Both features are computed on the 8 bit grey version of the image: the
+ * gradient energy is the mean Sobel gradient magnitude, high for detailed or
+ * noisy images, and the entropy is the Shannon entropy of the grey level
+ * histogram, in bits. On a resized face of a few hundred pixels a side they
+ * cost well under a millisecond.
+ * </p>
+ */
+public final class ImageComplexity {
+	private final double gradientEnergy;
+	private final double entropy;
+
+	/**
+	 * Creates the features.
+	 *
+	 * @param gradientEnergy The mean gradient magnitude.
+	 * @param entropy        The grey level entropy, in bits.
+	 */
+	public ImageComplexity(double gradientEnergy, double entropy) {
+		this.gradientEnergy = gradientEnergy;
+		this.entropy = entropy;
+	}
+
+	/**
+	 * Measures an image.
+	 *
+	 * @param image The image, 8 or 16 bit with 1, 3 or 4 channels.
+	 * @return The features.
+	 */
+	public static ImageComplexity measure(Mat image) {
+		Mat grey = toGrey(image);
+
+		Mat gradientX = new Mat();
+		Mat gradientY = new Mat();
+		Mat magnitude = new Mat();
+		Imgproc.Sobel(grey, gradientX, CvType.CV_32F, 1, 0);
+		Imgproc.Sobel(grey, gradientY, CvType.CV_32F, 0, 1);
+		Core.magnitude(gradientX, gradientY, magnitude);
+		double gradientEnergy = Core.mean(magnitude).val[0];
+		gradientX.release();
+		gradientY.release();
+		magnitude.release();
+
+		Mat histogram = new Mat();
+		Imgproc.calcHist(List.of(grey), new MatOfInt(0), new Mat(), histogram, new MatOfInt(256),
+				new MatOfFloat(0, 256));
+		float[] counts = new float[256];
+		histogram.get(0, 0, counts);
+		double total = grey.total();
+		double entropy = 0;
+		for (float count : counts) {
+			if (count > 0) {
+				double p = count / total;
+				entropy -= p * Math.log(p) / Math.log(2);
+			}
+		}
+		histogram.release();
+		if (grey != image)
+			grey.release();
+		return new ImageComplexity(gradientEnergy, entropy);
+	}
+
+	public double getGradientEnergy() {
+		return gradientEnergy;
+	}
+
+	public double getEntropy() {
+		return entropy;
+	}
+
+	private static Mat toGrey(Mat image) {
+		Mat eightBit = image;
+		if (image.depth() != CvType.CV_8U) {
+			eightBit = new Mat();
+			image.convertTo(eightBit, CvType.CV_8U, image.depth() == CvType.CV_16U ? 1.0 / 256 : 1.0);
+		}
+		if (eightBit.channels() == 1)
+			return eightBit;
+
+		Mat grey = new Mat();
+		Imgproc.cvtColor(eightBit, grey,
+				eightBit.channels() == 4 ? Imgproc.COLOR_BGRA2GRAY : Imgproc.COLOR_BGR2GRAY);
+		if (eightBit != image)
+			eightBit.release();
+		return grey;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("gradient %.2f entropy %.2f", gradientEnergy, entropy);
+	}
+}
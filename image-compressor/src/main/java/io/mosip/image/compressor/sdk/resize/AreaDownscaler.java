@@ -0,0 +1,280 @@
+package io.mosip.image.compressor.sdk.resize;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pure Java downscaler for 8 bit grey and colour images, equivalent to
+ * {@code Imgproc.resize(src, dst, new Size(0, 0), fx, fy, Imgproc.INTER_AREA)}.
+ * <p>
+ * Each destination pixel is the average of the source pixels its area covers,
+ * partially covered pixels weighted by the covered fraction. Integer factors
+ * such as 0.25 average whole blocks in int arithmetic, other factors use
+ * precomputed area weights. The destination size is the source size times the
+ * factor, rounded as OpenCV does. Results match OpenCV to within one level.
+ * </p>
+ * <p>
+ * The row accumulation is vectorized with the incubating Vector API when the
+ * {@code jdk.incubator.vector} module is added to the JVM
+ * ({@code --add-modules jdk.incubator.vector}), and runs as plain Java
+ * otherwise. Everything stays on the Java heap, no native memory is used.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * BufferedImage small = AreaDownscaler.getInstance().resize(image, 0.25, 0.25);
+ * }</pre>
+ * </p>
+ */
+public final class AreaDownscaler {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AreaDownscaler.class);
+
+	private static final AreaDownscaler SCALAR = new AreaDownscaler(new ScalarAreaKernels(), false);
+	private static final AreaDownscaler DEFAULT = createDefault();
+
+	/** Tolerance of OpenCV for integer scale factors. */
+	private static final double INTEGER_SCALE_EPSILON = 1e-9;
+	/** OpenCV ignores partially covered source pixels below this fraction. */
+	private static final double MIN_WEIGHT = 1e-3;
+
+	private final AreaKernels kernels;
+	private final boolean vectorized;
+
+	private AreaDownscaler(AreaKernels kernels, boolean vectorized) {
+		this.kernels = kernels;
+		this.vectorized = vectorized;
+	}
+
+	/**
+	 * Returns the vectorized downscaler when the Vector API is available, the
+	 * plain Java one otherwise.
+	 *
+	 * @return The downscaler.
+	 */
+	public static AreaDownscaler getInstance() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the plain Java downscaler.
+	 *
+	 * @return The downscaler.
+	 */
+	public static AreaDownscaler scalar() {
+		return SCALAR;
+	}
+
+	public boolean isVectorized() {
+		return vectorized;
+	}
+
+	/**
+	 * Returns the scaled size of an image edge, rounded as OpenCV does.
+	 *
+	 * @param size   The source size.
+	 * @param factor The scale factor.
+	 * @return The destination size, at least 1.
+	 */
+	public static int scaledSize(int size, double factor) {
+		return Math.max(1, (int) Math.rint(size * factor));
+	}
+
+	/**
+	 * Downscales interleaved 8 bit samples.
+	 *
+	 * @param src      The source samples, row by row without padding.
+	 * @param width    The source width.
+	 * @param height   The source height.
+	 * @param channels The number of interleaved channels.
+	 * @param fx       The scale factor of the X-axis, in (0, 1].
+	 * @param fy       The scale factor of the Y-axis, in (0, 1].
+	 * @return The destination samples, {@link #scaledSize} wide and high.
+	 * @throws IllegalArgumentException If a factor is out of range or the source
+	 *                                  is too short.
+	 */
+	public byte[] resize(byte[] src, int width, int height, int channels, double fx, double fy) {
+		if (!(fx > 0 && fx <= 1 && fy > 0 && fy <= 1))
+			throw new IllegalArgumentException("Scale factors must be in (0, 1]: " + fx + ", " + fy);
+		if (width <= 0 || height <= 0 || channels <= 0 || src.length < (long) width * height * channels)
+			throw new IllegalArgumentException("Invalid source image " + width + "x" + height + "x" + channels);
+
+		int dstWidth = scaledSize(width, fx);
+		int dstHeight = scaledSize(height, fy);
+		double scaleX = 1 / fx;
+		double scaleY = 1 / fy;
+		int blockX = (int) Math.rint(scaleX);
+		int blockY = (int) Math.rint(scaleY);
+		if (Math.abs(scaleX - blockX) < INTEGER_SCALE_EPSILON && Math.abs(scaleY - blockY) < INTEGER_SCALE_EPSILON
+				&& dstWidth * blockX <= width && dstHeight * blockY <= height)
+			return resizeBlocks(src, width, channels, dstWidth, dstHeight, blockX, blockY);
+		return resizeWeighted(src, width, height, channels, dstWidth, dstHeight, scaleX, scaleY);
+	}
+
+	/**
+	 * Downscales an 8 bit grey or colour image.
+	 * <p>
+	 * Images with a single colour component, such as the grey images decoded by
+	 * JAI, are downscaled as {@code TYPE_BYTE_GRAY}. Other images are
+	 * downscaled as {@code TYPE_3BYTE_BGR}, images of another layout are converted
+	 * first, dropping any alpha channel.
+	 * </p>
+	 *
+	 * @param image The source image.
+	 * @param fx    The scale factor of the X-axis, in (0, 1].
+	 * @param fy    The scale factor of the Y-axis, in (0, 1].
+	 * @return The downscaled image.
+	 */
+	public BufferedImage resize(BufferedImage image, double fx, double fy) {
+		int type = image.getColorModel().getNumComponents() == 1 ? BufferedImage.TYPE_BYTE_GRAY
+				: BufferedImage.TYPE_3BYTE_BGR;
+		int channels = type == BufferedImage.TYPE_BYTE_GRAY ? 1 : 3;
+		byte[] samples = getSamples(image, type);
+		byte[] scaled = resize(samples, image.getWidth(), image.getHeight(), channels, fx, fy);
+
+		BufferedImage result = new BufferedImage(scaledSize(image.getWidth(), fx), scaledSize(image.getHeight(), fy),
+				type);
+		byte[] target = ((DataBufferByte) result.getRaster().getDataBuffer()).getData();
+		System.arraycopy(scaled, 0, target, 0, scaled.length);
+		return result;
+	}
+
+	/**
+	 * Returns the packed samples of the image in the given layout, without a copy
+	 * when the image already has it.
+	 */
+	private static byte[] getSamples(BufferedImage image, int type) {
+		WritableRaster raster = image.getRaster();
+		if (image.getType() == type && raster.getParent() == null
+				&& raster.getSampleModel() instanceof PixelInterleavedSampleModel model
+				&& model.getScanlineStride() == image.getWidth() * model.getPixelStride()
+				&& raster.getDataBuffer() instanceof DataBufferByte buffer && buffer.getOffset() == 0)
+			return buffer.getData();
+
+		BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+		Graphics2D graphics = converted.createGraphics();
+		graphics.drawImage(image, 0, 0, null);
+		graphics.dispose();
+		return ((DataBufferByte) converted.getRaster().getDataBuffer()).getData();
+	}
+
+	/**
+	 * Averages whole blocks of source pixels, for integer scale factors.
+	 */
+	private byte[] resizeBlocks(byte[] src, int width, int channels, int dstWidth, int dstHeight, int blockX,
+			int blockY) {
+		int srcStride = width * channels;
+		int used = dstWidth * blockX * channels;
+		int area = blockX * blockY;
+		int[] sums = new int[used];
+		byte[] dst = new byte[dstWidth * dstHeight * channels];
+
+		int out = 0;
+		for (int dy = 0; dy < dstHeight; dy++) {
+			Arrays.fill(sums, 0);
+			for (int row = dy * blockY, end = row + blockY; row < end; row++)
+				kernels.addRow(src, row * srcStride, sums, used);
+
+			for (int dx = 0; dx < dstWidth; dx++) {
+				int start = dx * blockX * channels;
+				for (int channel = 0; channel < channels; channel++) {
+					int sum = 0;
+					for (int index = start + channel, end = start + blockX * channels; index < end; index += channels)
+						sum += sums[index];
+					dst[out++] = (byte) ((sum + area / 2) / area);
+				}
+			}
+		}
+		return dst;
+	}
+
+	/**
+	 * Averages the source pixels weighted by the covered area, for any scale
+	 * factor.
+	 */
+	private byte[] resizeWeighted(byte[] src, int width, int height, int channels, int dstWidth, int dstHeight,
+			double scaleX, double scaleY) {
+		AreaTable columns = new AreaTable(width, dstWidth, scaleX);
+		AreaTable rows = new AreaTable(height, dstHeight, scaleY);
+		int srcStride = width * channels;
+		float[] sums = new float[srcStride];
+		byte[] dst = new byte[dstWidth * dstHeight * channels];
+
+		int out = 0;
+		for (int dy = 0; dy < dstHeight; dy++) {
+			Arrays.fill(sums, 0);
+			for (int entry = rows.start[dy]; entry < rows.start[dy + 1]; entry++)
+				kernels.addRowWeighted(src, rows.source[entry] * srcStride, sums, rows.weight[entry], srcStride);
+
+			for (int dx = 0; dx < dstWidth; dx++) {
+				for (int channel = 0; channel < channels; channel++) {
+					float value = 0;
+					for (int entry = columns.start[dx]; entry < columns.start[dx + 1]; entry++)
+						value += sums[columns.source[entry] * channels + channel] * columns.weight[entry];
+					dst[out++] = (byte) Math.min(255, Math.max(0, Math.round(value)));
+				}
+			}
+		}
+		return dst;
+	}
+
+	/**
+	 * Source pixels and weights of each destination pixel along one axis, as
+	 * computed by OpenCV for {@code INTER_AREA}.
+	 */
+	private static final class AreaTable {
+		/** Index of the first entry of each destination pixel, plus the end. */
+		final int[] start;
+		final int[] source;
+		final float[] weight;
+
+		AreaTable(int size, int dstSize, double scale) {
+			int capacity = dstSize * ((int) Math.ceil(scale) + 2);
+			start = new int[dstSize + 1];
+			int[] sources = new int[capacity];
+			float[] weights = new float[capacity];
+			int count = 0;
+			for (int d = 0; d < dstSize; d++) {
+				start[d] = count;
+				double from = d * scale;
+				double to = from + scale;
+				double cell = Math.min(scale, size - from);
+				int last = Math.min((int) Math.floor(to), size - 1);
+				int first = Math.min((int) Math.ceil(from), last);
+
+				if (first - from > MIN_WEIGHT) {
+					sources[count] = first - 1;
+					weights[count++] = (float) ((first - from) / cell);
+				}
+				for (int s = first; s < last; s++) {
+					sources[count] = s;
+					weights[count++] = (float) (1 / cell);
+				}
+				if (to - last > MIN_WEIGHT) {
+					sources[count] = last;
+					weights[count++] = (float) (Math.min(Math.min(to - last, 1), cell) / cell);
+				}
+			}
+			start[dstSize] = count;
+			source = Arrays.copyOf(sources, count);
+			weight = Arrays.copyOf(weights, count);
+		}
+	}
+
+	private static AreaDownscaler createDefault() {
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			try {
+				return new AreaDownscaler(new VectorAreaKernels(), true);
+			} catch (LinkageError ex) {
+				LOGGER.warn("Vector API not usable, downscaling in plain Java", ex);
+			}
+		}
+		return SCALAR;
+	}
+}
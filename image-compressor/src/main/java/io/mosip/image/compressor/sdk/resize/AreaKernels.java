@@ -0,0 +1,28 @@
+package io.mosip.image.compressor.sdk.resize;
+
+/**
+ * Row accumulation loops of {@link AreaDownscaler}, where almost all of the
+ * time of a downscale is spent.
+ */
+interface AreaKernels {
+	/**
+	 * Adds a row of unsigned 8 bit samples to the sums.
+	 *
+	 * @param src    The source samples.
+	 * @param offset The offset of the row in the source.
+	 * @param sums   The sums to add to, from index 0.
+	 * @param length The number of samples to add.
+	 */
+	void addRow(byte[] src, int offset, int[] sums, int length);
+
+	/**
+	 * Adds a row of unsigned 8 bit samples, multiplied by a weight, to the sums.
+	 *
+	 * @param src    The source samples.
+	 * @param offset The offset of the row in the source.
+	 * @param sums   The sums to add to, from index 0.
+	 * @param weight The weight of the row.
+	 * @param length The number of samples to add.
+	 */
+	void addRowWeighted(byte[] src, int offset, float[] sums, float weight, int length);
+}
@@ -0,0 +1,18 @@
+package io.mosip.image.compressor.sdk.resize;
+
+/**
+ * Plain Java {@link AreaKernels}, used when the Vector API is not available.
+ */
+final class ScalarAreaKernels implements AreaKernels {
+	@Override
+	public void addRow(byte[] src, int offset, int[] sums, int length) {
+		for (int i = 0; i < length; i++)
+			sums[i] += src[offset + i] & 0xFF;
+	}
+
+	@Override
+	public void addRowWeighted(byte[] src, int offset, float[] sums, float weight, int length) {
+		for (int i = 0; i < length; i++)
+			sums[i] += (src[offset + i] & 0xFF) * weight;
+	}
+}
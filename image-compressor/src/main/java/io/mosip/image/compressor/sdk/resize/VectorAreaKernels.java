@@ -0,0 +1,58 @@
+package io.mosip.image.compressor.sdk.resize;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link AreaKernels} vectorized with the incubating Vector API.
+ * <p>
+ * A vector of bytes is widened to int lanes in parts, each part masked to the
+ * unsigned value and added to, or multiplied by the weight and added to, the
+ * sums. Multiply and add are not fused, so the sums are the same as those of
+ * {@link ScalarAreaKernels}. Only loaded when the {@code jdk.incubator.vector}
+ * module is present.
+ * </p>
+ */
+final class VectorAreaKernels implements AreaKernels {
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+	/** Number of int vectors a byte vector widens to. */
+	private static final int PARTS = BYTES.length() / INTS.length();
+
+	@Override
+	public void addRow(byte[] src, int offset, int[] sums, int length) {
+		int lanes = INTS.length();
+		int i = 0;
+		for (int bound = BYTES.loopBound(length); i < bound; i += BYTES.length()) {
+			ByteVector bytes = ByteVector.fromArray(BYTES, src, offset + i);
+			for (int part = 0; part < PARTS; part++) {
+				IntVector samples = ((IntVector) bytes.convertShape(VectorOperators.B2I, INTS, part)).and(0xFF);
+				int index = i + part * lanes;
+				IntVector.fromArray(INTS, sums, index).add(samples).intoArray(sums, index);
+			}
+		}
+		for (; i < length; i++)
+			sums[i] += src[offset + i] & 0xFF;
+	}
+
+	@Override
+	public void addRowWeighted(byte[] src, int offset, float[] sums, float weight, int length) {
+		int lanes = FLOATS.length();
+		int i = 0;
+		for (int bound = BYTES.loopBound(length); i < bound; i += BYTES.length()) {
+			ByteVector bytes = ByteVector.fromArray(BYTES, src, offset + i);
+			for (int part = 0; part < PARTS; part++) {
+				FloatVector samples = (FloatVector) ((IntVector) bytes.convertShape(VectorOperators.B2I, INTS, part))
+						.and(0xFF).convert(VectorOperators.I2F, 0);
+				int index = i + part * lanes;
+				samples.mul(weight).add(FloatVector.fromArray(FLOATS, sums, index)).intoArray(sums, index);
+			}
+		}
+		for (; i < length; i++)
+			sums[i] += (src[offset + i] & 0xFF) * weight;
+	}
+}
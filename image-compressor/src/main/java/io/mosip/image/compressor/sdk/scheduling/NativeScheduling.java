@@ -0,0 +1,176 @@
+package io.mosip.image.compressor.sdk.scheduling;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.opencv.core.Core;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+
+/**
+ * Process wide scheduling of the native work done by the SDK.
+ * <p>
+ * OpenCV runs resize and codec work on an internal thread pool sized to all
+ * cores. When the application server also runs many requests at the same time,
+ * both pools compete for the same cores. {@link #configure} sets the OpenCV
+ * thread count according to a {@link SchedulingProfile} and, for the latency
+ * profile, limits the number of requests running native work at the same time
+ * so that each of them gets its share of the cores. The OpenCV thread count
+ * is only set when the OpenCV library has been loaded, this class does not
+ * load it.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * NativeScheduling.configure(SchedulingProfile.LATENCY, 8, 0);
+ * Response<BiometricRecord> response = service.runScheduled(service::getExtractTemplateInfo);
+ * }</pre>
+ * </p>
+ */
+public final class NativeScheduling {
+	private static final Logger LOGGER = LoggerFactory.getLogger(NativeScheduling.class);
+
+	private static volatile SchedulingProfile profile = SchedulingProfile.DEFAULT;
+	private static volatile int nativeThreads = Runtime.getRuntime().availableProcessors();
+	private static volatile Semaphore requests;
+	private static volatile int maxConcurrentRequests;
+
+	private NativeScheduling() {
+		throw new IllegalStateException("NativeScheduling class");
+	}
+
+	/**
+	 * Applies a scheduling profile to the process.
+	 *
+	 * @param schedulingProfile     The profile to apply.
+	 * @param threads               The number of native threads per request for
+	 *                              the latency profile, or the OpenCV thread count
+	 *                              for the default profile. Zero or less keeps the
+	 *                              number of available processors, respectively
+	 *                              the OpenCV default.
+	 * @param concurrentRequests    The number of requests running at the same
+	 *                              time for the latency profile. Zero or less
+	 *                              derives it from the available processors and
+	 *                              the number of threads per request.
+	 */
+	public static synchronized void configure(SchedulingProfile schedulingProfile, int threads,
+			int concurrentRequests) {
+		int processors = Runtime.getRuntime().availableProcessors();
+		switch (schedulingProfile) {
+		case THROUGHPUT:
+			nativeThreads = 1;
+			setOpenCvThreads(1);
+			setMaxConcurrentRequests(0);
+			break;
+		case LATENCY:
+			nativeThreads = threads > 0 ? threads : processors;
+			setOpenCvThreads(nativeThreads);
+			setMaxConcurrentRequests(
+					concurrentRequests > 0 ? concurrentRequests : Math.max(1, processors / nativeThreads));
+			break;
+		default:
+			setOpenCvThreads(threads > 0 ? threads : -1); // -1 restores the OpenCV default
+			nativeThreads = threads > 0 ? threads : processors;
+			setMaxConcurrentRequests(0);
+			break;
+		}
+		profile = schedulingProfile;
+		LOGGER.info("configure :: profile {} native threads {} OpenCV threads {} concurrent requests {}",
+				schedulingProfile, nativeThreads, OpenCvNativeLoader.isLoaded() ? Core.getNumThreads() : "-",
+				maxConcurrentRequests > 0 ? maxConcurrentRequests : "unlimited");
+	}
+
+	public static SchedulingProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Returns the number of native threads a single request may use, for example
+	 * to encode JPEG2000 tiles.
+	 *
+	 * @return The number of threads per request.
+	 */
+	public static int getNativeThreads() {
+		return nativeThreads;
+	}
+
+	/**
+	 * Returns the number of requests allowed to run at the same time.
+	 *
+	 * @return The limit, zero when requests are not limited.
+	 */
+	public static int getMaxConcurrentRequests() {
+		return maxConcurrentRequests;
+	}
+
+	/**
+	 * Runs a request, waiting first for its turn when the number of concurrent
+	 * requests is limited. The wait is not interruptible, a request always runs;
+	 * see {@link #run(Supplier, long, Supplier)} for requests with a deadline.
+	 *
+	 * @param <T>     The result type.
+	 * @param request The request to run.
+	 * @return The result of the request.
+	 */
+	public static <T> T run(Supplier<T> request) {
+		Semaphore permits = requests;
+		if (permits == null)
+			return request.get();
+
+		permits.acquireUninterruptibly();
+		try {
+			return request.get();
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Runs a request with a deadline, waiting first for its turn when the number
+	 * of concurrent requests is limited. When the deadline passes, or the thread
+	 * is interrupted, before the request gets its turn, the request is not run and
+	 * the timed out result is returned; the interrupt status is kept.
+	 *
+	 * @param <T>          The result type.
+	 * @param request      The request to run.
+	 * @param timeoutNanos The time left to the request, {@link Long#MAX_VALUE}
+	 *                     when it has no deadline.
+	 * @param timedOut     Returns the result of a request not run.
+	 * @return The result of the request, or the timed out result.
+	 */
+	public static <T> T run(Supplier<T> request, long timeoutNanos, Supplier<T> timedOut) {
+		Semaphore permits = requests;
+		if (permits == null)
+			return request.get();
+
+		try {
+			if (!permits.tryAcquire(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS))
+				return timedOut.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return timedOut.get();
+		}
+		try {
+			return request.get();
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Sets the OpenCV thread count. Nothing is done when the OpenCV library is not
+	 * loaded, as with the pure Java compression engine.
+	 */
+	private static void setOpenCvThreads(int threads) {
+		if (OpenCvNativeLoader.isLoaded())
+			Core.setNumThreads(threads);
+	}
+
+	private static void setMaxConcurrentRequests(int limit) {
+		maxConcurrentRequests = Math.max(0, limit);
+		requests = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests, true) : null;
+	}
+}
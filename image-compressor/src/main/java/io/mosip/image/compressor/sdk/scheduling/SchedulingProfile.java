@@ -0,0 +1,42 @@
+package io.mosip.image.compressor.sdk.scheduling;
+
+/**
+ * How the native work of concurrent requests is scheduled on the available
+ * processors.
+ */
+public enum SchedulingProfile {
+	/**
+	 * OpenCV keeps its own thread pool sizing, requests are not limited. This is
+	 * the behaviour of earlier releases.
+	 */
+	DEFAULT,
+	/**
+	 * Many requests run at the same time, each on a single native thread: OpenCV
+	 * runs single threaded and JPEG2000 tiles are encoded one after the other.
+	 * Suited to servers handling many concurrent extractions.
+	 */
+	THROUGHPUT,
+	/**
+	 * Few requests run at the same time, each using several native threads for
+	 * OpenCV and for JPEG2000 tile encoding. Suited to latency sensitive
+	 * enrollment.
+	 */
+	LATENCY;
+
+	/**
+	 * Returns the profile with the given name, ignoring case.
+	 *
+	 * @param name The profile name, may be null.
+	 * @return The profile, {@link #DEFAULT} when the name is null, blank or
+	 *         unknown.
+	 */
+	public static SchedulingProfile of(String name) {
+		if (name != null) {
+			for (SchedulingProfile profile : values()) {
+				if (profile.name().equalsIgnoreCase(name.trim()))
+					return profile;
+			}
+		}
+		return DEFAULT;
+	}
+}
@@ -0,0 +1,351 @@
+package io.mosip.image.compressor.sdk.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.kernel.biometrics.commons.CbeffValidator;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Embedded HTTP server exposing {@code extractTemplate} and
+ * {@code convertFormatV2} of {@link ImageCompressorSDKV2}, for running the SDK
+ * standalone, as a sidecar or for load tests.
+ * <p>
+ * The server only depends on the JDK HTTP server. Connections are served on
+ * virtual threads, which only read the request, wait for the result and write
+ * the response; the compression itself runs in micro-batches on platform
+ * threads through a {@link RequestCoalescer}, so native codec calls never
+ * block a carrier thread and the number of requests compressed at once stays
+ * bounded by the batch size.
+ * </p>
+ * <p>
+ * Endpoints:
+ * <ul>
+ * <li>{@code POST /extractTemplate} and {@code POST /convertFormatV2}: a JSON
+ * body with the {@code sample} {@link BiometricRecord} and the other
+ * parameters of the SDK method by name ({@code modalitiesToExtract},
+ * {@code flags}, {@code sourceFormat}, ...), or a CBEFF XML body
+ * ({@code Content-Type: application/xml}) with the parameters as query
+ * parameters, the modalities separated by commas. The answer is the SDK
+ * {@link Response} as JSON.</li>
+ * <li>{@code GET /metrics}: the {@link ServerMetrics} in the Prometheus text
+ * format.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Usage: {@code java -cp image-compressor-jar-with-dependencies.jar
+ * io.mosip.image.compressor.sdk.server.CompressionServer [config.properties]}
+ * </p>
+ */
+public final class CompressionServer implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CompressionServer.class);
+
+	public static final String EXTRACT_TEMPLATE_PATH = "/extractTemplate";
+	public static final String CONVERT_FORMAT_PATH = "/convertFormatV2";
+	public static final String METRICS_PATH = "/metrics";
+
+	private static final int DEFAULT_PORT = 8090;
+	private static final int DEFAULT_BATCH_WINDOW_MS = 2;
+	private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+	private static final String CONTENT_TYPE = "Content-Type";
+	private static final String JSON = "application/json";
+	private static final TypeReference<List<BiometricType>> MODALITIES = new TypeReference<>() {
+	};
+	private static final TypeReference<Map<String, String>> PARAMETERS = new TypeReference<>() {
+	};
+
+	private final ImageCompressorSDKV2 sdk;
+	private final ObjectMapper mapper = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final RequestCoalescer coalescer;
+	private final ServerMetrics metrics;
+
+	private CompressionServer(ImageCompressorSDKV2 sdk, SdkSettings settings) throws IOException {
+		this.sdk = sdk;
+		this.coalescer = new RequestCoalescer(
+				settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SERVER_BATCH_SIZE, Integer.class, 0),
+				settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SERVER_BATCH_WINDOW_MS, Integer.class,
+						DEFAULT_BATCH_WINDOW_MS),
+				settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SERVER_QUEUE_CAPACITY, Integer.class,
+						DEFAULT_QUEUE_CAPACITY));
+		this.metrics = new ServerMetrics(coalescer);
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+		int port = settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SERVER_PORT, Integer.class, DEFAULT_PORT);
+		this.server = HttpServer.create(new InetSocketAddress(port), 0);
+		this.server.setExecutor(executor);
+		this.server.createContext(EXTRACT_TEMPLATE_PATH, exchange -> handle(exchange, this::extractTemplate));
+		this.server.createContext(CONVERT_FORMAT_PATH, exchange -> handle(exchange, this::convertFormat));
+		this.server.createContext(METRICS_PATH, this::scrape);
+	}
+
+	/**
+	 * Starts a server for an initialized SDK.
+	 *
+	 * @param sdk      The SDK answering the requests, {@code init} already called.
+	 * @param settings The server configuration, the
+	 *                 {@code mosip.bio.image.compressor.server.*} values.
+	 * @return The running server.
+	 * @throws IOException If the port cannot be bound.
+	 */
+	public static CompressionServer start(ImageCompressorSDKV2 sdk, SdkSettings settings) throws IOException {
+		CompressionServer compressionServer = new CompressionServer(sdk, settings);
+		compressionServer.server.start();
+		LOGGER.info("start :: listening on port {} batch size {}", compressionServer.getPort(),
+				compressionServer.coalescer.getBatchSize());
+		return compressionServer;
+	}
+
+	/**
+	 * Starts a server with the configuration read from an optional properties
+	 * file, overridden by the JVM system properties.
+	 *
+	 * @param args The optional properties file.
+	 * @throws IOException If the file cannot be read or the port cannot be bound.
+	 */
+	public static void main(String[] args) throws IOException {
+		Properties properties = new Properties();
+		if (args.length > 0) {
+			try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+				properties.load(in);
+			}
+		}
+		properties.putAll(System.getProperties());
+		Map<String, String> configuration = new HashMap<>();
+		properties.stringPropertyNames().forEach(key -> configuration.put(key, properties.getProperty(key)));
+
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withProperties(configuration).build();
+		sdk.init(new HashMap<>());
+		CompressionServer compressionServer = start(sdk, SdkSettings.of(configuration));
+		Runtime.getRuntime().addShutdownHook(new Thread(compressionServer::close, "image-compressor-shutdown"));
+	}
+
+	/**
+	 * Returns the port the server listens on.
+	 *
+	 * @return The port.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	public ServerMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Stops accepting connections, waits at most a second for the exchanges in
+	 * progress, and stops the coalescer.
+	 */
+	@Override
+	public void close() {
+		server.stop(1);
+		coalescer.close();
+		executor.close();
+	}
+
+	private Response<BiometricRecord> extractTemplate(HttpExchange exchange, byte[] body) throws IOException {
+		BiometricRecord sample;
+		List<BiometricType> modalities;
+		Map<String, String> flags;
+		if (isXml(exchange)) {
+			Map<String, String> query = parseQuery(exchange);
+			sample = readCbeff(body);
+			modalities = parseModalities(query.get("modalitiesToExtract"));
+			flags = new HashMap<>();
+		} else {
+			JsonNode request = readJson(body);
+			sample = mapper.treeToValue(request.get("sample"), BiometricRecord.class);
+			modalities = mapper.convertValue(request.get("modalitiesToExtract"), MODALITIES);
+			flags = mapper.convertValue(request.get("flags"), PARAMETERS);
+		}
+		Map<String, String> extractFlags = flags != null ? flags : new HashMap<>();
+		return coalescer.submit(() -> sdk.extractTemplate(sample, modalities, extractFlags));
+	}
+
+	private Response<BiometricRecord> convertFormat(HttpExchange exchange, byte[] body) throws IOException {
+		BiometricRecord sample;
+		String sourceFormat;
+		String targetFormat;
+		Map<String, String> sourceParams;
+		Map<String, String> targetParams;
+		List<BiometricType> modalities;
+		if (isXml(exchange)) {
+			Map<String, String> query = parseQuery(exchange);
+			sample = readCbeff(body);
+			sourceFormat = query.get("sourceFormat");
+			targetFormat = query.get("targetFormat");
+			sourceParams = new HashMap<>();
+			targetParams = new HashMap<>();
+			modalities = parseModalities(query.get("modalitiesToConvert"));
+		} else {
+			JsonNode request = readJson(body);
+			sample = mapper.treeToValue(request.get("sample"), BiometricRecord.class);
+			sourceFormat = request.path("sourceFormat").asText(null);
+			targetFormat = request.path("targetFormat").asText(null);
+			sourceParams = mapper.convertValue(request.get("sourceParams"), PARAMETERS);
+			targetParams = mapper.convertValue(request.get("targetParams"), PARAMETERS);
+			modalities = mapper.convertValue(request.get("modalitiesToConvert"), MODALITIES);
+		}
+		return coalescer.submit(() -> sdk.convertFormatV2(sample, sourceFormat, targetFormat, sourceParams,
+				targetParams, modalities));
+	}
+
+	private void handle(HttpExchange exchange, Operation operation) throws IOException {
+		long start = System.nanoTime();
+		int status;
+		try (exchange) {
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				status = 405;
+				exchange.getResponseHeaders().set("Allow", "POST");
+				exchange.sendResponseHeaders(status, -1);
+			} else {
+				Response<BiometricRecord> response;
+				try {
+					response = operation.run(exchange, exchange.getRequestBody().readAllBytes());
+					status = toHttpStatus(response);
+				} catch (RejectedExecutionException ex) {
+					status = 503;
+					response = errorResponse(ResponseStatus.UNKNOWN_ERROR, ex.getMessage());
+				} catch (IOException | IllegalArgumentException ex) {
+					LOGGER.error("handle -- invalid request body", ex);
+					status = 400;
+					response = errorResponse(ResponseStatus.INVALID_INPUT, "request body");
+				}
+				byte[] json = mapper.writeValueAsBytes(response);
+				exchange.getResponseHeaders().set(CONTENT_TYPE, JSON);
+				exchange.sendResponseHeaders(status, json.length);
+				exchange.getResponseBody().write(json);
+			}
+		}
+		metrics.record(exchange.getHttpContext().getPath(), status, System.nanoTime() - start);
+	}
+
+	private void scrape(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			byte[] text = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set(CONTENT_TYPE, "text/plain; version=0.0.4; charset=utf-8");
+			exchange.sendResponseHeaders(200, text.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(text);
+			}
+		}
+	}
+
+	/**
+	 * Answers 200 for a successful response, 503 for a request abandoned at its
+	 * deadline, 400 for invalid input and 500 for the other failures; the SDK
+	 * status is in the body.
+	 */
+	private static int toHttpStatus(Response<BiometricRecord> response) {
+		int statusCode = response.getStatusCode() != null ? response.getStatusCode() : 500;
+		if (statusCode == ResponseStatus.SUCCESS.getStatusCode())
+			return 200;
+		if (statusCode == ResponseStatus.REQUEST_TIMEOUT.getStatusCode())
+			return 503;
+		return statusCode < 500 ? 400 : 500;
+	}
+
+	private static Response<BiometricRecord> errorResponse(ResponseStatus status, String parameter) {
+		Response<BiometricRecord> response = new Response<>();
+		response.setStatusCode(status.getStatusCode());
+		response.setStatusMessage(String.format(status.getStatusMessage(), parameter));
+		return response;
+	}
+
+	private JsonNode readJson(byte[] body) throws IOException {
+		JsonNode request = mapper.readTree(body);
+		if (request == null || !request.isObject())
+			throw new IllegalArgumentException("JSON object expected");
+		return request;
+	}
+
+	private static boolean isXml(HttpExchange exchange) {
+		String contentType = exchange.getRequestHeaders().getFirst(CONTENT_TYPE);
+		return contentType != null && contentType.contains("xml");
+	}
+
+	/**
+	 * Reads a CBEFF XML document as a biometric record.
+	 *
+	 * @param body The CBEFF XML.
+	 * @return The record, with a segment per BIR.
+	 * @throws IllegalArgumentException If the document is not valid CBEFF XML.
+	 */
+	static BiometricRecord readCbeff(byte[] body) {
+		BIR bir;
+		try {
+			bir = CbeffValidator.getBIRFromXML(body);
+		} catch (Exception ex) {
+			throw new IllegalArgumentException("Invalid CBEFF XML", ex);
+		}
+		BiometricRecord sample = new BiometricRecord();
+		sample.setVersion(bir.getVersion());
+		sample.setCbeffversion(bir.getCbeffversion());
+		sample.setBirInfo(bir.getBirInfo());
+		sample.setSegments(bir.getBirs() != null ? bir.getBirs() : new ArrayList<>());
+		return sample;
+	}
+
+	private static Map<String, String> parseQuery(HttpExchange exchange) {
+		Map<String, String> query = new HashMap<>();
+		String rawQuery = exchange.getRequestURI().getRawQuery();
+		if (rawQuery == null)
+			return query;
+		for (String parameter : rawQuery.split("&")) {
+			int separator = parameter.indexOf('=');
+			if (separator > 0)
+				query.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+						URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+		}
+		return query;
+	}
+
+	private static List<BiometricType> parseModalities(String modalities) {
+		if (modalities == null || modalities.isBlank())
+			return null;
+		List<BiometricType> types = new ArrayList<>();
+		for (String modality : modalities.split(","))
+			types.add(BiometricType.fromValue(modality.trim()));
+		return types;
+	}
+
+	@FunctionalInterface
+	private interface Operation {
+		Response<BiometricRecord> run(HttpExchange exchange, byte[] body) throws IOException;
+	}
+}
@@ -0,0 +1,251 @@
+package io.mosip.image.compressor.sdk.server;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces requests submitted concurrently into micro-batches.
+ * <p>
+ * A single dispatcher thread takes the first waiting request, waits at most
+ * the batch window for more, and hands the batch to a pool of batch size
+ * platform threads without waiting for it to complete. At most batch size
+ * requests run at the same time: the dispatcher takes a request only when one
+ * of those threads is free, so a new batch starts as soon as any request completes, and a slow
+ * request does not hold back the requests batched with it or after it.
+ * </p>
+ * <p>
+ * Requests are not merged into a single native call. What coalescing buys is
+ * that the compression work runs on a bounded number of platform threads,
+ * whatever the number of callers, while the callers, typically virtual
+ * threads serving HTTP connections, only wait for their result; and that the
+ * requests waiting when a slot frees up are handed over together. The batch
+ * window only helps callers arriving in bursts, and delays a request arriving
+ * alone by at most the window; 0 hands over the waiting requests at once.
+ * Requests beyond the queue capacity are rejected rather than queued without
+ * bound.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * try (RequestCoalescer coalescer = new RequestCoalescer(8, 2, 1024)) {
+ *     Response<BiometricRecord> response = coalescer.submit(() -> sdk.extractTemplate(sample, null, flags));
+ * }
+ * }</pre>
+ * </p>
+ */
+public final class RequestCoalescer implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RequestCoalescer.class);
+
+	private final BlockingQueue<Request<?>> queue;
+	private final int batchSize;
+	private final long windowNanos;
+	private final Thread dispatcher;
+	/** Slots of the requests running, one per request up to the batch size. */
+	private final Semaphore inFlight;
+	private final ExecutorService workers;
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private volatile boolean closed;
+
+	/**
+	 * Creates a coalescer and starts its dispatcher thread.
+	 *
+	 * @param batchSize     The maximum number of requests in a batch and running
+	 *                      at the same time, 0 or less for the number of
+	 *                      available processors.
+	 * @param windowMillis  The time a batch waits for more requests after its
+	 *                      first one, 0 to batch only the waiting requests.
+	 * @param queueCapacity The maximum number of waiting requests.
+	 */
+	public RequestCoalescer(int batchSize, long windowMillis, int queueCapacity) {
+		this.batchSize = batchSize > 0 ? batchSize : Runtime.getRuntime().availableProcessors();
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+		this.inFlight = new Semaphore(this.batchSize);
+		this.workers = Executors.newFixedThreadPool(this.batchSize,
+				Thread.ofPlatform().name("image-compressor-worker-", 0).daemon().factory());
+		this.dispatcher = new Thread(this::dispatch, "image-compressor-coalescer");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	/**
+	 * Runs a request in the next batch and waits for its result.
+	 *
+	 * @param <T>     The result type.
+	 * @param request The request to run.
+	 * @return The result of the request.
+	 * @throws RejectedExecutionException If the queue is full or the coalescer is
+	 *                                    closed.
+	 * @throws RuntimeException           The exception thrown by the request.
+	 */
+	public <T> T submit(Supplier<T> request) {
+		Request<T> pending = new Request<>(request);
+		if (closed || !queue.offer(pending)) {
+			rejected.increment();
+			throw new RejectedExecutionException(closed ? "Coalescer closed" : "Request queue full");
+		}
+		// closed while offering: the request may be behind the queue drained by close
+		if (closed && queue.remove(pending)) {
+			rejected.increment();
+			throw new RejectedExecutionException("Coalescer closed");
+		}
+		try {
+			return pending.result.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause)
+				throw cause;
+			if (ex.getCause() instanceof Error error)
+				throw error;
+			throw ex;
+		}
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Returns the number of batches run.
+	 *
+	 * @return The number of batches.
+	 */
+	public long getBatches() {
+		return batches.sum();
+	}
+
+	/**
+	 * Returns the number of requests run in batches.
+	 *
+	 * @return The number of requests.
+	 */
+	public long getRequests() {
+		return requests.sum();
+	}
+
+	/**
+	 * Returns the number of requests rejected because the queue was full or the
+	 * coalescer closed.
+	 *
+	 * @return The number of rejected requests.
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Returns the number of requests waiting for a batch.
+	 *
+	 * @return The queue depth.
+	 */
+	public int getQueued() {
+		return queue.size();
+	}
+
+	/**
+	 * Stops the dispatcher once it has handed over its current batch. Requests
+	 * still waiting are rejected, requests already handed over complete on the
+	 * worker threads, which then stop.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		dispatcher.interrupt();
+		try {
+			dispatcher.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		List<Request<?>> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		for (Request<?> request : remaining)
+			request.result.completeExceptionally(new RejectedExecutionException("Coalescer closed"));
+		workers.shutdown();
+	}
+
+	private void dispatch() {
+		while (!closed) {
+			List<Request<?>> batch = new ArrayList<>(batchSize);
+			try {
+				inFlight.acquire();
+				Request<?> first = null;
+				try {
+					first = queue.take();
+				} finally {
+					if (first == null)
+						inFlight.release();
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + windowNanos;
+				while (batch.size() < batchSize && inFlight.tryAcquire()) {
+					Request<?> next = null;
+					try {
+						long wait = deadline - System.nanoTime();
+						next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+					} finally {
+						if (next == null)
+							inFlight.release();
+					}
+					if (next == null)
+						break;
+					batch.add(next);
+				}
+			} catch (InterruptedException ex) {
+				if (batch.isEmpty())
+					break;
+			}
+			run(batch);
+		}
+		LOGGER.info("dispatch :: stopped after {} batches of {} requests", getBatches(), getRequests());
+	}
+
+	/**
+	 * Runs the requests of a batch on the worker threads, each releasing its slot
+	 * when it completes.
+	 */
+	private void run(List<Request<?>> batch) {
+		batches.increment();
+		requests.add(batch.size());
+		for (Request<?> request : batch)
+			workers.execute(() -> {
+				try {
+					request.run();
+				} finally {
+					inFlight.release();
+				}
+			});
+	}
+
+	private static final class Request<T> {
+		private final Supplier<T> supplier;
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+
+		private Request(Supplier<T> supplier) {
+			this.supplier = supplier;
+		}
+
+		private void run() {
+			try {
+				result.complete(supplier.get());
+			} catch (RuntimeException | Error ex) {
+				result.completeExceptionally(ex);
+			}
+		}
+	}
+}
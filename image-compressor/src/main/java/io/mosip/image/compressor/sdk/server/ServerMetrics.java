@@ -0,0 +1,93 @@
+package io.mosip.image.compressor.sdk.server;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters of the {@link CompressionServer}, written in the Prometheus
+ * text exposition format.
+ * <p>
+ * Requests are counted by endpoint and HTTP status, and their durations are
+ * summed by endpoint. The batches of the {@link RequestCoalescer} and the
+ * heap in use are reported with them.
+ * </p>
+ */
+public final class ServerMetrics {
+	private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> durations = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> durationCounts = new ConcurrentHashMap<>();
+	private final RequestCoalescer coalescer;
+
+	/**
+	 * Creates the metrics of a server.
+	 *
+	 * @param coalescer The coalescer of the server.
+	 */
+	public ServerMetrics(RequestCoalescer coalescer) {
+		this.coalescer = coalescer;
+	}
+
+	/**
+	 * Records a request.
+	 *
+	 * @param endpoint The path of the endpoint.
+	 * @param status   The HTTP status of the response.
+	 * @param nanos    The time taken to answer, in nanoseconds.
+	 */
+	public void record(String endpoint, int status, long nanos) {
+		requests.computeIfAbsent("endpoint=\"" + endpoint + "\",status=\"" + status + "\"", key -> new LongAdder())
+				.increment();
+		String labels = "endpoint=\"" + endpoint + "\"";
+		durations.computeIfAbsent(labels, key -> new LongAdder()).add(nanos);
+		durationCounts.computeIfAbsent(labels, key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Writes the metrics in the Prometheus text exposition format.
+	 *
+	 * @return The metrics.
+	 */
+	public String scrape() {
+		StringBuilder text = new StringBuilder(1024);
+		header(text, "image_compressor_requests_total", "counter", "HTTP requests by endpoint and status.");
+		Map<String, Long> counts = new TreeMap<>();
+		requests.forEach((labels, count) -> counts.put(labels, count.sum()));
+		counts.forEach((labels, count) -> sample(text, "image_compressor_requests_total{" + labels + "}", count));
+
+		header(text, "image_compressor_request_seconds", "summary", "Time taken to answer HTTP requests.");
+		Map<String, Long> sums = new TreeMap<>();
+		durations.forEach((labels, sum) -> sums.put(labels, sum.sum()));
+		sums.forEach((labels, sum) -> {
+			text.append("image_compressor_request_seconds_sum{").append(labels).append("} ").append(sum / 1e9)
+					.append('\n');
+			LongAdder count = durationCounts.get(labels);
+			sample(text, "image_compressor_request_seconds_count{" + labels + "}", count != null ? count.sum() : 0);
+		});
+
+		header(text, "image_compressor_batches_total", "counter", "Batches of coalesced requests run.");
+		sample(text, "image_compressor_batches_total", coalescer.getBatches());
+		header(text, "image_compressor_batched_requests_total", "counter", "Requests run in batches.");
+		sample(text, "image_compressor_batched_requests_total", coalescer.getRequests());
+		header(text, "image_compressor_rejected_requests_total", "counter",
+				"Requests rejected because the queue was full.");
+		sample(text, "image_compressor_rejected_requests_total", coalescer.getRejected());
+		header(text, "image_compressor_queued_requests", "gauge", "Requests waiting for a batch.");
+		sample(text, "image_compressor_queued_requests", coalescer.getQueued());
+
+		Runtime runtime = Runtime.getRuntime();
+		header(text, "image_compressor_heap_used_bytes", "gauge", "Java heap in use.");
+		sample(text, "image_compressor_heap_used_bytes", runtime.totalMemory() - runtime.freeMemory());
+		return text.toString();
+	}
+
+	private static void header(StringBuilder text, String name, String type, String help) {
+		text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder text, String name, long value) {
+		text.append(name).append(' ').append(value).append('\n');
+	}
+}
@@ -0,0 +1,522 @@
+package io.mosip.image.compressor.sdk.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.service.ImageCompressionService;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Worker compressing the work items of a spool directory shared by several
+ * workers, on one or many nodes, without a message broker.
+ * <p>
+ * The spool holds the directories {@code inbox}, {@code claimed},
+ * {@code retry}, {@code dead}, {@code done} and {@code out}. Producers write a
+ * face ISO record, or a CBEFF XML document named {@code *.xml}, under a name
+ * starting with a dot and rename it into {@code inbox} when it is complete;
+ * names must not contain {@code ~}. A worker claims an item by renaming it
+ * atomically into {@code claimed}, suffixed with its worker ID, so that only
+ * one worker gets it, and keeps the lease alive by touching the file every
+ * third of the lease timeout. Items whose lease expired, their worker having
+ * died, are attempted again like failed items.
+ * </p>
+ * <p>
+ * Items are compressed by {@link ImageCompressionService}. The result is
+ * written to {@code out}, named after the SHA-256 of the input ({@code .iso},
+ * or {@code .json} with the compressed record for CBEFF input), and the input
+ * is moved to {@code done}. An input already compressed is not compressed
+ * again, so an item processed twice, for example after a lost lease, gives the
+ * same single result. Invalid input is moved to {@code dead} with a
+ * {@code .error} file; other failures wait in {@code retry} for the retry
+ * delay and are attempted again, up to the maximum number of attempts.
+ * </p>
+ * <p>
+ * Usage: {@code java -Dmosip.bio.image.compressor.spool.dir=/mnt/spool -cp
+ * image-compressor-jar-with-dependencies.jar
+ * io.mosip.image.compressor.sdk.server.SpoolWorker [config.properties]}
+ * </p>
+ */
+public final class SpoolWorker implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SpoolWorker.class);
+
+	public static final String INBOX = "inbox";
+	public static final String CLAIMED = "claimed";
+	public static final String RETRY = "retry";
+	public static final String DEAD = "dead";
+	public static final String DONE = "done";
+	public static final String OUT = "out";
+
+	private static final char SEPARATOR = '~';
+	private static final long DEFAULT_LEASE_TIMEOUT_MS = 60000;
+	private static final int DEFAULT_MAX_ATTEMPTS = 3;
+	private static final long DEFAULT_RETRY_DELAY_MS = 5000;
+	private static final long DEFAULT_POLL_INTERVAL_MS = 500;
+
+	private final SdkSettings settings;
+	private final String workerId;
+	private final Path inbox;
+	private final Path claimed;
+	private final Path retry;
+	private final Path dead;
+	private final Path done;
+	private final Path out;
+	private final int threads;
+	private final long leaseTimeoutMillis;
+	private final int maxAttempts;
+	private final long retryDelayMillis;
+	private final long pollIntervalMillis;
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final Set<Path> leases = ConcurrentHashMap.newKeySet();
+	private final LongAdder processed = new LongAdder();
+	private final LongAdder retried = new LongAdder();
+	private final LongAdder deadLettered = new LongAdder();
+	private ScheduledExecutorService heartbeat;
+	private ExecutorService workers;
+	private volatile boolean running;
+
+	/**
+	 * Creates a worker, and the spool directories when they do not exist.
+	 *
+	 * @param settings The configuration, the {@code mosip.bio.image.compressor.*}
+	 *                 values used for the compression and the
+	 *                 {@code mosip.bio.image.compressor.spool.*} values.
+	 * @param root     The spool directory.
+	 * @param workerId The ID of the worker, unique among the workers of the
+	 *                 spool.
+	 * @throws IOException If the directories cannot be created.
+	 */
+	public SpoolWorker(SdkSettings settings, Path root, String workerId) throws IOException {
+		this.settings = settings;
+		this.workerId = workerId.replace(SEPARATOR, '-');
+		this.inbox = Files.createDirectories(root.resolve(INBOX));
+		this.claimed = Files.createDirectories(root.resolve(CLAIMED));
+		this.retry = Files.createDirectories(root.resolve(RETRY));
+		this.dead = Files.createDirectories(root.resolve(DEAD));
+		this.done = Files.createDirectories(root.resolve(DONE));
+		this.out = Files.createDirectories(root.resolve(OUT));
+		int configuredThreads = settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SPOOL_THREADS, Integer.class, 0);
+		this.threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+		this.leaseTimeoutMillis = settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SPOOL_LEASE_TIMEOUT_MS, Long.class,
+				DEFAULT_LEASE_TIMEOUT_MS);
+		this.maxAttempts = settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SPOOL_MAX_ATTEMPTS, Integer.class,
+				DEFAULT_MAX_ATTEMPTS);
+		this.retryDelayMillis = settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SPOOL_RETRY_DELAY_MS, Long.class,
+				DEFAULT_RETRY_DELAY_MS);
+		this.pollIntervalMillis = settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_SPOOL_POLL_INTERVAL_MS,
+				Long.class, DEFAULT_POLL_INTERVAL_MS);
+	}
+
+	/**
+	 * Returns a worker ID made of the host name and the process ID.
+	 *
+	 * @return The worker ID.
+	 */
+	public static String defaultWorkerId() {
+		String host;
+		try {
+			host = InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException ex) {
+			host = "localhost";
+		}
+		return host + "-" + ProcessHandle.current().pid();
+	}
+
+	/**
+	 * Starts a worker with the configuration read from an optional properties
+	 * file, overridden by the JVM system properties.
+	 *
+	 * @param args The optional properties file.
+	 * @throws IOException If the file cannot be read or the spool cannot be
+	 *                     created.
+	 */
+	public static void main(String[] args) throws IOException {
+		Properties properties = new Properties();
+		if (args.length > 0) {
+			try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+				properties.load(in);
+			}
+		}
+		properties.putAll(System.getProperties());
+		Map<String, String> configuration = new HashMap<>();
+		properties.stringPropertyNames().forEach(key -> configuration.put(key, properties.getProperty(key)));
+		String root = configuration.get(SdkConstant.IMAGE_COMPRESSOR_SPOOL_DIR);
+		if (root == null || root.isBlank()) {
+			System.err.println("Usage: SpoolWorker [config.properties], with " + SdkConstant.IMAGE_COMPRESSOR_SPOOL_DIR
+					+ " configured");
+			System.exit(2);
+		}
+
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withProperties(configuration).build();
+		sdk.init(new HashMap<>());
+		SpoolWorker worker = new SpoolWorker(SdkSettings.of(configuration), Paths.get(root), defaultWorkerId());
+		worker.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(worker::close, "image-compressor-shutdown"));
+	}
+
+	/**
+	 * Starts the worker threads and the heartbeat.
+	 */
+	public synchronized void start() {
+		if (running)
+			return;
+		running = true;
+		long period = Math.max(1, leaseTimeoutMillis / 3);
+		heartbeat = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "image-compressor-spool-heartbeat");
+			thread.setDaemon(true);
+			return thread;
+		});
+		heartbeat.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+		workers = Executors.newFixedThreadPool(threads);
+		for (int index = 0; index < threads; index++)
+			workers.execute(this::run);
+		LOGGER.info("start :: worker {} with {} threads", workerId, threads);
+	}
+
+	/**
+	 * Claims and processes one work item. When the inbox is empty, expired leases
+	 * and items whose retry delay elapsed are first moved back to the inbox.
+	 *
+	 * @return Whether an item was processed.
+	 * @throws IOException If the spool cannot be read.
+	 */
+	public boolean processNext() throws IOException {
+		Path lease = claim();
+		if (lease == null) {
+			recoverExpiredLeases();
+			releaseRetries();
+			lease = claim();
+			if (lease == null)
+				return false;
+		}
+		leases.add(lease);
+		try {
+			process(lease);
+		} finally {
+			leases.remove(lease);
+		}
+		return true;
+	}
+
+	/**
+	 * Moves the claimed items of other workers whose lease expired to the retry
+	 * directory, or to the dead letter directory after the last attempt.
+	 *
+	 * @return The number of items recovered.
+	 * @throws IOException If the spool cannot be read.
+	 */
+	public int recoverExpiredLeases() throws IOException {
+		long expired = System.currentTimeMillis() - leaseTimeoutMillis;
+		int recovered = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(claimed)) {
+			for (Path lease : files) {
+				if (leases.contains(lease) || lastModified(lease) >= expired)
+					continue;
+				WorkItem item = WorkItem.ofLease(lease.getFileName().toString());
+				LOGGER.warn("recoverExpiredLeases :: lease of {} expired", lease.getFileName());
+				if (fail(lease, item, "Lease expired", true))
+					recovered++;
+			}
+		}
+		return recovered;
+	}
+
+	/**
+	 * Moves the items whose retry delay elapsed back to the inbox.
+	 *
+	 * @return The number of items released.
+	 * @throws IOException If the spool cannot be read.
+	 */
+	public int releaseRetries() throws IOException {
+		long due = System.currentTimeMillis() - retryDelayMillis;
+		int released = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(retry)) {
+			for (Path file : files) {
+				if (lastModified(file) <= due && move(file, inbox.resolve(file.getFileName())))
+					released++;
+			}
+		}
+		return released;
+	}
+
+	public String getWorkerId() {
+		return workerId;
+	}
+
+	/**
+	 * Returns the number of items processed successfully.
+	 *
+	 * @return The number of items.
+	 */
+	public long getProcessed() {
+		return processed.sum();
+	}
+
+	/**
+	 * Returns the number of failed attempts scheduled for a retry.
+	 *
+	 * @return The number of retries.
+	 */
+	public long getRetried() {
+		return retried.sum();
+	}
+
+	/**
+	 * Returns the number of items moved to the dead letter directory.
+	 *
+	 * @return The number of items.
+	 */
+	public long getDeadLettered() {
+		return deadLettered.sum();
+	}
+
+	/**
+	 * Stops claiming items and waits at most the lease timeout for the items in
+	 * progress.
+	 */
+	@Override
+	public synchronized void close() {
+		if (!running)
+			return;
+		running = false;
+		workers.shutdown();
+		try {
+			if (!workers.awaitTermination(leaseTimeoutMillis, TimeUnit.MILLISECONDS))
+				workers.shutdownNow();
+		} catch (InterruptedException ex) {
+			workers.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		heartbeat.shutdownNow();
+		LOGGER.info("close :: worker {} processed {} retried {} dead {}", workerId, getProcessed(), getRetried(),
+				getDeadLettered());
+	}
+
+	private void run() {
+		while (running) {
+			try {
+				if (!processNext())
+					Thread.sleep(pollIntervalMillis);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (IOException | RuntimeException ex) {
+				LOGGER.error("run -- error", ex);
+				try {
+					Thread.sleep(pollIntervalMillis);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private void heartbeat() {
+		for (Path lease : leases) {
+			try {
+				touch(lease);
+			} catch (IOException ex) {
+				LOGGER.warn("heartbeat :: lease {} lost", lease.getFileName());
+			}
+		}
+	}
+
+	/**
+	 * Claims the first item of the inbox that no other worker claimed first. The
+	 * item is touched before it is renamed, the rename keeping the modification
+	 * time, so that its lease is fresh as soon as it is in {@code claimed}.
+	 */
+	private Path claim() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				if (name.startsWith("."))
+					continue;
+				try {
+					touch(file);
+				} catch (NoSuchFileException ex) {
+					// Claimed by another worker in the meantime
+					continue;
+				}
+				Path lease = claimed.resolve(name + SEPARATOR + workerId);
+				if (move(file, lease))
+					return lease;
+			}
+		}
+		return null;
+	}
+
+	private void process(Path lease) throws IOException {
+		WorkItem item = WorkItem.ofLease(lease.getFileName().toString());
+		byte[] input;
+		try {
+			input = Files.readAllBytes(lease);
+		} catch (NoSuchFileException ex) {
+			LOGGER.warn("process :: lease of {} lost", item.name);
+			return;
+		}
+
+		boolean cbeff = item.name.endsWith(".xml");
+		Path result = out.resolve(sha256(input) + (cbeff ? ".json" : ".iso"));
+		if (!Files.exists(result)) {
+			Response<BiometricRecord> response;
+			try {
+				response = compress(input, cbeff);
+			} catch (IllegalArgumentException ex) {
+				fail(lease, item, ex.getMessage(), false);
+				return;
+			} catch (RuntimeException ex) {
+				LOGGER.error("process -- error", ex);
+				fail(lease, item, ex.toString(), true);
+				return;
+			}
+			int statusCode = response.getStatusCode() != null ? response.getStatusCode() : 500;
+			if (statusCode != ResponseStatus.SUCCESS.getStatusCode()) {
+				fail(lease, item, statusCode + " " + response.getStatusMessage(),
+						statusCode >= 500 || statusCode == ResponseStatus.REQUEST_TIMEOUT.getStatusCode());
+				return;
+			}
+
+			byte[] data = cbeff ? mapper.writeValueAsBytes(response.getResponse())
+					: response.getResponse().getSegments().get(0).getBdb();
+			Path partial = out.resolve("." + result.getFileName() + SEPARATOR + workerId);
+			Files.write(partial, data);
+			Files.move(partial, result, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		Files.move(lease, done.resolve(item.name), StandardCopyOption.REPLACE_EXISTING);
+		processed.increment();
+		LOGGER.info("process :: {} compressed to {}", item.name, result.getFileName());
+	}
+
+	private Response<BiometricRecord> compress(byte[] input, boolean cbeff) {
+		BiometricRecord sample = cbeff ? CompressionServer.readCbeff(input)
+				: WarmupService.createSyntheticSample(input);
+		ImageCompressionService service = new ImageCompressionService(settings, sample, null, new HashMap<>());
+		return service.runScheduled(service::getExtractTemplateInfo);
+	}
+
+	/**
+	 * Schedules a failed item for a retry, or moves it to the dead letter
+	 * directory with the reason of the failure.
+	 *
+	 * @return Whether the item was moved, false if the lease was lost.
+	 */
+	private boolean fail(Path lease, WorkItem item, String reason, boolean retryable) throws IOException {
+		int attempt = item.attempt + 1;
+		if (retryable && attempt < maxAttempts) {
+			Path next = retry.resolve(item.name + SEPARATOR + attempt);
+			if (!move(lease, next))
+				return false;
+			touch(next);
+			retried.increment();
+			LOGGER.warn("fail :: {} attempt {} failed, {}", item.name, attempt, reason);
+		} else {
+			if (!move(lease, dead.resolve(item.name)))
+				return false;
+			Files.writeString(dead.resolve(item.name + ".error"), reason != null ? reason : "",
+					StandardCharsets.UTF_8);
+			deadLettered.increment();
+			LOGGER.error("fail :: {} moved to {} after {} attempts, {}", item.name, DEAD, attempt, reason);
+		}
+		return true;
+	}
+
+	/**
+	 * Renames a file atomically.
+	 *
+	 * @return Whether the file was moved, false when it was moved first by
+	 *         another worker.
+	 */
+	private static boolean move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (NoSuchFileException | FileAlreadyExistsException ex) {
+			return false;
+		}
+	}
+
+	private static void touch(Path file) throws IOException {
+		Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+	}
+
+	private static long lastModified(Path file) throws IOException {
+		try {
+			return Files.getLastModifiedTime(file).toMillis();
+		} catch (NoSuchFileException ex) {
+			return Long.MAX_VALUE;
+		}
+	}
+
+	private static String sha256(byte[] data) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not available", ex);
+		}
+	}
+
+	/**
+	 * Name and attempt of a work item, read from the name of its file:
+	 * {@code name[~attempt]} in the inbox and the retry directory, followed by
+	 * {@code ~workerId} when it is claimed.
+	 */
+	private static final class WorkItem {
+		private final String name;
+		private final int attempt;
+
+		private WorkItem(String name, int attempt) {
+			this.name = name;
+			this.attempt = attempt;
+		}
+
+		private static WorkItem ofLease(String lease) {
+			int worker = lease.lastIndexOf(SEPARATOR);
+			String queued = worker > 0 ? lease.substring(0, worker) : lease;
+			int separator = queued.lastIndexOf(SEPARATOR);
+			if (separator > 0) {
+				String attempt = queued.substring(separator + 1);
+				if (!attempt.isEmpty() && attempt.chars().allMatch(Character::isDigit))
+					return new WorkItem(queued.substring(0, separator), Integer.parseInt(attempt));
+			}
+			return new WorkItem(queued, 0);
+		}
+	}
+}
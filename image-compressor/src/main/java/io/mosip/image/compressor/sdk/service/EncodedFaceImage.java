@@ -0,0 +1,192 @@
+package io.mosip.image.compressor.sdk.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+
+/**
+ * Encoded face image produced by {@link ImageCompressionService}.
+ * <p>
+ * The encoded bytes stay in the native buffer filled by the OpenCV encoder
+ * until they are requested. {@link #writeTo(OutputStream)} streams them in
+ * small chunks so that the complete image is never copied onto the Java heap,
+ * and {@link #copyTo(ByteBuffer)} copies them from native memory to native
+ * memory when the target is a direct buffer. The native buffer is released by
+ * {@link #close()}. Images encoded by the pure Java engine are held in a heap
+ * array instead.
+ * </p>
+ */
+public final class EncodedFaceImage implements AutoCloseable {
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	private final MatOfByte data;
+	private final byte[] bytes;
+	private final int width;
+	private final int height;
+	private final int channels;
+	private final int depth;
+
+	/**
+	 * Wraps an encoded image.
+	 *
+	 * @param data     The encoded image bytes, owned by this object from now on.
+	 * @param width    The width of the encoded image.
+	 * @param height   The height of the encoded image.
+	 * @param channels The number of channels of the encoded image.
+	 * @param depth    The OpenCV depth of the encoded image.
+	 */
+	public EncodedFaceImage(MatOfByte data, int width, int height, int channels, int depth) {
+		this(data, null, width, height, channels, depth);
+	}
+
+	/**
+	 * Wraps an image encoded on the Java heap.
+	 *
+	 * @param bytes    The encoded image bytes, owned by this object from now on.
+	 * @param width    The width of the encoded image.
+	 * @param height   The height of the encoded image.
+	 * @param channels The number of channels of the encoded image.
+	 * @param depth    The OpenCV depth of the encoded image.
+	 */
+	public EncodedFaceImage(byte[] bytes, int width, int height, int channels, int depth) {
+		this(null, bytes, width, height, channels, depth);
+	}
+
+	private EncodedFaceImage(MatOfByte data, byte[] bytes, int width, int height, int channels, int depth) {
+		this.data = data;
+		this.bytes = bytes;
+		this.width = width;
+		this.height = height;
+		this.channels = channels;
+		this.depth = depth;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getChannels() {
+		return channels;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the number of bits per channel of the encoded image.
+	 *
+	 * @return 16 for 16 bit images, 8 otherwise.
+	 */
+	public int getBitsPerSample() {
+		return depth == CvType.CV_16U || depth == CvType.CV_16S ? 16 : 8;
+	}
+
+	/**
+	 * Returns the length of the encoded image.
+	 *
+	 * @return The number of encoded bytes.
+	 */
+	public long getLength() {
+		return bytes != null ? bytes.length : data.total();
+	}
+
+	/**
+	 * Copies the encoded image onto the Java heap. An image already held on the
+	 * heap is returned as is.
+	 *
+	 * @return The encoded image bytes.
+	 */
+	public byte[] toArray() {
+		return bytes != null ? bytes : data.toArray();
+	}
+
+	/**
+	 * Streams the encoded image into the output.
+	 *
+	 * @param out The output to write to, it is neither flushed nor closed.
+	 * @return The number of bytes written.
+	 * @throws IOException If the image cannot be written.
+	 */
+	public long writeTo(OutputStream out) throws IOException {
+		if (bytes != null) {
+			out.write(bytes);
+			return bytes.length;
+		}
+		long length = getLength();
+		byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, length)];
+		long offset = 0;
+		while (offset < length) {
+			int count = (int) Math.min(chunk.length, length - offset);
+			if (count < chunk.length)
+				chunk = new byte[count];
+			data.get((int) offset, 0, chunk);
+			out.write(chunk, 0, count);
+			offset += count;
+		}
+		return length;
+	}
+
+	/**
+	 * Copies the encoded image into the buffer, starting at its position. The
+	 * position is advanced by the length of the image.
+	 * <p>
+	 * Direct buffers are filled by OpenCV from native memory to native memory,
+	 * without a copy through the Java heap.
+	 * </p>
+	 *
+	 * @param target The buffer to copy to.
+	 * @throws BufferOverflowException If the buffer has not enough room left for
+	 *                                 the image.
+	 */
+	public void copyTo(ByteBuffer target) {
+		int length = (int) getLength();
+		if (target.remaining() < length)
+			throw new BufferOverflowException();
+
+		ByteBuffer view = target.slice(target.position(), length);
+		if (bytes != null) {
+			view.put(bytes);
+		} else if (view.isDirect()) {
+			Mat wrapped = new Mat(length, 1, CvType.CV_8UC1, view);
+			long address = wrapped.dataAddr();
+			data.copyTo(wrapped);
+			boolean inPlace = wrapped.dataAddr() == address;
+			wrapped.release();
+			Reference.reachabilityFence(view);
+			if (!inPlace)
+				throw new IllegalStateException("Encoded image was not copied into the direct buffer");
+		} else {
+			byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, length)];
+			int offset = 0;
+			while (offset < length) {
+				int count = Math.min(chunk.length, length - offset);
+				if (count < chunk.length)
+					chunk = new byte[count];
+				data.get(offset, 0, chunk);
+				view.put(chunk, 0, count);
+				offset += count;
+			}
+		}
+		target.position(target.position() + length);
+	}
+
+	/**
+	 * Releases the native buffer holding the encoded image.
+	 */
+	@Override
+	public void close() {
+		if (data != null)
+			data.release();
+	}
+}
@@ -1,25 +1,69 @@
 package io.mosip.image.compressor.sdk.service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfByte;
 import org.opencv.core.MatOfInt;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
 import org.opencv.core.Size;
 import org.opencv.imgcodecs.Imgcodecs;
 import org.opencv.imgproc.Imgproc;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.env.Environment;
 
-import io.mosip.biometrics.util.ConvertRequestDto;
-import io.mosip.biometrics.util.face.FaceEncoder;
+import io.mosip.biometrics.util.face.LandmarkPoints;
+import io.mosip.image.compressor.sdk.cache.OutputCache;
+import io.mosip.image.compressor.sdk.colour.ColourConversion;
+import io.mosip.image.compressor.sdk.colour.ColourMode;
+import io.mosip.image.compressor.sdk.config.SdkSettings;
 import io.mosip.image.compressor.sdk.constant.ResponseStatus;
 import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.engine.CompressionEngine;
+import io.mosip.image.compressor.sdk.engine.CompressionEngineType;
+import io.mosip.image.compressor.sdk.engine.CompressionStages;
+import io.mosip.image.compressor.sdk.engine.JaiCompressionEngine;
 import io.mosip.image.compressor.sdk.exceptions.SDKException;
+import io.mosip.image.compressor.sdk.exceptions.ValidationResult;
+import io.mosip.image.compressor.sdk.face.BackgroundBlur;
+import io.mosip.image.compressor.sdk.face.FaceRegionLocator;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.iso.FaceIsoWriter;
+import io.mosip.image.compressor.sdk.jfr.EncodeEvent;
+import io.mosip.image.compressor.sdk.jfr.ImageDecodeEvent;
+import io.mosip.image.compressor.sdk.jfr.IsoDecodeEvent;
+import io.mosip.image.compressor.sdk.jfr.IsoWrapEvent;
+import io.mosip.image.compressor.sdk.jfr.ResizeEvent;
+import io.mosip.image.compressor.sdk.jp2.Jp2ImageInfo;
+import io.mosip.image.compressor.sdk.jp2.TiledJp2Encoder;
+import io.mosip.image.compressor.sdk.ratio.CompressionModel;
+import io.mosip.image.compressor.sdk.ratio.ImageComplexity;
+import io.mosip.image.compressor.sdk.resize.AreaDownscaler;
+import io.mosip.image.compressor.sdk.scheduling.NativeScheduling;
 import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.constant.ProcessedLevelType;
 import io.mosip.kernel.biometrics.constant.PurposeType;
@@ -34,43 +78,62 @@ import io.mosip.kernel.biometrics.model.Response;
 public class ImageCompressionService extends SDKService {
 	private Logger logger = LoggerFactory.getLogger(ImageCompressionService.class);
 
-	static {
-		/**
-		 * load OpenCV library nu.pattern.OpenCV.loadShared();
-		 * System.loadLibrary(org.opencv.core.Core.NATIVE_LIBRARY_NAME);
-		 */
-		/**
-		 * In Java >= 12 it is no longer possible to use addLibraryPath, which modifies
-		 * the ClassLoader's static usr_paths field. There does not seem to be any way
-		 * around this so we fall back to loadLocally() and return.
-		 */
-		nu.pattern.OpenCV.loadLocally();
-	}
-
 	private BiometricRecord sample;
-	@SuppressWarnings("unused")
 	private List<BiometricType> modalitiesToExtract;
+	/**
+	 * Index of the segment being compressed, reported by the JFR events. Kept per
+	 * thread, as the crops of a segmented image may be compressed in parallel.
+	 */
+	private final ThreadLocal<Integer> segmentIndex = ThreadLocal.withInitial(() -> -1);
 
 	public static final long FORMAT_TYPE_FACE = 8;
 
+	/** Values of {@link SdkConstant#IMAGE_COMPRESSOR_RESIZE_ENGINE}. */
+	public static final String RESIZE_ENGINE_OPENCV = "opencv";
+	public static final String RESIZE_ENGINE_JAVA = "java";
+
+	/** Values of {@link SdkConstant#IMAGE_COMPRESSOR_COMPRESSION_MODE}. */
+	public static final String COMPRESSION_MODE_FIXED = "fixed";
+	public static final String COMPRESSION_MODE_ADAPTIVE = "adaptive";
+
+	/** Output cache paths that could not be opened, logged once. */
+	private static final Set<String> UNAVAILABLE_CACHES = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Settings other than the resize factors, ratio and compression model changing
+	 * the compressed image.
+	 */
+	private static final String[] PROFILE_KEYS = { SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODE,
+			SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_TARGET_PSNR, SdkConstant.IMAGE_COMPRESSOR_RESIZE_ENGINE, SdkConstant.IMAGE_COMPRESSOR_FACE_CROP_ENABLED,
+			SdkConstant.IMAGE_COMPRESSOR_FACE_CROP_DETECTOR_ENABLED, SdkConstant.IMAGE_COMPRESSOR_COLOUR_MODE,
+			SdkConstant.IMAGE_COMPRESSOR_COLOUR_EIGHT_BIT_ENABLED,
+			SdkConstant.IMAGE_COMPRESSOR_COLOUR_CHROMA_SUBSAMPLING_ENABLED, SdkConstant.IMAGE_COMPRESSOR_ROI_ENABLED,
+			SdkConstant.IMAGE_COMPRESSOR_ROI_DETECTOR_ENABLED, SdkConstant.IMAGE_COMPRESSOR_ROI_BACKGROUND_SIGMA,
+			SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_ENABLED, SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_SIZE };
+
 	/**
-	 * Compression service constructor initializing with environment settings,
+	 * Compression service constructor initializing with the SDK settings,
 	 * biometric sample, modalities to extract, and additional flags.
 	 *
-	 * @param env                 The environment configuration for the SDK.
+	 * @param settings            The configuration of the SDK.
 	 * @param sample              The biometric record sample to process.
 	 * @param modalitiesToExtract The list of biometric types to extract.
 	 * @param flags               Additional configuration flags.
 	 */
-	public ImageCompressionService(Environment env, BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+	public ImageCompressionService(SdkSettings settings, BiometricRecord sample, List<BiometricType> modalitiesToExtract,
 			Map<String, String> flags) {
-		super(env, flags);
+		super(settings, flags);
 		this.sample = sample;
 		this.modalitiesToExtract = modalitiesToExtract;
 	}
 
 	/**
-	 * Retrieves and processes biometric data for template extraction.
+	 * Retrieves and processes biometric data for template extraction. The face
+	 * segments are compressed when face is among the modalities to extract, or
+	 * when no modality is given; the segments of other modalities are returned
+	 * unchanged, without being read. The remaining segments are abandoned, and
+	 * the request answered with {@link ResponseStatus#REQUEST_TIMEOUT}, once the
+	 * deadline of the request has passed.
 	 *
 	 * @return Response containing the processed biometric record.
 	 */
@@ -78,71 +141,72 @@ public class ImageCompressionService extends SDKService {
 	public Response<BiometricRecord> getExtractTemplateInfo() {
 		logger.info("ExtractTemplateInfo :: Started Request :: {}", sample != null ? sample.toString() : null);
 
-		ResponseStatus responseStatus = null;
 		Response<BiometricRecord> response = new Response<>();
 		try {
 			if (sample == null || sample.getSegments() == null || sample.getSegments().isEmpty()) {
-				responseStatus = ResponseStatus.MISSING_INPUT;
-				throw new SDKException(responseStatus.getStatusCode() + "", responseStatus.getStatusMessage());
+				setErrorResponse(ResponseStatus.MISSING_INPUT, response);
+				return response;
 			}
 
-			for (int index = 0; index < sample.getSegments().size(); index++) {
+			// Only the requested face segments are processed, the others are left untouched
+			Set<BIR> faceSegments = Collections.newSetFromMap(new IdentityHashMap<>());
+			if (modalitiesToExtract == null || modalitiesToExtract.isEmpty()
+					|| modalitiesToExtract.contains(BiometricType.FACE))
+				faceSegments.addAll(getBioSegmentMap(sample, List.of(BiometricType.FACE))
+						.getOrDefault(BiometricType.FACE, List.of()));
+			logger.info("ExtractTemplateInfo :: {} of {} segments to extract", faceSegments.size(),
+					sample.getSegments().size());
+
+			for (int index = 0; index < sample.getSegments().size() && !faceSegments.isEmpty(); index++) {
 				BIR segment = sample.getSegments().get(index);
+				if (!faceSegments.contains(segment))
+					continue;
+				checkDeadline("segment");
+				setSegmentIndex(index);
 
 				/*
-				 * Below Code can be removed if we require PayLoad information
+				 * Invalid input is answered without throwing
 				 */
-
-				if (segment.getBdbInfo() != null && segment.getBdbInfo().getFormat() != null) {
-					String type = segment.getBdbInfo().getFormat().getType();
-					// Process only for Face
-					if (type != null && type.equals(String.valueOf(FORMAT_TYPE_FACE))) {
-						BIR extractBir = new BIR();
-						extractBir.setVersion(segment.getVersion());
-						extractBir.setCbeffversion(segment.getCbeffversion());
-						extractBir.setBirInfo(segment.getBirInfo());
-						extractBir.setBdbInfo(segment.getBdbInfo());
-
-						/*
-						 * Can do ISO validation here
-						 */
-						byte[] faceBdb = getBirData(segment);
-
-						/*
-						 * do actual resize and compression .. create the face ISO ISO19794_5_2011
-						 */
-						byte[] data = doFaceConversion("REGISTRATION", resizeAndCompress(faceBdb));
-						extractBir.setBdb(data);
-
-						/*
-						 * Update the Created Date
-						 */
-						extractBir.getBdbInfo().setCreationDate(LocalDateTime.now());
-
-						/*
-						 * Update the Processed Level Type
-						 */
-						extractBir.getBdbInfo().setLevel(getProcessedLevelType());
-
-						/*
-						 * Update the Purpose Type
-						 */
-						extractBir.getBdbInfo().setPurpose(getPurposeType());
-
-						/*
-						 * Update the Quality to null as we do not have quality tool to set the value
-						 */
-						extractBir.getBdbInfo().setQuality(null);
-
-						sample.getSegments().set(index, extractBir);
-					} else {
-						throw new SDKException(ResponseStatus.INVALID_INPUT.ordinal() + "", String
-								.format(" FORMAT_TYPE_FACE is wrong ! Excepected Value is 8, Received is %s", type));
-					}
-				} else {
-					throw new SDKException(ResponseStatus.INVALID_INPUT.ordinal() + "",
-							"BDBInfo is null or Format Value is null");
+				ValidationResult<FaceIsoRecord> faceRecord = validateFaceSegment(segment);
+				if (!faceRecord.isValid()) {
+					logger.error("extractTemplate -- {}", faceRecord);
+					setErrorResponse(faceRecord.getStatus(), response);
+					return response;
 				}
+
+				BIR extractBir = new BIR();
+				extractBir.setVersion(segment.getVersion());
+				extractBir.setCbeffversion(segment.getCbeffversion());
+				extractBir.setBirInfo(segment.getBirInfo());
+				extractBir.setBdbInfo(segment.getBdbInfo());
+
+				/*
+				 * do actual resize and compression .. create the face ISO ISO19794_5_2011
+				 */
+				byte[] data = compressFaceIso("REGISTRATION", faceRecord.getValue());
+				extractBir.setBdb(data);
+
+				/*
+				 * Update the Created Date
+				 */
+				extractBir.getBdbInfo().setCreationDate(LocalDateTime.now());
+
+				/*
+				 * Update the Processed Level Type
+				 */
+				extractBir.getBdbInfo().setLevel(getProcessedLevelType());
+
+				/*
+				 * Update the Purpose Type
+				 */
+				extractBir.getBdbInfo().setPurpose(getPurposeType());
+
+				/*
+				 * Update the Quality to null as we do not have quality tool to set the value
+				 */
+				extractBir.getBdbInfo().setQuality(null);
+
+				sample.getSegments().set(index, extractBir);
 			}
 		} catch (SDKException ex) {
 			logger.error("extractTemplate -- error", ex);
@@ -150,9 +214,7 @@ public class ImageCompressionService extends SDKService {
 			return response;
 		} catch (Exception ex) {
 			logger.error("extractTemplate -- error", ex);
-			response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
-			response.setStatusMessage(String.format(ResponseStatus.UNKNOWN_ERROR.getStatusMessage(), ""));
-			response.setResponse(null);
+			setErrorResponse(ResponseStatus.UNKNOWN_ERROR, response);
 			return response;
 		}
 		response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
@@ -162,47 +224,40 @@ public class ImageCompressionService extends SDKService {
 		return response;
 	}
 
-	protected void handleUnknownException(SDKException ex, Response<BiometricRecord> response) {
-		ResponseStatus status = ResponseStatus.fromStatusCode(Integer.parseInt(ex.getErrorCode()));
-		switch (status) {
-		case INVALID_INPUT:
-			response.setStatusCode(ResponseStatus.INVALID_INPUT.getStatusCode());
-			response.setStatusMessage(String.format(ResponseStatus.INVALID_INPUT.getStatusMessage(), "sample"));
-			response.setResponse(null);
-			break;
-		case MISSING_INPUT:
-			response.setStatusCode(ResponseStatus.MISSING_INPUT.getStatusCode());
-			response.setStatusMessage(String.format(ResponseStatus.MISSING_INPUT.getStatusMessage(), "sample"));
-			response.setResponse(null);
-			break;
-		case QUALITY_CHECK_FAILED:
-			response.setStatusCode(ResponseStatus.QUALITY_CHECK_FAILED.getStatusCode());
-			response.setStatusMessage(String.format(ResponseStatus.QUALITY_CHECK_FAILED.getStatusMessage(), ""));
-			response.setResponse(null);
-			break;
-		case BIOMETRIC_NOT_FOUND_IN_CBEFF:
-			response.setStatusCode(ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF.getStatusCode());
-			response.setStatusMessage(
-					String.format(ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF.getStatusMessage(), ""));
-			response.setResponse(null);
-			break;
-		case MATCHING_OF_BIOMETRIC_DATA_FAILED:
-			response.setStatusCode(ResponseStatus.MATCHING_OF_BIOMETRIC_DATA_FAILED.getStatusCode());
-			response.setStatusMessage(
-					String.format(ResponseStatus.MATCHING_OF_BIOMETRIC_DATA_FAILED.getStatusMessage(), ""));
-			response.setResponse(null);
-			break;
-		case POOR_DATA_QUALITY:
-			response.setStatusCode(ResponseStatus.POOR_DATA_QUALITY.getStatusCode());
-			response.setStatusMessage(String.format(ResponseStatus.POOR_DATA_QUALITY.getStatusMessage(), ""));
-			response.setResponse(null);
-			break;
-		default:
-			response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
-			response.setStatusMessage(String.format(ResponseStatus.UNKNOWN_ERROR.getStatusMessage(), ""));
-			response.setResponse(null);
-			break;
+	/**
+	 * Validates a face segment to extract: its format type and its face ISO
+	 * record.
+	 *
+	 * @param segment The face segment.
+	 * @return The parsed face record, or the status of the failure.
+	 */
+	protected ValidationResult<FaceIsoRecord> validateFaceSegment(BIR segment) {
+		if (segment.getBdbInfo() == null || segment.getBdbInfo().getFormat() == null)
+			return ValidationResult.invalid(ResponseStatus.INVALID_INPUT, "BDBInfo is null or Format Value is null");
+		String type = segment.getBdbInfo().getFormat().getType();
+		if (type == null || !type.equals(String.valueOf(FORMAT_TYPE_FACE)))
+			return ValidationResult.invalid(ResponseStatus.INVALID_INPUT,
+					String.format("FORMAT_TYPE_FACE is wrong ! Excepected Value is 8, Received is %s", type));
+
+		IsoDecodeEvent event = new IsoDecodeEvent();
+		event.begin();
+		ValidationResult<FaceIsoRecord> faceRecord = readFaceIsoRecord(segment);
+		if (event.shouldCommit()) {
+			event.segmentIndex = getSegmentIndex();
+			event.inputBytes = segment.getBdb() != null ? segment.getBdb().length : 0;
+			event.valid = faceRecord.isValid();
+			if (faceRecord.isValid()) {
+				event.outputBytes = faceRecord.getValue().getImageLength();
+				event.width = faceRecord.getValue().getWidth();
+				event.height = faceRecord.getValue().getHeight();
+			}
+			event.commit();
 		}
+		return faceRecord;
+	}
+
+	protected void handleUnknownException(SDKException ex, Response<BiometricRecord> response) {
+		setErrorResponse(ex.getStatus(), response);
 	}
 
 	/**
@@ -212,41 +267,773 @@ public class ImageCompressionService extends SDKService {
 	 * @return Compressed image data as byte array.
 	 */
 	protected byte[] resizeAndCompress(byte[] jp2000Bytes) {
-		// Storing the image in a Matrix object
-		// of Mat type
-		Mat src = Imgcodecs.imdecode(new MatOfByte(jp2000Bytes), Imgcodecs.IMREAD_UNCHANGED);
-		logger.info("Orginal Image Details :: Width {} Height {} Total Size {}", src.width(), src.height(),
-				(src.width() * src.height()));
-		// New matrix to store the final image
-		// where the input image is supposed to be written
-		Mat dst = new Mat();
+		return resizeAndCompress(jp2000Bytes, null);
+	}
 
+	/**
+	 * Resizes and compresses the provided JPEG2000 image data. When the face crop
+	 * is enabled the image is first cropped to the token face region, located
+	 * from the eye landmarks of the source ISO record or, when they are absent,
+	 * with the bundled face detector.
+	 *
+	 * @param jp2000Bytes The input JPEG2000 image data.
+	 * @param landmarks   The landmark points of the source ISO record, may be
+	 *                    null.
+	 * @return Compressed image data as byte array.
+	 */
+	protected byte[] resizeAndCompress(byte[] jp2000Bytes, LandmarkPoints[] landmarks) {
+		try (EncodedFaceImage encoded = encodeFaceImage(jp2000Bytes, landmarks)) {
+			byte[] data = encoded.toArray();
+			logger.info("Compressed Image Details :: Image length {}", data.length);
+			return data;
+		}
+	}
+
+	/**
+	 * Resizes and compresses the JPEG2000 image embedded in a face ISO record and
+	 * wraps it into a new Face ISO/IEC 19794-5:2011 record.
+	 * <p>
+	 * The image is read as a slice of the source record. The new record is
+	 * written by {@link FaceIsoWriter} from the dimensions and colour space known
+	 * after encoding and from the source header, so the compressed image is not
+	 * decoded again; it is copied once, from the native encoder buffer into the
+	 * record.
+	 * </p>
+	 * <p>
+	 * When {@link SdkConstant#IMAGE_COMPRESSOR_OUTPUT_CACHE_PATH} is set, the
+	 * record is first looked up in the {@link OutputCache} by the digest of the
+	 * source record and of the {@link #getCompressionProfile(String) compression
+	 * profile}, and a compressed record is added to it.
+	 * </p>
+	 *
+	 * @param purpose    The purpose of the record, see
+	 *                   {@link FaceIsoWriter#FaceIsoWriter(String)}.
+	 * @param faceRecord The source face ISO record.
+	 * @return The face ISO record.
+	 * @throws SDKException If the record cannot be written.
+	 */
+	protected byte[] compressFaceIso(String purpose, FaceIsoRecord faceRecord) {
+		OutputCache cache = getOutputCache();
+		String key = null;
+		if (cache != null) {
+			IsoWrapEvent event = new IsoWrapEvent();
+			event.begin();
+			key = OutputCache.key(faceRecord.getRecord(), getCompressionProfile(purpose));
+			byte[] cached = cache.get(key);
+			if (cached != null) {
+				logger.info("Face ISO Details :: Record length {} from output cache", cached.length);
+				commitIsoWrapEvent(event, purpose, faceRecord.getRecord().remaining(), cached, true);
+				return cached;
+			}
+		}
+
+		try (EncodedFaceImage encoded = encodeFaceImage(faceRecord.getImage(), faceRecord.getLandmarkPoints())) {
+			IsoWrapEvent event = new IsoWrapEvent();
+			event.begin();
+			FaceIsoWriter writer = new FaceIsoWriter(purpose, faceRecord);
+			ByteArrayOutputStream header = new ByteArrayOutputStream(writer.getHeaderLength());
+			writeFaceIsoHeader(writer, encoded, header);
+
+			byte[] data = Arrays.copyOf(header.toByteArray(), (int) writer.getRecordLength(encoded.getLength()));
+			encoded.copyTo(ByteBuffer.wrap(data, header.size(), (int) encoded.getLength()));
+			logger.info("Face ISO Details :: Record length {}", data.length);
+			commitIsoWrapEvent(event, purpose, encoded.getLength(), data, false);
+			if (cache != null)
+				putOutputCache(cache, key, data);
+			return data;
+		} catch (IOException ex) {
+			logger.error("compressFaceIso::error", ex);
+			ResponseStatus responseStatus = ResponseStatus.UNKNOWN_ERROR;
+			throw new SDKException(responseStatus, responseStatus.getStatusMessage(), ex);
+		}
+	}
+
+	/**
+	 * Returns the settings a compressed face ISO record depends on, as a string
+	 * keying the {@link OutputCache}: the purpose, the resize factors and
+	 * compression ratio, the engine and every option changing the encoded image.
+	 * Settings that only change how fast the image is encoded are left out.
+	 *
+	 * @param purpose The purpose of the record.
+	 * @return The compression profile.
+	 */
+	protected String getCompressionProfile(String purpose) {
+		float[] fxOrginal = new float[1];
+		float[] fyOrginal = new float[1];
+		int[] compression = new int[1];
+		setImageCompressorSettings(fxOrginal, fyOrginal, compression);
+
+		StringBuilder profile = new StringBuilder(256).append(purpose).append(';').append(fxOrginal[0]).append(';')
+				.append(fyOrginal[0]).append(';').append(compression[0]).append(';')
+				.append(getCompressionEngine().getType());
+		for (String key : PROFILE_KEYS)
+			profile.append(';').append(getProperty(key, String.class, ""));
+		return profile.append(';').append(getCompressionModelDigest()).append(';').append(CodeVersion.VALUE)
+				.toString();
+	}
+
+	/**
+	 * Returns the digest of the compression model used in adaptive mode, so that
+	 * a model recalibrated at the same path changes the profile; empty in fixed
+	 * mode or when the model cannot be read and the fixed ratio is used.
+	 */
+	private String getCompressionModelDigest() {
+		if (!COMPRESSION_MODE_ADAPTIVE.equalsIgnoreCase(
+				getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODE, String.class, COMPRESSION_MODE_FIXED)))
+			return "";
+		try {
+			return CompressionModel
+					.forPath(getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODEL, String.class, null))
+					.getDigest();
+		} catch (IllegalArgumentException ex) {
+			return "";
+		}
+	}
+
+	/**
+	 * Version of the compression code in the cache profile, read once. The
+	 * implementation version of the manifest is missing from development builds
+	 * and the same across snapshots, so the size and modification time of the
+	 * jar, or of the compiled classes, are used.
+	 */
+	private static final class CodeVersion {
+		private static final String VALUE = read();
+
+		private static String read() {
+			try {
+				CodeSource source = ImageCompressionService.class.getProtectionDomain().getCodeSource();
+				if (source != null && source.getLocation() != null) {
+					Path location = Paths.get(source.getLocation().toURI());
+					if (Files.isRegularFile(location))
+						return Files.size(location) + "-" + Files.getLastModifiedTime(location).toMillis();
+					if (Files.isDirectory(location))
+						return readDirectory(location);
+				}
+			} catch (IOException | URISyntaxException | RuntimeException ex) {
+				LoggerFactory.getLogger(ImageCompressionService.class).warn("Code version not read", ex);
+			}
+			return String.valueOf(ImageCompressionService.class.getPackage().getImplementationVersion());
+		}
+
+		private static String readDirectory(Path directory) throws IOException {
+			long[] version = new long[3];
+			try (Stream<Path> files = Files.walk(directory)) {
+				for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+					version[0]++;
+					version[1] += Files.size(file);
+					version[2] = Math.max(version[2], Files.getLastModifiedTime(file).toMillis());
+				}
+			}
+			return version[0] + "-" + version[1] + "-" + version[2];
+		}
+	}
+
+	/**
+	 * Returns the output cache of the SDK, or null when it is not configured or
+	 * cannot be opened.
+	 */
+	private OutputCache getOutputCache() {
+		String path = getProperty(SdkConstant.IMAGE_COMPRESSOR_OUTPUT_CACHE_PATH, String.class, null);
+		if (path == null || path.isBlank())
+			return null;
+		try {
+			long megabytes = getProperty(SdkConstant.IMAGE_COMPRESSOR_OUTPUT_CACHE_MAX_SIZE_MB, Long.class, 1024L);
+			return OutputCache.forPath(path, Math.max(1, megabytes) << 20);
+		} catch (UncheckedIOException | IllegalArgumentException ex) {
+			if (UNAVAILABLE_CACHES.add(path))
+				logger.warn("compressFaceIso -- output cache not used", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Adds a compressed record to the output cache; a failure only costs the
+	 * next lookup.
+	 */
+	private void putOutputCache(OutputCache cache, String key, byte[] data) {
+		try {
+			cache.put(key, data);
+		} catch (IOException ex) {
+			logger.warn("compressFaceIso -- output not cached", ex);
+		}
+	}
+
+	/**
+	 * Commits the JFR event of a face ISO record written, when it is enabled.
+	 */
+	private void commitIsoWrapEvent(IsoWrapEvent event, String purpose, long inputBytes, byte[] record,
+			boolean cached) {
+		if (!event.shouldCommit())
+			return;
+		event.segmentIndex = getSegmentIndex();
+		event.purpose = purpose;
+		event.cached = cached;
+		event.inputBytes = inputBytes;
+		event.outputBytes = record.length;
+		FaceIsoRecord written = FaceIsoRecord.parse(record);
+		event.width = written.getWidth();
+		event.height = written.getHeight();
+		event.commit();
+	}
+
+	/**
+	 * Resizes and compresses the provided JPEG2000 image data, keeping the
+	 * encoded image in native memory.
+	 *
+	 * @param jp2000Bytes The input JPEG2000 image data.
+	 * @param landmarks   The landmark points of the source ISO record, may be
+	 *                    null.
+	 * @return The encoded image, to be closed by the caller.
+	 */
+	protected EncodedFaceImage encodeFaceImage(byte[] jp2000Bytes, LandmarkPoints[] landmarks) {
+		return encodeFaceImage(ByteBuffer.wrap(jp2000Bytes), landmarks);
+	}
+
+	/**
+	 * Resizes and compresses the JPEG2000 image data held by the buffer, from its
+	 * position to its limit, with the configured {@link CompressionEngine}. With
+	 * the OpenCV engine the encoded image is kept in native memory, and a direct
+	 * buffer is handed to the decoder as is, without a copy; the content of a
+	 * heap buffer is copied once into native memory.
+	 *
+	 * @param jp2000Image The input JPEG2000 image data, its position is left
+	 *                    unchanged.
+	 * @param landmarks   The landmark points of the source ISO record, may be
+	 *                    null.
+	 * @return The encoded image, to be closed by the caller.
+	 */
+	protected EncodedFaceImage encodeFaceImage(ByteBuffer jp2000Image, LandmarkPoints[] landmarks) {
+		checkDeadline("decode");
 		// standard calculation for image size width = 498 and height = 640 is 0.25f
-		// Scaling the Image using Resize function
 		float[] fxOrginal = new float[] { 0.25f };
 		float[] fyOrginal = new float[] { 0.25f };
 		int[] compression = new int[] { 50 };
 		setImageCompressorSettings(fxOrginal, fyOrginal, compression);
 
-		logger.info("Factor ratio Details :: orginal fx={}, orginal fy={}, Compression Ratio=={} ", fxOrginal[0],
-				fyOrginal[0], compression[0]);
+		CompressionEngine engine = getCompressionEngine();
+		logger.info("Factor ratio Details :: orginal fx={}, orginal fy={}, Compression Ratio=={}, Engine={} ",
+				fxOrginal[0], fyOrginal[0], compression[0], engine.getType());
+		return engine.compress(jp2000Image, landmarks, fxOrginal[0], fyOrginal[0], compression[0]);
+	}
+
+	/**
+	 * Returns the engine compressing the face images, as configured by
+	 * {@link SdkConstant#IMAGE_COMPRESSOR_ENGINE}. The OpenCV native library is
+	 * only loaded for the OpenCV engine, and the JAI engine is returned when it
+	 * cannot be loaded.
+	 *
+	 * @return The engine.
+	 */
+	protected CompressionEngine getCompressionEngine() {
+		CompressionEngineType type = CompressionEngineType
+				.resolve(getProperty(SdkConstant.IMAGE_COMPRESSOR_ENGINE, String.class, null));
+		if (type == CompressionEngineType.JAI)
+			return new JaiCompressionEngine(
+					Boolean.TRUE.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_FACE_CROP_ENABLED, Boolean.class, false)),
+					ColourMode.of(getProperty(SdkConstant.IMAGE_COMPRESSOR_COLOUR_MODE, String.class, null)),
+					new RequestStages());
+		return new OpenCvEngine();
+	}
+
+	/**
+	 * Returns the index of the segment compressed by the current thread.
+	 *
+	 * @return The segment index, -1 outside a segment.
+	 */
+	protected int getSegmentIndex() {
+		return segmentIndex.get();
+	}
+
+	/**
+	 * Sets the index of the segment compressed by the current thread, reported by
+	 * the JFR events of its stages.
+	 *
+	 * @param index The segment index, -1 outside a segment.
+	 */
+	protected void setSegmentIndex(int index) {
+		segmentIndex.set(index);
+	}
+
+	/**
+	 * The stages of this request: abandoned at the deadline, reported with the
+	 * index of the segment being compressed.
+	 */
+	private final class RequestStages implements CompressionStages {
+		@Override
+		public void beforeStage(String stage) {
+			checkDeadline(stage);
+		}
+
+		@Override
+		public int getSegmentIndex() {
+			return ImageCompressionService.this.getSegmentIndex();
+		}
+	}
+
+	/**
+	 * The OpenCV engine: decodes and encodes with the OpenCV JPEG2000 codec,
+	 * applying every option of the service.
+	 */
+	private final class OpenCvEngine implements CompressionEngine {
+		@Override
+		public CompressionEngineType getType() {
+			return CompressionEngineType.OPENCV;
+		}
+
+		@Override
+		public EncodedFaceImage compress(ByteBuffer jp2000Image, LandmarkPoints[] landmarks, float fx, float fy,
+				int compression) {
+			Mat decoded = decodeImage(jp2000Image);
+			Mat src = decoded;
+			try {
+				checkDeadline("resize");
+				if (Boolean.TRUE
+						.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_FACE_CROP_ENABLED, Boolean.class, false)))
+					src = cropToFaceRegion(decoded, landmarks);
+				Rect faceRegion = null;
+				if (Boolean.TRUE.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_ROI_ENABLED, Boolean.class, false)))
+					faceRegion = locateRegionOfInterest(decoded, src, landmarks);
+				return encodeImage(src, faceRegion, fx, fy, compression);
+			} finally {
+				src.release();
+				decoded.release();
+			}
+		}
+	}
+
+	/**
+	 * Decodes the JPEG2000 image held by the buffer with OpenCV and converts it to
+	 * the configured colour mode and bit depth. A direct buffer is handed to the
+	 * decoder as is, without a copy; the content of a heap buffer is copied once
+	 * into native memory.
+	 *
+	 * @param jp2000Image The input JPEG2000 image data, from the position to the
+	 *                    limit of the buffer. The position is left unchanged.
+	 * @return The decoded image, to be released by the caller.
+	 * @throws SDKException If the image cannot be decoded.
+	 */
+	protected Mat decodeImage(ByteBuffer jp2000Image) {
+		ImageDecodeEvent event = new ImageDecodeEvent();
+		event.begin();
+		ByteBuffer view = jp2000Image.slice();
+		Mat source;
+		if (view.isDirect()) {
+			source = new Mat(1, view.remaining(), CvType.CV_8UC1, view);
+		} else if (view.hasArray()) {
+			source = new Mat(1, view.remaining(), CvType.CV_8UC1);
+			source.put(0, 0, view.array(), view.arrayOffset(), view.remaining());
+		} else {
+			byte[] bytes = new byte[view.remaining()];
+			view.get(bytes);
+			source = new MatOfByte(bytes);
+		}
+		// Storing the image in a Matrix object
+		// of Mat type
+		Mat decoded;
+		try {
+			decoded = Imgcodecs.imdecode(source, Imgcodecs.IMREAD_UNCHANGED);
+		} finally {
+			source.release();
+			Reference.reachabilityFence(view);
+		}
+		if (decoded.empty()) {
+			decoded.release();
+			ResponseStatus responseStatus = ResponseStatus.INVALID_INPUT;
+			throw SDKException.of(responseStatus, "JPEG2000 image cannot be decoded");
+		}
+		logger.info("Orginal Image Details :: Width {} Height {} Total Size {}", decoded.width(), decoded.height(),
+				(decoded.width() * decoded.height()));
+		Mat converted = convertColour(decoded);
+		if (event.shouldCommit()) {
+			event.segmentIndex = getSegmentIndex();
+			event.inputBytes = jp2000Image.remaining();
+			event.outputBytes = converted.total() * converted.elemSize();
+			event.width = converted.width();
+			event.height = converted.height();
+			event.channels = converted.channels();
+			event.bitsPerSample = converted.depth() == CvType.CV_16U ? 16 : 8;
+			event.colourMode = String.valueOf(
+					ColourMode.of(getProperty(SdkConstant.IMAGE_COMPRESSOR_COLOUR_MODE, String.class, null)));
+			event.commit();
+		}
+		return converted;
+	}
+
+	/**
+	 * Resizes the decoded image, or a region of it, and encodes it as JPEG2000
+	 * with every option of the service.
+	 *
+	 * @param src         The image to encode, it is not released.
+	 * @param faceRegion  The face region kept sharp by the region of interest
+	 *                    encoding, in the coordinates of {@code src}, or null.
+	 * @param fx          The scale factor of the X-axis.
+	 * @param fy          The scale factor of the Y-axis.
+	 * @param compression The {@code IMWRITE_JPEG2000_COMPRESSION_X1000} value.
+	 * @return The encoded image, to be closed by the caller.
+	 * @throws SDKException If the request is abandoned before the encoding, see
+	 *                      {@link #checkDeadline(String)}.
+	 */
+	protected EncodedFaceImage encodeImage(Mat src, Rect faceRegion, float fx, float fy, int compression) {
+		// New matrix to store the final image
+		// where the input image is supposed to be written
+		Mat dst = new Mat();
 
-		Imgproc.resize(src, dst, new Size(0, 0), fxOrginal[0], fyOrginal[0], Imgproc.INTER_AREA);
+		// Scaling the Image using Resize function
+		ResizeEvent resizeEvent = new ResizeEvent();
+		resizeEvent.begin();
+		boolean resizedInJava = resizeInJava(src, dst, fx, fy);
+		if (!resizedInJava)
+			Imgproc.resize(src, dst, new Size(0, 0), fx, fy, Imgproc.INTER_AREA);
 		logger.info("Resized Image Details :: Width {} Height {} Total Size {}", dst.width(), dst.height(),
 				(dst.width() * dst.height()));
+		if (resizeEvent.shouldCommit()) {
+			resizeEvent.segmentIndex = getSegmentIndex();
+			resizeEvent.inputBytes = src.total() * src.elemSize();
+			resizeEvent.outputBytes = dst.total() * dst.elemSize();
+			resizeEvent.inputWidth = src.width();
+			resizeEvent.inputHeight = src.height();
+			resizeEvent.width = dst.width();
+			resizeEvent.height = dst.height();
+			resizeEvent.fx = fx;
+			resizeEvent.fy = fy;
+			resizeEvent.resizeEngine = resizedInJava ? RESIZE_ENGINE_JAVA : RESIZE_ENGINE_OPENCV;
+			resizeEvent.commit();
+		}
+
+		if (faceRegion != null) {
+			double sigma = getProperty(SdkConstant.IMAGE_COMPRESSOR_ROI_BACKGROUND_SIGMA, Double.class, 4.0);
+			BackgroundBlur.apply(dst, BackgroundBlur.scale(faceRegion, (double) dst.width() / src.width(),
+					(double) dst.height() / src.height()), sigma);
+			logger.info("ROI Encoding Details :: Face region {} Background sigma {}", faceRegion, sigma);
+		}
 
-		MatOfInt map = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, compression[0]);
+		if (Boolean.TRUE.equals(
+				getProperty(SdkConstant.IMAGE_COMPRESSOR_COLOUR_CHROMA_SUBSAMPLING_ENABLED, Boolean.class, false)))
+			ColourConversion.subsampleChroma(dst);
+
+		// An abandoned request is not encoded
+		if (isDeadlineExceeded()) {
+			dst.release();
+			throw deadlineExceeded("encode");
+		}
+
+		EncodeEvent encodeEvent = new EncodeEvent();
+		encodeEvent.begin();
+		compression = predictCompression(dst, compression);
+		MatOfByte mem = encodeJp2(dst, compression);
+		EncodedFaceImage encoded = new EncodedFaceImage(mem, dst.width(), dst.height(), dst.channels(),
+				dst.depth());
+		if (encodeEvent.shouldCommit()) {
+			encodeEvent.segmentIndex = getSegmentIndex();
+			encodeEvent.inputBytes = dst.total() * dst.elemSize();
+			encodeEvent.outputBytes = encoded.getLength();
+			encodeEvent.width = dst.width();
+			encodeEvent.height = dst.height();
+			encodeEvent.channels = dst.channels();
+			encodeEvent.compression = compression;
+			encodeEvent.compressionMode = getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODE, String.class,
+					COMPRESSION_MODE_FIXED);
+			encodeEvent.commit();
+		}
+
+		dst.release();
+		return encoded;
+	}
+
+	/**
+	 * Converts the decoded image to the configured colour mode and bit depth.
+	 *
+	 * @param decoded The decoded image, released when it is converted.
+	 * @return The converted image, or the decoded image when nothing is
+	 *         converted.
+	 */
+	private Mat convertColour(Mat decoded) {
+		ColourMode mode = ColourMode.of(getProperty(SdkConstant.IMAGE_COMPRESSOR_COLOUR_MODE, String.class, null));
+		Mat coloured = ColourConversion.convert(decoded, mode);
+		Mat converted = coloured;
+		if (Boolean.TRUE.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_COLOUR_EIGHT_BIT_ENABLED, Boolean.class, false)))
+			converted = ColourConversion.toEightBit(coloured);
+		if (coloured != decoded && coloured != converted)
+			coloured.release();
+		if (converted != decoded) {
+			decoded.release();
+			logger.info("Colour Conversion Details :: Mode {} Channels {} Bits per sample {}", mode,
+					converted.channels(), converted.depth() == CvType.CV_16U ? 16 : 8);
+		}
+		return converted;
+	}
+
+	/**
+	 * Returns the compression ratio to encode the image with. In the adaptive
+	 * compression mode the ratio giving the target PSNR is predicted from the
+	 * complexity of the image; otherwise, or when the model cannot be read, the
+	 * fixed ratio is returned.
+	 *
+	 * @param image            The resized image about to be encoded.
+	 * @param fixedCompression The configured compression ratio.
+	 * @return The {@code IMWRITE_JPEG2000_COMPRESSION_X1000} value.
+	 */
+	protected int predictCompression(Mat image, int fixedCompression) {
+		if (!COMPRESSION_MODE_ADAPTIVE.equalsIgnoreCase(
+				getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODE, String.class, COMPRESSION_MODE_FIXED)))
+			return fixedCompression;
+
+		double targetPsnr = getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_TARGET_PSNR, Double.class, 32.0);
+		try {
+			CompressionModel model = CompressionModel
+					.forPath(getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODEL, String.class, null));
+			ImageComplexity complexity = ImageComplexity.measure(image);
+			int bitsPerPixel = image.channels() * (image.depth() == CvType.CV_16U ? 16 : 8);
+			int compression = model.predictCompression(complexity, bitsPerPixel, targetPsnr);
+			logger.info("Adaptive Compression Details :: {} Target PSNR {} Compression Ratio {}", complexity,
+					targetPsnr, compression);
+			return compression;
+		} catch (IllegalArgumentException ex) {
+			logger.error("predictCompression::error, fixed compression ratio used", ex);
+			return fixedCompression;
+		}
+	}
+
+	/**
+	 * Downscales the image with {@link AreaDownscaler} when the Java resize engine
+	 * is configured. Only 8 bit grey and colour images scaled down are supported,
+	 * anything else is left to OpenCV.
+	 *
+	 * @param src The image to resize.
+	 * @param dst The matrix receiving the resized image.
+	 * @param fx  The scale factor of the X-axis.
+	 * @param fy  The scale factor of the Y-axis.
+	 * @return {@code true} if the image was resized.
+	 */
+	protected boolean resizeInJava(Mat src, Mat dst, double fx, double fy) {
+		if (!RESIZE_ENGINE_JAVA.equalsIgnoreCase(
+				getProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_ENGINE, String.class, RESIZE_ENGINE_OPENCV)))
+			return false;
+		int channels = src.channels();
+		if (src.depth() != CvType.CV_8U || (channels != 1 && channels != 3) || fx <= 0 || fx > 1 || fy <= 0
+				|| fy > 1)
+			return false;
+
+		Mat continuous = src.isContinuous() ? src : src.clone();
+		byte[] samples = new byte[(int) continuous.total() * channels];
+		continuous.get(0, 0, samples);
+		if (continuous != src)
+			continuous.release();
+
+		AreaDownscaler downscaler = AreaDownscaler.getInstance();
+		byte[] resized = downscaler.resize(samples, src.width(), src.height(), channels, fx, fy);
+		dst.create(AreaDownscaler.scaledSize(src.height(), fy), AreaDownscaler.scaledSize(src.width(), fx),
+				CvType.makeType(CvType.CV_8U, channels));
+		dst.put(0, 0, resized);
+		logger.info("Java Resize Details :: Vectorized {}", downscaler.isVectorized());
+		return true;
+	}
+
+	/**
+	 * Encodes the image as JPEG2000.
+	 * <p>
+	 * When tiled encoding is enabled and the image spans several tiles, the tiles
+	 * are encoded in parallel by {@link TiledJp2Encoder} and stitched into a
+	 * single codestream. Otherwise the image is encoded in a single call.
+	 * </p>
+	 *
+	 * @param image       The image to encode.
+	 * @param compression The {@code IMWRITE_JPEG2000_COMPRESSION_X1000} value.
+	 * @return The encoded image.
+	 */
+	protected MatOfByte encodeJp2(Mat image, int compression) {
+		if (Boolean.TRUE.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_ENABLED, Boolean.class, false))) {
+			int tileSize = TiledJp2Encoder.fitTileSize(image.width(), image.height(),
+					getProperty(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_SIZE, Integer.class, 512));
+			if (tileSize > 0) {
+				int threads = getProperty(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_THREADS, Integer.class, 0);
+				if (threads <= 0)
+					threads = NativeScheduling.getNativeThreads();
+				TiledJp2Encoder encoder = new TiledJp2Encoder(tileSize, TiledJp2Encoder.sharedExecutor(threads));
+				logger.info("Tiled Encoding Details :: Tile size {} Threads {}", tileSize, threads);
+				return new MatOfByte(encoder.encode(image, compression));
+			}
+		}
+
+		MatOfInt map = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, compression);
 		MatOfByte mem = new MatOfByte();
-		Imgcodecs.imencode(".jp2", dst, mem, map);
-		byte[] data = mem.toArray();
+		Imgcodecs.imencode(".jp2", image, mem, map);
+		map.release();
+		return mem;
+	}
 
-		logger.info("Compressed Image Details :: Image length {}", data.length);
+	/**
+	 * Compresses the face image of a segment and streams the resulting Face
+	 * ISO/IEC 19794-5:2011 record into the output.
+	 * <p>
+	 * The ISO header is written first, followed by the encoded codestream, copied
+	 * in chunks from the native encoder buffer. Neither the codestream nor the
+	 * record is built as a byte array, so the output can be forwarded (for example
+	 * uploaded) while it is being written.
+	 * </p>
+	 *
+	 * @param segment The face segment to compress.
+	 * @param out     The output to write to, it is flushed but not closed.
+	 * @return The number of bytes written.
+	 * @throws SDKException If the segment is invalid or the record cannot be
+	 *                      written.
+	 */
+	public long writeFaceIso(BIR segment, OutputStream out) {
+		FaceIsoRecord faceRecord = getFaceIsoRecord(segment);
+		try (EncodedFaceImage encoded = encodeFaceImage(faceRecord.getImage(), faceRecord.getLandmarkPoints())) {
+			IsoWrapEvent event = new IsoWrapEvent();
+			event.begin();
+			FaceIsoWriter writer = new FaceIsoWriter("REGISTRATION", faceRecord);
+			long written = writeFaceIsoHeader(writer, encoded, out);
+			written += encoded.writeTo(out);
+			out.flush();
+			logger.info("Streamed Face ISO Details :: Record length {}", written);
+			if (event.shouldCommit()) {
+				event.segmentIndex = getSegmentIndex();
+				event.purpose = "REGISTRATION";
+				event.inputBytes = encoded.getLength();
+				event.outputBytes = written;
+				event.width = encoded.getWidth();
+				event.height = encoded.getHeight();
+				event.commit();
+			}
+			return written;
+		} catch (IOException ex) {
+			logger.error("writeFaceIso::error", ex);
+			ResponseStatus responseStatus = ResponseStatus.UNKNOWN_ERROR;
+			throw new SDKException(responseStatus, responseStatus.getStatusMessage(), ex);
+		}
+	}
 
-		return data;
+	/**
+	 * Compresses the face image of a segment and streams the resulting Face
+	 * ISO/IEC 19794-5:2011 record into the channel.
+	 *
+	 * @param segment The face segment to compress.
+	 * @param channel The channel to write to, it is not closed.
+	 * @return The number of bytes written.
+	 * @throws SDKException If the segment is invalid or the record cannot be
+	 *                      written.
+	 * @see #writeFaceIso(BIR, OutputStream)
+	 */
+	public long writeFaceIso(BIR segment, WritableByteChannel channel) {
+		return writeFaceIso(segment, Channels.newOutputStream(channel));
 	}
 
 	/**
-	 * Converts the given image data to Face ISO/IEC 19794-5:2011 format.
+	 * Resizes and compresses the JPEG2000 image held by the buffer.
+	 * <p>
+	 * With a direct input buffer the image goes from the buffer to the OpenCV
+	 * decoder, and from the OpenCV encoder to the returned buffer, without being
+	 * copied onto the Java heap. Callers using the foreign memory API can pass
+	 * {@code MemorySegment.asByteBuffer()}.
+	 * </p>
+	 *
+	 * @param jp2000Image The input JPEG2000 image data, from the position to the
+	 *                    limit of the buffer. The position is left unchanged.
+	 * @return A direct buffer holding the compressed JPEG2000 image, positioned
+	 *         at zero.
+	 */
+	public ByteBuffer resizeAndCompress(ByteBuffer jp2000Image) {
+		try (EncodedFaceImage encoded = encodeFaceImage(jp2000Image, null)) {
+			ByteBuffer data = ByteBuffer.allocateDirect((int) encoded.getLength());
+			encoded.copyTo(data);
+			data.flip();
+			logger.info("Compressed Image Details :: Image length {}", data.remaining());
+			return data;
+		}
+	}
+
+	/**
+	 * Resizes and compresses the JPEG2000 image held by the buffer and wraps it
+	 * into a Face ISO/IEC 19794-5:2011 record.
+	 * <p>
+	 * Only the ISO header goes through the Java heap, the compressed image is
+	 * copied by OpenCV straight behind it in the returned direct buffer.
+	 * </p>
+	 *
+	 * @param jp2000Image The input JPEG2000 image data, from the position to the
+	 *                    limit of the buffer. The position is left unchanged.
+	 * @param landmarks   The landmark points of the source ISO record, may be
+	 *                    null.
+	 * @return A direct buffer holding the face ISO record, positioned at zero.
+	 * @throws SDKException If the record cannot be written.
+	 */
+	public ByteBuffer compressToFaceIso(ByteBuffer jp2000Image, LandmarkPoints[] landmarks) {
+		try (EncodedFaceImage encoded = encodeFaceImage(jp2000Image, landmarks)) {
+			FaceIsoWriter writer = new FaceIsoWriter("REGISTRATION");
+			ByteArrayOutputStream header = new ByteArrayOutputStream(writer.getHeaderLength());
+			writeFaceIsoHeader(writer, encoded, header);
+
+			ByteBuffer data = ByteBuffer.allocateDirect((int) writer.getRecordLength(encoded.getLength()));
+			data.put(header.toByteArray());
+			encoded.copyTo(data);
+			data.flip();
+			logger.info("Face ISO Details :: Record length {}", data.remaining());
+			return data;
+		} catch (IOException ex) {
+			logger.error("compressToFaceIso::error", ex);
+			ResponseStatus responseStatus = ResponseStatus.UNKNOWN_ERROR;
+			throw new SDKException(responseStatus, responseStatus.getStatusMessage(), ex);
+		}
+	}
+
+	/**
+	 * Crops the image to its token face region. The image is returned unchanged
+	 * when the face cannot be located.
+	 *
+	 * @param src       The decoded face image.
+	 * @param landmarks The landmark points of the source ISO record, may be null.
+	 * @return The cropped image, sharing the pixel data of the source image.
+	 */
+	protected Mat cropToFaceRegion(Mat src, LandmarkPoints[] landmarks) {
+		boolean useDetector = Boolean.TRUE.equals(
+				getProperty(SdkConstant.IMAGE_COMPRESSOR_FACE_CROP_DETECTOR_ENABLED, Boolean.class, true));
+		Rect region = FaceRegionLocator.locate(src, landmarks, useDetector);
+		if (region == null) {
+			logger.info("Face region not found, image is not cropped");
+			return src;
+		}
+
+		logger.info("Cropped Image Details :: X {} Y {} Width {} Height {}", region.x, region.y, region.width,
+				region.height);
+		return src.submat(region);
+	}
+
+	/**
+	 * Locates the face region kept sharp by the region of interest encoding, from
+	 * the eye landmarks or, when they are absent and the detector is enabled,
+	 * with the bundled face detector.
+	 *
+	 * @param decoded   The decoded face image the landmarks refer to.
+	 * @param src       The image being encoded, the decoded image or a crop of
+	 *                  it.
+	 * @param landmarks The landmark points of the source ISO record, may be null.
+	 * @return The token face region in the coordinates of {@code src}, or null
+	 *         when the face cannot be located.
+	 */
+	protected Rect locateRegionOfInterest(Mat decoded, Mat src, LandmarkPoints[] landmarks) {
+		boolean useDetector = Boolean.TRUE
+				.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_ROI_DETECTOR_ENABLED, Boolean.class, true));
+		Rect region = FaceRegionLocator.locate(decoded, landmarks, useDetector);
+		if (region == null) {
+			logger.info("Face region not found, background is not blurred");
+			return null;
+		}
+		if (src != decoded) {
+			Size wholeSize = new Size();
+			Point offset = new Point();
+			src.locateROI(wholeSize, offset);
+			region = new Rect((int) (region.x - offset.x), (int) (region.y - offset.y), region.width,
+					region.height);
+		}
+		return region;
+	}
+
+	/**
+	 * Converts the given image data to Face ISO/IEC 19794-5:2011 format. The
+	 * dimensions and colour space are read from the JPEG2000 header, the image is
+	 * not decoded.
 	 *
 	 * @param purpose   The purpose for the conversion.
 	 * @param imageData The image data to convert.
@@ -255,25 +1042,41 @@ public class ImageCompressionService extends SDKService {
 	protected byte[] doFaceConversion(String purpose, byte[] imageData) {
 		ResponseStatus responseStatus = null;
 		try {
-			ConvertRequestDto requestDto = new ConvertRequestDto();
-			requestDto.setModality("Face");
-			requestDto.setPurpose(purpose);
-			requestDto.setVersion("ISO19794_5_2011");
-
 			// Convert JP2000 to Face ISO/IEC 19794-5: 2011
 			if (imageData != null) {
-				requestDto.setImageType(0);// 0 = jp2, 1 = wsq
-				requestDto.setInputBytes(imageData);
-
-				// get image quality = 40 by default
-				return FaceEncoder.convertFaceImageToISO(requestDto);
+				IsoWrapEvent event = new IsoWrapEvent();
+				event.begin();
+				// The image properties come from the JP2 header, the image is not decoded
+				Jp2ImageInfo imageInfo = Jp2ImageInfo.read(imageData);
+				ByteArrayOutputStream out = new ByteArrayOutputStream(imageData.length + 128);
+				new FaceIsoWriter(purpose).writeHeader(out, imageInfo.getWidth(), imageInfo.getHeight(),
+						FaceIsoWriter.getImageColourSpace(imageInfo.getComponents(), imageInfo.getBitsPerComponent()),
+						imageData.length);
+				out.write(imageData);
+				if (event.shouldCommit()) {
+					event.segmentIndex = getSegmentIndex();
+					event.purpose = purpose;
+					event.inputBytes = imageData.length;
+					event.outputBytes = out.size();
+					event.width = imageInfo.getWidth();
+					event.height = imageInfo.getHeight();
+					event.commit();
+				}
+				return out.toByteArray();
 			}
 		} catch (Exception ex) {
 			logger.error("doFaceConversion::error", ex);
 			responseStatus = ResponseStatus.UNKNOWN_ERROR;
-			throw new SDKException(responseStatus.getStatusCode() + "", responseStatus.getStatusMessage());
+			throw SDKException.of(responseStatus);
 		}
-		throw new SDKException(ResponseStatus.UNKNOWN_ERROR + "", "null");
+		throw SDKException.of(ResponseStatus.UNKNOWN_ERROR);
+	}
+
+	private static long writeFaceIsoHeader(FaceIsoWriter writer, EncodedFaceImage encoded, OutputStream out)
+			throws IOException {
+		return writer.writeHeader(out, encoded.getWidth(), encoded.getHeight(),
+				FaceIsoWriter.getImageColourSpace(encoded.getChannels(), encoded.getBitsPerSample()),
+				encoded.getLength());
 	}
 
 	/**
@@ -298,18 +1101,18 @@ public class ImageCompressionService extends SDKService {
 	}
 
 	/**
-	 * Sets image compressor settings based on environment variables and
-	 * configuration flags.
+	 * Sets image compressor settings based on the SDK settings and configuration
+	 * flags.
 	 * 
-	 * This method prioritizes settings obtained from environment variables over
-	 * configuration flags. It attempts to retrieve the following properties from
-	 * the environment: - `SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX`: Resize
+	 * This method reads the SDK settings first and lets complete configuration
+	 * flags override them. It attempts to retrieve the following properties from
+	 * the SDK settings: - `SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX`: Resize
 	 * factor for the X-axis (default: 0.25). -
 	 * `SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FY`: Resize factor for the Y-axis
 	 * (default: 0.25). - `SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO`:
 	 * Compression ratio for the image (default: 50). - standard calculation for
-	 * image size width = 498 and height = 640 is 0.25f If environment variables are
-	 * not available, the method checks the configuration flags (`this.getFlags()`)
+	 * image size width = 498 and height = 640 is 0.25f If no SDK settings are
+	 * available, the method checks the configuration flags (`this.getFlags()`)
 	 * for the same keys. It attempts to parse the flag values as floats and integer
 	 * for resize factors and compression ratio, respectively.
 	 * 
@@ -327,16 +1130,16 @@ public class ImageCompressionService extends SDKService {
 		fxOrginal[0] = 0.25f;
 		fyOrginal[0] = 0.25f;
 		compressionRatio[0] = 50;
-		if (this.getEnv() != null) {
+		if (this.getSettings() != null) {
 			try {
-				fxOrginal[0] = this.getEnv().getProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, Float.class,
+				fxOrginal[0] = this.getSettings().getProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, Float.class,
 						0.25f);
-				fyOrginal[0] = this.getEnv().getProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FY, Float.class,
+				fyOrginal[0] = this.getSettings().getProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FY, Float.class,
 						0.25f);
-				compressionRatio[0] = this.getEnv().getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO,
+				compressionRatio[0] = this.getSettings().getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO,
 						Integer.class, 50);
 			} catch (Exception ex) {
-				logger.error("setImageCompressorSettings::error for env values", ex);
+				logger.error("setImageCompressorSettings::error for settings values", ex);
 			}
 		}
 		if (!Objects.isNull(getFlags()) && (getFlags().containsKey(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX)
@@ -0,0 +1,314 @@
+package io.mosip.image.compressor.sdk.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.exceptions.SDKException;
+import io.mosip.image.compressor.sdk.match.DescriptorCache;
+import io.mosip.image.compressor.sdk.match.DescriptorGallery;
+import io.mosip.image.compressor.sdk.match.DescriptorIndex;
+import io.mosip.image.compressor.sdk.match.FaceDescriptor;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Service class for near duplicate face matching. A face matches when the
+ * {@link FaceDescriptor} of one of its images is within the configured Hamming
+ * distance of the descriptor of a face of the sample: a compressed face
+ * matches its original, and exact and near duplicates are found in a gallery.
+ * This is not a biometric matcher, different images of the same person do not
+ * match.
+ * <p>
+ * Descriptors are cached by {@link DescriptorCache}, so a record is decoded
+ * once. When a {@link DescriptorIndex} is configured, the descriptors of
+ * segments with an ID are looked up in it before any image is read, and the
+ * descriptors computed are added to it. The gallery records are decoded in
+ * parallel and the gallery is scanned with {@link DescriptorGallery}.
+ * </p>
+ */
+public class MatchService extends SDKService {
+	private Logger logger = LoggerFactory.getLogger(MatchService.class);
+
+	/** Analytics key of the Hamming distance of the closest faces. */
+	public static final String ANALYTICS_DISTANCE = "distance";
+	/** Analytics key of the threshold the distance was compared with. */
+	public static final String ANALYTICS_THRESHOLD = "threshold";
+
+	/** Descriptor index paths that could not be opened, logged once. */
+	private static final Set<String> UNAVAILABLE_INDEXES = ConcurrentHashMap.newKeySet();
+
+	private BiometricRecord sample;
+	private BiometricRecord[] gallery;
+	private List<BiometricType> modalitiesToMatch;
+
+	/**
+	 * Match service constructor initializing with the SDK settings, biometric
+	 * sample, gallery, modalities to match, and additional flags.
+	 *
+	 * @param settings          The configuration of the SDK.
+	 * @param sample            The biometric record sample to match.
+	 * @param gallery           The biometric records to match the sample with.
+	 * @param modalitiesToMatch The list of biometric types to match.
+	 * @param flags             Additional configuration flags.
+	 */
+	public MatchService(SdkSettings settings, BiometricRecord sample, BiometricRecord[] gallery,
+			List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+		super(settings, flags);
+		this.sample = sample;
+		this.gallery = gallery;
+		this.modalitiesToMatch = modalitiesToMatch;
+	}
+
+	/**
+	 * Matches the sample with every record of the gallery.
+	 *
+	 * @return Response containing one match decision per gallery record.
+	 */
+	public Response<MatchDecision[]> getMatchDecisionInfo() {
+		logger.info("MatchDecisionInfo :: Started Request :: Gallery size {}", gallery != null ? gallery.length : null);
+
+		ResponseStatus responseStatus = null;
+		Response<MatchDecision[]> response = new Response<>();
+		try {
+			if (sample == null || sample.getSegments() == null || sample.getSegments().isEmpty() || gallery == null) {
+				responseStatus = ResponseStatus.MISSING_INPUT;
+				throw SDKException.of(responseStatus);
+			}
+			// The descriptors need OpenCV, not loaded yet with the jai engine
+			if (!OpenCvNativeLoader.isAvailable()) {
+				responseStatus = ResponseStatus.UNKNOWN_ERROR;
+				throw SDKException.of(responseStatus, "OpenCV native library is not available");
+			}
+
+			DescriptorCache cache = DescriptorCache.getInstance();
+			cache.setMaximumSize(getProperty(SdkConstant.IMAGE_COMPRESSOR_MATCH_CACHE_SIZE, Integer.class,
+					DescriptorCache.DEFAULT_MAXIMUM_SIZE));
+			DescriptorIndex index = getDescriptorIndex();
+			RuntimeException[] sampleErrors = new RuntimeException[1];
+			List<FaceDescriptor> probes = getFaceDescriptors(new BiometricRecord[] { sample }, cache, index,
+					sampleErrors).get(0);
+			if (sampleErrors[0] != null)
+				throw sampleErrors[0];
+			if (probes.isEmpty()) {
+				responseStatus = ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF;
+				throw SDKException.of(responseStatus);
+			}
+
+			response.setResponse(matchGallery(probes, cache, index));
+		} catch (SDKException ex) {
+			logger.error("match -- error", ex);
+			setErrorResponse(ex.getStatus(), response);
+			return response;
+		} catch (Exception ex) {
+			logger.error("match -- error", ex);
+			setErrorResponse(ResponseStatus.UNKNOWN_ERROR, response);
+			return response;
+		}
+		response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+		logger.info("MatchDecisionInfo :: End Response :: {} decisions", response.getResponse().length);
+		return response;
+	}
+
+	private MatchDecision[] matchGallery(List<FaceDescriptor> probes, DescriptorCache cache,
+			DescriptorIndex descriptorIndex) {
+		int threshold = getProperty(SdkConstant.IMAGE_COMPRESSOR_MATCH_THRESHOLD, Integer.class, 24);
+
+		RuntimeException[] exceptions = new RuntimeException[gallery.length];
+		List<List<FaceDescriptor>> faces = getFaceDescriptors(gallery, cache, descriptorIndex, exceptions);
+		String[] errors = new String[gallery.length];
+		for (int index = 0; index < gallery.length; index++) {
+			if (exceptions[index] == null)
+				continue;
+			logger.error("match -- gallery record {} error", index, exceptions[index]);
+			errors[index] = exceptions[index] instanceof SDKException sdkException ? sdkException.getErrorText()
+					: exceptions[index].getMessage();
+		}
+
+		int total = faces.stream().mapToInt(List::size).sum();
+		DescriptorGallery descriptors = new DescriptorGallery(total);
+		int[] owners = new int[total];
+		for (int index = 0; index < gallery.length; index++) {
+			for (FaceDescriptor face : faces.get(index))
+				owners[descriptors.add(face)] = index;
+		}
+		int[] closest = new int[gallery.length];
+		Arrays.fill(closest, Integer.MAX_VALUE);
+		for (FaceDescriptor probe : probes) {
+			int[] distances = descriptors.distances(probe);
+			for (int entry = 0; entry < distances.length; entry++) {
+				int owner = owners[entry];
+				closest[owner] = Math.min(closest[owner], distances[entry]);
+			}
+		}
+
+		MatchDecision[] decisions = new MatchDecision[gallery.length];
+		for (int index = 0; index < gallery.length; index++) {
+			Decision decision = new Decision();
+			decision.setAnalyticsInfo(new HashMap<>());
+			decision.setErrors(new ArrayList<>());
+			if (errors[index] != null) {
+				decision.setMatch(Match.ERROR);
+				decision.getErrors().add(errors[index]);
+			} else if (closest[index] == Integer.MAX_VALUE) {
+				decision.setMatch(Match.ERROR);
+				decision.getErrors().add(ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF.getStatusMessage());
+			} else {
+				decision.setMatch(closest[index] <= threshold ? Match.MATCHED : Match.NOT_MATCHED);
+				decision.getAnalyticsInfo().put(ANALYTICS_DISTANCE, String.valueOf(closest[index]));
+				decision.getAnalyticsInfo().put(ANALYTICS_THRESHOLD, String.valueOf(threshold));
+			}
+
+			MatchDecision matchDecision = new MatchDecision(index);
+			matchDecision.setAnalyticsInfo(new HashMap<>());
+			matchDecision.setDecisions(new HashMap<>());
+			matchDecision.getDecisions().put(BiometricType.FACE, decision);
+			addUnsupportedModalities(matchDecision);
+			decisions[index] = matchDecision;
+		}
+		return decisions;
+	}
+
+	/**
+	 * Returns the descriptors of the face segments of records: from the index
+	 * for the segments indexed with an unchanged record, from the cache or by
+	 * decoding the image otherwise. The descriptors computed are added to the
+	 * index. The error of a record is set in {@code errors} and the record has
+	 * no descriptors.
+	 */
+	private List<List<FaceDescriptor>> getFaceDescriptors(BiometricRecord[] bioRecords, DescriptorCache cache,
+			DescriptorIndex descriptorIndex, RuntimeException[] errors) {
+		List<List<BIR>> segments = new ArrayList<>(bioRecords.length);
+		int total = 0;
+		for (int index = 0; index < bioRecords.length; index++) {
+			List<BIR> faceSegments = List.of();
+			try {
+				faceSegments = getFaceSegments(bioRecords[index]);
+			} catch (RuntimeException ex) {
+				errors[index] = ex;
+			}
+			segments.add(faceSegments);
+			total += faceSegments.size();
+		}
+
+		// Every indexed segment is looked up at once, before any image is read
+		int[] offsets = new int[bioRecords.length + 1];
+		String[] ids = new String[total];
+		String[] recordKeys = new String[total];
+		for (int index = 0; index < bioRecords.length; index++) {
+			offsets[index + 1] = offsets[index] + segments.get(index).size();
+			for (int position = 0; position < segments.get(index).size(); position++) {
+				BIR segment = segments.get(index).get(position);
+				ids[offsets[index] + position] = getSegmentId(segment);
+				recordKeys[offsets[index] + position] = DescriptorCache
+						.key(segment.getBdb() != null ? segment.getBdb() : new byte[0]);
+			}
+		}
+		FaceDescriptor[] indexed = descriptorIndex != null ? descriptorIndex.lookup(ids, recordKeys)
+				: new FaceDescriptor[total];
+
+		// Decoding dominates, the records are decoded in parallel
+		FaceDescriptor[] computed = new FaceDescriptor[total];
+		IntStream.range(0, bioRecords.length).parallel().forEach(index -> {
+			try {
+				for (int entry = offsets[index]; entry < offsets[index + 1]; entry++) {
+					if (indexed[entry] != null)
+						continue;
+					BIR segment = segments.get(index).get(entry - offsets[index]);
+					byte[] faceImage = getFaceIsoRecord(segment).getImageBytes();
+					computed[entry] = cache.get(recordKeys[entry], () -> FaceDescriptor.compute(faceImage));
+				}
+			} catch (RuntimeException ex) {
+				errors[index] = ex;
+			}
+		});
+
+		if (descriptorIndex != null) {
+			try {
+				descriptorIndex.appendAll(ids, recordKeys, computed);
+			} catch (IOException ex) {
+				logger.warn("match -- descriptors not added to the index", ex);
+			}
+		}
+
+		List<List<FaceDescriptor>> descriptors = new ArrayList<>(bioRecords.length);
+		for (int index = 0; index < bioRecords.length; index++) {
+			List<FaceDescriptor> recordDescriptors = new ArrayList<>(offsets[index + 1] - offsets[index]);
+			for (int entry = offsets[index]; errors[index] == null && entry < offsets[index + 1]; entry++)
+				recordDescriptors.add(indexed[entry] != null ? indexed[entry] : computed[entry]);
+			descriptors.add(recordDescriptors);
+		}
+		return descriptors;
+	}
+
+	private List<BIR> getFaceSegments(BiometricRecord bioRecord) {
+		if (bioRecord == null || bioRecord.getSegments() == null)
+			return List.of();
+		List<BIR> segments = getBioSegmentMap(bioRecord, List.of(BiometricType.FACE)).get(BiometricType.FACE);
+		return segments != null ? segments : List.of();
+	}
+
+	/**
+	 * Returns the ID of a segment in the index, the BDB info index or else the
+	 * BIR info index, or null when the segment has none.
+	 */
+	private static String getSegmentId(BIR segment) {
+		if (segment.getBdbInfo() != null && segment.getBdbInfo().getIndex() != null
+				&& !segment.getBdbInfo().getIndex().isBlank())
+			return segment.getBdbInfo().getIndex();
+		if (segment.getBirInfo() != null && segment.getBirInfo().getIndex() != null
+				&& !segment.getBirInfo().getIndex().isBlank())
+			return segment.getBirInfo().getIndex();
+		return null;
+	}
+
+	private DescriptorIndex getDescriptorIndex() {
+		String path = getProperty(SdkConstant.IMAGE_COMPRESSOR_MATCH_INDEX_PATH, String.class, null);
+		if (path == null || path.isBlank())
+			return null;
+		try {
+			return DescriptorIndex.forPath(path);
+		} catch (UncheckedIOException ex) {
+			if (UNAVAILABLE_INDEXES.add(path))
+				logger.warn("match -- descriptor index not used", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Adds an error decision for every requested modality other than face.
+	 */
+	private void addUnsupportedModalities(MatchDecision matchDecision) {
+		if (modalitiesToMatch == null)
+			return;
+		for (BiometricType modality : modalitiesToMatch) {
+			if (modality == BiometricType.FACE)
+				continue;
+			Decision decision = new Decision();
+			decision.setMatch(Match.ERROR);
+			decision.setAnalyticsInfo(new HashMap<>());
+			decision.setErrors(new ArrayList<>(
+					List.of(String.format(ResponseStatus.INVALID_INPUT.getStatusMessage(), modality))));
+			matchDecision.getDecisions().put(modality, decision);
+		}
+	}
+}
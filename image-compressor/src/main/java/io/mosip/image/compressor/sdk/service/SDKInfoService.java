@@ -5,8 +5,7 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.core.env.Environment;
-
+import io.mosip.image.compressor.sdk.config.SdkSettings;
 import io.mosip.kernel.biometrics.constant.BiometricFunction;
 import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.model.SDKInfo;
@@ -26,8 +25,7 @@ public class SDKInfoService extends SDKService {
 	/**
 	 * Constructs a new `SDKInfoService` instance.
 	 * 
-	 * @param env        An environment object likely used to access configuration
-	 *                   properties.
+	 * @param settings   The configuration of the SDK.
 	 * @param apiVersion The API version of the Biometric SDK.
 	 * @param sample1    A string value of unclear purpose (might be sample data
 	 *                   reference).
@@ -36,8 +34,8 @@ public class SDKInfoService extends SDKService {
 	 * @param sample3    A string value of unclear purpose (might be sample data
 	 *                   reference).
 	 */
-	public SDKInfoService(Environment env, String apiVersion, String sample1, String sample2, String sample3) {
-		super(env, null);
+	public SDKInfoService(SdkSettings settings, String apiVersion, String sample1, String sample2, String sample3) {
+		super(settings, null);
 		this.apiVersion = apiVersion;
 		this.sample1 = sample1;
 		this.sample2 = sample2;
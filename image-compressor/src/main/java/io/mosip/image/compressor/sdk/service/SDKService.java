@@ -4,29 +4,33 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.springframework.core.env.Environment;
-
-import io.mosip.biometrics.util.ConvertRequestDto;
-import io.mosip.biometrics.util.face.FaceBDIR;
-import io.mosip.biometrics.util.face.FaceDecoder;
+import io.mosip.image.compressor.sdk.config.MapSdkSettings;
+import io.mosip.image.compressor.sdk.config.SdkSettings;
 import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
 import io.mosip.image.compressor.sdk.exceptions.SDKException;
+import io.mosip.image.compressor.sdk.exceptions.ValidationResult;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.scheduling.NativeScheduling;
 import io.mosip.image.compressor.sdk.utils.Util;
 import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.constant.PurposeType;
 import io.mosip.kernel.biometrics.entities.BIR;
 import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
 
 /**
  * Abstract base class for Biometric SDK services.
  * 
  * This class defines common methods and functionalities for processing
  * biometric data used by its concrete implementations. It provides methods for:
- * - Accessing environment variables and configuration flags. - Extracting
+ * - Accessing configuration settings and flags. - Extracting
  * biometric segments from a BiometricRecord object based on specified
  * modalities. - Retrieving biometric data from a Biometric Identification
  * Record (BIR) object. - Processing and extracting relevant information from
@@ -38,18 +42,24 @@ import io.mosip.kernel.biometrics.entities.BiometricRecord;
 public abstract class SDKService {
 	private Logger logger = LoggerFactory.getLogger(SDKService.class);
 	private Map<String, String> flags;
-	private Environment env;
+	private SdkSettings settings;
+	private final long startNanos = System.nanoTime();
+	private final long timeoutNanos;
 
 	/**
-	 * Constructs an instance of SDKService with the specified environment and
-	 * flags.
+	 * Constructs an instance of SDKService with the specified settings and flags.
+	 * The deadline of the request, see
+	 * {@link SdkConstant#IMAGE_COMPRESSOR_REQUEST_TIMEOUT_MS}, starts with the
+	 * service.
 	 *
-	 * @param env   The environment configuration for SDK operations.
-	 * @param flags The flags configuration for SDK operations.
+	 * @param settings The configuration for SDK operations, may be null.
+	 * @param flags    The flags configuration for SDK operations.
 	 */
-	protected SDKService(Environment env, Map<String, String> flags) {
-		setEnv(env);
+	protected SDKService(SdkSettings settings, Map<String, String> flags) {
+		setSettings(settings);
 		setFlags(flags);
+		long timeoutMillis = getProperty(SdkConstant.IMAGE_COMPRESSOR_REQUEST_TIMEOUT_MS, Long.class, 0L);
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
 	}
 
 	/**
@@ -71,22 +81,123 @@ public abstract class SDKService {
 	}
 
 	/**
-	 * Retrieves the environment configuration currently set in this SDKService
-	 * instance.
+	 * Retrieves the configuration currently set in this SDKService instance.
+	 *
+	 * @return The configuration for SDK operations, may be null.
+	 */
+	protected SdkSettings getSettings() {
+		return settings;
+	}
+
+	/**
+	 * Sets the configuration for this SDKService instance.
+	 *
+	 * @param settings The configuration to be set for SDK operations.
+	 */
+	protected void setSettings(SdkSettings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * Resolves a configuration value for the given key.
+	 * 
+	 * The value is looked up in the settings first and is overridden by the
+	 * configuration flags when the flags contain the key. Values that cannot be
+	 * read or parsed are logged and the default value is returned instead.
 	 *
-	 * @return The environment configuration for SDK operations.
+	 * @param <T>          The type of the configuration value (String, Boolean,
+	 *                     Integer, Long, Float or Double).
+	 * @param key          The configuration key.
+	 * @param type         The expected type of the configuration value.
+	 * @param defaultValue The value to return when the key is not configured.
+	 * @return The resolved configuration value.
 	 */
-	protected Environment getEnv() {
-		return env;
+	protected <T> T getProperty(String key, Class<T> type, T defaultValue) {
+		T value = defaultValue;
+		if (getSettings() != null) {
+			try {
+				T settingsValue = getSettings().getProperty(key, type, defaultValue);
+				if (settingsValue != null)
+					value = settingsValue;
+			} catch (Exception ex) {
+				logger.error("getProperty::error for settings value {}", key, ex);
+			}
+		}
+		if (getFlags() != null && getFlags().containsKey(key)) {
+			try {
+				value = MapSdkSettings.convert(getFlags().get(key), type);
+			} catch (Exception ex) {
+				logger.error("getProperty::error for flag value {}", key, ex);
+			}
+		}
+		return value;
 	}
 
 	/**
-	 * Sets the environment configuration for this SDKService instance.
+	 * Tells whether the request should be abandoned: its deadline has passed, or
+	 * the thread processing it was interrupted.
 	 *
-	 * @param env The environment configuration to be set for SDK operations.
+	 * @return true if the request should be abandoned.
 	 */
-	protected void setEnv(Environment env) {
-		this.env = env;
+	protected boolean isDeadlineExceeded() {
+		return Thread.currentThread().isInterrupted()
+				|| (timeoutNanos > 0 && System.nanoTime() - startNanos > timeoutNanos);
+	}
+
+	/**
+	 * Abandons the request when its deadline has passed or its thread was
+	 * interrupted, so that no further stage is started for a caller that gave up.
+	 *
+	 * @param stage The stage about to start, logged when the request is abandoned.
+	 * @throws SDKException With the status {@link ResponseStatus#REQUEST_TIMEOUT}
+	 *                      if the request should be abandoned.
+	 */
+	protected void checkDeadline(String stage) {
+		if (isDeadlineExceeded())
+			throw deadlineExceeded(stage);
+	}
+
+	/**
+	 * Returns the exception abandoning the request before a stage.
+	 *
+	 * @param stage The stage about to start.
+	 * @return The stackless exception of {@link ResponseStatus#REQUEST_TIMEOUT}.
+	 */
+	protected SDKException deadlineExceeded(String stage) {
+		logger.warn("checkDeadline -- request abandoned before {} after {} ms", stage,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+		return SDKException.of(ResponseStatus.REQUEST_TIMEOUT);
+	}
+
+	/**
+	 * Returns the time left before the deadline of the request.
+	 *
+	 * @return The time left in nanoseconds, 0 when the deadline has passed, or
+	 *         {@link Long#MAX_VALUE} when the request has no deadline.
+	 */
+	protected long getRemainingNanos() {
+		if (timeoutNanos == 0)
+			return Long.MAX_VALUE;
+		return Math.max(0, timeoutNanos - (System.nanoTime() - startNanos));
+	}
+
+	/**
+	 * Runs a request of this service with {@link NativeScheduling}, waiting for
+	 * its turn at most until the deadline of the request. A request whose
+	 * deadline passes, or whose thread is interrupted, while it waits is answered
+	 * with {@link ResponseStatus#REQUEST_TIMEOUT} without being run.
+	 *
+	 * @param <T>     The result type.
+	 * @param request The request, a method of this service.
+	 * @return The response of the request.
+	 */
+	public <T> Response<T> runScheduled(Supplier<Response<T>> request) {
+		return NativeScheduling.run(request, getRemainingNanos(), () -> {
+			deadlineExceeded("scheduling");
+			Response<T> response = new Response<>();
+			setErrorResponse(ResponseStatus.REQUEST_TIMEOUT, response);
+			return response;
+		});
 	}
 
 	/**
@@ -117,6 +228,12 @@ public abstract class SDKService {
 
 		Map<BiometricType, List<BIR>> bioSegmentMap = new HashMap<>();
 		for (BIR segment : bioRecord.getSegments()) {
+			/**
+			 * ignore segments without a biometric type, they cannot be matched
+			 */
+			if (segment == null || segment.getBdbInfo() == null || segment.getBdbInfo().getType() == null
+					|| segment.getBdbInfo().getType().isEmpty())
+				continue;
 			BiometricType bioType = segment.getBdbInfo().getType().get(0);
 
 			/**
@@ -160,7 +277,80 @@ public abstract class SDKService {
 		if (isValidBIRParams(bir, biometricType, bioSubType)) {
 			return getBDBData(purposeType, biometricType, bioSubType, bir.getBdb());
 		}
-		throw new SDKException(ResponseStatus.UNKNOWN_ERROR + "", "null");
+		throw SDKException.of(ResponseStatus.UNKNOWN_ERROR);
+	}
+
+	/**
+	 * Parses the Face ISO/IEC 19794-5:2011 record held by a BIR (Biometric
+	 * Identification Record) object.
+	 * 
+	 * This method applies the same validation as {@link #getBirData(BIR)} but
+	 * parses the BDB directly, without the URL safe Base64 round trip. The
+	 * returned record shares the BDB, so the image can be read as a slice of it
+	 * along with the header fields (for example the landmark points).
+	 * 
+	 * @param bir The BIR object containing the face ISO record.
+	 * @return The parsed face record.
+	 * @throws SDKException If the BIR object is invalid or the record cannot be
+	 *                      parsed.
+	 */
+	protected FaceIsoRecord getFaceIsoRecord(BIR bir) {
+		return readFaceIsoRecord(bir).orElseThrow();
+	}
+
+	/**
+	 * Parses the Face ISO/IEC 19794-5:2011 record held by a BIR (Biometric
+	 * Identification Record) object, returning the failure instead of throwing it.
+	 * 
+	 * This is the validation of {@link #getFaceIsoRecord(BIR)}. An invalid sample
+	 * is the expected failure of a request, so neither an exception nor a stack
+	 * trace is created for it.
+	 * 
+	 * @param bir The BIR object containing the face ISO record.
+	 * @return The parsed face record, or the status of the failure:
+	 *         {@link ResponseStatus#MISSING_INPUT} if the BIR is not a face,
+	 *         {@link ResponseStatus#BIOMETRIC_NOT_FOUND_IN_CBEFF} if the BDB is
+	 *         empty and {@link ResponseStatus#INVALID_INPUT} if the record is not
+	 *         well formed.
+	 */
+	protected ValidationResult<FaceIsoRecord> readFaceIsoRecord(BIR bir) {
+		BiometricType biometricType = bir.getBdbInfo().getType().get(0);
+		if (biometricType != BiometricType.FACE) {
+			logger.error("readFaceIsoRecord::BiometricType{}", biometricType);
+			return ValidationResult.invalid(ResponseStatus.MISSING_INPUT);
+		}
+
+		byte[] bdbData = bir.getBdb();
+		if (bdbData == null || bdbData.length == 0)
+			return ValidationResult.invalid(ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF);
+
+		String problem = FaceIsoRecord.validate(bdbData);
+		if (problem != null) {
+			logger.error("readFaceIsoRecord -- {}", problem);
+			return ValidationResult.invalid(ResponseStatus.INVALID_INPUT, problem);
+		}
+		return ValidationResult.valid(FaceIsoRecord.parse(bdbData));
+	}
+
+	/**
+	 * Sets the status of a failed request on the response, with the status
+	 * message, and clears its result.
+	 * 
+	 * @param status   The status of the failure.
+	 * @param response The response to update.
+	 */
+	protected static void setErrorResponse(ResponseStatus status, Response<?> response) {
+		switch (status) {
+		case INVALID_INPUT:
+		case MISSING_INPUT:
+			response.setStatusMessage(String.format(status.getStatusMessage(), "sample"));
+			break;
+		default:
+			response.setStatusMessage(String.format(status.getStatusMessage(), ""));
+			break;
+		}
+		response.setStatusCode(status.getStatusCode());
+		response.setResponse(null);
 	}
 
 	/**
@@ -185,7 +375,7 @@ public abstract class SDKService {
 		else {
 			logger.error("isValidBIRParams::BiometricType{} BioSubType{}", bioType, bioSubType);
 			responseStatus = ResponseStatus.MISSING_INPUT;
-			throw new SDKException(responseStatus.getStatusCode() + "", responseStatus.getStatusMessage());
+			throw SDKException.of(responseStatus);
 		}
 	}
 
@@ -211,7 +401,7 @@ public abstract class SDKService {
 		}
 
 		responseStatus = ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF;
-		throw new SDKException(responseStatus.getStatusCode() + "", responseStatus.getStatusMessage());
+		throw SDKException.of(responseStatus);
 	}
 
 	/**
@@ -233,7 +423,7 @@ public abstract class SDKService {
 		if (bioType == BiometricType.FACE)
 			return getFaceBdb(purposeType, bioSubType, bdbData);
 		responseStatus = ResponseStatus.INVALID_INPUT;
-		throw new SDKException(responseStatus.getStatusCode() + "", responseStatus.getStatusMessage());
+		throw SDKException.of(responseStatus);
 	}
 
 	/**
@@ -250,19 +440,13 @@ public abstract class SDKService {
 	protected byte[] getFaceBdb(PurposeType purposeType, String biometricSubType, String bdbData) {
 		ResponseStatus responseStatus = null;
 		try {
-			ConvertRequestDto requestDto = new ConvertRequestDto();
-			requestDto.setModality("Face");
-			requestDto.setVersion("ISO19794_5_2011");
 			byte[] bioData = Util.decodeURLSafeBase64(bdbData);
-			requestDto.setInputBytes(bioData);
-
-			FaceBDIR bdir = FaceDecoder.getFaceBDIR(requestDto);
-			return bdir.getImage();
+			return FaceIsoRecord.parse(bioData).getImageBytes();
 		} catch (Exception ex) {
 			logger.error("getFaceBdb -- error", ex);
 			responseStatus = ResponseStatus.INVALID_INPUT;
-			throw new SDKException(responseStatus.getStatusCode() + "",
-					responseStatus.getStatusMessage() + " " + ex.getLocalizedMessage());
+			throw new SDKException(responseStatus, responseStatus.getStatusMessage() + " " + ex.getLocalizedMessage(),
+					ex);
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package io.mosip.image.compressor.sdk.service;
+
+import java.util.Map;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.engine.CompressionEngineType;
+import io.mosip.image.compressor.sdk.scheduling.NativeScheduling;
+import io.mosip.image.compressor.sdk.scheduling.SchedulingProfile;
+
+/**
+ * Applies the configured native scheduling profile when the SDK is
+ * initialized.
+ * 
+ * The profile and thread counts are read from the SDK settings and can be
+ * overridden by the SDK init parameters. The OpenCV thread count is only set
+ * when the OpenCV engine is used.
+ */
+public class SchedulingService extends SDKService {
+	/**
+	 * Constructs a new `SchedulingService` instance.
+	 * 
+	 * @param settings   The configuration of the SDK.
+	 * @param initParams The SDK init parameters, overriding the settings.
+	 */
+	public SchedulingService(SdkSettings settings, Map<String, String> initParams) {
+		super(settings, initParams);
+	}
+
+	/**
+	 * Applies the configured scheduling profile to the process.
+	 * 
+	 * @return The applied profile.
+	 */
+	public SchedulingProfile configure() {
+		// loads the OpenCV library first, unless the JAI engine is configured
+		CompressionEngineType.resolve(getProperty(SdkConstant.IMAGE_COMPRESSOR_ENGINE, String.class, null));
+		SchedulingProfile profile = SchedulingProfile
+				.of(getProperty(SdkConstant.IMAGE_COMPRESSOR_SCHEDULING_PROFILE, String.class, null));
+		int threads = getProperty(SdkConstant.IMAGE_COMPRESSOR_NATIVE_THREADS, Integer.class, 0);
+		int concurrentRequests = getProperty(SdkConstant.IMAGE_COMPRESSOR_MAX_CONCURRENT_REQUESTS, Integer.class, 0);
+		NativeScheduling.configure(profile, threads, concurrentRequests);
+		return profile;
+	}
+}
@@ -0,0 +1,320 @@
+package io.mosip.image.compressor.sdk.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.exceptions.SDKException;
+import io.mosip.image.compressor.sdk.face.FaceRegionLocator;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.jp2.TiledJp2Encoder;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.scheduling.NativeScheduling;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Service class for face segmentation. Splits the face segments of a group or
+ * exception photo into one compressed face segment per face.
+ * <p>
+ * The image of a segment is decoded once. The faces are detected with the
+ * bundled detector, which runs on a downscaled grey copy, and the token face
+ * region of every face is cropped from the decoded image. The crops are then
+ * resized, encoded and wrapped into Face ISO/IEC 19794-5:2011 records with
+ * the same settings as {@code extractTemplate}, in parallel on the shared
+ * native executor of {@link NativeScheduling#getNativeThreads()} threads, or
+ * one after the other on the request thread under the {@code throughput}
+ * profile or with tiled encoding. The JFR events of a crop report the index of
+ * its face segment in the response, those of the decode the index of the
+ * source segment. A segment in
+ * which no face is detected is compressed whole. Segments of other modalities
+ * are left unchanged.
+ * </p>
+ */
+public class SegmentationService extends ImageCompressionService {
+	private Logger logger = LoggerFactory.getLogger(SegmentationService.class);
+
+	private BiometricRecord sample;
+	private List<BiometricType> modalitiesToSegment;
+
+	/**
+	 * Segmentation service constructor initializing with the SDK settings,
+	 * biometric sample, modalities to segment, and additional flags.
+	 *
+	 * @param settings            The configuration of the SDK.
+	 * @param sample              The biometric record sample to segment.
+	 * @param modalitiesToSegment The list of biometric types to segment, all when
+	 *                            null or empty.
+	 * @param flags               Additional configuration flags.
+	 */
+	public SegmentationService(SdkSettings settings, BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+			Map<String, String> flags) {
+		super(settings, sample, modalitiesToSegment, flags);
+		this.sample = sample;
+		this.modalitiesToSegment = modalitiesToSegment;
+	}
+
+	/**
+	 * Splits every face segment of the sample into one segment per face.
+	 *
+	 * @return Response containing the segmented biometric record.
+	 */
+	public Response<BiometricRecord> getSegmentInfo() {
+		logger.info("SegmentInfo :: Started Request :: {}", sample != null ? sample.toString() : null);
+
+		ResponseStatus responseStatus = null;
+		Response<BiometricRecord> response = new Response<>();
+		try {
+			if (sample == null || sample.getSegments() == null || sample.getSegments().isEmpty()) {
+				responseStatus = ResponseStatus.MISSING_INPUT;
+				throw SDKException.of(responseStatus);
+			}
+
+			boolean segmentFaces = modalitiesToSegment == null || modalitiesToSegment.isEmpty()
+					|| modalitiesToSegment.contains(BiometricType.FACE);
+			List<BIR> segments = new ArrayList<>(sample.getSegments().size());
+			List<BIR> sampleSegments = sample.getSegments();
+			try {
+				for (int index = 0; index < sampleSegments.size(); index++) {
+					BIR segment = sampleSegments.get(index);
+					if (segmentFaces && isFaceSegment(segment)) {
+						setSegmentIndex(index);
+						segments.addAll(segmentFaces(segment, segments.size()));
+					} else
+						segments.add(segment);
+				}
+			} finally {
+				setSegmentIndex(-1);
+			}
+			sample.setSegments(segments);
+		} catch (SDKException ex) {
+			logger.error("segment -- error", ex);
+			handleUnknownException(ex, response);
+			return response;
+		} catch (Exception ex) {
+			logger.error("segment -- error", ex);
+			setErrorResponse(ResponseStatus.UNKNOWN_ERROR, response);
+			return response;
+		}
+		response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+		response.setResponse(sample);
+
+		logger.info("SegmentInfo :: End Response :: {} segments", sample.getSegments().size());
+		return response;
+	}
+
+	private static boolean isFaceSegment(BIR segment) {
+		return segment.getBdbInfo() != null && segment.getBdbInfo().getFormat() != null
+				&& String.valueOf(FORMAT_TYPE_FACE).equals(segment.getBdbInfo().getFormat().getType());
+	}
+
+	/**
+	 * Splits a face segment into one compressed segment per detected face.
+	 *
+	 * @param segment    The face segment.
+	 * @param firstIndex The index in the response of the first face segment.
+	 * @return The face segments, in reading order of the faces.
+	 */
+	private List<BIR> segmentFaces(BIR segment, int firstIndex) {
+		if (!OpenCvNativeLoader.isAvailable()) {
+			ResponseStatus responseStatus = ResponseStatus.UNKNOWN_ERROR;
+			throw SDKException.of(responseStatus, "OpenCV native library is not available");
+		}
+		FaceIsoRecord faceRecord = getFaceIsoRecord(segment);
+
+		float[] fxOrginal = new float[] { 0.25f };
+		float[] fyOrginal = new float[] { 0.25f };
+		int[] compression = new int[] { 50 };
+		setImageCompressorSettings(fxOrginal, fyOrginal, compression);
+		boolean roiEnabled = Boolean.TRUE
+				.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_ROI_ENABLED, Boolean.class, false));
+
+		Mat decoded = decodeImage(faceRecord.getImage());
+		try {
+			List<Rect> detected = inReadingOrder(FaceRegionLocator.detectFaces(decoded));
+			List<Rect> regions = new ArrayList<>(detected.size());
+			List<Rect> faceBoxes = new ArrayList<>(detected.size());
+			for (Rect face : detected) {
+				Rect region = FaceRegionLocator.fromFaceBox(face, decoded.size());
+				if (region != null) {
+					regions.add(region);
+					faceBoxes.add(toRegionCoordinates(face, region));
+				}
+			}
+			logger.info("Segmentation Details :: {} face(s) found, Width {} Height {}", regions.size(),
+					decoded.width(), decoded.height());
+			if (regions.isEmpty()) {
+				regions.add(new Rect(0, 0, decoded.width(), decoded.height()));
+				faceBoxes.add(null);
+			}
+
+			// Every crop is a view of the decoded image
+			byte[][] records = new byte[regions.size()][];
+			int threads = NativeScheduling.getNativeThreads();
+			boolean tiled = Boolean.TRUE
+					.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_ENABLED, Boolean.class, false));
+			if (records.length == 1 || threads <= 1 || tiled) {
+				// The tiles of a crop already take the shared executor
+				for (int index = 0; index < records.length; index++)
+					records[index] = encodeCrop(decoded, regions.get(index), roiEnabled ? faceBoxes.get(index) : null,
+							firstIndex + index, fxOrginal[0], fyOrginal[0], compression[0]);
+			} else {
+				ExecutorService executor = TiledJp2Encoder.sharedExecutor(threads);
+				List<Future<byte[]>> crops = new ArrayList<>(records.length);
+				for (int index = 0; index < records.length; index++) {
+					Rect region = regions.get(index);
+					Rect roi = roiEnabled ? faceBoxes.get(index) : null;
+					int segmentIndex = firstIndex + index;
+					crops.add(executor.submit(() -> encodeCrop(decoded, region, roi, segmentIndex, fxOrginal[0],
+							fyOrginal[0], compression[0])));
+				}
+				try {
+					for (int index = 0; index < records.length; index++)
+						records[index] = crops.get(index).get();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw deadlineExceeded("encode");
+				} catch (ExecutionException ex) {
+					if (ex.getCause() instanceof RuntimeException runtimeException)
+						throw runtimeException;
+					if (ex.getCause() instanceof Error error)
+						throw error;
+					throw SDKException.of(ResponseStatus.UNKNOWN_ERROR, String.valueOf(ex.getCause()));
+				} finally {
+					// Abandons the crops still queued or encoding after a failure; a crop
+					// holds its own reference to the decoded pixels
+					crops.forEach(crop -> crop.cancel(true));
+				}
+			}
+
+			List<BIR> faces = new ArrayList<>(records.length);
+			for (int index = 0; index < records.length; index++)
+				faces.add(createFaceSegment(segment, records[index], records.length > 1 ? index + 1 : 0));
+			return faces;
+		} finally {
+			decoded.release();
+		}
+	}
+
+	/**
+	 * Resizes and encodes a face crop into a Face ISO record.
+	 *
+	 * @param decoded      The decoded image of the segment.
+	 * @param region       The region of the face in the decoded image.
+	 * @param roi          The face box in the region, null to encode it all alike.
+	 * @param segmentIndex The index of the face segment in the response, reported
+	 *                     by the JFR events.
+	 * @param fx           The horizontal resize factor.
+	 * @param fy           The vertical resize factor.
+	 * @param compression  The compression value.
+	 * @return The Face ISO record of the crop.
+	 */
+	private byte[] encodeCrop(Mat decoded, Rect region, Rect roi, int segmentIndex, float fx, float fy,
+			int compression) {
+		int sourceIndex = getSegmentIndex();
+		setSegmentIndex(segmentIndex);
+		Mat crop = decoded.submat(region);
+		try (EncodedFaceImage encoded = encodeImage(crop, roi, fx, fy, compression)) {
+			return doFaceConversion("REGISTRATION", encoded.toArray());
+		} finally {
+			crop.release();
+			setSegmentIndex(sourceIndex);
+		}
+	}
+
+	/**
+	 * Orders the detected faces as they are read: by rows from top to bottom, and
+	 * from left to right in a row. A face starting above the middle of the first
+	 * face of a row is on that row.
+	 *
+	 * @param faces The detected face boxes.
+	 * @return The face boxes in reading order.
+	 */
+	private static List<Rect> inReadingOrder(Rect[] faces) {
+		Rect[] byTop = faces.clone();
+		Arrays.sort(byTop, Comparator.<Rect>comparingInt(face -> face.y).thenComparingInt(face -> face.x));
+		List<Rect> ordered = new ArrayList<>(byTop.length);
+		int rowStart = 0;
+		for (int index = 1; index <= byTop.length; index++) {
+			Rect first = byTop[rowStart];
+			if (index == byTop.length || byTop[index].y >= first.y + first.height / 2) {
+				Rect[] row = Arrays.copyOfRange(byTop, rowStart, index);
+				Arrays.sort(row, Comparator.comparingInt(face -> face.x));
+				ordered.addAll(Arrays.asList(row));
+				rowStart = index;
+			}
+		}
+		return ordered;
+	}
+
+	/**
+	 * Maps a detected face box into the coordinates of the region cropped around
+	 * it, clipped to the region.
+	 *
+	 * @param face   The face box, in the coordinates of the decoded image.
+	 * @param region The token face region of the face.
+	 * @return The face box in the coordinates of the crop.
+	 */
+	private static Rect toRegionCoordinates(Rect face, Rect region) {
+		int left = Math.max(face.x, region.x);
+		int top = Math.max(face.y, region.y);
+		int right = Math.min(face.x + face.width, region.x + region.width);
+		int bottom = Math.min(face.y + face.height, region.y + region.height);
+		return new Rect(left - region.x, top - region.y, Math.max(0, right - left), Math.max(0, bottom - top));
+	}
+
+	/**
+	 * Creates the segment of one face, with a copy of the BDB info of the source
+	 * segment.
+	 *
+	 * @param source The source segment.
+	 * @param data   The face ISO record.
+	 * @param number The number of the face from 1, or 0 when the source segment
+	 *               holds a single face and keeps its index.
+	 * @return The face segment.
+	 */
+	private BIR createFaceSegment(BIR source, byte[] data, int number) {
+		BDBInfo sourceInfo = source.getBdbInfo();
+		BDBInfo bdbInfo = new BDBInfo();
+		bdbInfo.setFormat(sourceInfo.getFormat());
+		bdbInfo.setType(sourceInfo.getType());
+		bdbInfo.setSubtype(sourceInfo.getSubtype());
+		bdbInfo.setEncryption(sourceInfo.getEncryption());
+		bdbInfo.setProduct(sourceInfo.getProduct());
+		bdbInfo.setCaptureDevice(sourceInfo.getCaptureDevice());
+		bdbInfo.setNotValidBefore(sourceInfo.getNotValidBefore());
+		bdbInfo.setNotValidAfter(sourceInfo.getNotValidAfter());
+		if (sourceInfo.getIndex() != null)
+			bdbInfo.setIndex(number > 0 ? sourceInfo.getIndex() + "-" + number : sourceInfo.getIndex());
+		bdbInfo.setCreationDate(LocalDateTime.now());
+		bdbInfo.setLevel(getProcessedLevelType());
+		bdbInfo.setPurpose(getPurposeType());
+		// Quality is not set as we do not have quality tool to set the value
+		bdbInfo.setQuality(null);
+
+		BIR face = new BIR();
+		face.setVersion(source.getVersion());
+		face.setCbeffversion(source.getCbeffversion());
+		face.setBirInfo(source.getBirInfo());
+		face.setBdbInfo(bdbInfo);
+		face.setBdb(data);
+		return face;
+	}
+}
@@ -0,0 +1,206 @@
+package io.mosip.image.compressor.sdk.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.engine.CompressionEngineType;
+import io.mosip.image.compressor.sdk.iso.FaceIsoWriter;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Warms up the compression path when the SDK is initialized.
+ * <p>
+ * The first request of a new process otherwise pays for class loading, JIT
+ * compilation and the initialization of the OpenCV codecs. When enabled, the
+ * warm-up compresses a built-in synthetic face through
+ * {@link ImageCompressionService} with the configured settings, and, when tiled
+ * JPEG2000 encoding is enabled, also encodes a synthetic face large enough to
+ * be split into tiles. The synthetic face is drawn with OpenCV, the warm-up
+ * is skipped with the JAI engine.
+ * </p>
+ */
+public class WarmupService extends SDKService {
+	private Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+	/** Size of the synthetic face, the ICAO token image size. */
+	public static final int SYNTHETIC_FACE_WIDTH = 480;
+	public static final int SYNTHETIC_FACE_HEIGHT = 640;
+
+	/**
+	 * Constructs a new `WarmupService` instance.
+	 *
+	 * @param settings   The configuration of the SDK.
+	 * @param initParams The SDK init parameters, overriding the settings.
+	 */
+	public WarmupService(SdkSettings settings, Map<String, String> initParams) {
+		super(settings, initParams);
+	}
+
+	/**
+	 * Runs the warm-up when it is enabled. Failures are logged and do not fail the
+	 * SDK initialization.
+	 *
+	 * @return {@code true} if the warm-up ran and every compression succeeded.
+	 */
+	public boolean warmUp() {
+		if (!Boolean.TRUE.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_WARMUP_ENABLED, Boolean.class, false)))
+			return false;
+
+		if (CompressionEngineType.resolve(getProperty(SdkConstant.IMAGE_COMPRESSOR_ENGINE, String.class,
+				null)) != CompressionEngineType.OPENCV) {
+			logger.info("Warm-up skipped, the synthetic face needs the OpenCV engine");
+			return false;
+		}
+
+		int iterations = Math.max(1, getProperty(SdkConstant.IMAGE_COMPRESSOR_WARMUP_ITERATIONS, Integer.class, 3));
+		long start = System.nanoTime();
+		// Without the output cache: every iteration compresses, and the synthetic
+		// faces, different on every start, are not stored
+		Map<String, String> flags = getFlags() != null ? new HashMap<>(getFlags()) : new HashMap<>();
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_OUTPUT_CACHE_PATH, "");
+		try {
+			byte[] faceIso = createSyntheticFaceIso();
+			for (int iteration = 0; iteration < iterations; iteration++) {
+				ImageCompressionService service = new ImageCompressionService(getSettings(),
+						createSyntheticSample(faceIso), null, flags);
+				Response<BiometricRecord> response = service.getExtractTemplateInfo();
+				if (response.getStatusCode() == null
+						|| response.getStatusCode() != ResponseStatus.SUCCESS.getStatusCode()) {
+					logger.warn("Warm-up compression failed :: {} {}", response.getStatusCode(),
+							response.getStatusMessage());
+					return false;
+				}
+				warmUpTiledEncoder(service);
+			}
+		} catch (Exception ex) {
+			logger.warn("Warm-up failed", ex);
+			return false;
+		}
+		logger.info("Warm-up Details :: Iterations {} Time {} ms", iterations,
+				(System.nanoTime() - start) / 1_000_000);
+		return true;
+	}
+
+	/**
+	 * Encodes a synthetic face spanning several tiles, so that the tile encoder
+	 * threads are started and its code is compiled. Nothing is done when tiling is
+	 * disabled.
+	 */
+	private void warmUpTiledEncoder(ImageCompressionService service) {
+		if (!Boolean.TRUE.equals(getProperty(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_ENABLED, Boolean.class, false)))
+			return;
+		int tileSize = getProperty(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_SIZE, Integer.class, 512);
+		int side = 2 * Math.max(tileSize, SYNTHETIC_FACE_HEIGHT);
+		Mat face = createSyntheticFace(side * SYNTHETIC_FACE_WIDTH / SYNTHETIC_FACE_HEIGHT, side);
+		MatOfByte encoded = service.encodeJp2(face,
+				getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, Integer.class, 50));
+		encoded.release();
+		face.release();
+	}
+
+	/**
+	 * Draws a synthetic frontal face: a skin coloured ellipse with eyes, nose and
+	 * mouth on a graded background, with some noise so that the codecs do real
+	 * work. The OpenCV library is loaded if needed.
+	 *
+	 * @param width  The image width.
+	 * @param height The image height.
+	 * @return The 8 bit BGR image.
+	 */
+	public static Mat createSyntheticFace(int width, int height) {
+		OpenCvNativeLoader.load();
+		Mat face = new Mat(height, width, CvType.CV_8UC3);
+		for (int row = 0; row < height; row++) {
+			double shade = 160 + 60.0 * row / height;
+			Imgproc.line(face, new Point(0, row), new Point(width - 1, row), new Scalar(shade, shade - 10, shade - 20));
+		}
+
+		Point center = new Point(width / 2.0, height * 0.45);
+		Size head = new Size(width * 0.3, height * 0.32);
+		Imgproc.ellipse(face, center, head, 0, 0, 360, new Scalar(120, 160, 210), -1);
+
+		int eyeRadius = Math.max(2, width / 30);
+		double eyeY = height * 0.40;
+		Imgproc.circle(face, new Point(width * 0.40, eyeY), eyeRadius, new Scalar(60, 40, 30), -1);
+		Imgproc.circle(face, new Point(width * 0.60, eyeY), eyeRadius, new Scalar(60, 40, 30), -1);
+		Imgproc.line(face, new Point(width * 0.5, height * 0.44), new Point(width * 0.48, height * 0.53),
+				new Scalar(90, 120, 170), Math.max(1, width / 120));
+		Imgproc.ellipse(face, new Point(width * 0.5, height * 0.60), new Size(width * 0.08, height * 0.025), 0, 0,
+				180, new Scalar(80, 80, 160), Math.max(1, width / 100));
+
+		Mat noise = new Mat(height, width, CvType.CV_8UC3);
+		Core.randn(noise, 0, 6);
+		Core.add(face, noise, face);
+		noise.release();
+		return face;
+	}
+
+	/**
+	 * Creates the Face ISO/IEC 19794-5:2011 record of the synthetic face, with a
+	 * lossless JPEG2000 image as captured by a registration client.
+	 *
+	 * @return The ISO record.
+	 * @throws IOException If the record cannot be written.
+	 */
+	public static byte[] createSyntheticFaceIso() throws IOException {
+		Mat face = createSyntheticFace(SYNTHETIC_FACE_WIDTH, SYNTHETIC_FACE_HEIGHT);
+		MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, 1000);
+		MatOfByte image = new MatOfByte();
+		Imgcodecs.imencode(".jp2", face, image, params);
+		byte[] imageData = image.toArray();
+		int colourSpace = FaceIsoWriter.getImageColourSpace(face.channels(), 8);
+		image.release();
+		params.release();
+		face.release();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(imageData.length + 128);
+		new FaceIsoWriter("REGISTRATION").write(out, SYNTHETIC_FACE_WIDTH, SYNTHETIC_FACE_HEIGHT, colourSpace,
+				imageData);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Wraps a face ISO record into a biometric record with a single face segment.
+	 *
+	 * @param faceIso The face ISO record, see {@link #createSyntheticFaceIso()}.
+	 * @return The biometric record.
+	 */
+	public static BiometricRecord createSyntheticSample(byte[] faceIso) {
+		List<BiometricType> types = new ArrayList<>();
+		types.add(BiometricType.FACE);
+		BDBInfo bdbInfo = new BDBInfo.BDBInfoBuilder().withType(types)
+				.withFormat(new RegistryIDType("257", String.valueOf(ImageCompressionService.FORMAT_TYPE_FACE)))
+				.build();
+		BIR segment = new BIR.BIRBuilder().withBdbInfo(bdbInfo).withBdb(faceIso).build();
+
+		BiometricRecord sample = new BiometricRecord();
+		sample.getSegments().add(segment);
+		return sample;
+	}
+}
@@ -0,0 +1,174 @@
+package io.mosip.image.compressor.sdk.tools;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.ratio.CompressionModel;
+import io.mosip.image.compressor.sdk.ratio.ImageComplexity;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+
+/**
+ * Calibrates the {@link CompressionModel} used by the adaptive compression
+ * mode.
+ * <p>
+ * Every image is resized as the SDK does, then encoded at a range of
+ * compression ratios, and the PSNR obtained is recorded with the complexity of
+ * the image. Blurred and noisy copies of every image are measured as well,
+ * so that the samples span flat to busy images. The built-in synthetic faces
+ * are always included. The fitted model is written as properties, to be set
+ * as {@code mosip.bio.image.compressor.compression.model}.
+ * </p>
+ * <p>
+ * Usage: {@code java -cp image-compressor-jar-with-dependencies.jar
+ * io.mosip.image.compressor.sdk.tools.CompressionCalibration model.properties
+ * [--resize=0.25] [image or directory ...]}
+ * </p>
+ */
+public final class CompressionCalibration {
+	private static final int[] COMPRESSIONS = { 10, 20, 35, 50, 75, 100, 150, 200 };
+	private static final double[] BLUR_SIGMAS = { 1.0, 2.5 };
+	private static final double[] NOISE_SIGMAS = { 5 };
+	/** PSNR of images encoded (almost) without loss, left out of the fit. */
+	private static final double MAX_PSNR = 60;
+
+	private CompressionCalibration() {
+		throw new IllegalStateException("CompressionCalibration class");
+	}
+
+	/**
+	 * Calibrates and writes the model.
+	 *
+	 * @param args The output file, the optional resize factor and the images.
+	 * @throws IOException If an image directory or the model cannot be read or
+	 *                     written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: CompressionCalibration <model.properties> [--resize=<factor>] [image|directory ...]");
+			System.exit(2);
+		}
+		OpenCvNativeLoader.load();
+
+		Path output = Paths.get(args[0]);
+		double resize = 0.25;
+		List<Mat> images = new ArrayList<>();
+		images.add(WarmupService.createSyntheticFace(WarmupService.SYNTHETIC_FACE_WIDTH,
+				WarmupService.SYNTHETIC_FACE_HEIGHT));
+		images.add(WarmupService.createSyntheticFace(WarmupService.SYNTHETIC_FACE_WIDTH * 4,
+				WarmupService.SYNTHETIC_FACE_HEIGHT * 4));
+		for (int index = 1; index < args.length; index++) {
+			if (args[index].startsWith("--resize="))
+				resize = Double.parseDouble(args[index].substring("--resize=".length()));
+			else
+				images.addAll(read(Paths.get(args[index])));
+		}
+
+		List<CompressionModel.Observation> observations = new ArrayList<>();
+		for (Mat image : images) {
+			Mat resized = new Mat();
+			Imgproc.resize(image, resized, new Size(0, 0), resize, resize, Imgproc.INTER_AREA);
+			for (Mat variant : variants(resized)) {
+				observe(variant, observations);
+				variant.release();
+			}
+			image.release();
+		}
+
+		CompressionModel model = CompressionModel.fit(observations);
+		double squares = 0;
+		for (CompressionModel.Observation observation : observations) {
+			double error = model.predictPsnr(observation.getComplexity(), observation.getBitsPerPixel(),
+					observation.getCompression()) - observation.getPsnr();
+			squares += error * error;
+		}
+		System.out.printf("%s from %d samples, RMS error %.2f dB%n", model, observations.size(),
+				Math.sqrt(squares / observations.size()));
+		try (OutputStream out = Files.newOutputStream(output)) {
+			model.store(out, "Compression model calibrated on " + images.size() + " images, " + observations.size()
+					+ " samples, resize " + resize);
+		}
+	}
+
+	/**
+	 * Encodes the image at every calibration ratio and records the PSNR.
+	 */
+	private static void observe(Mat image, List<CompressionModel.Observation> observations) {
+		ImageComplexity complexity = ImageComplexity.measure(image);
+		int bitsPerPixel = image.channels() * (image.depth() == CvType.CV_16U ? 16 : 8);
+		for (int compression : COMPRESSIONS) {
+			MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, compression);
+			MatOfByte encoded = new MatOfByte();
+			Imgcodecs.imencode(".jp2", image, encoded, params);
+			Mat decoded = Imgcodecs.imdecode(encoded, Imgcodecs.IMREAD_UNCHANGED);
+			double psnr = Core.PSNR(decoded, image, image.depth() == CvType.CV_16U ? 65535 : 255);
+			if (psnr < MAX_PSNR)
+				observations.add(new CompressionModel.Observation(complexity, bitsPerPixel, compression, psnr));
+			System.out.printf("%dx%d %s compression %d PSNR %.2f%n", image.width(), image.height(), complexity,
+					compression, psnr);
+			decoded.release();
+			encoded.release();
+			params.release();
+		}
+	}
+
+	/**
+	 * Returns the image with blurred and noisy copies of it.
+	 */
+	private static List<Mat> variants(Mat image) {
+		List<Mat> variants = new ArrayList<>();
+		variants.add(image);
+		for (double sigma : BLUR_SIGMAS) {
+			Mat blurred = new Mat();
+			Imgproc.GaussianBlur(image, blurred, new Size(0, 0), sigma);
+			variants.add(blurred);
+		}
+		double scale = image.depth() == CvType.CV_16U ? 256 : 1;
+		for (double sigma : NOISE_SIGMAS) {
+			Mat noise = new Mat(image.size(), CvType.makeType(CvType.CV_32F, image.channels()));
+			Core.randn(noise, 0, sigma * scale);
+			Mat noisy = new Mat();
+			Core.add(image, noise, noisy, new Mat(), image.depth());
+			noise.release();
+			variants.add(noisy);
+		}
+		return variants;
+	}
+
+	private static List<Mat> read(Path path) throws IOException {
+		List<Path> files;
+		if (Files.isDirectory(path)) {
+			try (Stream<Path> list = Files.list(path)) {
+				files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+			}
+		} else {
+			files = List.of(path);
+		}
+
+		List<Mat> images = new ArrayList<>();
+		for (Path file : files) {
+			Mat image = Imgcodecs.imread(file.toString(), Imgcodecs.IMREAD_UNCHANGED);
+			if (image.empty())
+				System.err.println("Skipped " + file + ", not an image");
+			else
+				images.add(image);
+		}
+		return images;
+	}
+}
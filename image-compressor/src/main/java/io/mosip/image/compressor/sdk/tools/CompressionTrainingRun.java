@@ -0,0 +1,64 @@
+package io.mosip.image.compressor.sdk.tools;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Runs the compression path of the SDK as a short lived process.
+ * <p>
+ * It initializes {@link ImageCompressorSDKV2} and compresses the built-in
+ * synthetic face, then prints the time from the JVM start to the first
+ * compressed face. The {@code appcds} build profile runs it to record the
+ * classes loaded by the compression path into a class data sharing archive,
+ * and the startup benchmark runs it to measure the time to the first
+ * compressed face.
+ * </p>
+ * <p>
+ * Usage: {@code java -cp image-compressor-jar-with-dependencies.jar
+ * io.mosip.image.compressor.sdk.tools.CompressionTrainingRun [iterations]}
+ * </p>
+ */
+public final class CompressionTrainingRun {
+	private CompressionTrainingRun() {
+		throw new IllegalStateException("CompressionTrainingRun class");
+	}
+
+	/**
+	 * Compresses the synthetic face.
+	 *
+	 * @param args The optional number of compressions, 1 by default.
+	 * @throws IOException If the synthetic face cannot be created.
+	 */
+	public static void main(String[] args) throws IOException {
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().build();
+		sdk.init(new HashMap<>());
+
+		byte[] faceIso = WarmupService.createSyntheticFaceIso();
+		Map<String, String> flags = new HashMap<>();
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			Response<BiometricRecord> response = sdk.extractTemplate(WarmupService.createSyntheticSample(faceIso),
+					null, flags);
+			if (response.getStatusCode() == null
+					|| response.getStatusCode() != ResponseStatus.SUCCESS.getStatusCode()) {
+				System.err.println("Compression failed: " + response.getStatusMessage());
+				System.exit(1);
+			}
+			if (iteration == 0) {
+				Instant started = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+				System.out.println("First compressed face after "
+						+ Duration.between(started, Instant.now()).toMillis() + " ms");
+			}
+		}
+	}
+}
@@ -51,7 +51,7 @@ public class Util {
 
 	public static byte[] decodeURLSafeBase64(String data) {
 		if (isNullEmpty(data)) {
-			throw new SDKException(ResponseStatus.UNKNOWN_ERROR.toString(), "decodeURLSafeBase64::data{null}");
+			throw new SDKException(ResponseStatus.UNKNOWN_ERROR, "decodeURLSafeBase64::data{null}");
 		}
 		return Base64.getUrlDecoder().decode(data);
 	}
@@ -0,0 +1,80 @@
+package io.mosip.image.compressor.sdk.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.image.compressor.sdk.resize.AreaDownscaler;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+
+/**
+ * Compares the OpenCV {@code INTER_AREA} resize with the pure Java
+ * {@link AreaDownscaler}, vectorized and plain, on a synthetic colour face.
+ * <p>
+ * The OpenCV resize runs single threaded, as in the {@code throughput}
+ * scheduling profile.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--enable-preview", "--add-modules", "jdk.incubator.vector" })
+public class AreaDownscaleBenchmark {
+	@Param({ "1920" })
+	private int width;
+
+	@Param({ "0.25", "0.3" })
+	private double factor;
+
+	private Mat image;
+	private byte[] samples;
+
+	@Setup
+	public void setUp() {
+		image = WarmupService.createSyntheticFace(width, width * WarmupService.SYNTHETIC_FACE_HEIGHT
+				/ WarmupService.SYNTHETIC_FACE_WIDTH);
+		samples = new byte[(int) image.total() * image.channels()];
+		image.get(0, 0, samples);
+		Core.setNumThreads(1);
+	}
+
+	@TearDown
+	public void tearDown() {
+		image.release();
+	}
+
+	@Benchmark
+	public Mat openCv() {
+		Mat resized = new Mat();
+		Imgproc.resize(image, resized, new Size(0, 0), factor, factor, Imgproc.INTER_AREA);
+		resized.release();
+		return resized;
+	}
+
+	@Benchmark
+	public byte[] javaVector() {
+		return AreaDownscaler.getInstance().resize(samples, image.width(), image.height(), 3, factor, factor);
+	}
+
+	@Benchmark
+	public byte[] javaScalar() {
+		return AreaDownscaler.scalar().resize(samples, image.width(), image.height(), 3, factor, factor);
+	}
+}
@@ -0,0 +1,77 @@
+package io.mosip.image.compressor.sdk.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoWriter;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Compares the OpenCV and the pure Java JAI compression engines on the full
+ * extraction of a synthetic face: decode, resize and encode, for a small and a
+ * large capture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--enable-preview", "--add-modules", "jdk.incubator.vector" })
+public class CompressionEngineBenchmark {
+	@Param({ "opencv", "jai" })
+	private String engine;
+
+	@Param({ "480", "1920" })
+	private int width;
+
+	private ImageCompressorSDKV2 sdk;
+	private byte[] faceIso;
+	private final Map<String, String> flags = new HashMap<>();
+
+	@Setup
+	public void setUp() throws IOException {
+		int height = width * WarmupService.SYNTHETIC_FACE_HEIGHT / WarmupService.SYNTHETIC_FACE_WIDTH;
+		Mat face = WarmupService.createSyntheticFace(width, height);
+		MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, 1000);
+		MatOfByte image = new MatOfByte();
+		Imgcodecs.imencode(".jp2", face, image, params);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new FaceIsoWriter("REGISTRATION").write(out, width, height,
+				FaceIsoWriter.getImageColourSpace(face.channels(), 8), image.toArray());
+		faceIso = out.toByteArray();
+		image.release();
+		params.release();
+		face.release();
+
+		sdk = ImageCompressorSDKV2.builder().withProperty(SdkConstant.IMAGE_COMPRESSOR_ENGINE, engine).build();
+		sdk.init(new HashMap<>());
+	}
+
+	@Benchmark
+	public Response<BiometricRecord> extractTemplate() {
+		return sdk.extractTemplate(WarmupService.createSyntheticSample(faceIso), null, flags);
+	}
+}
@@ -0,0 +1,62 @@
+package io.mosip.image.compressor.sdk.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.mosip.image.compressor.sdk.match.DescriptorGallery;
+import io.mosip.image.compressor.sdk.match.FaceDescriptor;
+
+/**
+ * Measures the scan of a gallery of face descriptors for the Hamming distances
+ * to a probe, vectorized and plain. Galleries larger than one chunk are
+ * scanned in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--enable-preview", "--add-modules", "jdk.incubator.vector" })
+public class GalleryMatchBenchmark {
+	@Param({ "1000", "10000", "100000" })
+	private int size;
+
+	private DescriptorGallery vector;
+	private DescriptorGallery scalar;
+	private FaceDescriptor probe;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		vector = new DescriptorGallery(size);
+		scalar = DescriptorGallery.scalar(size);
+		for (int index = 0; index < size; index++) {
+			FaceDescriptor descriptor = new FaceDescriptor(random.nextLong(), random.nextLong());
+			vector.add(descriptor);
+			scalar.add(descriptor);
+		}
+		probe = new FaceDescriptor(random.nextLong(), random.nextLong());
+	}
+
+	@Benchmark
+	public int[] vector() {
+		return vector.distances(probe);
+	}
+
+	@Benchmark
+	public int[] scalar() {
+		return scalar.distances(probe);
+	}
+}
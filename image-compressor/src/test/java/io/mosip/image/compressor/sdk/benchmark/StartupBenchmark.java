@@ -0,0 +1,103 @@
+package io.mosip.image.compressor.sdk.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.mosip.image.compressor.sdk.tools.CompressionTrainingRun;
+
+/**
+ * Measures the time from starting a new JVM to the first compressed face, with
+ * and without the class data sharing archive of the {@code appcds} profile.
+ * <p>
+ * Every invocation starts {@link CompressionTrainingRun} from the
+ * jar-with-dependencies in a new process and stops the clock when it reports
+ * the first compressed face. Build the jar and the archive first with
+ * {@code mvn -Pappcds package}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class StartupBenchmark {
+	private static final Path TARGET = Paths.get("target");
+	private static final Path ARCHIVE = TARGET.resolve("image-compressor-cds.jsa");
+
+	@Param({ "none", "appcds" })
+	private String sharedArchive;
+
+	private List<String> command;
+	private Process process;
+
+	@Setup
+	public void setUp() throws IOException {
+		List<String> jars = new ArrayList<>(list(TARGET, "-jar-with-dependencies.jar"));
+		jars.addAll(list(TARGET.resolve("appcds-lib"), ".jar"));
+		String classPath = String.join(File.pathSeparator, jars);
+		if (!Files.isRegularFile(ARCHIVE) || classPath.isEmpty())
+			throw new IllegalStateException("Run mvn -Pappcds package before this benchmark");
+
+		command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		if ("appcds".equals(sharedArchive))
+			command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+		command.add("-cp");
+		command.add(classPath);
+		command.add(CompressionTrainingRun.class.getName());
+	}
+
+	@Benchmark
+	public String timeToFirstFace() throws IOException {
+		process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+		BufferedReader out = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		String line;
+		while ((line = out.readLine()) != null) {
+			if (line.startsWith("First compressed face"))
+				return line;
+		}
+		throw new IllegalStateException("Training run failed with exit code " + process.exitValue());
+	}
+
+	@TearDown(Level.Invocation)
+	public void waitForExit() throws InterruptedException {
+		if (process != null && !process.waitFor(30, TimeUnit.SECONDS))
+			process.destroyForcibly();
+	}
+
+	private static List<String> list(Path directory, String suffix) throws IOException {
+		if (!Files.isDirectory(directory))
+			return List.of();
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(suffix)).map(Path::toString)
+					.sorted().collect(Collectors.toList());
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package io.mosip.image.compressor.sdk.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.jp2.TiledJp2Encoder;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+
+/**
+ * Compares the single call JPEG2000 encode with the tiled, parallel encode of
+ * {@link TiledJp2Encoder} on the sample face upscaled to a large capture.
+ * <p>
+ * A tile size of 0 runs the single {@code Imgcodecs.imencode} call.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TiledJp2EncodeBenchmark {
+	@Param({ "1920" })
+	private int width;
+
+	@Param({ "0", "256", "512" })
+	private int tileSize;
+
+	@Param({ "1", "4", "8" })
+	private int threads;
+
+	@Param({ "50" })
+	private int compression;
+
+	private Mat image;
+	private TiledJp2Encoder encoder;
+
+	@Setup
+	public void setUp() throws IOException {
+		OpenCvNativeLoader.load();
+		Mat decoded = Imgcodecs.imdecode(new MatOfByte(sampleFaceImage()), Imgcodecs.IMREAD_UNCHANGED);
+		image = new Mat();
+		double scale = (double) width / decoded.width();
+		Imgproc.resize(decoded, image, new Size(0, 0), scale, scale, Imgproc.INTER_CUBIC);
+		decoded.release();
+		if (tileSize > 0)
+			encoder = new TiledJp2Encoder(tileSize, TiledJp2Encoder.sharedExecutor(threads));
+	}
+
+	@TearDown
+	public void tearDown() {
+		image.release();
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		if (encoder != null)
+			return encoder.encode(image, compression);
+
+		MatOfByte encoded = new MatOfByte();
+		Imgcodecs.imencode(".jp2", image, encoded, new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, compression));
+		byte[] data = encoded.toArray();
+		encoded.release();
+		return data;
+	}
+
+	static byte[] sampleFaceImage() throws IOException {
+		try (InputStream in = TiledJp2EncodeBenchmark.class.getResourceAsStream("/sample_files/sample_face.xml")) {
+			String xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			int start = xml.indexOf("<BDB>") + "<BDB>".length();
+			int end = xml.indexOf("</BDB>");
+			return FaceIsoRecord.parse(Base64.getDecoder().decode(xml.substring(start, end).trim())).getImageBytes();
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.ratio.CompressionModel;
+import io.mosip.image.compressor.sdk.ratio.ImageComplexity;
+import io.mosip.image.compressor.sdk.service.ImageCompressionService;
+
+class AdaptiveCompressionTest {
+	@BeforeAll
+	static void loadOpenCv() {
+		OpenCvNativeLoader.load();
+	}
+
+	@Test
+	void testMeasure_FlatAndNoisyImages() {
+		Mat flat = new Mat(64, 64, CvType.CV_8UC3, new Scalar(128, 128, 128));
+		Mat noisy = new Mat(64, 64, CvType.CV_8UC3);
+		Core.randu(noisy, 0, 256);
+
+		ImageComplexity flatComplexity = ImageComplexity.measure(flat);
+		ImageComplexity noisyComplexity = ImageComplexity.measure(noisy);
+
+		assertEquals(0, flatComplexity.getGradientEnergy(), 1e-9);
+		assertEquals(0, flatComplexity.getEntropy(), 1e-9);
+		assertTrue(noisyComplexity.getGradientEnergy() > 100);
+		assertTrue(noisyComplexity.getEntropy() > 5);
+		flat.release();
+		noisy.release();
+	}
+
+	@Test
+	void testFit_RecoversCoefficientsAndRoundTrips() throws Exception {
+		CompressionModel expected = new CompressionModel(20, 5, -3, 1.5);
+		List<CompressionModel.Observation> observations = new ArrayList<>();
+		for (double gradient : new double[] { 2, 10, 40 })
+			for (double entropy : new double[] { 4, 6, 7.5 })
+				for (int compression : new int[] { 20, 50, 100 }) {
+					ImageComplexity complexity = new ImageComplexity(gradient + entropy, entropy);
+					observations.add(new CompressionModel.Observation(complexity, 24, compression,
+							expected.predictPsnr(complexity, 24, compression)));
+				}
+
+		CompressionModel fitted = CompressionModel.fit(observations);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		fitted.store(out, null);
+		CompressionModel loaded = CompressionModel.load(new ByteArrayInputStream(out.toByteArray()));
+
+		ImageComplexity complexity = new ImageComplexity(15, 6.5);
+		assertEquals(expected.predictPsnr(complexity, 24, 75), loaded.predictPsnr(complexity, 24, 75), 1e-6);
+		assertEquals(expected.predictCompression(complexity, 24, 35), loaded.predictCompression(complexity, 24, 35));
+	}
+
+	@Test
+	void testPredictCompression_BundledModel() {
+		CompressionModel model = CompressionModel.forPath(null);
+		ImageComplexity flat = new ImageComplexity(5, 5.4);
+		ImageComplexity busy = new ImageComplexity(50, 6.4);
+
+		assertTrue(model.predictCompression(busy, 24, 32) > model.predictCompression(flat, 24, 32),
+				"Busy images need a larger file for the same quality");
+		assertTrue(model.predictCompression(flat, 24, 40) > model.predictCompression(flat, 24, 32));
+		assertEquals(1, model.predictCompression(flat, 24, -100));
+		assertEquals(1000, model.predictCompression(busy, 24, 200));
+	}
+
+	@Test
+	void testResizeAndCompress_AdaptiveMode() throws Exception {
+		byte[] faceImage = SampleFaceData.faceImage();
+		Map<String, String> flags = new HashMap<>();
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODE, ImageCompressionService.COMPRESSION_MODE_ADAPTIVE);
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_TARGET_PSNR, "28");
+		byte[] low = new ImageCompressionServiceTest(null, null, null, flags).resizeAndCompress(faceImage, null);
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_TARGET_PSNR, "36");
+		byte[] high = new ImageCompressionServiceTest(null, null, null, flags).resizeAndCompress(faceImage, null);
+
+		assertTrue(high.length > low.length, "A higher target PSNR should give a larger image");
+
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODEL, "/nonexistent/model.properties");
+		byte[] fallback = new ImageCompressionServiceTest(null, null, null, flags).resizeAndCompress(faceImage, null);
+		byte[] fixed = new ImageCompressionServiceTest(null, null, null, null).resizeAndCompress(faceImage, null);
+		assertEquals(fixed.length, fallback.length, "The fixed ratio is used when the model cannot be read");
+	}
+}
@@ -0,0 +1,117 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.resize.AreaDownscaler;
+import io.mosip.image.compressor.sdk.service.ImageCompressionService;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+class AreaDownscalerTest {
+	@Test
+	void testResize_MatchesOpenCvIntegerFactor() {
+		assertMatchesOpenCv(3, 0.25, 0.25);
+		assertMatchesOpenCv(1, 0.5, 0.25);
+	}
+
+	@Test
+	void testResize_MatchesOpenCvFractionalFactor() {
+		assertMatchesOpenCv(3, 0.3, 0.3);
+		assertMatchesOpenCv(1, 0.7, 0.45);
+	}
+
+	@Test
+	void testResize_BufferedImage() {
+		BufferedImage image = new BufferedImage(101, 77, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < image.getHeight(); y++)
+			for (int x = 0; x < image.getWidth(); x++)
+				image.setRGB(x, y, (x * 2) << 16 | (y * 3) << 8 | (x + y));
+
+		BufferedImage resized = AreaDownscaler.getInstance().resize(image, 0.5, 0.5);
+
+		assertEquals(BufferedImage.TYPE_3BYTE_BGR, resized.getType());
+		assertEquals(50, resized.getWidth());
+		assertEquals(38, resized.getHeight());
+		int rgb = resized.getRGB(10, 10);
+		assertTrue(Math.abs(((rgb >> 16) & 0xFF) - 41) <= 1);
+		assertTrue(Math.abs(((rgb >> 8) & 0xFF) - 61) <= 2);
+	}
+
+	@Test
+	void testExtractTemplate_JavaResizeEngine() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withResizeFactor(0.3f, 0.3f)
+				.withProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_ENGINE, ImageCompressionService.RESIZE_ENGINE_JAVA)
+				.build();
+		sdk.init(new HashMap<>());
+
+		BiometricRecord sample = WarmupService.createSyntheticSample(WarmupService.createSyntheticFaceIso());
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		FaceIsoRecord record = FaceIsoRecord.parse(response.getResponse().getSegments().get(0).getBdb());
+		assertEquals(AreaDownscaler.scaledSize(WarmupService.SYNTHETIC_FACE_WIDTH, 0.3f), record.getWidth());
+		assertEquals(AreaDownscaler.scaledSize(WarmupService.SYNTHETIC_FACE_HEIGHT, 0.3f), record.getHeight());
+		assertTrue(AreaDownscaler.getInstance().isVectorized());
+	}
+
+	@Test
+	void testResize_InvalidFactor() {
+		byte[] samples = new byte[16];
+		assertThrows(IllegalArgumentException.class,
+				() -> AreaDownscaler.getInstance().resize(samples, 4, 4, 1, 2.0, 1.0));
+		assertThrows(IllegalArgumentException.class,
+				() -> AreaDownscaler.getInstance().resize(samples, 4, 4, 1, 0.5, 0));
+	}
+
+	private static void assertMatchesOpenCv(int channels, double fx, double fy) {
+		Mat face = WarmupService.createSyntheticFace(WarmupService.SYNTHETIC_FACE_WIDTH,
+				WarmupService.SYNTHETIC_FACE_HEIGHT);
+		Mat source = face;
+		if (channels == 1) {
+			source = new Mat();
+			Imgproc.cvtColor(face, source, Imgproc.COLOR_BGR2GRAY);
+		}
+		byte[] samples = new byte[(int) source.total() * channels];
+		source.get(0, 0, samples);
+
+		Mat expected = new Mat();
+		Imgproc.resize(source, expected, new Size(0, 0), fx, fy, Imgproc.INTER_AREA);
+		byte[] expectedSamples = new byte[(int) expected.total() * channels];
+		expected.get(0, 0, expectedSamples);
+
+		byte[] vector = AreaDownscaler.getInstance().resize(samples, source.width(), source.height(), channels, fx,
+				fy);
+		byte[] scalar = AreaDownscaler.scalar().resize(samples, source.width(), source.height(), channels, fx, fy);
+
+		assertEquals(expected.width(), AreaDownscaler.scaledSize(source.width(), fx));
+		assertEquals(expected.height(), AreaDownscaler.scaledSize(source.height(), fy));
+		assertArrayEquals(scalar, vector);
+		assertEquals(expectedSamples.length, scalar.length);
+		for (int index = 0; index < scalar.length; index++)
+			assertTrue(Math.abs((scalar[index] & 0xFF) - (expectedSamples[index] & 0xFF)) <= 1,
+					"Sample " + index + " differs from OpenCV");
+		assertEquals(CvType.CV_8U, expected.depth());
+
+		expected.release();
+		if (source != face)
+			source.release();
+		face.release();
+	}
+}
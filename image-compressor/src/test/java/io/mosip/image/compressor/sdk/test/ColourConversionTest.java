@@ -0,0 +1,147 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Scalar;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.biometrics.util.face.ImageColourSpace;
+import io.mosip.image.compressor.sdk.colour.ColourConversion;
+import io.mosip.image.compressor.sdk.colour.ColourMode;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.service.EncodedFaceImage;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+class ColourConversionTest {
+	@BeforeAll
+	static void loadOpenCv() {
+		OpenCvNativeLoader.load();
+	}
+
+	@Test
+	void testConvert_Modes() {
+		Mat colour = new Mat(8, 8, CvType.CV_8UC4, new Scalar(10, 20, 30, 255));
+
+		assertEquals(3, ColourConversion.convert(colour, ColourMode.UNCHANGED).channels(),
+				"The alpha channel should be dropped");
+		assertEquals(3, ColourConversion.convert(colour, ColourMode.RGB).channels());
+		Mat rgb = new Mat(8, 8, CvType.CV_8UC3);
+		assertSame(rgb, ColourConversion.convert(rgb, ColourMode.UNCHANGED));
+		rgb.release();
+		assertEquals(1, ColourConversion.convert(colour, ColourMode.GREY).channels());
+		Mat grey = new Mat(8, 8, CvType.CV_8UC1);
+		assertSame(grey, ColourConversion.convert(grey, ColourMode.RGB));
+		assertEquals(ColourMode.GREY, ColourMode.of(" Grey "));
+		assertEquals(ColourMode.UNCHANGED, ColourMode.of("sepia"));
+		colour.release();
+		grey.release();
+	}
+
+	@Test
+	void testToEightBit_StretchesCaptureRange() {
+		Mat twelveBit = new Mat(4, 4, CvType.CV_16UC1, new Scalar(1000));
+		twelveBit.put(0, 0, new short[] { 4000 });
+		twelveBit.put(3, 3, new short[] { 100 });
+
+		Mat eightBit = ColourConversion.toEightBit(twelveBit);
+
+		assertEquals(CvType.CV_8U, eightBit.depth());
+		Core.MinMaxLocResult range = Core.minMaxLoc(eightBit);
+		assertEquals(0, range.minVal);
+		assertEquals(255, range.maxVal);
+		Mat same = new Mat(4, 4, CvType.CV_8UC3);
+		assertSame(same, ColourConversion.toEightBit(same));
+		twelveBit.release();
+		eightBit.release();
+		same.release();
+	}
+
+	@Test
+	void testSubsampleChroma_KeepsLuma() {
+		Mat image = WarmupService.createSyntheticFace(120, 160);
+		Mat original = image.clone();
+
+		ColourConversion.subsampleChroma(image);
+
+		assertTrue(Core.PSNR(luma(image), luma(original)) > 40, "The luma should be kept");
+		assertTrue(Core.norm(image, original, Core.NORM_INF) > 0, "The chroma should be smoothed");
+		image.release();
+		original.release();
+	}
+
+	@Test
+	void testExtractTemplate_GreyColourSpace() throws Exception {
+		byte[] faceIso = WarmupService.createSyntheticFaceIso();
+		FaceIsoRecord colour = extract(faceIso, new HashMap<>());
+		Map<String, String> properties = new HashMap<>();
+		properties.put(SdkConstant.IMAGE_COMPRESSOR_COLOUR_MODE, "grey");
+		FaceIsoRecord grey = extract(faceIso, properties);
+
+		assertEquals(ImageColourSpace.BIT_24_RGB, colour.getImageColourSpace());
+		assertEquals(ImageColourSpace.BIT_8_GREYSCALE, grey.getImageColourSpace());
+		assertEquals(colour.getWidth(), grey.getWidth());
+		assertTrue(grey.getImageBytes().length < colour.getImageBytes().length / 2,
+				"A grey image should be about a third of the size");
+	}
+
+	@Test
+	void testEncodeFaceImage_SixteenBitToEightBit() {
+		Mat face = WarmupService.createSyntheticFace(200, 260);
+		Mat wide = new Mat();
+		face.convertTo(wide, CvType.CV_16UC3, 16);
+		MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, 1000);
+		MatOfByte lossless = new MatOfByte();
+		Imgcodecs.imencode(".jp2", wide, lossless, params);
+
+		Map<String, String> flags = new HashMap<>();
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_COLOUR_EIGHT_BIT_ENABLED, "true");
+		try (EncodedFaceImage encoded = new ImageCompressionServiceTest(null, null, null, flags)
+				.encodeFaceImage(lossless.toArray())) {
+			assertEquals(8, encoded.getBitsPerSample());
+			assertEquals(3, encoded.getChannels());
+		}
+		face.release();
+		wide.release();
+		lossless.release();
+		params.release();
+	}
+
+	private static FaceIsoRecord extract(byte[] faceIso, Map<String, String> properties) {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withProperties(properties).build();
+		sdk.init(new HashMap<>());
+		BiometricRecord sample = WarmupService.createSyntheticSample(faceIso);
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, new HashMap<>());
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		return FaceIsoRecord.parse(response.getResponse().getSegments().get(0).getBdb());
+	}
+
+	private static Mat luma(Mat image) {
+		Mat yCrCb = new Mat();
+		Imgproc.cvtColor(image, yCrCb, Imgproc.COLOR_BGR2YCrCb);
+		List<Mat> planes = new ArrayList<>();
+		Core.split(yCrCb, planes);
+		yCrCb.release();
+		return planes.get(0);
+	}
+}
@@ -0,0 +1,139 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.image.compressor.sdk.colour.ColourMode;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.engine.CompressionEngineType;
+import io.mosip.image.compressor.sdk.engine.CompressionStages;
+import io.mosip.image.compressor.sdk.engine.JaiCompressionEngine;
+import io.mosip.image.compressor.sdk.exceptions.SDKException;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.iso.FaceIsoWriter;
+import io.mosip.image.compressor.sdk.service.EncodedFaceImage;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+class CompressionEngineTest {
+	@Test
+	void testOf() {
+		assertEquals(CompressionEngineType.JAI, CompressionEngineType.of(" Jai "));
+		assertEquals(CompressionEngineType.OPENCV, CompressionEngineType.of("opencv"));
+		assertEquals(CompressionEngineType.OPENCV, CompressionEngineType.of(null));
+		assertEquals(CompressionEngineType.OPENCV, CompressionEngineType.of("fastest"));
+		assertEquals(CompressionEngineType.JAI, CompressionEngineType.resolve("jai"));
+		assertEquals(1.2, JaiCompressionEngine.getEncodingRate(24, 50), 1e-9);
+	}
+
+	@Test
+	void testCompress_ColourFace() throws Exception {
+		byte[] image = encodeLossless(WarmupService.createSyntheticFace(WarmupService.SYNTHETIC_FACE_WIDTH,
+				WarmupService.SYNTHETIC_FACE_HEIGHT));
+
+		try (EncodedFaceImage encoded = new JaiCompressionEngine(false).compress(ByteBuffer.wrap(image), null, 0.5f,
+				0.5f, 50)) {
+			assertEquals(WarmupService.SYNTHETIC_FACE_WIDTH / 2, encoded.getWidth());
+			assertEquals(WarmupService.SYNTHETIC_FACE_HEIGHT / 2, encoded.getHeight());
+			assertEquals(3, encoded.getChannels());
+
+			// readable by OpenCV, about the size OpenCV gives for the same ratio
+			Mat decoded = Imgcodecs.imdecode(new MatOfByte(encoded.toArray()), Imgcodecs.IMREAD_UNCHANGED);
+			assertEquals(encoded.getWidth(), decoded.width());
+			assertEquals(3, decoded.channels());
+			long expected = 240L * 320 * 3 / 20;
+			assertTrue(encoded.getLength() > expected / 2 && encoded.getLength() < expected * 2,
+					"Unexpected length " + encoded.getLength());
+			decoded.release();
+		}
+	}
+
+	@Test
+	void testCompress_GreyFace() throws Exception {
+		Mat face = WarmupService.createSyntheticFace(200, 260);
+		Mat grey = new Mat();
+		Imgproc.cvtColor(face, grey, Imgproc.COLOR_BGR2GRAY);
+		face.release();
+		byte[] image = encodeLossless(grey);
+
+		try (EncodedFaceImage encoded = new JaiCompressionEngine(false).compress(ByteBuffer.wrap(image), null, 0.3f,
+				0.3f, 100)) {
+			assertEquals(60, encoded.getWidth());
+			assertEquals(78, encoded.getHeight());
+			assertEquals(1, encoded.getChannels());
+			assertEquals(8, encoded.getBitsPerSample());
+		}
+	}
+
+	@Test
+	void testCompress_StagesAbandonRequest() throws Exception {
+		byte[] image = encodeLossless(WarmupService.createSyntheticFace(WarmupService.SYNTHETIC_FACE_WIDTH,
+				WarmupService.SYNTHETIC_FACE_HEIGHT));
+		List<String> stages = new ArrayList<>();
+		CompressionStages timedOut = new CompressionStages() {
+			@Override
+			public void beforeStage(String stage) {
+				stages.add(stage);
+				if ("encode".equals(stage))
+					throw SDKException.of(ResponseStatus.REQUEST_TIMEOUT);
+			}
+
+			@Override
+			public int getSegmentIndex() {
+				return 0;
+			}
+		};
+
+		SDKException ex = assertThrows(SDKException.class, () -> new JaiCompressionEngine(false, ColourMode.UNCHANGED,
+				timedOut).compress(ByteBuffer.wrap(image), null, 0.5f, 0.5f, 50));
+
+		assertEquals(String.valueOf(ResponseStatus.REQUEST_TIMEOUT.getStatusCode()), ex.getErrorCode());
+		assertEquals(List.of("resize", "encode"), stages);
+	}
+
+	@Test
+	void testExtractTemplate_JaiEngine() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withResizeFactor(0.5f, 0.5f)
+				.withProperty(SdkConstant.IMAGE_COMPRESSOR_ENGINE, "jai").build();
+		sdk.init(new HashMap<>());
+
+		BiometricRecord sample = WarmupService.createSyntheticSample(WarmupService.createSyntheticFaceIso());
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		FaceIsoRecord record = FaceIsoRecord.parse(response.getResponse().getSegments().get(0).getBdb());
+		assertEquals(WarmupService.SYNTHETIC_FACE_WIDTH / 2, record.getWidth());
+		assertEquals(WarmupService.SYNTHETIC_FACE_HEIGHT / 2, record.getHeight());
+		assertEquals(FaceIsoWriter.getImageColourSpace(3, 8), record.getImageColourSpace());
+		assertFalse(record.getImageBytes().length == 0);
+		assertTrue(JaiCompressionEngine.decode(record.getImage()).getWidth() == record.getWidth());
+	}
+
+	private static byte[] encodeLossless(Mat image) {
+		MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, 1000);
+		MatOfByte encoded = new MatOfByte();
+		Imgcodecs.imencode(".jp2", image, encoded, params);
+		byte[] bytes = encoded.toArray();
+		encoded.release();
+		params.release();
+		image.release();
+		return bytes;
+	}
+}
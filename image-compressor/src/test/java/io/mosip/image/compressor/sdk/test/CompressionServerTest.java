@@ -0,0 +1,130 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.server.CompressionServer;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+class CompressionServerTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	private static CompressionServer server;
+	private static HttpClient client;
+
+	@BeforeAll
+	static void start() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().build();
+		sdk.init(new HashMap<>());
+		server = CompressionServer.start(sdk, SdkSettings.of(Map.of(SdkConstant.IMAGE_COMPRESSOR_SERVER_PORT, "0",
+				SdkConstant.IMAGE_COMPRESSOR_SERVER_BATCH_WINDOW_MS, "20")));
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterAll
+	static void stop() {
+		server.close();
+	}
+
+	@Test
+	void testExtractTemplate_Json() throws Exception {
+		byte[] faceIso = SampleFaceData.faceIso();
+		Map<String, Object> request = Map.of("sample", WarmupService.createSyntheticSample(faceIso),
+				"modalitiesToExtract", List.of("FACE"));
+
+		HttpResponse<String> response = post(CompressionServer.EXTRACT_TEMPLATE_PATH, "application/json",
+				MAPPER.writeValueAsBytes(request));
+
+		assertEquals(200, response.statusCode());
+		JsonNode body = MAPPER.readTree(response.body());
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), body.get("statusCode").asInt());
+		byte[] compressed = MAPPER.treeToValue(body.get("response"), BiometricRecord.class).getSegments().get(0)
+				.getBdb();
+		assertTrue(FaceIsoRecord.parse(compressed).getWidth() < FaceIsoRecord.parse(faceIso).getWidth());
+	}
+
+	@Test
+	void testExtractTemplate_Cbeff() throws Exception {
+		byte[] cbeff;
+		try (InputStream in = CompressionServerTest.class.getResourceAsStream("/sample_files/sample_face.xml")) {
+			cbeff = in.readAllBytes();
+		}
+
+		HttpResponse<String> response = post(CompressionServer.EXTRACT_TEMPLATE_PATH + "?modalitiesToExtract=Face",
+				"application/xml", cbeff);
+
+		assertEquals(200, response.statusCode());
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), MAPPER.readTree(response.body()).get("statusCode").asInt());
+	}
+
+	@Test
+	void testExtractTemplate_InvalidBody() throws Exception {
+		HttpResponse<String> response = post(CompressionServer.EXTRACT_TEMPLATE_PATH, "application/json",
+				"not json".getBytes());
+
+		assertEquals(400, response.statusCode());
+		assertEquals(ResponseStatus.INVALID_INPUT.getStatusCode(),
+				MAPPER.readTree(response.body()).get("statusCode").asInt());
+	}
+
+	@Test
+	void testConcurrentRequestsCoalescedAndMetrics() throws Exception {
+		byte[] request = MAPPER.writeValueAsBytes(
+				Map.of("sample", WarmupService.createSyntheticSample(SampleFaceData.faceIso())));
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+		for (int index = 0; index < 4; index++)
+			responses.add(client.sendAsync(request(CompressionServer.EXTRACT_TEMPLATE_PATH, "application/json",
+					request), HttpResponse.BodyHandlers.ofString()));
+		for (CompletableFuture<HttpResponse<String>> response : responses)
+			assertEquals(200, response.get().statusCode());
+
+		HttpResponse<String> metrics = client.send(
+				HttpRequest.newBuilder(uri(CompressionServer.METRICS_PATH)).GET().build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, metrics.statusCode());
+		assertThat(metrics.body(),
+				containsString("image_compressor_requests_total{endpoint=\"/extractTemplate\",status=\"200\"}"));
+		assertThat(metrics.body(), containsString("image_compressor_batches_total"));
+	}
+
+	private static HttpResponse<String> post(String path, String contentType, byte[] body) throws Exception {
+		return client.send(request(path, contentType, body), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static HttpRequest request(String path, String contentType, byte[] body) {
+		return HttpRequest.newBuilder(uri(path)).header("Content-Type", contentType)
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+	}
+
+	private static URI uri(String path) {
+		return URI.create("http://localhost:" + server.getPort() + path);
+	}
+}
@@ -0,0 +1,106 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Mat;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.service.ImageCompressionService;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+class DeadlineTest {
+	private static ImageCompressorSDKV2 sdk;
+	private static byte[] faceIso;
+
+	@BeforeAll
+	static void init() throws Exception {
+		sdk = ImageCompressorSDKV2.builder().build();
+		sdk.init(new HashMap<>());
+		faceIso = SampleFaceData.faceIso();
+	}
+
+	@Test
+	void testExtract_DeadlinePassedDuringDecodeAbandonsRemainingSegments() {
+		BiometricRecord sample = WarmupService.createSyntheticSample(faceIso);
+		sample.getSegments().add(WarmupService.createSyntheticSample(faceIso).getSegments().get(0));
+		SlowDecodeService service = new SlowDecodeService(sample,
+				Map.of(SdkConstant.IMAGE_COMPRESSOR_REQUEST_TIMEOUT_MS, "500"));
+
+		Response<BiometricRecord> response = service.getExtractTemplateInfo();
+
+		assertEquals(ResponseStatus.REQUEST_TIMEOUT.getStatusCode(), response.getStatusCode());
+		assertEquals(ResponseStatus.REQUEST_TIMEOUT.getStatusMessage(), response.getStatusMessage());
+		assertNull(response.getResponse());
+		assertEquals(1, service.decodes.get(), "The second segment should not be decoded");
+	}
+
+	@Test
+	void testExtract_DeadlineNotReached() {
+		Map<String, String> flags = new HashMap<>();
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_REQUEST_TIMEOUT_MS, "60000");
+
+		Response<BiometricRecord> response = sdk.extractTemplate(WarmupService.createSyntheticSample(faceIso), null,
+				flags);
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+	}
+
+	@Test
+	void testExtract_InterruptedThreadAbandonsRequest() {
+		Thread.currentThread().interrupt();
+		Response<BiometricRecord> response;
+		try {
+			response = sdk.extractTemplate(WarmupService.createSyntheticSample(faceIso), null, new HashMap<>());
+		} finally {
+			Thread.interrupted();
+		}
+
+		assertEquals(ResponseStatus.REQUEST_TIMEOUT.getStatusCode(), response.getStatusCode());
+	}
+
+	@Test
+	void testExtract_NoDeadlineByDefault() {
+		SlowDecodeService service = new SlowDecodeService(WarmupService.createSyntheticSample(faceIso),
+				new HashMap<>());
+
+		Response<BiometricRecord> response = service.getExtractTemplateInfo();
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		assertEquals(1, service.decodes.get());
+	}
+
+	/**
+	 * A service whose decoding takes longer than the deadline.
+	 */
+	private static final class SlowDecodeService extends ImageCompressionService {
+		private final AtomicInteger decodes = new AtomicInteger();
+
+		private SlowDecodeService(BiometricRecord sample, Map<String, String> flags) {
+			super(sdk.getSettings(), sample, null, flags);
+		}
+
+		@Override
+		protected Mat decodeImage(ByteBuffer jp2000Image) {
+			decodes.incrementAndGet();
+			Mat decoded = super.decodeImage(jp2000Image);
+			try {
+				Thread.sleep(1000);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return decoded;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.match.DescriptorCache;
+import io.mosip.image.compressor.sdk.match.DescriptorIndex;
+import io.mosip.image.compressor.sdk.match.FaceDescriptor;
+import io.mosip.image.compressor.sdk.service.MatchService;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+
+class DescriptorIndexTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	void testAppend_PersistsAcrossReopen() throws Exception {
+		Path file = directory.resolve("descriptors.idx");
+		try (DescriptorIndex index = DescriptorIndex.open(file)) {
+			index.append("segment-1", record("face-1"), new FaceDescriptor(1, 2));
+			index.append("segment-2", record("face-2"), new FaceDescriptor(3, 4));
+		}
+
+		try (DescriptorIndex index = DescriptorIndex.open(file)) {
+			assertEquals(2, index.size());
+			FaceDescriptor[] found = index.lookup(new String[] { "segment-2", "segment-3", null, "segment-1" },
+					new String[] { record("face-2"), record("face-3"), null, record("face-1") });
+			assertArrayEquals(new FaceDescriptor[] { new FaceDescriptor(3, 4), null, null, new FaceDescriptor(1, 2) },
+					found);
+			assertNull(index.get("segment-1", record("face-9")),
+					"A changed record of the same length should not use the indexed descriptor");
+		}
+	}
+
+	@Test
+	void testCompact_KeepsLatestEntries() throws Exception {
+		Path file = directory.resolve("descriptors.idx");
+		try (DescriptorIndex index = DescriptorIndex.open(file)) {
+			for (int entry = 0; entry < 100; entry++)
+				index.append("segment-" + entry, record("face-" + entry), new FaceDescriptor(entry, entry));
+			index.append("segment-7", record("face-7"), new FaceDescriptor(70, 70));
+			index.compact();
+			index.append("segment-8", record("face-8"), new FaceDescriptor(80, 80));
+			assertEquals(101, index.size());
+
+			index.compact();
+
+			assertEquals(100, index.size());
+			assertEquals(new FaceDescriptor(70, 70), index.get("segment-7", record("face-7")));
+			assertEquals(new FaceDescriptor(80, 80), index.get("segment-8", record("face-8")));
+			assertEquals(new FaceDescriptor(99, 99), index.get("segment-99", record("face-99")));
+			assertFalse(Files.exists(directory.resolve("descriptors.idx.compact")));
+		}
+		try (DescriptorIndex index = DescriptorIndex.open(file)) {
+			assertEquals(new FaceDescriptor(80, 80), index.get("segment-8", record("face-8")));
+		}
+	}
+
+	@Test
+	void testAppend_GrowsAndCompactsAutomatically() throws Exception {
+		int entries = 20000;
+		String[] ids = new String[entries];
+		String[] records = new String[entries];
+		FaceDescriptor[] descriptors = new FaceDescriptor[entries];
+		for (int entry = 0; entry < entries; entry++) {
+			ids[entry] = "segment-" + (entry % 3000);
+			records[entry] = record("face");
+			descriptors[entry] = new FaceDescriptor(entry, -entry);
+		}
+
+		try (DescriptorIndex index = DescriptorIndex.open(directory.resolve("descriptors.idx"))) {
+			for (int entry = 0; entry < entries; entry += 1000)
+				index.appendAll(Arrays.copyOfRange(ids, entry, entry + 1000),
+						Arrays.copyOfRange(records, entry, entry + 1000),
+						Arrays.copyOfRange(descriptors, entry, entry + 1000));
+
+			assertTrue(index.size() < entries, "Replaced entries should have been compacted");
+			assertEquals(new FaceDescriptor(entries - 1, 1 - entries), index.get(ids[entries - 1], record("face")));
+			assertEquals(new FaceDescriptor(17000, -17000), index.get("segment-2000", record("face")));
+		}
+	}
+
+	@Test
+	void testOpen_RejectsOtherFiles() throws IOException {
+		Path file = Files.write(directory.resolve("other.idx"), new byte[64]);
+
+		assertThrows(IOException.class, () -> DescriptorIndex.open(file));
+	}
+
+	@Test
+	void testOpen_LockedFileRejected() throws Exception {
+		Path file = directory.resolve("descriptors.idx");
+		try (DescriptorIndex index = DescriptorIndex.open(file)) {
+			index.append("segment-1", record("face-1"), new FaceDescriptor(1, 2));
+			assertThrows(IOException.class, () -> DescriptorIndex.open(file));
+		}
+
+		try (DescriptorIndex index = DescriptorIndex.open(file)) {
+			assertEquals(new FaceDescriptor(1, 2), index.get("segment-1", record("face-1")));
+		}
+	}
+
+	private static String record(String content) {
+		return DescriptorCache.key(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testMatch_IndexedGalleryIsNotDecoded() throws Exception {
+		Path file = directory.resolve("match.idx");
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder()
+				.withProperty(SdkConstant.IMAGE_COMPRESSOR_MATCH_INDEX_PATH, file.toString())
+				.withProperty(SdkConstant.IMAGE_COMPRESSOR_MATCH_CACHE_SIZE, "0").build();
+		sdk.init(new HashMap<>());
+		byte[] faceIso = SampleFaceData.faceIso();
+		BiometricRecord indexed = WarmupService.createSyntheticSample(faceIso);
+		indexed.getSegments().get(0).getBdbInfo().setIndex("gallery-face-1");
+		sdk.match(WarmupService.createSyntheticSample(faceIso), new BiometricRecord[] { indexed },
+				List.of(BiometricType.FACE), new HashMap<>());
+
+		// An image that can no longer be decoded, indexed with the descriptor of the original
+		byte[] corrupted = faceIso.clone();
+		byte[] image = FaceIsoRecord.parse(faceIso).getImageBytes();
+		Arrays.fill(corrupted, faceIso.length - image.length, faceIso.length - image.length + 256, (byte) 0);
+		DescriptorIndex index = DescriptorIndex.forPath(file.toString());
+		FaceDescriptor original = index.get("gallery-face-1", DescriptorCache.key(faceIso));
+		assertNotNull(original);
+		index.append("gallery-face-2", DescriptorCache.key(corrupted), original);
+
+		BiometricRecord unreadable = WarmupService.createSyntheticSample(corrupted);
+		unreadable.getSegments().get(0).getBdbInfo().setIndex("gallery-face-2");
+		// Same segment ID and record length as the indexed record, another image
+		BiometricRecord changed = WarmupService.createSyntheticSample(corrupted);
+		changed.getSegments().get(0).getBdbInfo().setIndex("gallery-face-1");
+		Response<MatchDecision[]> response = sdk.match(WarmupService.createSyntheticSample(faceIso),
+				new BiometricRecord[] { unreadable, changed }, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		Decision decision = response.getResponse()[0].getDecisions().get(BiometricType.FACE);
+		assertEquals(Match.MATCHED, decision.getMatch());
+		assertEquals("0", decision.getAnalyticsInfo().get(MatchService.ANALYTICS_DISTANCE));
+		assertEquals(Match.ERROR, response.getResponse()[1].getDecisions().get(BiometricType.FACE).getMatch());
+		index.close();
+	}
+}
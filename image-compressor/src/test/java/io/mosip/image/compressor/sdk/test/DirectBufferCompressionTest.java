@@ -0,0 +1,83 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biometrics.util.ConvertRequestDto;
+import io.mosip.biometrics.util.face.FaceBDIR;
+import io.mosip.biometrics.util.face.FaceDecoder;
+import io.mosip.image.compressor.sdk.service.EncodedFaceImage;
+
+class DirectBufferCompressionTest {
+	private static byte[] image;
+	private static ImageCompressionServiceTest service;
+
+	@BeforeAll
+	static void setUp() throws Exception {
+		image = SampleFaceData.faceImage();
+		service = new ImageCompressionServiceTest(null, null, null, null);
+	}
+
+	@Test
+	void testResizeAndCompress_DirectBuffer() {
+		byte[] expected = service.resizeAndCompress(image);
+
+		// Leading garbage checks that the buffer position is honoured
+		ByteBuffer input = ByteBuffer.allocateDirect(image.length + 3);
+		input.put(new byte[] { 1, 2, 3 }).put(image).flip().position(3);
+		ByteBuffer output = service.resizeAndCompress(input);
+
+		assertTrue(output.isDirect());
+		assertEquals(3, input.position());
+		assertEquals(0, output.position());
+		assertArrayEquals(expected, toArray(output));
+	}
+
+	@Test
+	void testResizeAndCompress_HeapBuffer() {
+		byte[] expected = service.resizeAndCompress(image);
+
+		ByteBuffer output = service.resizeAndCompress(ByteBuffer.wrap(image));
+
+		assertArrayEquals(expected, toArray(output));
+	}
+
+	@Test
+	void testCompressToFaceIso_DirectBuffer() throws Exception {
+		ByteBuffer input = ByteBuffer.allocateDirect(image.length).put(image).flip();
+
+		ByteBuffer output = service.compressToFaceIso(input, null);
+
+		assertTrue(output.isDirect());
+		ConvertRequestDto requestDto = new ConvertRequestDto();
+		requestDto.setModality("Face");
+		requestDto.setVersion("ISO19794_5_2011");
+		requestDto.setInputBytes(toArray(output));
+		FaceBDIR bdir = FaceDecoder.getFaceBDIR(requestDto);
+		assertEquals(60, bdir.getWidth());
+		assertEquals(80, bdir.getHeight());
+		assertArrayEquals(service.resizeAndCompress(image), bdir.getImage());
+	}
+
+	@Test
+	void testCopyTo_BufferTooSmall() {
+		try (EncodedFaceImage encoded = service.encodeFaceImage(image)) {
+			ByteBuffer target = ByteBuffer.allocateDirect((int) encoded.getLength() - 1);
+			assertThrows(BufferOverflowException.class, () -> encoded.copyTo(target));
+		}
+	}
+
+	private static byte[] toArray(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,134 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.model.Response;
+
+class ExtractModalitiesTest {
+	private static ImageCompressorSDKV2 sdk;
+
+	@BeforeAll
+	static void init() {
+		sdk = ImageCompressorSDKV2.builder().build();
+		sdk.init(new HashMap<>());
+	}
+
+	@Test
+	void testExtract_MixedPacketCompressesFaceOnly() throws Exception {
+		byte[] faceIso = SampleFaceData.faceIso();
+		BiometricRecord sample = createMixedSample(faceIso);
+		BIR finger = sample.getSegments().get(0);
+		BIR iris = sample.getSegments().get(2);
+
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		List<BIR> segments = response.getResponse().getSegments();
+		assertEquals(3, segments.size());
+		assertSame(finger, segments.get(0));
+		assertSame(iris, segments.get(2));
+		assertArrayEquals(new byte[] { 1, 2, 3 }, segments.get(0).getBdb());
+		assertTrue(FaceIsoRecord.parse(segments.get(1).getBdb()).getWidth() < FaceIsoRecord.parse(faceIso)
+				.getWidth());
+	}
+
+	@Test
+	void testExtract_FaceRequested() throws Exception {
+		BiometricRecord sample = createMixedSample(SampleFaceData.faceIso());
+		BIR face = sample.getSegments().get(1);
+
+		Response<BiometricRecord> response = sdk.extractTemplate(sample,
+				List.of(BiometricType.FINGER, BiometricType.FACE), new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		assertNotSame(face, response.getResponse().getSegments().get(1));
+	}
+
+	@Test
+	void testExtract_FaceNotRequestedLeftUntouched() throws Exception {
+		byte[] faceIso = SampleFaceData.faceIso();
+		BiometricRecord sample = createMixedSample(faceIso);
+		List<BIR> segments = List.copyOf(sample.getSegments());
+
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, List.of(BiometricType.IRIS),
+				new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		assertEquals(segments, response.getResponse().getSegments());
+		assertSame(faceIso, response.getResponse().getSegments().get(1).getBdb());
+	}
+
+	@Test
+	void testExtract_SegmentWithoutTypeLeftUntouched() throws Exception {
+		BiometricRecord sample = WarmupService.createSyntheticSample(SampleFaceData.faceIso());
+		BIR untyped = new BIR.BIRBuilder().withBdbInfo(new BDBInfo.BDBInfoBuilder().build())
+				.withBdb(new byte[] { 4 }).build();
+		sample.getSegments().add(untyped);
+
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, List.of(BiometricType.FACE),
+				new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		assertSame(untyped, response.getResponse().getSegments().get(1));
+	}
+
+	@Test
+	void testExtract_InvalidFaceIso() throws Exception {
+		byte[] faceIso = SampleFaceData.faceIso();
+		faceIso[0] = 0;
+
+		Response<BiometricRecord> response = sdk.extractTemplate(WarmupService.createSyntheticSample(faceIso), null,
+				new HashMap<>());
+
+		assertEquals(ResponseStatus.INVALID_INPUT.getStatusCode(), response.getStatusCode());
+		assertNull(response.getResponse());
+	}
+
+	@Test
+	void testExtract_WrongFaceFormatType() throws Exception {
+		BiometricRecord sample = WarmupService.createSyntheticSample(SampleFaceData.faceIso());
+		sample.getSegments().get(0).getBdbInfo().setFormat(new RegistryIDType("257", "7"));
+
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, new HashMap<>());
+
+		assertEquals(ResponseStatus.INVALID_INPUT.getStatusCode(), response.getStatusCode());
+		assertNull(response.getResponse());
+	}
+
+	/**
+	 * Builds a finger, face and iris packet; the finger and iris data are not
+	 * valid records, so they fail if they are read.
+	 */
+	private static BiometricRecord createMixedSample(byte[] faceIso) {
+		BiometricRecord sample = WarmupService.createSyntheticSample(faceIso);
+		sample.getSegments().add(0, createSegment(BiometricType.FINGER, "7"));
+		sample.getSegments().add(createSegment(BiometricType.IRIS, "9"));
+		return sample;
+	}
+
+	private static BIR createSegment(BiometricType type, String format) {
+		BDBInfo bdbInfo = new BDBInfo.BDBInfoBuilder().withType(List.of(type))
+				.withFormat(new RegistryIDType("257", format)).build();
+		return new BIR.BIRBuilder().withBdbInfo(bdbInfo).withBdb(new byte[] { 1, 2, 3 }).build();
+	}
+}
@@ -0,0 +1,108 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biometrics.util.ConvertRequestDto;
+import io.mosip.biometrics.util.face.FaceBDIR;
+import io.mosip.biometrics.util.face.FaceDecoder;
+import io.mosip.biometrics.util.face.LandmarkPoints;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+
+class FaceIsoRecordTest {
+	@Test
+	void testParse_SameAsFaceDecoder() throws Exception {
+		byte[] iso = SampleFaceData.faceIso();
+		FaceBDIR expected = decode(iso);
+
+		FaceIsoRecord record = FaceIsoRecord.parse(iso);
+
+		assertEquals(expected.getFormatIdentifier(), record.getFormatIdentifier());
+		assertEquals(expected.getVersionNumber(), record.getVersionNumber());
+		assertEquals(expected.getNoOfRepresentations(), record.getNoOfRepresentations());
+		assertEquals(expected.getCaptureYear(), record.getCaptureDateTime().getYear());
+		assertEquals(expected.getCaptureMonth(), record.getCaptureDateTime().getMonthValue());
+		assertEquals(expected.getGender(), record.getGender());
+		assertEquals(expected.getNoOfLandMarkPoints(), record.getNoOfLandmarkPoints());
+		assertArrayEquals(expected.getPoseAngle(), record.getPoseAngle());
+		assertEquals(expected.getWidth(), record.getWidth());
+		assertEquals(expected.getHeight(), record.getHeight());
+		assertEquals(expected.getImageLength(), record.getImageLength());
+		assertArrayEquals(expected.getImage(), record.getImageBytes());
+	}
+
+	@Test
+	void testGetImage_SliceOfRecord() throws Exception {
+		byte[] iso = SampleFaceData.faceIso();
+
+		FaceIsoRecord record = FaceIsoRecord.parse(iso);
+		ByteBuffer image = record.getImage();
+
+		assertSame(iso, image.array());
+		assertEquals(record.getImageOffset(), image.arrayOffset());
+		assertEquals(record.getImageLength(), image.remaining());
+		assertEquals(iso.length, record.getImageOffset() + record.getImageLength());
+	}
+
+	@Test
+	void testParse_DirectBufferWithLandmarks() throws Exception {
+		byte[] iso = withLandmark(SampleFaceData.faceIso(), new byte[] { 2, (byte) 0xC1, 0, 100, 0, 120, 0, 0 });
+		ByteBuffer buffer = ByteBuffer.allocateDirect(iso.length + 2);
+		buffer.put(new byte[2]).put(iso).flip().position(2);
+
+		FaceIsoRecord record = FaceIsoRecord.parse(buffer);
+
+		LandmarkPoints[] expected = decode(iso).getLandmarkPoints();
+		LandmarkPoints[] actual = record.getLandmarkPoints();
+		assertEquals(1, actual.length);
+		assertEquals(expected[0].getLandmarkPointType(), actual[0].getLandmarkPointType());
+		assertEquals(expected[0].getLandmarkPointCode(), actual[0].getLandmarkPointCode());
+		assertEquals(expected[0].getXCoordinate(), actual[0].getXCoordinate());
+		assertEquals(expected[0].getYCoordinate(), actual[0].getYCoordinate());
+		assertEquals(2, buffer.position());
+		assertEquals(decode(iso).getImageLength(), record.getImage().remaining());
+	}
+
+	@Test
+	void testParse_Invalid() throws Exception {
+		byte[] iso = SampleFaceData.faceIso();
+		byte[] notIso = Arrays.copyOf(iso, iso.length);
+		notIso[0] = 'X';
+
+		assertThrows(IllegalArgumentException.class, () -> FaceIsoRecord.parse(new byte[10]));
+		assertThrows(IllegalArgumentException.class, () -> FaceIsoRecord.parse(notIso));
+		assertThrows(IllegalArgumentException.class,
+				() -> FaceIsoRecord.parse(Arrays.copyOf(iso, iso.length - 1)));
+	}
+
+	/**
+	 * Inserts a landmark point into a record that has none, fixing up the counts
+	 * and lengths.
+	 */
+	private static byte[] withLandmark(byte[] iso, byte[] landmark) {
+		FaceIsoRecord record = FaceIsoRecord.parse(iso);
+		int insertAt = record.getImageOffset() - 15;
+		ByteBuffer out = ByteBuffer.allocate(iso.length + landmark.length);
+		out.put(iso, 0, insertAt).put(landmark).put(iso, insertAt, iso.length - insertAt);
+		out.putInt(8, out.getInt(8) + landmark.length);
+		out.putInt(17, out.getInt(17) + landmark.length);
+		int facialInformation = insertAt - 17;
+		out.putShort(facialInformation, (short) 1);
+		return out.array();
+	}
+
+	private static FaceBDIR decode(byte[] iso) throws Exception {
+		ConvertRequestDto requestDto = new ConvertRequestDto();
+		requestDto.setModality("Face");
+		requestDto.setVersion("ISO19794_5_2011");
+		requestDto.setInputBytes(iso);
+		return FaceDecoder.getFaceBDIR(requestDto);
+	}
+}
@@ -0,0 +1,145 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import io.mosip.biometrics.util.ConvertRequestDto;
+import io.mosip.biometrics.util.face.FaceBDIR;
+import io.mosip.biometrics.util.face.FaceDecoder;
+import io.mosip.biometrics.util.face.FaceEncoder;
+import io.mosip.biometrics.util.face.ImageColourSpace;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.iso.FaceIsoWriter;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+
+class FaceIsoWriterTest {
+	/** Capture date and time of the representation header, set to the current time by both writers. */
+	private static final int CAPTURE_DATE_OFFSET = 21;
+	private static final int CAPTURE_DATE_LENGTH = 9;
+	/** Gender of the sample record, which has one quality block. */
+	private static final int GENDER_OFFSET = 43;
+	private static final int GENDER_FEMALE = 2;
+
+	@Test
+	void testWrite_SameAsFaceEncoder() throws Exception {
+		FaceBDIR source = SampleFaceData.faceBdir();
+
+		ConvertRequestDto requestDto = new ConvertRequestDto();
+		requestDto.setModality("Face");
+		requestDto.setPurpose("REGISTRATION");
+		requestDto.setVersion("ISO19794_5_2011");
+		requestDto.setImageType(0);
+		requestDto.setInputBytes(source.getImage());
+		byte[] expected = FaceEncoder.convertFaceImageToISO(requestDto);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long written = new FaceIsoWriter("REGISTRATION").write(out, source.getWidth(), source.getHeight(),
+				source.getImageColorSpace(), source.getImage());
+		byte[] actual = out.toByteArray();
+
+		assertEquals(expected.length, written);
+		assertArrayEquals(withoutCaptureDate(expected), withoutCaptureDate(actual));
+	}
+
+	@Test
+	void testWriteHeader_Length() throws Exception {
+		FaceIsoWriter writer = new FaceIsoWriter("AUTH");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		int written = writer.writeHeader(out, 60, 80, ImageColourSpace.BIT_24_RGB, 1000);
+
+		assertEquals(writer.getHeaderLength(), written);
+		assertEquals(writer.getHeaderLength() + 1000L, writer.getRecordLength(1000));
+	}
+
+	@Test
+	void testWriteFaceIso_Streams() throws Exception {
+		BIR segment = new BIR();
+		BDBInfo bdbInfo = new BDBInfo();
+		bdbInfo.setType(Collections.singletonList(BiometricType.FACE));
+		segment.setBdbInfo(bdbInfo);
+		segment.setBdb(SampleFaceData.faceIso());
+		ImageCompressionServiceTest service = new ImageCompressionServiceTest(null, null, null, null);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long written = service.writeFaceIso(segment, out);
+		ByteArrayOutputStream channelOut = new ByteArrayOutputStream();
+		service.writeFaceIso(segment, Channels.newChannel(channelOut));
+
+		assertEquals(out.size(), written);
+		FaceBDIR streamed = decode(out.toByteArray());
+		assertEquals(60, streamed.getWidth());
+		assertEquals(80, streamed.getHeight());
+		assertEquals(streamed.getImageLength(), streamed.getImage().length);
+		assertArrayEquals(streamed.getImage(), decode(channelOut.toByteArray()).getImage());
+	}
+
+	@Test
+	void testWrite_CarriesOverSourceHeader() throws Exception {
+		byte[] iso = SampleFaceData.faceIso();
+		// Give the source a subject description to carry over
+		iso[GENDER_OFFSET] = (byte) GENDER_FEMALE;
+		FaceIsoRecord source = FaceIsoRecord.parse(iso);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new FaceIsoWriter("REGISTRATION", source).writeHeader(out, 60, 80, ImageColourSpace.BIT_8_GREYSCALE, 0);
+		FaceIsoRecord written = FaceIsoRecord.parse(out.toByteArray());
+
+		assertEquals(GENDER_FEMALE, written.getGender());
+		assertEquals(source.getCaptureDateTime(), written.getCaptureDateTime());
+		assertEquals(source.getCaptureDeviceTechnology(), written.getCaptureDeviceTechnology());
+		assertArrayEquals(source.getPoseAngle(), written.getPoseAngle());
+		assertEquals(60, written.getWidth());
+		assertEquals(80, written.getHeight());
+		assertEquals(ImageColourSpace.BIT_8_GREYSCALE, written.getImageColourSpace());
+	}
+
+	@Test
+	void testGetImageColourSpace() {
+		assertEquals(ImageColourSpace.BIT_24_RGB, FaceIsoWriter.getImageColourSpace(3, 8));
+		assertEquals(ImageColourSpace.BIT_48_RGB, FaceIsoWriter.getImageColourSpace(3, 16));
+		assertEquals(ImageColourSpace.BIT_8_GREYSCALE, FaceIsoWriter.getImageColourSpace(1, 8));
+		assertEquals(ImageColourSpace.BIT_16_GREYSCALE, FaceIsoWriter.getImageColourSpace(1, 16));
+		assertThrows(IllegalArgumentException.class, () -> FaceIsoWriter.getImageColourSpace(4, 8));
+	}
+
+	@Test
+	void testDoFaceConversion_SameAsFaceEncoder() throws Exception {
+		byte[] image = SampleFaceData.faceImage();
+		ConvertRequestDto requestDto = new ConvertRequestDto();
+		requestDto.setModality("Face");
+		requestDto.setPurpose("AUTH");
+		requestDto.setVersion("ISO19794_5_2011");
+		requestDto.setImageType(0);
+		requestDto.setInputBytes(image);
+		byte[] expected = FaceEncoder.convertFaceImageToISO(requestDto);
+
+		byte[] actual = new ImageCompressionServiceTest(null, null, null, null).doFaceConversion("AUTH", image);
+
+		assertArrayEquals(withoutCaptureDate(expected), withoutCaptureDate(actual));
+	}
+
+	private static FaceBDIR decode(byte[] iso) throws Exception {
+		ConvertRequestDto requestDto = new ConvertRequestDto();
+		requestDto.setModality("Face");
+		requestDto.setVersion("ISO19794_5_2011");
+		requestDto.setInputBytes(iso);
+		return FaceDecoder.getFaceBDIR(requestDto);
+	}
+
+	private static byte[] withoutCaptureDate(byte[] iso) {
+		byte[] copy = Arrays.copyOf(iso, iso.length);
+		Arrays.fill(copy, CAPTURE_DATE_OFFSET, CAPTURE_DATE_OFFSET + CAPTURE_DATE_LENGTH, (byte) 0);
+		return copy;
+	}
+}
@@ -0,0 +1,135 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.match.DescriptorCache;
+import io.mosip.image.compressor.sdk.match.DescriptorGallery;
+import io.mosip.image.compressor.sdk.match.FaceDescriptor;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.service.MatchService;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+
+class FaceMatchTest {
+	@BeforeAll
+	static void loadOpenCv() {
+		OpenCvNativeLoader.load();
+	}
+
+	@Test
+	void testCompute_CompressedFaceIsClose() throws Exception {
+		byte[] faceImage = SampleFaceData.faceImage();
+		byte[] compressed = new ImageCompressionServiceTest(null, null, null, null).resizeAndCompress(faceImage, null);
+		FaceDescriptor original = FaceDescriptor.compute(faceImage);
+
+		assertTrue(original.distance(FaceDescriptor.compute(compressed)) <= 16);
+		assertEquals(0, original.distance(FaceDescriptor.compute(faceImage)));
+		FaceDescriptor other = FaceDescriptor.compute(WarmupService.createSyntheticFace(240, 320));
+		assertTrue(original.distance(other) > 40, "Different faces should differ in many bits");
+		assertEquals(0, original.getPerceptualHash() & 1, "The DC coefficient should not be hashed");
+		assertEquals(FaceDescriptor.BITS, new FaceDescriptor(0, 0).distance(new FaceDescriptor(-2L, -1L)));
+	}
+
+	@Test
+	void testDistances_VectorMatchesScalar() {
+		Random random = new Random(41);
+		int size = 3 * 4096 + 7;
+		DescriptorGallery vector = new DescriptorGallery(16);
+		DescriptorGallery scalar = DescriptorGallery.scalar(size);
+		for (int index = 0; index < size; index++) {
+			FaceDescriptor descriptor = new FaceDescriptor(random.nextLong(), random.nextLong());
+			vector.add(descriptor);
+			scalar.add(descriptor);
+		}
+		FaceDescriptor probe = vector.get(1234);
+
+		int[] distances = vector.distances(probe);
+
+		assertArrayEquals(scalar.distances(probe), distances);
+		assertEquals(0, distances[1234]);
+		assertEquals(probe.distance(vector.get(size - 1)), distances[size - 1]);
+		assertTrue(vector.isVectorized());
+	}
+
+	@Test
+	void testCache_ComputesOnceAndEvicts() {
+		DescriptorCache cache = new DescriptorCache(2);
+		AtomicInteger computed = new AtomicInteger();
+		FaceDescriptor descriptor = new FaceDescriptor(1, 2);
+
+		assertSame(descriptor, cache.get(new byte[] { 1 }, () -> {
+			computed.incrementAndGet();
+			return descriptor;
+		}));
+		cache.get(new byte[] { 1 }, () -> new FaceDescriptor(computed.incrementAndGet(), 0));
+		assertEquals(1, computed.get());
+
+		cache.get(new byte[] { 2 }, () -> descriptor);
+		cache.get(new byte[] { 3 }, () -> descriptor);
+		assertEquals(2, cache.size());
+		cache.get(new byte[] { 1 }, () -> new FaceDescriptor(computed.incrementAndGet(), 0));
+		assertEquals(2, computed.get(), "The least recently used record should have been evicted");
+	}
+
+	@Test
+	void testMatch_CompressedRecordAndDuplicates() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().build();
+		sdk.init(new HashMap<>());
+		byte[] faceIso = SampleFaceData.faceIso();
+		BiometricRecord compressed = sdk
+				.extractTemplate(WarmupService.createSyntheticSample(faceIso), null, new HashMap<>()).getResponse();
+		BiometricRecord other = WarmupService.createSyntheticSample(WarmupService.createSyntheticFaceIso());
+		BiometricRecord[] gallery = { compressed, other, WarmupService.createSyntheticSample(faceIso) };
+
+		Response<MatchDecision[]> response = sdk.match(WarmupService.createSyntheticSample(faceIso), gallery,
+				List.of(BiometricType.FACE, BiometricType.IRIS), new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		MatchDecision[] decisions = response.getResponse();
+		assertEquals(3, decisions.length);
+		assertEquals(Match.MATCHED, decisions[0].getDecisions().get(BiometricType.FACE).getMatch());
+		assertEquals(Match.NOT_MATCHED, decisions[1].getDecisions().get(BiometricType.FACE).getMatch());
+		Decision duplicate = decisions[2].getDecisions().get(BiometricType.FACE);
+		assertEquals(Match.MATCHED, duplicate.getMatch());
+		assertEquals("0", duplicate.getAnalyticsInfo().get(MatchService.ANALYTICS_DISTANCE));
+		assertEquals(Match.ERROR, decisions[0].getDecisions().get(BiometricType.IRIS).getMatch());
+		assertEquals(2, decisions[2].getGalleryIndex());
+		assertTrue(FaceIsoRecord.parse(compressed.getSegments().get(0).getBdb()).getWidth() < FaceIsoRecord
+				.parse(faceIso).getWidth());
+	}
+
+	@Test
+	void testMatch_JaiEngineLoadsOpenCv() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder()
+				.withProperty(SdkConstant.IMAGE_COMPRESSOR_ENGINE, "jai").build();
+		sdk.init(new HashMap<>());
+		byte[] faceIso = SampleFaceData.faceIso();
+
+		Response<MatchDecision[]> response = sdk.match(WarmupService.createSyntheticSample(faceIso),
+				new BiometricRecord[] { WarmupService.createSyntheticSample(faceIso) }, List.of(BiometricType.FACE),
+				new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		assertEquals(Match.MATCHED, response.getResponse()[0].getDecisions().get(BiometricType.FACE).getMatch());
+	}
+}
@@ -0,0 +1,91 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import io.mosip.biometrics.util.face.LandmarkPointType;
+import io.mosip.biometrics.util.face.LandmarkPoints;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.face.FaceRegionLocator;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+
+class FaceRegionLocatorTest {
+	@BeforeAll
+	static void loadOpenCV() {
+		OpenCvNativeLoader.load();
+	}
+
+	@Test
+	void testFromLandmarks_EyeCentres() {
+		LandmarkPoints[] landmarks = new LandmarkPoints[] {
+				new LandmarkPoints(LandmarkPointType.MPEG4_FEATURE, 0xC1, 100, 200, 0),
+				new LandmarkPoints(LandmarkPointType.MPEG4_FEATURE, 0xC2, 160, 200, 0) };
+
+		Rect region = FaceRegionLocator.fromLandmarks(landmarks, new Size(400, 600));
+
+		// eye distance 60 -> token 240 x 320, eye line 144 below the top edge
+		assertEquals(new Rect(10, 56, 240, 320), region);
+	}
+
+	@Test
+	void testFromLandmarks_ClampedToImage() {
+		LandmarkPoints[] landmarks = new LandmarkPoints[] {
+				new LandmarkPoints(LandmarkPointType.MPEG4_FEATURE, 0xC1, 20, 50, 0),
+				new LandmarkPoints(LandmarkPointType.MPEG4_FEATURE, 0xC2, 80, 50, 0) };
+
+		Rect region = FaceRegionLocator.fromLandmarks(landmarks, new Size(200, 300));
+
+		assertEquals(new Rect(0, 0, 170, 226), region);
+	}
+
+	@Test
+	void testFromLandmarks_NoEyeCentres() {
+		LandmarkPoints[] landmarks = new LandmarkPoints[] {
+				new LandmarkPoints(LandmarkPointType.MPEG4_FEATURE, 0x91, 100, 200, 0),
+				new LandmarkPoints(LandmarkPointType.ANTHROPOMETRIC_2D_LANDMARK, 0xC2, 160, 200, 0) };
+
+		assertNull(FaceRegionLocator.fromLandmarks(landmarks, new Size(400, 600)));
+		assertNull(FaceRegionLocator.fromLandmarks(null, new Size(400, 600)));
+	}
+
+	@Test
+	void testDetect_SampleFace() throws Exception {
+		Mat image = Imgcodecs.imdecode(new MatOfByte(SampleFaceData.faceImage()), Imgcodecs.IMREAD_UNCHANGED);
+
+		Rect region = FaceRegionLocator.locate(image, null, true);
+
+		assertNotNull(region, "The sample face should be detected");
+		assertTrue(region.x >= 0 && region.y >= 0);
+		assertTrue(region.x + region.width <= image.width() && region.y + region.height <= image.height());
+		assertNull(FaceRegionLocator.locate(image, null, false));
+	}
+
+	@Test
+	void testResizeAndCompress_WithFaceCrop() throws Exception {
+		byte[] faceImage = SampleFaceData.faceImage();
+		Map<String, String> flags = new HashMap<>();
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_FACE_CROP_ENABLED, "true");
+		ImageCompressionServiceTest service = new ImageCompressionServiceTest(null, null, null, flags);
+
+		byte[] cropped = service.resizeAndCompress(faceImage, null);
+		byte[] uncropped = new ImageCompressionServiceTest(null, null, null, null).resizeAndCompress(faceImage, null);
+
+		Mat croppedImage = Imgcodecs.imdecode(new MatOfByte(cropped), Imgcodecs.IMREAD_UNCHANGED);
+		Mat uncroppedImage = Imgcodecs.imdecode(new MatOfByte(uncropped), Imgcodecs.IMREAD_UNCHANGED);
+		assertTrue(croppedImage.width() * croppedImage.height() < uncroppedImage.width() * uncroppedImage.height(),
+				"The cropped face should have fewer pixels");
+	}
+}
@@ -3,9 +3,10 @@ package io.mosip.image.compressor.sdk.test;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.core.env.Environment;
-
+import io.mosip.biometrics.util.face.LandmarkPoints;
+import io.mosip.image.compressor.sdk.config.SdkSettings;
 import io.mosip.image.compressor.sdk.exceptions.SDKException;
+import io.mosip.image.compressor.sdk.service.EncodedFaceImage;
 import io.mosip.image.compressor.sdk.service.ImageCompressionService;
 import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.entities.BIR;
@@ -13,9 +14,9 @@ import io.mosip.kernel.biometrics.entities.BiometricRecord;
 import io.mosip.kernel.biometrics.model.Response;
 
 class ImageCompressionServiceTest extends ImageCompressionService {
-	public ImageCompressionServiceTest(Environment env, BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+	public ImageCompressionServiceTest(SdkSettings settings, BiometricRecord sample, List<BiometricType> modalitiesToExtract,
 			Map<String, String> flags) {
-		super(env, sample, modalitiesToExtract, flags);
+		super(settings, sample, modalitiesToExtract, flags);
 	}
 
 	@Override
@@ -24,8 +25,8 @@ class ImageCompressionServiceTest extends ImageCompressionService {
 	}
 
 	@Override
-	protected void setEnv(Environment env) {
-		super.setEnv(env);
+	protected void setSettings(SdkSettings settings) {
+		super.setSettings(settings);
 	}
 
 	@Override
@@ -49,6 +50,20 @@ class ImageCompressionServiceTest extends ImageCompressionService {
 		return super.resizeAndCompress(jp2000Bytes);
 	}
 
+	@Override
+	protected byte[] resizeAndCompress(byte[] jp2000Bytes, LandmarkPoints[] landmarks) {
+		return super.resizeAndCompress(jp2000Bytes, landmarks);
+	}
+
+	EncodedFaceImage encodeFaceImage(byte[] jp2000Bytes) {
+		return super.encodeFaceImage(jp2000Bytes, null);
+	}
+
+	@Override
+	protected byte[] doFaceConversion(String purpose, byte[] imageData) {
+		return super.doFaceConversion(purpose, imageData);
+	}
+
 	@Override
 	protected byte[] getBirData(BIR bir) {
 		return super.getBirData(bir);
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.env.Environment;
 
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
 import io.mosip.image.compressor.sdk.impl.ImageCompressorSDK;
 import io.mosip.image.compressor.sdk.service.ImageCompressionService;
 import io.mosip.image.compressor.sdk.service.SDKInfoService;
@@ -86,14 +87,14 @@ class ImageCompressorSDKTest {
     }
 
     @Test
-    void testSegment_NotImplemented() {
+    void testSegment_MissingSample() {
         BiometricRecord sample = new BiometricRecord();
         List<BiometricType> modalitiesToSegment = Collections.emptyList();
         Map<String, String> flags = Collections.emptyMap();
 
         Response<BiometricRecord> response = sdk.segment(sample, modalitiesToSegment, flags);
-        assertEquals("500", response.getStatusCode() + "");
-		assertThat(response.getStatusMessage(), containsString("UNKNOWN_ERROR"));
+        assertEquals(ResponseStatus.MISSING_INPUT.getStatusCode(), response.getStatusCode());
+        assertNull(response.getResponse());
     }
 
     @Test
@@ -18,6 +18,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.env.Environment;
 
+import io.mosip.image.compressor.sdk.config.EnvironmentSdkSettings;
 import io.mosip.image.compressor.sdk.constant.ResponseStatus;
 import io.mosip.image.compressor.sdk.constant.SdkConstant;
 import io.mosip.image.compressor.sdk.exceptions.SDKException;
@@ -43,7 +44,7 @@ class ImageCompressorSDKV2Test {
         sdk = new ImageCompressorSDKV2();
         sdk.setEnv (env); // Inject mock environment
         
-        service = new ImageCompressionServiceTest(env, null, null, null);
+        service = new ImageCompressionServiceTest(new EnvironmentSdkSettings(env), null, null, null);
     }
 
     @Test
@@ -69,26 +70,26 @@ class ImageCompressorSDKV2Test {
     }
 
     @Test
-    void testMatch_NotImplemented() {
+    void testMatch_MissingSample() {
         BiometricRecord sample = new BiometricRecord();
         BiometricRecord[] gallery = new BiometricRecord[0];
         List<BiometricType> modalitiesToMatch = Collections.emptyList();
         Map<String, String> flags = Collections.emptyMap();
 
         Response<MatchDecision[]> response = sdk.match(sample, gallery, modalitiesToMatch, flags);
-        assertEquals("500", response.getStatusCode() + "");
-		assertThat(response.getStatusMessage(), containsString("UNKNOWN_ERROR"));
+        assertEquals(ResponseStatus.MISSING_INPUT.getStatusCode(), response.getStatusCode());
+        assertNull(response.getResponse());
     }
 
     @Test
-    void testSegment_NotImplemented() {
+    void testSegment_MissingSample() {
         BiometricRecord sample = new BiometricRecord();
         List<BiometricType> modalitiesToSegment = Collections.emptyList();
         Map<String, String> flags = Collections.emptyMap();
 
         Response<BiometricRecord> response = sdk.segment(sample, modalitiesToSegment, flags);
-        assertEquals("500", response.getStatusCode() + "");
-		assertThat(response.getStatusMessage(), containsString("UNKNOWN_ERROR"));
+        assertEquals(ResponseStatus.MISSING_INPUT.getStatusCode(), response.getStatusCode());
+        assertNull(response.getResponse());
     }
 
     @Test
@@ -0,0 +1,166 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.mosip.image.compressor.sdk.cache.OutputCache;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.jfr.EncodeEvent;
+import io.mosip.image.compressor.sdk.jfr.ImageDecodeEvent;
+import io.mosip.image.compressor.sdk.jfr.IsoDecodeEvent;
+import io.mosip.image.compressor.sdk.jfr.IsoWrapEvent;
+import io.mosip.image.compressor.sdk.jfr.ResizeEvent;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.model.Response;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class JfrEventsTest {
+	private static final List<Class<? extends Event>> EVENTS = List.of(IsoDecodeEvent.class, ImageDecodeEvent.class,
+			ResizeEvent.class, EncodeEvent.class, IsoWrapEvent.class);
+
+	private static byte[] faceIso;
+
+	@TempDir
+	Path directory;
+
+	@BeforeAll
+	static void init() throws Exception {
+		faceIso = SampleFaceData.faceIso();
+	}
+
+	@Test
+	void testEvents_DisabledByDefault() {
+		for (Class<? extends Event> event : EVENTS)
+			assertFalse(EventType.getEventType(event).isEnabled(), event.getSimpleName() + " should be disabled");
+		assertFalse(new EncodeEvent().shouldCommit());
+	}
+
+	@Test
+	void testExtract_RecordsEveryStage() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().build();
+		sdk.init(new HashMap<>());
+
+		Map<String, List<RecordedEvent>> events = record(() -> extract(sdk, true));
+
+		for (Class<? extends Event> event : EVENTS) {
+			String name = EventType.getEventType(event).getName();
+			assertEquals(1, events.getOrDefault(name, List.of()).size(), name);
+			assertEquals(1, events.get(name).get(0).getInt("segmentIndex"), name);
+		}
+		FaceIsoRecord source = FaceIsoRecord.parse(faceIso);
+		RecordedEvent decode = events.get("io.mosip.image.compressor.ImageDecode").get(0);
+		assertEquals(source.getWidth(), decode.getInt("width"));
+		assertEquals(source.getImageLength(), decode.getLong("inputBytes"));
+		RecordedEvent resize = events.get("io.mosip.image.compressor.Resize").get(0);
+		assertEquals(source.getWidth(), resize.getInt("inputWidth"));
+		assertTrue(resize.getInt("width") < resize.getInt("inputWidth"));
+		assertEquals(0.25f, resize.getFloat("fx"));
+		RecordedEvent encode = events.get("io.mosip.image.compressor.Encode").get(0);
+		assertEquals(resize.getInt("width"), encode.getInt("width"));
+		assertTrue(encode.getInt("compression") > 0);
+	}
+
+	@Test
+	void testExtract_JaiEngineRecordsEveryStage() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder()
+				.withProperty(SdkConstant.IMAGE_COMPRESSOR_ENGINE, "jai").build();
+		sdk.init(new HashMap<>());
+
+		Map<String, List<RecordedEvent>> events = record(() -> extract(sdk, true));
+
+		for (Class<? extends Event> event : EVENTS) {
+			String name = EventType.getEventType(event).getName();
+			assertEquals(1, events.getOrDefault(name, List.of()).size(), name);
+			assertEquals(1, events.get(name).get(0).getInt("segmentIndex"), name);
+		}
+		RecordedEvent resize = events.get("io.mosip.image.compressor.Resize").get(0);
+		assertEquals("java", resize.getString("resizeEngine"));
+		RecordedEvent encode = events.get("io.mosip.image.compressor.Encode").get(0);
+		assertEquals(resize.getInt("width"), encode.getInt("width"));
+		assertEquals("fixed", encode.getString("compressionMode"));
+	}
+
+	@Test
+	void testExtract_IsoWrapCarriesRecordSizes() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().build();
+		sdk.init(new HashMap<>());
+		byte[][] output = new byte[1][];
+
+		Map<String, List<RecordedEvent>> events = record(() -> output[0] = extract(sdk, false));
+
+		RecordedEvent wrap = events.get("io.mosip.image.compressor.IsoWrap").get(0);
+		RecordedEvent encode = events.get("io.mosip.image.compressor.Encode").get(0);
+		assertEquals(output[0].length, wrap.getLong("outputBytes"));
+		assertEquals(encode.getLong("outputBytes"), wrap.getLong("inputBytes"));
+		assertEquals(FaceIsoRecord.parse(output[0]).getWidth(), wrap.getInt("width"));
+		assertEquals("REGISTRATION", wrap.getString("purpose"));
+		assertFalse(wrap.getBoolean("cached"));
+	}
+
+	@Test
+	void testExtract_CachedOutputNotEncoded() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withProperty(
+				SdkConstant.IMAGE_COMPRESSOR_OUTPUT_CACHE_PATH, directory.resolve("outputs.cache").toString()).build();
+		sdk.init(new HashMap<>());
+		extract(sdk, false);
+
+		Map<String, List<RecordedEvent>> events = record(() -> extract(sdk, false));
+
+		assertFalse(events.containsKey("io.mosip.image.compressor.Encode"));
+		assertTrue(events.get("io.mosip.image.compressor.IsoWrap").get(0).getBoolean("cached"));
+		OutputCache.forPath(directory.resolve("outputs.cache").toString(), 1 << 20).close();
+	}
+
+	/**
+	 * Extracts a face, after a finger segment that is left untouched when asked.
+	 */
+	private static byte[] extract(ImageCompressorSDKV2 sdk, boolean afterFinger) {
+		BiometricRecord sample = WarmupService.createSyntheticSample(faceIso);
+		if (afterFinger) {
+			BDBInfo bdbInfo = new BDBInfo.BDBInfoBuilder().withType(List.of(BiometricType.FINGER))
+					.withFormat(new RegistryIDType("257", "7")).build();
+			sample.getSegments().add(0, new BIR.BIRBuilder().withBdbInfo(bdbInfo).withBdb(new byte[] { 1 }).build());
+		}
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, new HashMap<>());
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		return response.getResponse().getSegments().get(afterFinger ? 1 : 0).getBdb();
+	}
+
+	private Map<String, List<RecordedEvent>> record(Runnable action) throws Exception {
+		Path file = directory.resolve("recording-" + System.nanoTime() + ".jfr");
+		try (Recording recording = new Recording()) {
+			for (Class<? extends Event> event : EVENTS)
+				recording.enable(event);
+			recording.start();
+			action.run();
+			recording.stop();
+			recording.dump(file);
+		}
+		return RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().startsWith("io.mosip.image.compressor."))
+				.collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+	}
+}
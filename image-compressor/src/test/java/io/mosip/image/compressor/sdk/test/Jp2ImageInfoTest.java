@@ -0,0 +1,42 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.mosip.image.compressor.sdk.jp2.Jp2ImageInfo;
+
+class Jp2ImageInfoTest {
+	@Test
+	void testRead_Jp2File() throws Exception {
+		Jp2ImageInfo info = Jp2ImageInfo.read(SampleFaceData.faceImage());
+
+		assertEquals(240, info.getWidth());
+		assertEquals(320, info.getHeight());
+		assertEquals(3, info.getComponents());
+		assertEquals(8, info.getBitsPerComponent());
+	}
+
+	@Test
+	void testRead_Codestream() throws Exception {
+		byte[] image = SampleFaceData.faceImage();
+		int start = 0;
+		while ((image[start] & 0xFF) != 0xFF || (image[start + 1] & 0xFF) != 0x4F
+				|| (image[start + 2] & 0xFF) != 0xFF || (image[start + 3] & 0xFF) != 0x51)
+			start++;
+
+		Jp2ImageInfo info = Jp2ImageInfo.read(Arrays.copyOfRange(image, start, image.length));
+
+		assertEquals(240, info.getWidth());
+		assertEquals(320, info.getHeight());
+		assertEquals(3, info.getComponents());
+	}
+
+	@Test
+	void testRead_NotJpeg2000() {
+		assertThrows(IllegalArgumentException.class, () -> Jp2ImageInfo.read(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+	}
+}
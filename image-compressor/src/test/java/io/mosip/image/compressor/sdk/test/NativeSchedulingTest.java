@@ -0,0 +1,145 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Core;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.scheduling.NativeScheduling;
+import io.mosip.image.compressor.sdk.scheduling.SchedulingProfile;
+import io.mosip.image.compressor.sdk.service.ImageCompressionService;
+import io.mosip.image.compressor.sdk.service.SchedulingService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+class NativeSchedulingTest {
+	@BeforeAll
+	static void loadOpenCv() {
+		OpenCvNativeLoader.load();
+	}
+
+	@AfterEach
+	void reset() {
+		NativeScheduling.configure(SchedulingProfile.DEFAULT, 0, 0);
+	}
+
+	@Test
+	void testOf() {
+		assertEquals(SchedulingProfile.THROUGHPUT, SchedulingProfile.of(" Throughput "));
+		assertEquals(SchedulingProfile.LATENCY, SchedulingProfile.of("latency"));
+		assertEquals(SchedulingProfile.DEFAULT, SchedulingProfile.of(null));
+		assertEquals(SchedulingProfile.DEFAULT, SchedulingProfile.of("fastest"));
+	}
+
+	@Test
+	void testConfigure_Throughput() {
+		NativeScheduling.configure(SchedulingProfile.THROUGHPUT, 8, 4);
+
+		assertEquals(1, Core.getNumThreads());
+		assertEquals(1, NativeScheduling.getNativeThreads());
+		assertEquals(0, NativeScheduling.getMaxConcurrentRequests());
+	}
+
+	@Test
+	void testConfigure_LatencyFromInitParams() {
+		Map<String, String> initParams = new HashMap<>();
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_SCHEDULING_PROFILE, "latency");
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_NATIVE_THREADS, "2");
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_MAX_CONCURRENT_REQUESTS, "3");
+
+		SchedulingProfile profile = new SchedulingService(null, initParams).configure();
+
+		assertEquals(SchedulingProfile.LATENCY, profile);
+		assertEquals(SchedulingProfile.LATENCY, NativeScheduling.getProfile());
+		assertEquals(2, Core.getNumThreads());
+		assertEquals(2, NativeScheduling.getNativeThreads());
+		assertEquals(3, NativeScheduling.getMaxConcurrentRequests());
+	}
+
+	@Test
+	void testRun_LimitsConcurrentRequests() throws Exception {
+		NativeScheduling.configure(SchedulingProfile.LATENCY, 1, 2);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(6);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int index = 0; index < 12; index++) {
+			int value = index;
+			results.add(executor.submit(() -> NativeScheduling.run(() -> {
+				peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				return value;
+			})));
+		}
+		for (int index = 0; index < results.size(); index++)
+			assertEquals(index, results.get(index).get(10, TimeUnit.SECONDS));
+		executor.shutdown();
+
+		assertTrue(peak.get() <= 2, "peak " + peak.get());
+	}
+
+	@Test
+	void testRunScheduled_DeadlinePassedWhileWaiting() throws Exception {
+		NativeScheduling.configure(SchedulingProfile.LATENCY, 1, 1);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Integer> holder = executor.submit(() -> NativeScheduling.run(() -> {
+			running.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return 1;
+		}));
+		try {
+			running.await();
+			Map<String, String> flags = new HashMap<>();
+			flags.put(SdkConstant.IMAGE_COMPRESSOR_REQUEST_TIMEOUT_MS, "100");
+			ImageCompressionService service = new ImageCompressionService(null, null, null, flags);
+
+			long start = System.nanoTime();
+			Response<BiometricRecord> response = service.runScheduled(service::getExtractTemplateInfo);
+
+			assertEquals(ResponseStatus.REQUEST_TIMEOUT.getStatusCode(), response.getStatusCode());
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+
+			Thread.currentThread().interrupt();
+			try {
+				response = new ImageCompressionService(null, null, null, new HashMap<>())
+						.runScheduled(service::getExtractTemplateInfo);
+			} finally {
+				assertTrue(Thread.interrupted(), "The interrupt status should be kept");
+			}
+			assertEquals(ResponseStatus.REQUEST_TIMEOUT.getStatusCode(), response.getStatusCode());
+		} finally {
+			release.countDown();
+		}
+		assertEquals(1, holder.get(10, TimeUnit.SECONDS));
+		executor.shutdown();
+	}
+}
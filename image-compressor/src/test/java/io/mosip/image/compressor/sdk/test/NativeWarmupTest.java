@@ -0,0 +1,107 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+
+class NativeWarmupTest {
+	@TempDir
+	Path cacheDirectory;
+
+	@Test
+	void testExtractTo_ReusesVerifiedCopy() throws Exception {
+		Path first = OpenCvNativeLoader.extractTo(cacheDirectory);
+		FileTime written = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(first, written);
+
+		Path second = OpenCvNativeLoader.extractTo(cacheDirectory);
+
+		assertEquals(first, second);
+		assertEquals(written, Files.getLastModifiedTime(second));
+		try (var files = Files.list(cacheDirectory)) {
+			assertEquals(2, files.count(), "Only the library and its digest should be cached");
+		}
+	}
+
+	@Test
+	void testExtractTo_CreatesOwnerOnlyDirectory() throws Exception {
+		Path directory = cacheDirectory.resolve("natives");
+
+		Path library = OpenCvNativeLoader.extractTo(directory);
+
+		assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+		assertFalse(Files.getPosixFilePermissions(library).contains(PosixFilePermission.OTHERS_WRITE));
+	}
+
+	@Test
+	void testExtractTo_RejectsDirectoryWritableByOthers() throws Exception {
+		Files.setPosixFilePermissions(cacheDirectory, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+		IOException ex = assertThrows(IOException.class, () -> OpenCvNativeLoader.extractTo(cacheDirectory));
+
+		assertTrue(ex.getMessage().contains("writable by other users"));
+	}
+
+	@Test
+	void testExtractTo_ReplacesCorruptedCopy() throws Exception {
+		Path library = OpenCvNativeLoader.extractTo(cacheDirectory);
+		long size = Files.size(library);
+		Files.write(library, new byte[] { 1, 2, 3 });
+
+		Path extracted = OpenCvNativeLoader.extractTo(cacheDirectory);
+
+		assertEquals(library, extracted);
+		assertEquals(size, Files.size(extracted));
+	}
+
+	@Test
+	void testWarmUp_Disabled() {
+		assertFalse(new WarmupService(null, new HashMap<>()).warmUp());
+	}
+
+	@Test
+	void testWarmUp_SyntheticFace() throws Exception {
+		FaceIsoRecord record = FaceIsoRecord.parse(WarmupService.createSyntheticFaceIso());
+		assertEquals(WarmupService.SYNTHETIC_FACE_WIDTH, record.getWidth());
+		assertEquals(WarmupService.SYNTHETIC_FACE_HEIGHT, record.getHeight());
+
+		Map<String, String> initParams = new HashMap<>();
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_WARMUP_ENABLED, "true");
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_WARMUP_ITERATIONS, "1");
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_ENABLED, "true");
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_SIZE, "128");
+
+		assertTrue(new WarmupService(null, initParams).warmUp());
+	}
+
+	@Test
+	void testWarmUp_BypassesOutputCache() {
+		Path cache = cacheDirectory.resolve("outputs.cache");
+		Map<String, String> initParams = new HashMap<>();
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_WARMUP_ENABLED, "true");
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_WARMUP_ITERATIONS, "2");
+		initParams.put(SdkConstant.IMAGE_COMPRESSOR_OUTPUT_CACHE_PATH, cache.toString());
+
+		assertTrue(new WarmupService(null, initParams).warmUp());
+
+		assertFalse(Files.exists(cache), "The synthetic faces should not be cached");
+	}
+}
@@ -0,0 +1,186 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.mosip.image.compressor.sdk.cache.OutputCache;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.ratio.CompressionModel;
+import io.mosip.image.compressor.sdk.service.ImageCompressionService;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+class OutputCacheTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	void testPut_PersistsAcrossReopen() throws Exception {
+		Path file = directory.resolve("outputs.cache");
+		String first = key("input-1", "profile");
+		String second = key("input-2", "profile");
+		try (OutputCache cache = OutputCache.open(file, 1 << 20)) {
+			assertTrue(cache.put(first, new byte[] { 1, 2, 3 }));
+			assertTrue(cache.put(second, new byte[] { 4, 5 }));
+			assertFalse(cache.put(first, new byte[] { 9 }), "A cached output should not be appended again");
+		}
+
+		try (OutputCache cache = OutputCache.open(file, 1 << 20)) {
+			assertEquals(2, cache.size());
+			assertArrayEquals(new byte[] { 1, 2, 3 }, cache.get(first));
+			assertArrayEquals(new byte[] { 4, 5 }, cache.get(second));
+			assertNull(cache.get(key("input-3", "profile")));
+		}
+	}
+
+	@Test
+	void testPut_EvictsLeastRecentlyUsed() throws Exception {
+		int maxBytes = 64 * 1024;
+		byte[] output = new byte[10000];
+		try (OutputCache cache = OutputCache.open(directory.resolve("outputs.cache"), maxBytes)) {
+			for (int entry = 0; entry < 6; entry++) {
+				Arrays.fill(output, (byte) entry);
+				cache.put(key("input-" + entry, "profile"), output);
+			}
+			assertNotNull(cache.get(key("input-0", "profile")));
+
+			Arrays.fill(output, (byte) 6);
+			cache.put(key("input-6", "profile"), output);
+
+			assertTrue(cache.getUsedBytes() <= maxBytes);
+			assertNull(cache.get(key("input-1", "profile")), "The least recently used output should be evicted");
+			assertEquals(0, cache.get(key("input-0", "profile"))[0], "A recently read output should be kept");
+			assertEquals(6, cache.get(key("input-6", "profile"))[0]);
+		}
+	}
+
+	@Test
+	void testOpen_LockedFileRejected() throws Exception {
+		Path file = directory.resolve("outputs.cache");
+		try (OutputCache cache = OutputCache.open(file, 1 << 20)) {
+			cache.put(key("input", "profile"), new byte[] { 1 });
+			assertThrows(IOException.class, () -> OutputCache.open(file, 1 << 20));
+		}
+
+		try (OutputCache cache = OutputCache.open(file, 1 << 20)) {
+			assertEquals(1, cache.size());
+		}
+	}
+
+	@Test
+	void testCompact_KeepsFileInPlace() throws Exception {
+		Path file = directory.resolve("outputs.cache");
+		try (OutputCache cache = OutputCache.open(file, 1 << 20)) {
+			for (int entry = 0; entry < 4; entry++)
+				cache.put(key("input-" + entry, "profile"), new byte[] { (byte) entry, 1, 2 });
+			Object fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+
+			cache.compact(2 * (32 + 4 + 3));
+
+			assertEquals(fileKey, Files.readAttributes(file, BasicFileAttributes.class).fileKey());
+			assertFalse(Files.exists(directory.resolve("outputs.cache.compact")));
+			assertEquals(2, cache.size());
+			assertNull(cache.get(key("input-1", "profile")));
+			assertArrayEquals(new byte[] { 3, 1, 2 }, cache.get(key("input-3", "profile")));
+			cache.put(key("input-4", "profile"), new byte[] { 4 });
+		}
+
+		try (OutputCache cache = OutputCache.open(file, 1 << 20)) {
+			assertEquals(3, cache.size());
+			assertArrayEquals(new byte[] { 2, 1, 2 }, cache.get(key("input-2", "profile")));
+			assertArrayEquals(new byte[] { 4 }, cache.get(key("input-4", "profile")));
+		}
+	}
+
+	@Test
+	void testProfile_KeyedByModelContent() throws Exception {
+		Path model = directory.resolve("model.properties");
+		Path copy = directory.resolve("copy.properties");
+		Path other = directory.resolve("other.properties");
+		try (OutputStream out = Files.newOutputStream(model)) {
+			new CompressionModel(20, 5, -3, 1.5).store(out, null);
+		}
+		Files.copy(model, copy);
+		try (OutputStream out = Files.newOutputStream(other)) {
+			new CompressionModel(21, 5, -3, 1.5).store(out, null);
+		}
+
+		assertEquals(profile(model), profile(copy));
+		assertNotEquals(profile(model), profile(other));
+	}
+
+	@Test
+	void testKey_DependsOnInputAndProfile() {
+		assertEquals(key("input", "ratio=50"), key("input", "ratio=50"));
+		assertNotEquals(key("input", "ratio=50"), key("input", "ratio=40"));
+		assertNotEquals(key("input", "ratio=50"), key("other", "ratio=50"));
+		assertEquals(64, key("input", "").length());
+	}
+
+	@Test
+	void testExtract_RepeatedInputFromCache() throws Exception {
+		Path file = directory.resolve("extract.cache");
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder()
+				.withProperty(SdkConstant.IMAGE_COMPRESSOR_OUTPUT_CACHE_PATH, file.toString()).build();
+		sdk.init(new HashMap<>());
+		byte[] faceIso = SampleFaceData.faceIso();
+
+		byte[] first = extract(sdk, faceIso, new HashMap<>());
+		byte[] second = extract(sdk, faceIso, new HashMap<>());
+		byte[] other = extract(sdk, faceIso, Map.of(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, "40",
+				SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, "0.25", SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FY,
+				"0.25"));
+
+		assertArrayEquals(first, second);
+		assertFalse(Arrays.equals(first, other), "Other settings should not use the cached output");
+		OutputCache cache = OutputCache.forPath(file.toString(), 1 << 20);
+		assertEquals(2, cache.size());
+		cache.close();
+	}
+
+	private static byte[] extract(ImageCompressorSDKV2 sdk, byte[] faceIso, Map<String, String> flags) {
+		BiometricRecord sample = WarmupService.createSyntheticSample(faceIso);
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, new HashMap<>(flags));
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		return response.getResponse().getSegments().get(0).getBdb();
+	}
+
+	private static String profile(Path model) {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().build();
+		Map<String, String> flags = Map.of(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODE,
+				ImageCompressionService.COMPRESSION_MODE_ADAPTIVE, SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_MODEL,
+				model.toString());
+		return new ImageCompressionService(sdk.getSettings(), null, null, new HashMap<>(flags)) {
+			String profile() {
+				return getCompressionProfile("REGISTRATION");
+			}
+		}.profile();
+	}
+
+	private static String key(String input, String profile) {
+		return OutputCache.key(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)), profile);
+	}
+}
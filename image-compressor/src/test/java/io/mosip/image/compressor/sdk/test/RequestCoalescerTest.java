@@ -0,0 +1,129 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.mosip.image.compressor.sdk.server.RequestCoalescer;
+
+class RequestCoalescerTest {
+	@Test
+	void testSubmit_ConcurrentRequestsBatched() throws Exception {
+		try (RequestCoalescer coalescer = new RequestCoalescer(8, 200, 16);
+				ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int index = 0; index < 8; index++) {
+				int value = index;
+				results.add(callers.submit(() -> coalescer.submit(() -> value * 2)));
+			}
+			for (int index = 0; index < 8; index++)
+				assertEquals(index * 2, results.get(index).get());
+
+			assertEquals(8, coalescer.getRequests());
+			assertTrue(coalescer.getBatches() < 8, "Concurrent requests should share batches");
+		}
+	}
+
+	@Test
+	void testSubmit_ExceptionPropagated() {
+		try (RequestCoalescer coalescer = new RequestCoalescer(4, 0, 16)) {
+			IllegalStateException ex = assertThrows(IllegalStateException.class, () -> coalescer.submit(() -> {
+				throw new IllegalStateException("failed");
+			}));
+			assertEquals("failed", ex.getMessage());
+			assertEquals(42, coalescer.submit(() -> 42));
+		}
+	}
+
+	@Test
+	void testSubmit_QueueFullRejected() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try (RequestCoalescer coalescer = new RequestCoalescer(1, 0, 1);
+				ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<Integer> blocked = callers.submit(() -> coalescer.submit(() -> {
+				running.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return 1;
+			}));
+			running.await();
+			Future<Integer> queued = callers.submit(() -> coalescer.submit(() -> 2));
+			while (coalescer.getQueued() == 0)
+				Thread.onSpinWait();
+
+			assertThrows(RejectedExecutionException.class, () -> coalescer.submit(() -> 3));
+			assertEquals(1, coalescer.getRejected());
+			release.countDown();
+			assertEquals(1, blocked.get());
+			assertEquals(2, queued.get());
+		}
+	}
+
+	@Test
+	void testSubmit_SlowRequestDoesNotBlockOthers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		try (RequestCoalescer coalescer = new RequestCoalescer(2, 0, 16);
+				ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<Integer> slow = callers.submit(() -> coalescer.submit(() -> {
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return 1;
+			}));
+
+			try {
+				assertEquals(2, callers.submit(() -> coalescer.submit(() -> 2)).get(10, TimeUnit.SECONDS));
+				assertEquals(3, callers.submit(() -> coalescer.submit(() -> 3)).get(10, TimeUnit.SECONDS));
+			} finally {
+				release.countDown();
+			}
+			assertEquals(1, slow.get());
+		}
+	}
+
+	@Test
+	void testClose_ConcurrentSubmitsComplete() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer(2, 0, 1024);
+		try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int index = 0; index < 200; index++)
+				results.add(callers.submit(() -> coalescer.submit(() -> 1)));
+			coalescer.close();
+
+			for (Future<Integer> result : results) {
+				try {
+					assertEquals(1, result.get(10, TimeUnit.SECONDS));
+				} catch (ExecutionException ex) {
+					assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSubmit_ClosedRejected() {
+		RequestCoalescer coalescer = new RequestCoalescer(1, 0, 4);
+		coalescer.close();
+
+		assertThrows(RejectedExecutionException.class, () -> coalescer.submit(() -> 1));
+	}
+}
@@ -0,0 +1,113 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfDouble;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.face.BackgroundBlur;
+import io.mosip.image.compressor.sdk.face.FaceRegionLocator;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+
+class RoiEncodingTest {
+	private static final Rect FACE = new Rect(120, 100, 240, 320);
+
+	@BeforeAll
+	static void loadOpenCv() {
+		OpenCvNativeLoader.load();
+	}
+
+	@Test
+	void testApply_KeepsFaceBlursBackground() {
+		Mat image = WarmupService.createSyntheticFace(480, 640);
+		Mat original = image.clone();
+
+		BackgroundBlur.apply(image, FACE, 4.0);
+
+		Rect center = new Rect(220, 240, 40, 40);
+		assertEquals(0, Core.norm(image.submat(center), original.submat(center), Core.NORM_INF), 1.0);
+		Rect corner = new Rect(0, 0, 60, 60);
+		assertTrue(stdDev(image.submat(corner)) < stdDev(original.submat(corner)) / 2,
+				"The background noise should be smoothed");
+		image.release();
+		original.release();
+	}
+
+	@Test
+	void testApply_SixteenBit() {
+		Mat face = WarmupService.createSyntheticFace(480, 640);
+		Mat image = new Mat();
+		face.convertTo(image, CvType.CV_16UC3, 256);
+		Mat original = image.clone();
+
+		BackgroundBlur.apply(image, FACE, 4.0);
+
+		Rect center = new Rect(220, 240, 40, 40);
+		assertEquals(0, Core.norm(image.submat(center), original.submat(center), Core.NORM_INF));
+		Rect corner = new Rect(0, 0, 60, 60);
+		assertTrue(Core.norm(image.submat(corner), original.submat(corner), Core.NORM_INF) > 0);
+		face.release();
+		image.release();
+		original.release();
+	}
+
+	@Test
+	void testScale() {
+		Rect scaled = BackgroundBlur.scale(new Rect(101, 50, 203, 400), 0.25, 0.5);
+		assertEquals(new Rect(25, 25, 51, 200), scaled);
+	}
+
+	@Test
+	void testResizeAndCompress_FaceQualityAtSameRatio() throws Exception {
+		byte[] faceImage = SampleFaceData.faceImage();
+		Mat decoded = Imgcodecs.imdecode(new MatOfByte(faceImage), Imgcodecs.IMREAD_UNCHANGED);
+		Rect region = FaceRegionLocator.locate(decoded, null, true);
+		assertNotNull(region);
+		Mat reference = new Mat();
+		Imgproc.resize(decoded, reference, new Size(0, 0), 0.25, 0.25, Imgproc.INTER_AREA);
+		Rect scaled = BackgroundBlur.scale(region, 0.25, 0.25);
+		Rect inner = new Rect(scaled.x + scaled.width / 4, scaled.y + scaled.height / 4, scaled.width / 2,
+				scaled.height / 2);
+
+		Map<String, String> flags = new HashMap<>();
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_ROI_ENABLED, "true");
+		byte[] roi = new ImageCompressionServiceTest(null, null, null, flags).resizeAndCompress(faceImage, null);
+		byte[] plain = new ImageCompressionServiceTest(null, null, null, null).resizeAndCompress(faceImage, null);
+
+		double roiPsnr = psnr(roi, reference, inner);
+		double plainPsnr = psnr(plain, reference, inner);
+		assertTrue(roiPsnr > plainPsnr, "Face PSNR with ROI " + roiPsnr + " should exceed " + plainPsnr);
+		decoded.release();
+		reference.release();
+	}
+
+	private static double psnr(byte[] encoded, Mat reference, Rect region) {
+		Mat image = Imgcodecs.imdecode(new MatOfByte(encoded), Imgcodecs.IMREAD_UNCHANGED);
+		double psnr = Core.PSNR(image.submat(region), reference.submat(region));
+		image.release();
+		return psnr;
+	}
+
+	private static double stdDev(Mat image) {
+		MatOfDouble mean = new MatOfDouble();
+		MatOfDouble stdDev = new MatOfDouble();
+		Core.meanStdDev(image, mean, stdDev);
+		return stdDev.toArray()[0];
+	}
+}
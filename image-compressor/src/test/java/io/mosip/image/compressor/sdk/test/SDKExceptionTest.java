@@ -1,13 +1,20 @@
 package io.mosip.image.compressor.sdk.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.containsString;
 
 import org.junit.jupiter.api.Test;
 
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
 import io.mosip.image.compressor.sdk.exceptions.SDKException;
+import io.mosip.image.compressor.sdk.exceptions.ValidationResult;
 
 class SDKExceptionTest {
 	@Test
@@ -33,4 +40,61 @@ class SDKExceptionTest {
 		assertThat(exception.getMessage(), containsString(errorMessage));
 		assertEquals(cause, exception.getCause());
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testSDKExceptionStatusFromErrorCode() {
+		assertEquals(ResponseStatus.INVALID_INPUT, new SDKException("401", "invalid").getStatus());
+		assertEquals(ResponseStatus.UNKNOWN_ERROR, new SDKException("1", "ordinal").getStatus());
+		assertEquals(ResponseStatus.UNKNOWN_ERROR, new SDKException("UNKNOWN_ERROR", "name").getStatus());
+		assertEquals(ResponseStatus.UNKNOWN_ERROR, new SDKException("ERR001", "other").getStatus());
+	}
+
+	@Test
+	void testSDKExceptionWithStatus() {
+		SDKException exception = new SDKException(ResponseStatus.MISSING_INPUT, "missing");
+
+		assertEquals(ResponseStatus.MISSING_INPUT, exception.getStatus());
+		assertEquals("402", exception.getErrorCode());
+		assertEquals("missing", exception.getMessage());
+	}
+
+	@Test
+	void testStacklessSDKException() {
+		SDKException exception = SDKException.of(ResponseStatus.INVALID_INPUT);
+
+		assertEquals(ResponseStatus.INVALID_INPUT, exception.getStatus());
+		assertEquals(ResponseStatus.INVALID_INPUT.getStatusMessage(), exception.getMessage());
+		assertEquals(0, exception.getStackTrace().length);
+		assertEquals(0, SDKException.of(ResponseStatus.INVALID_INPUT, "detail").getStackTrace().length);
+	}
+
+	@Test
+	void testStacklessSDKExceptionNotShared() {
+		SDKException thrown = SDKException.of(ResponseStatus.REQUEST_TIMEOUT);
+		thrown.addSuppressed(new IllegalStateException("close failed"));
+
+		SDKException next = SDKException.of(ResponseStatus.REQUEST_TIMEOUT);
+
+		assertNotSame(thrown, next);
+		assertEquals(0, next.getSuppressed().length);
+		assertEquals(1, thrown.getSuppressed().length);
+	}
+
+	@Test
+	void testValidationResult() {
+		ValidationResult<String> valid = ValidationResult.valid("value");
+		assertTrue(valid.isValid());
+		assertEquals("value", valid.orElseThrow());
+
+		ValidationResult<String> invalid = ValidationResult.invalid(ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF);
+		assertFalse(invalid.isValid());
+		assertSame(invalid, ValidationResult.invalid(ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF));
+		assertEquals(ResponseStatus.BIOMETRIC_NOT_FOUND_IN_CBEFF,
+				assertThrows(SDKException.class, invalid::orElseThrow).getStatus());
+
+		SDKException exception = assertThrows(SDKException.class,
+				ValidationResult.invalid(ResponseStatus.INVALID_INPUT, "bad record")::orElseThrow);
+		assertEquals(ResponseStatus.INVALID_INPUT, exception.getStatus());
+		assertThat(exception.getMessage(), containsString("bad record"));
+	}
+}
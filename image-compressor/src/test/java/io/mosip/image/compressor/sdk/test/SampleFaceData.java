@@ -0,0 +1,39 @@
+package io.mosip.image.compressor.sdk.test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import io.mosip.biometrics.util.ConvertRequestDto;
+import io.mosip.biometrics.util.face.FaceBDIR;
+import io.mosip.biometrics.util.face.FaceDecoder;
+
+/**
+ * Reads the face ISO record of the sample CBEFF file shared by the tests.
+ */
+final class SampleFaceData {
+	private SampleFaceData() {
+	}
+
+	static byte[] faceIso() throws IOException {
+		try (InputStream in = SampleFaceData.class.getResourceAsStream("/sample_files/sample_face.xml")) {
+			String xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			int start = xml.indexOf("<BDB>") + "<BDB>".length();
+			int end = xml.indexOf("</BDB>");
+			return Base64.getDecoder().decode(xml.substring(start, end).trim());
+		}
+	}
+
+	static FaceBDIR faceBdir() throws Exception {
+		ConvertRequestDto requestDto = new ConvertRequestDto();
+		requestDto.setModality("Face");
+		requestDto.setVersion("ISO19794_5_2011");
+		requestDto.setInputBytes(faceIso());
+		return FaceDecoder.getFaceBDIR(requestDto);
+	}
+
+	static byte[] faceImage() throws Exception {
+		return faceBdir().getImage();
+	}
+}
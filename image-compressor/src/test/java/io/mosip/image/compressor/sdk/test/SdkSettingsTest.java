@@ -0,0 +1,82 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.Environment;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+class SdkSettingsTest {
+	@Test
+	void testOf_ConvertsValues() {
+		Map<String, String> properties = new HashMap<>();
+		properties.put(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, " 0.5 ");
+		properties.put(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, "40");
+		properties.put(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_ENABLED, "true");
+		SdkSettings settings = SdkSettings.of(properties);
+		properties.clear();
+
+		assertEquals(0.5f, settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, Float.class, 0.25f));
+		assertEquals(40, settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, Integer.class, 50));
+		assertEquals(true, settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_ENABLED, Boolean.class, false));
+		assertEquals(0.25f, settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FY, Float.class, 0.25f));
+		assertThrows(IllegalArgumentException.class,
+				() -> SdkSettings.of(Map.of("key", "x")).getProperty("key", Integer.class, 1));
+	}
+
+	@Test
+	void testBuilder_PropertiesOverrideSettings() {
+		SdkSettings base = SdkSettings.of(Map.of(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, "30",
+				SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, "0.5"));
+
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withSettings(base).withCompressionRatio(40).build();
+
+		SdkSettings settings = sdk.getSettings();
+		assertEquals(40, settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, Integer.class, 50));
+		assertEquals(0.5f, settings.getProperty(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, Float.class, 0.25f));
+	}
+
+	@Test
+	void testBuilder_SettingsTakePrecedenceOverEnvironment() {
+		Environment env = mock(Environment.class);
+		when(env.getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, Integer.class, 50)).thenReturn(20);
+		ImageCompressorSDKV2 spring = new ImageCompressorSDKV2();
+		spring.setEnv(env);
+		ImageCompressorSDKV2 built = ImageCompressorSDKV2.builder().withCompressionRatio(40).build();
+		built.setEnv(env);
+
+		assertEquals(20, spring.getSettings().getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO,
+				Integer.class, 50));
+		assertEquals(40, built.getSettings().getProperty(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO,
+				Integer.class, 50));
+	}
+
+	@Test
+	void testExtractTemplate_WithoutSpring() throws Exception {
+		ImageCompressorSDKV2 sdk = ImageCompressorSDKV2.builder().withResizeFactor(0.5f, 0.5f).build();
+		assertNotNull(sdk.init(new HashMap<>()));
+
+		BiometricRecord sample = WarmupService.createSyntheticSample(WarmupService.createSyntheticFaceIso());
+		Response<BiometricRecord> response = sdk.extractTemplate(sample, null, new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		FaceIsoRecord record = FaceIsoRecord.parse(response.getResponse().getSegments().get(0).getBdb());
+		assertEquals(WarmupService.SYNTHETIC_FACE_WIDTH / 2, record.getWidth());
+		assertEquals(WarmupService.SYNTHETIC_FACE_HEIGHT / 2, record.getHeight());
+	}
+}
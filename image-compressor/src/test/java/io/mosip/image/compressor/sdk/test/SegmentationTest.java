@@ -0,0 +1,293 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import io.mosip.image.compressor.sdk.constant.ResponseStatus;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.impl.ImageCompressorSDKV2;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.iso.FaceIsoWriter;
+import io.mosip.image.compressor.sdk.jfr.EncodeEvent;
+import io.mosip.image.compressor.sdk.jfr.ImageDecodeEvent;
+import io.mosip.image.compressor.sdk.jfr.IsoWrapEvent;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+import io.mosip.image.compressor.sdk.scheduling.NativeScheduling;
+import io.mosip.image.compressor.sdk.scheduling.SchedulingProfile;
+import io.mosip.image.compressor.sdk.service.EncodedFaceImage;
+import io.mosip.image.compressor.sdk.service.SegmentationService;
+import io.mosip.image.compressor.sdk.service.WarmupService;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.model.Response;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class SegmentationTest {
+	private static ImageCompressorSDKV2 sdk;
+
+	@TempDir
+	Path directory;
+
+	@BeforeAll
+	static void init() {
+		OpenCvNativeLoader.load();
+		sdk = ImageCompressorSDKV2.builder().build();
+		sdk.init(new HashMap<>());
+	}
+
+	@Test
+	void testSegment_GroupPhotoSplitPerFace() throws Exception {
+		BiometricRecord sample = WarmupService.createSyntheticSample(createGroupFaceIso(2));
+		sample.getSegments().get(0).getBdbInfo().setIndex("group");
+
+		Response<BiometricRecord> response = sdk.segment(sample, List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		List<BIR> segments = response.getResponse().getSegments();
+		assertEquals(2, segments.size());
+		FaceIsoRecord first = FaceIsoRecord.parse(segments.get(0).getBdb());
+		FaceIsoRecord second = FaceIsoRecord.parse(segments.get(1).getBdb());
+		int faceWidth = FaceIsoRecord.parse(SampleFaceData.faceIso()).getWidth();
+		assertTrue(first.getWidth() < faceWidth / 2, "Each face should be cropped and resized");
+		assertTrue(second.getWidth() < faceWidth / 2, "Each face should be cropped and resized");
+		assertEquals("group-1", segments.get(0).getBdbInfo().getIndex());
+		assertEquals("group-2", segments.get(1).getBdbInfo().getIndex());
+		assertNotEquals(segments.get(0).getBdbInfo(), segments.get(1).getBdbInfo());
+	}
+
+	@Test
+	void testSegment_FacesInReadingOrderWithFaceBoxRoi() throws Exception {
+		BiometricRecord sample = WarmupService.createSyntheticSample(createGroupFaceIso(2, 2));
+		RecordingService service = new RecordingService(sample,
+				Map.of(SdkConstant.IMAGE_COMPRESSOR_ROI_ENABLED, "true"));
+
+		Response<BiometricRecord> response = service.getSegmentInfo();
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		List<BIR> segments = response.getResponse().getSegments();
+		assertEquals(4, segments.size());
+		List<int[]> crops = new ArrayList<>();
+		for (BIR segment : segments)
+			crops.add(service.crops.get(Base64.getEncoder()
+					.encodeToString(FaceIsoRecord.parse(segment.getBdb()).getImageBytes())));
+		int rowHeight = FaceIsoRecord.parse(SampleFaceData.faceIso()).getHeight();
+		assertTrue(crops.get(0)[0] < crops.get(1)[0], "First row, left to right");
+		assertTrue(crops.get(2)[0] < crops.get(3)[0], "Second row, left to right");
+		assertTrue(crops.get(1)[1] < rowHeight && crops.get(2)[1] >= rowHeight / 2, "Top row first");
+		for (int[] crop : crops) {
+			Rect roi = new Rect(crop[4], crop[5], crop[6], crop[7]);
+			assertTrue(roi.width > 0 && roi.height > 0, "The face box should not be empty");
+			assertTrue(roi.x >= 0 && roi.y >= 0 && roi.x + roi.width <= crop[2] && roi.y + roi.height <= crop[3],
+					"The face box should be in the crop coordinates");
+			assertTrue(roi.width < crop[2] || roi.height < crop[3], "The face box should not be the whole crop");
+		}
+	}
+
+	@Test
+	void testSegment_SingleFaceKeepsIndex() throws Exception {
+		BiometricRecord sample = WarmupService.createSyntheticSample(SampleFaceData.faceIso());
+		sample.getSegments().get(0).getBdbInfo().setIndex("single");
+
+		Response<BiometricRecord> response = sdk.segment(sample, null, new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		List<BIR> segments = response.getResponse().getSegments();
+		assertEquals(1, segments.size());
+		assertEquals("single", segments.get(0).getBdbInfo().getIndex());
+		assertTrue(FaceIsoRecord.parse(segments.get(0).getBdb()).getImageBytes().length > 0);
+	}
+
+	@Test
+	void testSegment_OtherModalitiesUnchanged() throws Exception {
+		BiometricRecord sample = WarmupService.createSyntheticSample(createGroupFaceIso(2));
+		BIR finger = createFingerSegment();
+		sample.getSegments().add(0, finger);
+		BIR face = sample.getSegments().get(1);
+
+		Response<BiometricRecord> response = sdk.segment(sample, List.of(BiometricType.IRIS), new HashMap<>());
+
+		assertEquals(ResponseStatus.SUCCESS.getStatusCode(), response.getStatusCode());
+		assertEquals(List.of(finger, face), response.getResponse().getSegments());
+
+		response = sdk.segment(sample, List.of(BiometricType.FACE), new HashMap<>());
+		assertEquals(3, response.getResponse().getSegments().size());
+		assertSame(finger, response.getResponse().getSegments().get(0));
+	}
+
+	@Test
+	void testSegment_EventsReportSegmentIndex() throws Exception {
+		BiometricRecord sample = WarmupService.createSyntheticSample(createGroupFaceIso(3));
+		sample.getSegments().add(0, createFingerSegment());
+		// the crops are encoded on the shared executor
+		NativeScheduling.configure(SchedulingProfile.LATENCY, 2, 0);
+		try {
+			Map<String, List<RecordedEvent>> events = record(() -> assertEquals(
+					ResponseStatus.SUCCESS.getStatusCode(), sdk.segment(sample, null, new HashMap<>()).getStatusCode()));
+
+			// the source segment is decoded, the crops become the segments 1 to 3
+			assertEquals(List.of(1), segmentIndexes(events.get("io.mosip.image.compressor.ImageDecode")));
+			assertEquals(List.of(1, 2, 3), segmentIndexes(events.get("io.mosip.image.compressor.Encode")));
+			assertEquals(List.of(1, 2, 3), segmentIndexes(events.get("io.mosip.image.compressor.IsoWrap")));
+			for (RecordedEvent encode : events.get("io.mosip.image.compressor.Encode"))
+				assertNotEquals(Thread.currentThread().getName(), encode.getThread().getJavaName());
+		} finally {
+			NativeScheduling.configure(SchedulingProfile.DEFAULT, 0, 0);
+		}
+	}
+
+	@Test
+	void testSegment_ThroughputEncodesOnRequestThread() throws Exception {
+		BiometricRecord sample = WarmupService.createSyntheticSample(createGroupFaceIso(2));
+		NativeScheduling.configure(SchedulingProfile.THROUGHPUT, 0, 0);
+		try {
+			Map<String, List<RecordedEvent>> events = record(() -> assertEquals(
+					ResponseStatus.SUCCESS.getStatusCode(), sdk.segment(sample, null, new HashMap<>()).getStatusCode()));
+
+			List<RecordedEvent> encodes = events.get("io.mosip.image.compressor.Encode");
+			assertEquals(2, encodes.size());
+			for (RecordedEvent encode : encodes)
+				assertEquals(Thread.currentThread().getName(), encode.getThread().getJavaName());
+		} finally {
+			NativeScheduling.configure(SchedulingProfile.DEFAULT, 0, 0);
+		}
+	}
+
+	@Test
+	void testSegment_InvalidImage() throws Exception {
+		byte[] faceIso = SampleFaceData.faceIso();
+		int imageLength = FaceIsoRecord.parse(faceIso).getImageBytes().length;
+		for (int offset = faceIso.length - imageLength; offset < faceIso.length - imageLength + 256; offset++)
+			faceIso[offset] = 0;
+
+		Response<BiometricRecord> response = sdk.segment(WarmupService.createSyntheticSample(faceIso),
+				List.of(BiometricType.FACE), new HashMap<>());
+
+		assertEquals(ResponseStatus.INVALID_INPUT.getStatusCode(), response.getStatusCode());
+	}
+
+	private Map<String, List<RecordedEvent>> record(Runnable action) throws Exception {
+		Path file = directory.resolve("recording.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(ImageDecodeEvent.class);
+			recording.enable(EncodeEvent.class);
+			recording.enable(IsoWrapEvent.class);
+			recording.start();
+			action.run();
+			recording.stop();
+			recording.dump(file);
+		}
+		return RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().startsWith("io.mosip.image.compressor."))
+				.collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+	}
+
+	private static List<Integer> segmentIndexes(List<RecordedEvent> events) {
+		return events.stream().map(event -> event.getInt("segmentIndex")).sorted().toList();
+	}
+
+	private static byte[] createGroupFaceIso(int faces) throws Exception {
+		return createGroupFaceIso(faces, 1);
+	}
+
+	/**
+	 * Places copies of the sample face in rows of a single face ISO record.
+	 */
+	private static byte[] createGroupFaceIso(int faces, int rows) throws Exception {
+		MatOfByte encodedFace = new MatOfByte(SampleFaceData.faceImage());
+		Mat face = Imgcodecs.imdecode(encodedFace, Imgcodecs.IMREAD_UNCHANGED);
+		// every copy a little brighter, so that the crops of the faces differ
+		List<Mat> rowsOfFaces = new ArrayList<>(rows);
+		for (int r = 0; r < rows; r++) {
+			List<Mat> copies = new ArrayList<>(faces);
+			for (int f = 0; f < faces; f++) {
+				Mat copy = new Mat();
+				face.convertTo(copy, -1, 1.0, 4.0 * (r * faces + f));
+				copies.add(copy);
+			}
+			Mat row = new Mat();
+			Core.hconcat(copies, row);
+			copies.forEach(Mat::release);
+			rowsOfFaces.add(row);
+		}
+		Mat group = new Mat();
+		Core.vconcat(rowsOfFaces, group);
+		rowsOfFaces.forEach(Mat::release);
+
+		MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, 200);
+		MatOfByte image = new MatOfByte();
+		Imgcodecs.imencode(".jp2", group, image, params);
+		byte[] imageData = image.toArray();
+		int width = group.width();
+		int height = group.height();
+		int colourSpace = FaceIsoWriter.getImageColourSpace(group.channels(), 8);
+		encodedFace.release();
+		face.release();
+		group.release();
+		params.release();
+		image.release();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(imageData.length + 128);
+		new FaceIsoWriter("REGISTRATION").write(out, width, height, colourSpace, imageData);
+		return out.toByteArray();
+	}
+
+	/**
+	 * A segmentation service recording, by encoded image, the origin and size of
+	 * every crop and the face region passed for it.
+	 */
+	private static final class RecordingService extends SegmentationService {
+		private final Map<String, int[]> crops = new ConcurrentHashMap<>();
+
+		private RecordingService(BiometricRecord sample, Map<String, String> flags) {
+			super(sdk.getSettings(), sample, null, new HashMap<>(flags));
+		}
+
+		@Override
+		protected EncodedFaceImage encodeImage(Mat src, Rect faceRegion, float fx, float fy, int compression) {
+			Size wholeSize = new Size();
+			Point origin = new Point();
+			src.locateROI(wholeSize, origin);
+			EncodedFaceImage encoded = super.encodeImage(src, faceRegion, fx, fy, compression);
+			Rect roi = faceRegion != null ? faceRegion : new Rect();
+			crops.put(Base64.getEncoder().encodeToString(encoded.toArray()), new int[] { (int) origin.x,
+					(int) origin.y, src.width(), src.height(), roi.x, roi.y, roi.width, roi.height });
+			return encoded;
+		}
+	}
+
+	private static BIR createFingerSegment() {
+		BDBInfo bdbInfo = new BDBInfo.BDBInfoBuilder().withType(List.of(BiometricType.FINGER))
+				.withFormat(new RegistryIDType("257", "7")).build();
+		return new BIR.BIRBuilder().withBdbInfo(bdbInfo).withBdb(new byte[] { 1, 2, 3 }).build();
+	}
+}
@@ -0,0 +1,122 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.mosip.image.compressor.sdk.config.SdkSettings;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.iso.FaceIsoRecord;
+import io.mosip.image.compressor.sdk.server.SpoolWorker;
+
+class SpoolWorkerTest {
+	private static final SdkSettings SETTINGS = SdkSettings.of(Map.of(SdkConstant.IMAGE_COMPRESSOR_SPOOL_LEASE_TIMEOUT_MS,
+			"1000", SdkConstant.IMAGE_COMPRESSOR_SPOOL_RETRY_DELAY_MS, "0"));
+
+	@TempDir
+	Path spool;
+
+	@Test
+	void testProcessNext_ResultNamedAfterInputHash() throws Exception {
+		SpoolWorker worker = new SpoolWorker(SETTINGS, spool, "node-1");
+		byte[] faceIso = SampleFaceData.faceIso();
+		Files.write(spool.resolve(SpoolWorker.INBOX).resolve("first.iso"), faceIso);
+		Files.write(spool.resolve(SpoolWorker.INBOX).resolve("second.iso"), faceIso);
+
+		assertTrue(worker.processNext());
+		assertTrue(worker.processNext());
+		assertFalse(worker.processNext());
+
+		List<Path> results = list(SpoolWorker.OUT);
+		assertEquals(1, results.size(), "The same input should give a single result");
+		assertTrue(FaceIsoRecord.parse(Files.readAllBytes(results.get(0))).getWidth() < FaceIsoRecord.parse(faceIso)
+				.getWidth());
+		assertEquals(2, list(SpoolWorker.DONE).size());
+		assertEquals(0, list(SpoolWorker.CLAIMED).size());
+		assertEquals(2, worker.getProcessed());
+	}
+
+	@Test
+	void testProcessNext_InvalidInputDeadLettered() throws Exception {
+		SpoolWorker worker = new SpoolWorker(SETTINGS, spool, "node-1");
+		Files.write(spool.resolve(SpoolWorker.INBOX).resolve("broken.iso"), new byte[] { 1, 2, 3 });
+
+		assertTrue(worker.processNext());
+
+		assertTrue(Files.exists(spool.resolve(SpoolWorker.DEAD).resolve("broken.iso")));
+		assertTrue(Files.readString(spool.resolve(SpoolWorker.DEAD).resolve("broken.iso.error")).startsWith("401"));
+		assertEquals(0, list(SpoolWorker.OUT).size());
+		assertEquals(1, worker.getDeadLettered());
+	}
+
+	@Test
+	void testProcessNext_ExpiredLeaseRetriedByOtherWorker() throws Exception {
+		new SpoolWorker(SETTINGS, spool, "node-1");
+		Path lease = spool.resolve(SpoolWorker.CLAIMED).resolve("face.iso~node-1");
+		Files.write(lease, SampleFaceData.faceIso());
+		Files.setLastModifiedTime(lease, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+
+		SpoolWorker survivor = new SpoolWorker(SETTINGS, spool, "node-2");
+		assertTrue(survivor.processNext());
+
+		assertEquals(1, list(SpoolWorker.OUT).size());
+		assertTrue(Files.exists(spool.resolve(SpoolWorker.DONE).resolve("face.iso")));
+		assertEquals(0, list(SpoolWorker.CLAIMED).size());
+		assertEquals(1, survivor.getRetried());
+	}
+
+	@Test
+	void testProcessNext_OldInboxItemNotRecoveredWhileProcessed() throws Exception {
+		SpoolWorker worker = new SpoolWorker(SETTINGS, spool, "node-1");
+		SpoolWorker other = new SpoolWorker(SETTINGS, spool, "node-2");
+		Path item = spool.resolve(SpoolWorker.INBOX).resolve("face.iso");
+		Files.write(item, SampleFaceData.faceIso());
+		Files.setLastModifiedTime(item, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+
+		CompletableFuture<Boolean> processed = CompletableFuture.supplyAsync(() -> {
+			try {
+				return worker.processNext();
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		int recovered = 0;
+		while (!processed.isDone())
+			recovered += other.recoverExpiredLeases();
+
+		assertTrue(processed.get());
+		assertEquals(0, recovered, "A claimed item should have a fresh lease");
+		assertTrue(Files.exists(spool.resolve(SpoolWorker.DONE).resolve("face.iso")));
+		assertEquals(1, worker.getProcessed());
+	}
+
+	@Test
+	void testProcessNext_LastAttemptDeadLettered() throws Exception {
+		SpoolWorker worker = new SpoolWorker(SETTINGS, spool, "node-2");
+		Path lease = spool.resolve(SpoolWorker.CLAIMED).resolve("face.iso~2~node-1");
+		Files.write(lease, SampleFaceData.faceIso());
+		Files.setLastModifiedTime(lease, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+
+		assertFalse(worker.processNext());
+
+		assertTrue(Files.exists(spool.resolve(SpoolWorker.DEAD).resolve("face.iso")));
+		assertEquals("Lease expired", Files.readString(spool.resolve(SpoolWorker.DEAD).resolve("face.iso.error")));
+	}
+
+	private List<Path> list(String directory) throws Exception {
+		try (Stream<Path> files = Files.list(spool.resolve(directory))) {
+			return files.filter(file -> !file.getFileName().toString().startsWith(".")).toList();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package io.mosip.image.compressor.sdk.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import io.mosip.biometrics.util.ConvertRequestDto;
+import io.mosip.biometrics.util.face.FaceEncoder;
+import io.mosip.image.compressor.sdk.constant.SdkConstant;
+import io.mosip.image.compressor.sdk.jp2.Jp2ImageInfo;
+import io.mosip.image.compressor.sdk.jp2.TiledJp2Encoder;
+import io.mosip.image.compressor.sdk.natives.OpenCvNativeLoader;
+
+class TiledJp2EncoderTest {
+	private static Mat image;
+
+	@BeforeAll
+	static void setUp() throws Exception {
+		OpenCvNativeLoader.load();
+		Mat decoded = Imgcodecs.imdecode(new MatOfByte(SampleFaceData.faceImage()), Imgcodecs.IMREAD_UNCHANGED);
+		image = new Mat();
+		Imgproc.resize(decoded, image, new Size(1000, 1333), 0, 0, Imgproc.INTER_CUBIC);
+		decoded.release();
+	}
+
+	@AfterAll
+	static void tearDown() {
+		image.release();
+	}
+
+	@Test
+	void testFitTileSize() {
+		assertEquals(512, TiledJp2Encoder.fitTileSize(1000, 1333, 512));
+		assertEquals(256, TiledJp2Encoder.fitTileSize(1000, 1333, 200));
+		assertEquals(128, TiledJp2Encoder.fitTileSize(1000, 1333, 1));
+		// 1290 % 256 = 10 and 1290 % 512 = 266: the edge tile of 256 is too small
+		assertEquals(512, TiledJp2Encoder.fitTileSize(1000, 1290, 256));
+		// A single tile is encoded in one call
+		assertEquals(0, TiledJp2Encoder.fitTileSize(60, 80, 512));
+	}
+
+	@Test
+	void testEncode_SingleCodestream() throws Exception {
+		TiledJp2Encoder encoder = new TiledJp2Encoder(256, TiledJp2Encoder.sharedExecutor(4));
+
+		byte[] tiled = encoder.encode(image, 50);
+
+		Jp2ImageInfo info = Jp2ImageInfo.read(tiled);
+		assertEquals(1000, info.getWidth());
+		assertEquals(1333, info.getHeight());
+
+		Mat decoded = Imgcodecs.imdecode(new MatOfByte(tiled), Imgcodecs.IMREAD_UNCHANGED);
+		assertEquals(image.size(), decoded.size());
+		double tiledPsnr = Core.PSNR(image, decoded);
+		decoded.release();
+
+		MatOfByte single = new MatOfByte();
+		Imgcodecs.imencode(".jp2", image, single, new MatOfInt(Imgcodecs.IMWRITE_JPEG2000_COMPRESSION_X1000, 50));
+		Mat singleDecoded = Imgcodecs.imdecode(single, Imgcodecs.IMREAD_UNCHANGED);
+		double singlePsnr = Core.PSNR(image, singleDecoded);
+		singleDecoded.release();
+
+		assertTrue(tiledPsnr > singlePsnr - 3, "tiled " + tiledPsnr + " single " + singlePsnr);
+		assertTrue(tiled.length < single.total() * 1.1, "tiled " + tiled.length + " single " + single.total());
+	}
+
+	@Test
+	void testEncode_AcceptedByFaceEncoder() throws Exception {
+		byte[] tiled = new TiledJp2Encoder(512, TiledJp2Encoder.sharedExecutor(2)).encode(image, 50);
+
+		ConvertRequestDto requestDto = new ConvertRequestDto();
+		requestDto.setModality("Face");
+		requestDto.setPurpose("REGISTRATION");
+		requestDto.setVersion("ISO19794_5_2011");
+		requestDto.setImageType(0);
+		requestDto.setInputBytes(tiled);
+
+		assertNotNull(FaceEncoder.convertFaceImageToISO(requestDto));
+	}
+
+	@Test
+	void testResizeAndCompress_Tiled() throws Exception {
+		Map<String, String> flags = new HashMap<>();
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FX, "4");
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_RESIZE_FACTOR_FY, "4");
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_COMPRESSION_RATIO, "50");
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_ENABLED, "true");
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_SIZE, "256");
+		flags.put(SdkConstant.IMAGE_COMPRESSOR_JP2_TILE_THREADS, "2");
+		ImageCompressionServiceTest service = new ImageCompressionServiceTest(null, null, null, flags);
+
+		byte[] compressed = service.resizeAndCompress(SampleFaceData.faceImage());
+
+		Mat decoded = Imgcodecs.imdecode(new MatOfByte(compressed), Imgcodecs.IMREAD_UNCHANGED);
+		assertEquals(960, decoded.width());
+		assertEquals(1280, decoded.height());
+		decoded.release();
+	}
+}